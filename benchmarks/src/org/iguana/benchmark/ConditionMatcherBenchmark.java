@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import iguana.regex.Alt;
+import iguana.regex.CharacterRange;
+import iguana.regex.RegularExpression;
+import iguana.regex.Sequence;
+import iguana.regex.matcher.DFAMatcherFactory;
+import iguana.utils.input.Input;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.condition.SlotAction;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.traversal.ToSlotActionConditionVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * Runs the slot actions that ToSlotActionConditionVisitor creates for the usual lexical disambiguation
+ * conditions at every position of the OCaml paper input: identifiers that must not be followed or preceded
+ * by an identifier character, and keywords that must not be matched. The keyword condition is checked for
+ * the span of length 3 that ends at each position.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConditionMatcherBenchmark {
+
+	private static final String[] KEYWORDS = { "let", "in", "fun", "match", "with", "if", "then", "else", "rec", "and" };
+
+	private Input input;
+
+	private SlotAction notFollow;
+
+	private SlotAction notPrecede;
+
+	private SlotAction notMatch;
+
+	/**
+	 * A GSS node at every input position, for the not-match condition that matches from the input index of the GSS node.
+	 */
+	private GSSNode[] gssNodes;
+
+	@Setup
+	public void setup() {
+		input = PaperGrammars.OCAML.getInput();
+
+		RegularExpression letterOrDigit = Alt.from(CharacterRange.in('a', 'z'), CharacterRange.in('A', 'Z'), CharacterRange.in('0', '9'), CharacterRange.in('_', '_'));
+
+		@SuppressWarnings("unchecked")
+		Sequence<iguana.regex.Character>[] keywords = new Sequence[KEYWORDS.length];
+		for (int i = 0; i < KEYWORDS.length; i++)
+			keywords[i] = Sequence.from(KEYWORDS[i].codePoints().toArray());
+
+		ToSlotActionConditionVisitor visitor = new ToSlotActionConditionVisitor(new DFAMatcherFactory());
+		notFollow = RegularExpressionCondition.notFollow(letterOrDigit).accept(visitor);
+		notPrecede = RegularExpressionCondition.notPrecede(letterOrDigit).accept(visitor);
+		notMatch = RegularExpressionCondition.notMatch(Alt.from(keywords)).accept(visitor);
+
+		gssNodes = new GSSNode[input.length()];
+		for (int i = 0; i < gssNodes.length; i++)
+			gssNodes[i] = new GSSNode(null, i, null);
+	}
+
+	@Benchmark
+	public int notFollow() {
+		int count = 0;
+		for (int i = 0; i < input.length(); i++)
+			if (notFollow.execute(input, null, i)) count++;
+		return count;
+	}
+
+	@Benchmark
+	public int notPrecede() {
+		int count = 0;
+		for (int i = 0; i < input.length(); i++)
+			if (notPrecede.execute(input, null, i)) count++;
+		return count;
+	}
+
+	@Benchmark
+	public int notMatch() {
+		int count = 0;
+		for (int i = 3; i < input.length(); i++)
+			if (notMatch.execute(input, gssNodes[i - 3], i)) count++;
+		return count;
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import iguana.parsetrees.sppf.DummyNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+import org.iguana.grammar.condition.ConditionsFactory;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.PackedDescriptorWorklist;
+import org.iguana.parser.gss.GSSNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * Compares scheduling and processing descriptors with an ArrayDeque of Descriptor objects,
+ * the previous worklist, against the PackedDescriptorWorklist. Descriptors are scheduled in
+ * batches and then drained, as in a parse. The grammar slots have no transitions, so executing
+ * a descriptor does no work and the benchmark measures the worklist only.
+ * Use "-prof gc" to see the allocation rate.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DescriptorWorklistBenchmark {
+
+	@Param({"1000", "100000"})
+	private int size;
+
+	private BodyGrammarSlot[] slots;
+
+	private GSSNode[] gssNodes;
+
+	private List<GSSNode> gssNodeTable;
+
+	private NonPackedNode sppfNode;
+
+	private Input input;
+
+	@Setup
+	public void setup() {
+		slots = new BodyGrammarSlot[32];
+		for (int i = 0; i < slots.length; i++) {
+			slots[i] = new BodyGrammarSlot(null, null, null, null, ConditionsFactory.DEFAULT);
+			slots[i].setId(i);
+		}
+
+		gssNodes = new GSSNode[128];
+		gssNodeTable = new ArrayList<>();
+		for (int i = 0; i < gssNodes.length; i++) {
+			gssNodes[i] = new GSSNode(null, i, null);
+			gssNodes[i].setId(i);
+			gssNodeTable.add(gssNodes[i]);
+		}
+
+		sppfNode = new DummyNode(0);
+		input = Input.fromString("a");
+	}
+
+	@Benchmark
+	public int arrayDeque() {
+		Deque<Descriptor> worklist = new ArrayDeque<>();
+		for (int i = 0; i < size; i++)
+			worklist.push(new Descriptor(slots[i % slots.length], gssNodes[i % gssNodes.length], sppfNode, input));
+
+		int count = 0;
+		while (!worklist.isEmpty()) {
+			worklist.pop().execute();
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int packed() {
+		PackedDescriptorWorklist worklist = new PackedDescriptorWorklist(slots, gssNodeTable);
+		for (int i = 0; i < size; i++)
+			worklist.push(slots[i % slots.length], gssNodes[i % gssNodes.length], sppfNode);
+
+		int count = 0;
+		while (!worklist.isEmpty()) {
+			worklist.executeNext(input);
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int interleaved() {
+		// Models the steady state of a parse: most descriptors are executed shortly after being scheduled
+		PackedDescriptorWorklist worklist = new PackedDescriptorWorklist(slots, gssNodeTable);
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			worklist.push(slots[i % slots.length], gssNodes[i % gssNodes.length], sppfNode);
+			worklist.push(slots[(i + 1) % slots.length], gssNodes[(i + 1) % gssNodes.length], sppfNode);
+			worklist.executeNext(input);
+			count++;
+		}
+		while (!worklist.isEmpty()) {
+			worklist.executeNext(input);
+			count++;
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int interleavedArrayDeque() {
+		Deque<Descriptor> worklist = new ArrayDeque<>();
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			worklist.push(new Descriptor(slots[i % slots.length], gssNodes[i % gssNodes.length], sppfNode, input));
+			worklist.push(new Descriptor(slots[(i + 1) % slots.length], gssNodes[(i + 1) % gssNodes.length], sppfNode, input));
+			worklist.pop().execute();
+			count++;
+		}
+		while (!worklist.isEmpty()) {
+			worklist.pop().execute();
+			count++;
+		}
+		return count;
+	}
+
+}
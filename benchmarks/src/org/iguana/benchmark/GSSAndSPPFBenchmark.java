@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import iguana.parsetrees.sppf.DummyNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.SPPFNodeFactory;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.GLLEvaluator;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+import org.iguana.parser.ParserRuntimeImpl;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.util.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * Micro-benchmarks of GSSNode.pop and BodyGrammarSlot.getIntermediateNode2 on the slots of the
+ * Gamma2 grammar, outside of a parse. Every invocation uses a fresh runtime, so the popped elements
+ * and the intermediate node lookups start empty, as in a parse.
+ * 
+ * pop pops a node of S for every right extent with every end slot of S, which makes every
+ * nonterminal node ambiguous, and every new popped element schedules a descriptor for each of
+ * the GSS edges of the node. getIntermediateNode2 creates the intermediate nodes of S ::= S S . S
+ * for every split of every span starting at 0.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GSSAndSPPFBenchmark {
+
+	@Param({"50", "200"})
+	private int size;
+
+	private GrammarGraph graph;
+
+	private Configuration config;
+
+	private Input input;
+
+	private NonterminalGrammarSlot head;
+
+	private List<EndGrammarSlot> endSlots;
+
+	private List<BodyGrammarSlot> returnSlots;
+
+	private BodyGrammarSlot intermediateSlot;
+
+	/**
+	 * The terminal nodes of b from i to j, for 0 <= i < j <= size.
+	 */
+	private NonPackedNode[][] nodes;
+
+	@Setup
+	public void setup() {
+		config = Configuration.DEFAULT;
+		graph = GrammarGraph.from(Gamma2.getGrammar(), config);
+		input = Gamma2.getInput(size);
+		head = graph.getHead(Gamma2.S);
+
+		endSlots = new ArrayList<>();
+		returnSlots = new ArrayList<>();
+		TerminalGrammarSlot b = null;
+		for (GrammarSlot slot : graph.getGrammarSlots()) {
+			if (slot instanceof EndGrammarSlot) {
+				endSlots.add((EndGrammarSlot) slot);
+			} else if (slot instanceof BodyGrammarSlot && !head.getFirstSlots().contains(slot)) {
+				BodyGrammarSlot bodySlot = (BodyGrammarSlot) slot;
+				if (bodySlot.isFirst())
+					returnSlots.add(bodySlot);
+				else
+					intermediateSlot = bodySlot;
+			} else if (slot instanceof TerminalGrammarSlot && slot.toString().contains("b")) {
+				b = (TerminalGrammarSlot) slot;
+			}
+		}
+
+		nodes = new NonPackedNode[size + 1][size + 1];
+		for (int i = 0; i < size; i++)
+			for (int j = i + 1; j <= size; j++)
+				nodes[i][j] = SPPFNodeFactory.createTerminalNode(b, i, j, input);
+	}
+
+	private ParserRuntime createRuntime() {
+		return new ParserRuntimeImpl(graph, input, config, GLLEvaluator.getEvaluatorContext(config, input));
+	}
+
+	@Benchmark
+	public int pop() {
+		ParserRuntime runtime = createRuntime();
+		GSSNode node = new GSSNode(head, 0, runtime);
+		GSSNode caller = new GSSNode(head, 0, runtime);
+		NonPackedNode w = new DummyNode(0);
+		for (BodyGrammarSlot returnSlot : returnSlots)
+			node.createGSSEdge(input, returnSlot, caller, w);
+
+		for (int j = 1; j <= size; j++)
+			for (EndGrammarSlot endSlot : endSlots)
+				node.pop(input, endSlot, nodes[0][j]);
+
+		return node.countPoppedElements();
+	}
+
+	@Benchmark
+	public NonPackedNode getIntermediateNode2() {
+		ParserRuntime runtime = createRuntime();
+		NonPackedNode result = null;
+		for (int j = 2; j <= size; j++)
+			for (int k = 1; k < j; k++)
+				result = intermediateSlot.getIntermediateNode2(input, nodes[0][k], nodes[k][j], runtime);
+		return result;
+	}
+
+}
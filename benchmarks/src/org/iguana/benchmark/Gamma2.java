@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import iguana.regex.Character;
+import iguana.utils.input.Input;
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+
+/**
+ * 
+ * The highly ambiguous grammar of the gamma tests, the counterpart of
+ * org.iguana.parser.gamma.Gamma2 in the tests, which the benchmarks do not depend on.
+ * The benchmarks of this grammar take it from here rather than defining their own.
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ */
+final class Gamma2 {
+
+	static final Nonterminal S = Nonterminal.withName("S");
+
+	private Gamma2() {}
+
+	static Grammar getGrammar() {
+		Terminal b = Terminal.from(Character.from('b'));
+		Rule rule1 = Rule.withHead(S).addSymbols(S, S, S).build();
+		Rule rule2 = Rule.withHead(S).addSymbols(S, S).build();
+		Rule rule3 = Rule.withHead(S).addSymbols(b).build();
+		return Grammar.builder().addRules(rule1, rule2, rule3).build();
+	}
+
+	static Input getInput(int size) {
+		return Input.fromString(Stream.generate(() -> "b").limit(size).collect(Collectors.joining()));
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import iguana.utils.input.Input;
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * The time to get a grammar graph for the paper grammars ready to parse: from the Iggy
+ * definition of the grammar, from the transformed grammar, and from a saved grammar graph.
+ * The parse benchmarks also parse the paper input once, which includes compiling the
+ * terminals the parse reaches, as loaded grammar graphs compile them on first use.
+ * 
+ * Every measurement is a single invocation in a fresh fork, so that the numbers include
+ * class loading and the first, cold execution, as at process start.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class GrammarGraphStartupBenchmark {
+
+	@Param({"HASKELL", "OCAML", "XML"})
+	private PaperGrammars language;
+
+	private Grammar grammar;
+
+	private Nonterminal start;
+
+	private Input input;
+
+	private File file;
+
+	@Setup
+	public void setup() throws IOException {
+		grammar = language.getGrammar();
+		start = language.getStartSymbol(grammar);
+		input = language.getInput();
+		file = File.createTempFile(language.name().toLowerCase(), ".graph");
+		GrammarGraph.from(grammar, Configuration.DEFAULT).save(file);
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public GrammarGraph fromIggy() {
+		return GrammarGraph.from(language.getGrammar(), Configuration.DEFAULT);
+	}
+
+	@Benchmark
+	public GrammarGraph fromGrammar() {
+		return GrammarGraph.from(grammar, Configuration.DEFAULT);
+	}
+
+	@Benchmark
+	public GrammarGraph load() {
+		return GrammarGraph.load(file, Configuration.DEFAULT);
+	}
+
+	@Benchmark
+	public ParseResult fromGrammarAndParse() {
+		return Iguana.parse(input, GrammarGraph.from(grammar, Configuration.DEFAULT), start);
+	}
+
+	@Benchmark
+	public ParseResult loadAndParse() {
+		return Iguana.parse(input, GrammarGraph.load(file, Configuration.DEFAULT), start);
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import iguana.utils.input.Input;
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.incremental.IncrementalParser;
+import org.iguana.parser.incremental.TextEdit;
+import org.iguana.util.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * Replays an edit trace on the Haskell and OCaml inputs of the paper tests, once with an
+ * IncrementalParser and once by parsing every edited input from scratch. The trace is the
+ * sequence of edits an editor reports when the first, the middle and the last line of the
+ * input are retyped: the text of the line is deleted and typed again one character at a
+ * time, so most versions of the input in between do not parse. The paper inputs are single
+ * expressions of a few lines, so copies of them are joined with "+" at the end of a line to
+ * get longer inputs.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IncrementalReparseBenchmark {
+
+	@Param({"HASKELL", "OCAML"})
+	private PaperGrammars language;
+
+	@Param({"1", "32"})
+	private int copies;
+
+	private GrammarGraph graph;
+
+	private Nonterminal start;
+
+	private Input input;
+
+	private List<TextEdit> edits;
+
+	@Setup
+	public void setup() {
+		Grammar grammar = language.getGrammar();
+		start = language.getStartSymbol(grammar);
+		graph = GrammarGraph.from(grammar, Configuration.DEFAULT);
+
+		Input paperInput = language.getInput();
+		String text = paperInput.subString(0, paperInput.length() - 1);
+		input = Input.fromString(Stream.generate(() -> text).limit(copies).collect(Collectors.joining(" +\n")));
+
+		if (!Iguana.parse(input, graph, start).isParseSuccess())
+			throw new IllegalStateException("Could not parse " + copies + " copies of the " + language + " input");
+
+		String s = input.subString(0, input.length() - 1);
+		List<Integer> lineStarts = new ArrayList<>();
+		lineStarts.add(0);
+		for (int i = 0; i < s.length(); i++) {
+			if (s.charAt(i) == '\n')
+				lineStarts.add(i + 1);
+		}
+
+		edits = new ArrayList<>();
+		int lines = lineStarts.size();
+		for (int line : new int[] { 0, lines / 2, lines - 1 }) {
+			int lineStart = lineStarts.get(line);
+			int lineEnd = line + 1 < lines ? lineStarts.get(line + 1) - 1 : s.length();
+			retype(s.substring(lineStart, lineEnd), lineStart);
+		}
+	}
+
+	private void retype(String text, int offset) {
+		if (text.isEmpty()) return;
+
+		edits.add(TextEdit.delete(offset, text.length()));
+		for (int i = 0; i < text.length(); i++)
+			edits.add(TextEdit.insert(offset + i, text.substring(i, i + 1)));
+	}
+
+	@Benchmark
+	public int reparse() {
+		IncrementalParser parser = new IncrementalParser(graph, start);
+		ParseResult result = parser.parse(input);
+		int errors = 0;
+		for (TextEdit edit : edits) {
+			result = parser.reparse(edit);
+			if (!result.isParseSuccess()) errors++;
+		}
+		return errors;
+	}
+
+	@Benchmark
+	public int fullParse() {
+		Input current = input;
+		Iguana.parse(current, graph, start);
+		int errors = 0;
+		for (TextEdit edit : edits) {
+			current = edit.apply(current);
+			if (!Iguana.parse(current, graph, start).isParseSuccess()) errors++;
+		}
+		return errors;
+	}
+
+}
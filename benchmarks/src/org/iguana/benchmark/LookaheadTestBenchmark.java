@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import static iguana.regex.CharacterRanges.toNonOverlapping2;
+import static iguana.regex.CharacterRanges.toNonOverlappingSet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import iguana.regex.CharacterRange;
+import iguana.utils.input.Input;
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.operations.FirstFollowSets;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.lookahead.ArrayFollowTest;
+import org.iguana.grammar.slot.lookahead.ArrayLookaheadTest;
+import org.iguana.grammar.slot.lookahead.FollowTest;
+import org.iguana.grammar.slot.lookahead.LookAheadTest;
+import org.iguana.grammar.slot.lookahead.RangeTreeFollowTest;
+import org.iguana.grammar.slot.lookahead.RangeTreeLookaheadTest;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.util.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 
+ * Queries the lookahead tests of all nonterminals, and the follow tests of all nonterminals and rule
+ * positions, of a paper grammar with every character of its input. The tests are built from the first
+ * and follow sets as in GrammarGraph, either as the flat arrays used by the grammar graph
+ * (ArrayLookaheadTest and ArrayFollowTest) or as the range trees used before.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LookaheadTestBenchmark {
+
+	public enum Implementation {
+		ARRAY,
+		RANGE_TREE
+	}
+
+	@Param({"HASKELL", "OCAML", "XML"})
+	private PaperGrammars language;
+
+	@Param({"ARRAY", "RANGE_TREE"})
+	private Implementation implementation;
+
+	private LookAheadTest[] lookaheadTests;
+
+	private FollowTest[] followTests;
+
+	private int[] characters;
+
+	@Setup
+	public void setup() {
+		Grammar grammar = language.getGrammar();
+		GrammarGraph graph = GrammarGraph.from(grammar, Configuration.DEFAULT);
+		FirstFollowSets firstFollow = new FirstFollowSets(grammar);
+
+		List<LookAheadTest> lookaheads = new ArrayList<>();
+		List<FollowTest> follows = new ArrayList<>();
+
+		for (NonterminalGrammarSlot nonterminal : graph.getNonterminals()) {
+			List<Rule> alternatives = grammar.getAlternatives(nonterminal.getNonterminal());
+			Map<CharacterRange, List<BodyGrammarSlot>> map = new HashMap<>();
+			for (int i = 0; i < alternatives.size(); i++) {
+				BodyGrammarSlot firstSlot = nonterminal.getFirstSlots().get(i);
+				firstFollow.getPredictionSet(alternatives.get(i), 0).forEach(r -> map.computeIfAbsent(r, k -> new ArrayList<>()).add(firstSlot));
+			}
+
+			Map<CharacterRange, List<CharacterRange>> rangeMap = toNonOverlapping2(map.keySet());
+			Map<CharacterRange, List<BodyGrammarSlot>> nonOverlappingMap = new HashMap<>();
+			rangeMap.forEach((r, ranges) -> {
+				Set<BodyGrammarSlot> slots = new LinkedHashSet<>();
+				ranges.forEach(range -> slots.addAll(map.get(range)));
+				nonOverlappingMap.put(r, new ArrayList<>(slots));
+			});
+			lookaheads.add(implementation == Implementation.ARRAY ? new ArrayLookaheadTest(nonOverlappingMap) : new RangeTreeLookaheadTest(nonOverlappingMap));
+
+			follows.add(createFollowTest(toNonOverlappingSet(firstFollow.getFollowSet(nonterminal.getNonterminal()))));
+			for (Rule rule : alternatives)
+				for (int i = 1; i <= rule.size(); i++)
+					follows.add(createFollowTest(toNonOverlappingSet(firstFollow.getPredictionSet(rule, i))));
+		}
+
+		lookaheadTests = lookaheads.toArray(new LookAheadTest[0]);
+		followTests = follows.toArray(new FollowTest[0]);
+
+		Input input = language.getInput();
+		characters = new int[input.length()];
+		for (int i = 0; i < characters.length; i++)
+			characters[i] = input.charAt(i);
+	}
+
+	private FollowTest createFollowTest(Set<CharacterRange> set) {
+		return implementation == Implementation.ARRAY ? new ArrayFollowTest(set) : new RangeTreeFollowTest(set);
+	}
+
+	@Benchmark
+	public int lookahead() {
+		int count = 0;
+		for (int c : characters)
+			for (LookAheadTest test : lookaheadTests)
+				count += test.get(c).length;
+		return count;
+	}
+
+	@Benchmark
+	public int follow() {
+		int count = 0;
+		for (int c : characters)
+			for (FollowTest test : followTests)
+				if (test.test(c)) count++;
+		return count;
+	}
+
+}
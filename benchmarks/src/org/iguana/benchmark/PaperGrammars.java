@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.benchmark;
+
+import java.io.File;
+import java.util.List;
+
+import iguana.parsetrees.iggy.TermTraversal;
+import iguana.parsetrees.sppf.SPPFNode;
+import iguana.parsetrees.term.DefaultTermBuilder;
+import iguana.parsetrees.term.SPPFToTerms;
+import iguana.parsetrees.term.Term;
+import iguana.utils.input.Input;
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.iggy.GrammarBuilder;
+import org.iguana.grammar.iggy.InlineRegex;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Start;
+import org.iguana.grammar.transformation.DesugarAlignAndOffside;
+import org.iguana.grammar.transformation.DesugarPrecedenceAndAssociativity;
+import org.iguana.grammar.transformation.EBNFToBNF;
+import org.iguana.grammar.transformation.LayoutWeaver;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+
+/**
+ * 
+ * The grammars and inputs of the paper tests in test/org/iguana/parser/iggy/paper, read from
+ * their Iggy definitions and transformed as in the tests. The Simple grammar is not transformed
+ * and is parsed from its nonterminal A, as in the tests. The directory of the paper tests is
+ * resolved against the working directory and its parent, and can be set with the system
+ * property iguana.paper.dir.
+ *
+ */
+public enum PaperGrammars {
+
+	HASKELL("Haskell", "Start", true),
+
+	OCAML("OCaml", "start", true),
+
+	XML("XML", "Start", true),
+
+	SIMPLE("Simple", "A", false);
+
+	private static final String PAPER_DIR = "test/org/iguana/parser/iggy/paper";
+
+	private final String name;
+
+	private final String startSymbol;
+
+	private final boolean transformed;
+
+	PaperGrammars(String name, String startSymbol, boolean transformed) {
+		this.name = name;
+		this.startSymbol = startSymbol;
+		this.transformed = transformed;
+	}
+
+	public Grammar getGrammar() {
+		Input input = Input.fromFile(new File(getPaperDir(), "grammars/" + name + ".iggy"));
+		Grammar iggy = getIggyGrammar();
+		Start start = iggy.getStartSymbol(Nonterminal.withName("Definition"));
+		ParseResult result = Iguana.parse(input, GrammarGraph.from(iggy, input, Configuration.DEFAULT), start);
+
+		if (!result.isParseSuccess())
+			throw new IllegalStateException("Could not read the " + name + " grammar: " + result);
+
+		Grammar grammar = getGrammar(result.asParseSuccess().getSPPFNode(), input);
+		return transformed ? transform(grammar) : grammar;
+	}
+
+	public Nonterminal getStartSymbol(Grammar grammar) {
+		if (!transformed)
+			return Nonterminal.withName(startSymbol);
+		return grammar.getStartSymbol(Nonterminal.withName(startSymbol));
+	}
+
+	public Input getInput() {
+		return Input.fromFile(new File(getPaperDir(), "inputs/" + name + ".txt"));
+	}
+
+	private static File getPaperDir() {
+		String dir = System.getProperty("iguana.paper.dir");
+		if (dir != null)
+			return new File(dir);
+
+		File file = new File(PAPER_DIR);
+		if (file.exists())
+			return file;
+
+		return new File("..", PAPER_DIR);
+	}
+
+	private static Grammar getIggyGrammar() {
+		Grammar iggy = Grammar.load(PaperGrammars.class.getResourceAsStream("/IggyGrammar"));
+		DesugarPrecedenceAndAssociativity precedenceAndAssociativity = new DesugarPrecedenceAndAssociativity();
+		precedenceAndAssociativity.setOP2();
+		iggy = new EBNFToBNF().transform(iggy);
+		iggy = precedenceAndAssociativity.transform(iggy);
+		return new LayoutWeaver().transform(iggy);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Grammar getGrammar(SPPFNode sppf, Input input) {
+		Term term = SPPFToTerms.convertNoSharing(sppf, new DefaultTermBuilder(input));
+		List<Rule> rules = (List<Rule>) TermTraversal.build(term, new GrammarBuilder());
+		Nonterminal layout = null;
+		for (Rule rule : rules) {
+			if (rule.getAttributes().containsKey("@Layout")) {
+				layout = rule.getHead();
+				break;
+			}
+		}
+		return Grammar.builder().addRules(rules).setLayout(layout).build();
+	}
+
+	private static Grammar transform(Grammar grammar) {
+		grammar = new InlineRegex().transform(grammar);
+
+		DesugarAlignAndOffside alignAndOffside = new DesugarAlignAndOffside();
+		DesugarPrecedenceAndAssociativity precedenceAndAssociativity = new DesugarPrecedenceAndAssociativity();
+		alignAndOffside.doAlign();
+		precedenceAndAssociativity.setOP2();
+
+		grammar = alignAndOffside.transform(grammar);
+		grammar = new EBNFToBNF().transform(grammar);
+
+		alignAndOffside.doOffside();
+		grammar = alignAndOffside.transform(grammar);
+
+		grammar = precedenceAndAssociativity.transform(grammar);
+		return new LayoutWeaver().transform(grammar);
+	}
+
+}
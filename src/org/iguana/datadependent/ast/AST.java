@@ -110,7 +110,7 @@ public class AST {
 							throw new UnexpectedTypeOfArgumentException(this);
 						}
 						
-						return ctx.getInput().getColumnNumber((java.lang.Integer) value);
+						return ctx.getLineColumnIndex().getColumnNumber((java.lang.Integer) value);
 					}
 					
 					@Override
@@ -763,6 +763,10 @@ public class AST {
 		return new Expression.RightExtent(label);
 	}
 	
+	static public Expression rExt(String label, int i) {
+		return new Expression.RightExtent(label, i);
+	}
+	
 	static public Expression yield(String label) {
 		return new Expression.Yield(label);
 	}
@@ -775,6 +779,10 @@ public class AST {
 		return new Expression.Val(label);
 	}
 	
+	static public Expression val(String label, int i) {
+		return new Expression.Val(label, i);
+	}
+	
 	static public Expression endOfFile(Expression index) {
 		return new Expression.EndOfFile(index);
 	}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.datadependent.ast;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import org.iguana.datadependent.env.IEvaluatorContext;
+
+/**
+ * 
+ * An expression, or a sequence of statements, compiled to a tree of closures by
+ * {@link org.iguana.datadependent.traversal.ExpressionCompiler}. The expressions that are known to
+ * evaluate to an int or a boolean are evaluated without boxing by {@link #evaluateInt(IEvaluatorContext)}
+ * and {@link #evaluateBoolean(IEvaluatorContext)}, and {@link #evaluate(IEvaluatorContext)} returns the
+ * same value as {@link AbstractAST#interpret(IEvaluatorContext)} of the source.
+ *
+ */
+public abstract class CompiledExpression {
+	
+	private final AbstractAST source;
+	
+	CompiledExpression(AbstractAST source) {
+		this.source = source;
+	}
+	
+	public AbstractAST getSource() {
+		return source;
+	}
+	
+	public abstract Object evaluate(IEvaluatorContext ctx);
+	
+	public int evaluateInt(IEvaluatorContext ctx) {
+		return (java.lang.Integer) evaluate(ctx);
+	}
+	
+	public boolean evaluateBoolean(IEvaluatorContext ctx) {
+		return (java.lang.Boolean) evaluate(ctx);
+	}
+	
+	/**
+	 * Returns true if this expression always evaluates to an int.
+	 */
+	public boolean isInt() {
+		return false;
+	}
+	
+	/**
+	 * Returns true if this expression always evaluates to a boolean.
+	 */
+	public boolean isBoolean() {
+		return false;
+	}
+	
+	/**
+	 * Returns true if all the given expressions always evaluate to an int.
+	 */
+	public static boolean areInts(CompiledExpression[] expressions) {
+		for (CompiledExpression expression : expressions) {
+			if (!expression.isInt())
+				return false;
+		}
+		return true;
+	}
+	
+	@Override
+	public java.lang.String toString() {
+		return java.lang.String.valueOf(source);
+	}
+	
+	public static CompiledExpression of(AbstractAST source, Function<IEvaluatorContext, Object> f) {
+		return new CompiledExpression(source) {
+			@Override
+			public Object evaluate(IEvaluatorContext ctx) {
+				return f.apply(ctx);
+			}
+		};
+	}
+	
+	/**
+	 * An expression, such as a variable, that is not known to evaluate to an int, but that can be
+	 * evaluated to an int without boxing when it is used as one.
+	 */
+	public static CompiledExpression of(AbstractAST source, Function<IEvaluatorContext, Object> f, ToIntFunction<IEvaluatorContext> g) {
+		return new CompiledExpression(source) {
+			@Override
+			public Object evaluate(IEvaluatorContext ctx) {
+				return f.apply(ctx);
+			}
+			
+			@Override
+			public int evaluateInt(IEvaluatorContext ctx) {
+				return g.applyAsInt(ctx);
+			}
+		};
+	}
+	
+	public static CompiledExpression ofInt(AbstractAST source, ToIntFunction<IEvaluatorContext> f) {
+		return new CompiledExpression(source) {
+			@Override
+			public Object evaluate(IEvaluatorContext ctx) {
+				return f.applyAsInt(ctx);
+			}
+			
+			@Override
+			public int evaluateInt(IEvaluatorContext ctx) {
+				return f.applyAsInt(ctx);
+			}
+			
+			@Override
+			public boolean isInt() {
+				return true;
+			}
+		};
+	}
+	
+	public static CompiledExpression ofBoolean(AbstractAST source, Predicate<IEvaluatorContext> f) {
+		return new CompiledExpression(source) {
+			@Override
+			public Object evaluate(IEvaluatorContext ctx) {
+				return f.test(ctx);
+			}
+			
+			@Override
+			public boolean evaluateBoolean(IEvaluatorContext ctx) {
+				return f.test(ctx);
+			}
+			
+			@Override
+			public boolean isBoolean() {
+				return true;
+			}
+		};
+	}
+	
+	/**
+	 * The fallback for the expressions that are not compiled, such as the calls of the functions
+	 * that work on maps and stacks.
+	 */
+	public static CompiledExpression interpreted(AbstractAST source) {
+		return new CompiledExpression(source) {
+			@Override
+			public Object evaluate(IEvaluatorContext ctx) {
+				return source.interpret(ctx);
+			}
+		};
+	}
+
+}
@@ -114,6 +114,10 @@ public abstract class Expression extends AbstractAST {
 			this.value = value;
 		}
 		
+		public java.lang.Integer getValue() {
+			return value;
+		}
+		
 		public boolean isInteger() {
 			return true;
 		}
@@ -149,6 +153,10 @@ public abstract class Expression extends AbstractAST {
 			this.value = value;
 		}
 		
+		public java.lang.Float getValue() {
+			return value;
+		}
+		
 		public boolean isReal() {
 			return true;
 		}
@@ -184,6 +192,10 @@ public abstract class Expression extends AbstractAST {
 			this.value = value;
 		}
 		
+		public java.lang.String getValue() {
+			return value;
+		}
+		
 		public boolean isString() {
 			return true;
 		}
@@ -265,6 +277,13 @@ public abstract class Expression extends AbstractAST {
 		public java.lang.String getName() {
 			return name;
 		}
+		
+		/**
+		 * The index of the variable in an array environment, or -1.
+		 */
+		public int getIndex() {
+			return i;
+		}
 
 		@Override
 		public Object interpret(IEvaluatorContext ctx) {
@@ -348,6 +367,10 @@ public abstract class Expression extends AbstractAST {
 			return id;
 		}
 		
+		public int getIndex() {
+			return i;
+		}
+		
 		public Expression getExpression() {
 			return exp;
 		}
@@ -466,13 +489,13 @@ public abstract class Expression extends AbstractAST {
 				if(lExt - index == 0) 
 					return true;
 				else {
-					int indent = ctx.getInput().getColumnNumber(lExt);
+					int indent = ctx.getLineColumnIndex().getColumnNumber(lExt);
 					return indent > ind;
 				}
 				
 			} else {
 				lExt = (java.lang.Integer) this.lExt.interpret(ctx);
-				int indent = ctx.getInput().getColumnNumber(lExt);
+				int indent = ctx.getLineColumnIndex().getColumnNumber(lExt);
 				return indent > ind;
 			}
 			
@@ -526,6 +549,10 @@ public abstract class Expression extends AbstractAST {
 		public Expression getLExt() {
 			return lExt;
 		}
+		
+		public boolean returnsIndex() {
+			return returnIndex;
+		}
 
 		@Override
 		public Object interpret(IEvaluatorContext ctx) {
@@ -915,11 +942,11 @@ public abstract class Expression extends AbstractAST {
 			Object rhs = this.rhs.interpret(ctx);
 			
 			if (lhs instanceof java.lang.Integer && rhs instanceof java.lang.Integer) {
-				return ((java.lang.Integer) lhs) != ((java.lang.Integer) rhs);
+				return !lhs.equals(rhs);
 			}
 			
 			if (lhs instanceof java.lang.Float && rhs instanceof java.lang.Float) {
-				return ((java.lang.Float) lhs) != ((java.lang.Float) rhs);
+				return !lhs.equals(rhs);
 			}
 						
 			throw new UnexpectedTypeOfArgumentException(this);
@@ -943,10 +970,22 @@ public abstract class Expression extends AbstractAST {
 
 		static public java.lang.String format = "%s.lExt";
 		
+		/**
+		 * Returns the name of the variable that holds the left extent of the symbol with the label.
+		 * The name is interned, so the slots and expressions that refer to the same left extent
+		 * share one instance, which they create once when the grammar graph is built.
+		 */
+		static public java.lang.String variableName(java.lang.String label) {
+			return java.lang.String.format(format, label).intern();
+		}
+		
 		private final java.lang.String label;
 		
+		private final java.lang.String name;
+		
 		LeftExtent(java.lang.String label) {
 			this.label = label;
+			this.name = variableName(label);
 		}
 		
 		public java.lang.String getLabel() {
@@ -955,7 +994,7 @@ public abstract class Expression extends AbstractAST {
 
 		@Override
 		public Object interpret(IEvaluatorContext ctx) {
-			Object value = ctx.lookupVariable(java.lang.String.format(format, label));
+			Object value = ctx.lookupVariable(name);
 			if (value == null) {
 				throw new UndeclaredVariableException(label + "." + "lExt");
 			}
@@ -981,18 +1020,28 @@ public abstract class Expression extends AbstractAST {
 		static public java.lang.String format = "%s.rExt";
 		
 		private final java.lang.String label;
+		private final int i;
 		
 		RightExtent(java.lang.String label) {
+			this(label, -1);
+		}
+		
+		RightExtent(java.lang.String label, int i) {
 			this.label = label;
+			this.i = i;
 		}
 		
 		public java.lang.String getLabel() {
 			return label;
 		}
+		
+		public int getIndex() {
+			return i;
+		}
 
 		@Override
 		public Object interpret(IEvaluatorContext ctx) {
-			Object value = ctx.lookupVariable(label);
+			Object value = i == -1? ctx.lookupVariable(label) : ctx.lookupVariable(i);
 			if (value == null) {
 				throw new UndeclaredVariableException(label);
 			}
@@ -1006,7 +1055,7 @@ public abstract class Expression extends AbstractAST {
 		
 		@Override
 		public java.lang.String toString() {
-			return java.lang.String.format("%s.rExt", label);
+			return i == -1? java.lang.String.format("%s.rExt", label) : java.lang.String.format("%s:%d.rExt", label, i);
 		}
 
 		@Override
@@ -1036,6 +1085,10 @@ public abstract class Expression extends AbstractAST {
 			return label;
 		}
 		
+		public int getIndex() {
+			return i;
+		}
+		
 		@Override
 		public Object interpret(IEvaluatorContext ctx) {
 			Object value = i == -1? ctx.lookupVariable(label) : ctx.lookupVariable(i);
@@ -1068,18 +1121,28 @@ public abstract class Expression extends AbstractAST {
 		static public java.lang.String format = "%s.val";
 		
 		private final java.lang.String label;
+		private final int i;
 		
 		Val(java.lang.String label) {
+			this(label, -1);
+		}
+		
+		Val(java.lang.String label, int i) {
 			this.label = label;
+			this.i = i;
 		}
 		
 		public java.lang.String getLabel() {
 			return label;
 		}
 		
+		public int getIndex() {
+			return i;
+		}
+		
 		@Override
 		public Object interpret(IEvaluatorContext ctx) {
-			Object value = ctx.lookupVariable(label);
+			Object value = i == -1? ctx.lookupVariable(label) : ctx.lookupVariable(i);
 			if (value == null) {
 				throw new UndeclaredVariableException(label);
 			}
@@ -1095,7 +1158,7 @@ public abstract class Expression extends AbstractAST {
 		
 		@Override
 		public java.lang.String toString() {
-			return java.lang.String.format("%s.val", label);
+			return i == -1? java.lang.String.format("%s.val", label) : java.lang.String.format("%s:%d.val", label, i);
 		}
 
 		@Override
@@ -65,6 +65,10 @@ public class VariableDeclaration extends AbstractAST {
 	public Expression getExpression() {
 		return expression;
 	}
+	
+	public int getIndex() {
+		return i;
+	}
 
 	@Override
 	public Object interpret(IEvaluatorContext ctx) {
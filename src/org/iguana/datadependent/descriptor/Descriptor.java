@@ -44,6 +44,10 @@ public class Descriptor extends org.iguana.parser.descriptor.Descriptor {
 		this.env = env;
 	}
 
+	public Environment getEnvironment() {
+		return env;
+	}
+
 	@Override
 	public void execute() {
 		getGrammarSlot().execute(input, getGSSNode(), getSPPFNode(), env);
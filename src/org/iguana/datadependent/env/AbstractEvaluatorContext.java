@@ -28,6 +28,7 @@
 package org.iguana.datadependent.env;
 
 import iguana.utils.input.Input;
+import org.iguana.util.input.LineColumnIndex;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +37,10 @@ public abstract class AbstractEvaluatorContext implements IEvaluatorContext {
 	
 	private final Input input;
 	
+	private LineColumnIndex lineColumnIndex;
+	
+	private int tabWidth = 1;
+	
 	private Environment env;
 	
 	private Map<String, Object> global;
@@ -48,6 +53,23 @@ public abstract class AbstractEvaluatorContext implements IEvaluatorContext {
 	public Input getInput() {
 		return this.input;
 	}
+	
+	@Override
+	public LineColumnIndex getLineColumnIndex() {
+		if (lineColumnIndex == null)
+			lineColumnIndex = new LineColumnIndex(input, tabWidth);
+		return lineColumnIndex;
+	}
+	
+	@Override
+	public void setLineColumnIndex(LineColumnIndex index) {
+		this.lineColumnIndex = index;
+	}
+	
+	@Override
+	public void setTabWidth(int tabWidth) {
+		this.tabWidth = tabWidth;
+	}
 
 	@Override
 	public Environment getEnvironment() {
@@ -90,6 +112,31 @@ public abstract class AbstractEvaluatorContext implements IEvaluatorContext {
 		return env.lookup(name);
 	}
 	
+	@Override
+	public void declareVariable(String name, int value) {
+		declareVariable(name, (Object) value);
+	}
+	
+	@Override
+	public void declareVariable(String name, long value) {
+		declareVariable(name, (Object) value);
+	}
+	
+	@Override
+	public void storeVariable(String name, long value) {
+		storeVariable(name, (Object) value);
+	}
+	
+	@Override
+	public int lookupIntVariable(String name) {
+		return (Integer) lookupVariable(name);
+	}
+	
+	@Override
+	public long lookupLongVariable(String name) {
+		return (Long) lookupVariable(name);
+	}
+	
 	@Override
 	public void declareGlobalVariable(String name, Object value) {
 		if (global == null)
@@ -29,9 +29,11 @@ package org.iguana.datadependent.env;
 
 import iguana.utils.input.Input;
 import org.iguana.datadependent.env.array.ArrayEvaluatorContext;
+import org.iguana.datadependent.env.mutable.MutableEvaluatorContext;
 import org.iguana.datadependent.env.persistent.PersistentEvaluatorContext;
 import org.iguana.datadependent.env.simple.SimpleEvaluatorContext;
 import org.iguana.util.Configuration;
+import org.iguana.util.input.LineColumnIndex;
 
 public class GLLEvaluator {
 	
@@ -41,7 +43,26 @@ public class GLLEvaluator {
 		return new ArrayEvaluatorContext(input);
 	}
 	
+	/**
+	 * Returns an evaluator context that creates its index on the first use of a line or column,
+	 * so that parses that do not ask for lines or columns do not create one.
+	 */
 	public static IEvaluatorContext getEvaluatorContext(Configuration config, Input input) {
+		IEvaluatorContext ctx = newEvaluatorContext(config, input);
+		ctx.setTabWidth(config.getTabWidth());
+		return ctx;
+	}
+	
+	/**
+	 * Returns an evaluator context that uses the given index, which the contexts of a parse share.
+	 */
+	public static IEvaluatorContext getEvaluatorContext(Configuration config, Input input, LineColumnIndex index) {
+		IEvaluatorContext ctx = newEvaluatorContext(config, input);
+		ctx.setLineColumnIndex(index);
+		return ctx;
+	}
+	
+	private static IEvaluatorContext newEvaluatorContext(Configuration config, Input input) {
 		switch(config.getEnvImpl()) {
 			case ARRAY: 
 				return new ArrayEvaluatorContext(input);
@@ -49,6 +70,8 @@ public class GLLEvaluator {
 				return new SimpleEvaluatorContext(input);
 			case TRIE: 
 				return new PersistentEvaluatorContext(input);
+			case MUTABLE:
+				return new MutableEvaluatorContext(input);
 			default:
 				throw new RuntimeException("Should not have happened!");
 		}
@@ -28,11 +28,25 @@
 package org.iguana.datadependent.env;
 
 import iguana.utils.input.Input;
+import org.iguana.util.input.LineColumnIndex;
 
 public interface IEvaluatorContext {
 	
 	Input getInput();
 	
+	/**
+	 * The lines and columns of the input, shared by the evaluator contexts of a parse.
+	 */
+	LineColumnIndex getLineColumnIndex();
+	
+	void setLineColumnIndex(LineColumnIndex index);
+	
+	/**
+	 * Sets the tab width of the index this context creates on the first use of a line or column,
+	 * if no index was set.
+	 */
+	void setTabWidth(int tabWidth);
+	
 	Environment getEnvironment();
 	
 	void setEnvironment(Environment env);
@@ -65,6 +79,23 @@ public interface IEvaluatorContext {
 	
 	Object lookupVariable(int i);
 	
+	/**
+	 * 
+	 * Operations on int and long values, e.g., the extents of labeled symbols, see Extent.
+	 * The contexts that store primitive values without boxing them box them when they are
+	 * looked up with lookupVariable.
+	 * 
+	 */
+	void declareVariable(String name, int value);
+	
+	void declareVariable(String name, long value);
+	
+	void storeVariable(String name, long value);
+	
+	int lookupIntVariable(String name);
+	
+	long lookupLongVariable(String name);
+	
 	/**
 	 * 
 	 * Global parser environment
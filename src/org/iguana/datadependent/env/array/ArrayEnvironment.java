@@ -120,19 +120,11 @@ public class ArrayEnvironment implements Environment {
 
 	@Override
 	public Environment store(int i, Object value) {
-		Object[] values = new Object[this.values.length];
-		
-		int hashCode = 0;
-		for (int j = 0; j < values.length; j++) {
-			
-			if (i != j)
-				values[i] = this.values[i];
-			else
-				values[i] = value;
-			
-			if (values[i] != null)
-				hashCode = hashCode + values[i].hashCode();
-		}
+		Object[] values = this.values.clone();
+		values[i] = value;
+		
+		// The same hash code as the environment declaring the values in order, see _declare
+		int hashCode = this.hashCode - 31 * this.values[i].hashCode() + 31 * value.hashCode();
 		
 		return new ArrayEnvironment(values, hashCode);
 	}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.datadependent.env.mutable;
+
+import java.util.Arrays;
+
+import org.iguana.datadependent.ast.VariableDeclaration;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.exception.UndeclaredVariableException;
+import org.iguana.grammar.exception.UndefinedRuntimeValueException;
+
+/**
+ * 
+ * The immutable form of the frame of a {@link MutableEvaluatorContext}, taken when the environment
+ * escapes into a descriptor, a GSS edge or a node key. The bindings of all scopes are stored in
+ * declaration order in two arrays, and scopes[k] is the index of the first binding of the (k + 1)th
+ * pushed scope. Positional bindings, as declared for the array-based environment, have no name.
+ * The int and long values are stored unboxed in primitives, and their value is {@link #INT} or
+ * {@link #LONG}.
+ * 
+ * The operations of the Environment interface copy the arrays, as in ArrayEnvironment. They are used
+ * outside the evaluator context, e.g., when the arguments of a nonterminal are declared.
+ *
+ */
+public class FrameEnvironment implements Environment {
+	
+	static final Object INT = new Object();
+	
+	static final Object LONG = new Object();
+	
+	private static final String[] NO_NAMES = new String[0];
+	
+	private static final Object[] NO_VALUES = new Object[0];
+	
+	private static final long[] NO_PRIMITIVES = new long[0];
+	
+	private static final int[] NO_SCOPES = new int[0];
+	
+	static public final FrameEnvironment EMPTY = new FrameEnvironment(NO_NAMES, NO_VALUES, NO_PRIMITIVES, NO_SCOPES);
+	
+	final String[] names;
+	
+	final Object[] values;
+	
+	final long[] primitives;
+	
+	final int[] scopes;
+	
+	private final int hashCode;
+	
+	FrameEnvironment(String[] names, Object[] values, long[] primitives, int[] scopes) {
+		this.names = names;
+		this.values = values;
+		this.primitives = primitives;
+		this.scopes = scopes;
+		
+		int hashCode = 0;
+		for (int i = 0; i < values.length; i++)
+			hashCode = 31 * hashCode + ((names[i] == null ? 0 : names[i].hashCode()) ^ hashCode(values[i], primitives[i]));
+		for (int k = 0; k < scopes.length; k++)
+			hashCode = 31 * hashCode + scopes[k];
+		this.hashCode = hashCode;
+	}
+	
+	/**
+	 * The same hash code as the boxed value.
+	 */
+	private static int hashCode(Object value, long primitive) {
+		if (value == INT) return (int) primitive;
+		if (value == LONG) return Long.hashCode(primitive);
+		return value.hashCode();
+	}
+	
+	static Object box(Object value, long primitive) {
+		if (value == INT) return (int) primitive;
+		if (value == LONG) return primitive;
+		return value;
+	}
+	
+	/**
+	 * The index of the innermost binding of the given name between from and size, or -1.
+	 */
+	static int indexOf(String[] names, int from, int size, String name) {
+		for (int i = size - 1; i >= from; i--) {
+			String n = names[i];
+			if (n == name || (n != null && n.equals(name)))
+				return i;
+		}
+		return -1;
+	}
+	
+	static Object valueOf(Object value) {
+		if (value == VariableDeclaration.defaultValue)
+			throw UndefinedRuntimeValueException.instance;
+		return value;
+	}
+	
+	private int scopeStart() {
+		return scopes.length == 0 ? 0 : scopes[scopes.length - 1];
+	}
+	
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return values.length == 0;
+	}
+
+	@Override
+	public Environment pop() {
+		if (scopes.length == 0)
+			return null;
+		
+		int size = scopeStart();
+		return new FrameEnvironment(Arrays.copyOf(names, size), Arrays.copyOf(values, size), Arrays.copyOf(primitives, size), 
+				                    Arrays.copyOf(scopes, scopes.length - 1));
+	}
+
+	@Override
+	public Environment push() {
+		int[] scopes = Arrays.copyOf(this.scopes, this.scopes.length + 1);
+		scopes[this.scopes.length] = values.length;
+		return new FrameEnvironment(names, values, primitives, scopes);
+	}
+
+	@Override
+	public Environment _declare(String name, Object value) {
+		return declare(new String[] { name }, new Object[] { value });
+	}
+
+	@Override
+	public Environment declare(String[] names, Object[] values) {
+		String[] ns = Arrays.copyOf(this.names, this.names.length + names.length);
+		Object[] vs = Arrays.copyOf(this.values, this.values.length + values.length);
+		int from = scopeStart();
+		int size = this.values.length;
+		
+		for (int j = 0; j < names.length; j++) {
+			int i = indexOf(ns, from, size, names[j]);
+			if (i == -1) {
+				ns[size] = names[j];
+				vs[size] = values[j];
+				size++;
+			} else {
+				vs[i] = values[j];
+			}
+		}
+		
+		if (size < ns.length) {
+			ns = Arrays.copyOf(ns, size);
+			vs = Arrays.copyOf(vs, size);
+		}
+		
+		return new FrameEnvironment(ns, vs, Arrays.copyOf(primitives, size), scopes);
+	}
+
+	@Override
+	public Environment store(String name, Object value) {
+		int i = indexOf(names, 0, values.length, name);
+		if (i == -1)
+			throw new UndeclaredVariableException(name);
+		return store(i, value);
+	}
+
+	@Override
+	public Object lookup(String name) {
+		int i = indexOf(names, 0, values.length, name);
+		if (i == -1)
+			throw new UndeclaredVariableException(name);
+		return valueOf(box(values[i], primitives[i]));
+	}
+
+	@Override
+	public Environment _declare(Object value) {
+		return declare(new Object[] { value });
+	}
+
+	@Override
+	public Environment declare(Object[] values) {
+		int size = this.values.length + values.length;
+		String[] names = Arrays.copyOf(this.names, size);
+		Object[] vs = Arrays.copyOf(this.values, size);
+		System.arraycopy(values, 0, vs, this.values.length, values.length);
+		return new FrameEnvironment(names, vs, Arrays.copyOf(primitives, size), scopes);
+	}
+
+	@Override
+	public Environment store(int i, Object value) {
+		if (values[i].equals(value))
+			return this;
+		
+		Object[] values = this.values.clone();
+		values[i] = value;
+		return new FrameEnvironment(names, values, primitives, scopes);
+	}
+
+	@Override
+	public Object lookup(int i) {
+		return box(values[i], primitives[i]);
+	}
+	
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+	
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) return true;
+		
+		if (!(other instanceof FrameEnvironment)) return false;
+		
+		FrameEnvironment that = (FrameEnvironment) other;
+		
+		if (hashCode != that.hashCode || values.length != that.values.length) return false;
+		
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			if (v == INT || v == LONG) {
+				if (v != that.values[i] || primitives[i] != that.primitives[i])
+					return false;
+			} else if (!v.equals(that.values[i])) {
+				return false;
+			}
+		}
+		
+		return Arrays.equals(names, that.names) && Arrays.equals(scopes, that.scopes);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("()");
+		int k = 0;
+		for (int i = 0; i < values.length; i++) {
+			while (k < scopes.length && scopes[k] == i) {
+				sb.append(" ->");
+				k++;
+			}
+			sb.append(' ').append(names[i] == null ? String.valueOf(i) : names[i]).append(" : ").append(box(values[i], primitives[i])).append(';');
+		}
+		for (; k < scopes.length; k++)
+			sb.append(" ->");
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.datadependent.env.mutable;
+
+import java.util.Arrays;
+
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.AbstractEvaluatorContext;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.exception.UndeclaredVariableException;
+
+/**
+ * 
+ * An evaluator context that binds variables in a mutable frame instead of allocating a new
+ * environment per binding. The frame is snapshotted into a {@link FrameEnvironment} only when
+ * getEnvironment is called, i.e., when the environment escapes into a descriptor, a GSS edge
+ * or a node key, and the snapshot is reused as long as the frame is not changed.
+ * 
+ * The frame remembers the snapshot it was last set to or taken as, its base, and a trail of the
+ * bindings and scopes of the base it overwrote since. Setting the environment back to the base,
+ * as the transitions do for every alternative they try, undoes the trail instead of copying the
+ * base into the frame again.
+ * 
+ * The int and long values declared with declareVariable(String, int) and declareVariable(String, long)
+ * are stored unboxed in the frame and in its snapshots, and are boxed only if they are looked up
+ * with lookupVariable.
+ * 
+ * An evaluator context is used by one thread at a time, see ParallelParserRuntime.
+ *
+ */
+public class MutableEvaluatorContext extends AbstractEvaluatorContext {
+	
+	private String[] names = new String[16];
+	
+	private Object[] values = new Object[16];
+	
+	private long[] primitives = new long[16];
+	
+	private int size;
+	
+	private int[] scopes = new int[4];
+	
+	private int depth;
+	
+	private FrameEnvironment base;
+	
+	/**
+	 * The index of an overwritten binding of the base, or -(k + 1) for an overwritten scope k of the base.
+	 */
+	private int[] trailIndices = new int[16];
+	
+	private String[] trailNames = new String[16];
+	
+	private Object[] trailValues = new Object[16];
+	
+	private long[] trailPrimitives = new long[16];
+	
+	private int trailSize;
+	
+	/**
+	 * Whether the frame may differ from the base. The size and depth of the frame are restored
+	 * from the base, so a frame that only added bindings or scopes is changed but has an empty trail.
+	 */
+	private boolean changed;
+
+	public MutableEvaluatorContext(Input input) {
+		super(input);
+		setEnvironment(FrameEnvironment.EMPTY);
+	}
+
+	@Override
+	public Environment getEmptyEnvironment() {
+		return FrameEnvironment.EMPTY;
+	}
+	
+	@Override
+	public Environment getEnvironment() {
+		if (!changed)
+			return base;
+		
+		FrameEnvironment env = new FrameEnvironment(Arrays.copyOf(names, size), Arrays.copyOf(values, size), 
+				                                    Arrays.copyOf(primitives, size), Arrays.copyOf(scopes, depth));
+		reset(env);
+		return env;
+	}
+
+	@Override
+	public void setEnvironment(Environment env) {
+		FrameEnvironment frame = (FrameEnvironment) env;
+		
+		if (frame == base) {
+			if (changed)
+				undo();
+			return;
+		}
+		
+		int size = frame.size();
+		ensureCapacity(size);
+		System.arraycopy(frame.names, 0, names, 0, size);
+		System.arraycopy(frame.values, 0, values, 0, size);
+		System.arraycopy(frame.primitives, 0, primitives, 0, size);
+		this.size = size;
+		
+		int depth = frame.scopes.length;
+		if (depth > scopes.length)
+			scopes = Arrays.copyOf(scopes, Math.max(depth, 2 * scopes.length));
+		System.arraycopy(frame.scopes, 0, scopes, 0, depth);
+		this.depth = depth;
+		
+		reset(frame);
+	}
+	
+	private void reset(FrameEnvironment base) {
+		this.base = base;
+		trailSize = 0;
+		changed = false;
+	}
+	
+	private void undo() {
+		while (trailSize > 0) {
+			trailSize--;
+			int i = trailIndices[trailSize];
+			if (i >= 0) {
+				names[i] = trailNames[trailSize];
+				values[i] = trailValues[trailSize];
+				primitives[i] = trailPrimitives[trailSize];
+			} else {
+				scopes[-i - 1] = (int) trailPrimitives[trailSize];
+			}
+			trailNames[trailSize] = null;
+			trailValues[trailSize] = null;
+		}
+		size = base.size();
+		depth = base.scopes.length;
+		changed = false;
+	}
+	
+	/**
+	 * Records the binding at index i, before it is overwritten, if it belongs to the base.
+	 */
+	private void log(int i) {
+		changed = true;
+		if (i < base.size())
+			trail(i, names[i], values[i], primitives[i]);
+	}
+	
+	private void trail(int index, String name, Object value, long primitive) {
+		if (trailSize == trailIndices.length) {
+			int length = 2 * trailSize;
+			trailIndices = Arrays.copyOf(trailIndices, length);
+			trailNames = Arrays.copyOf(trailNames, length);
+			trailValues = Arrays.copyOf(trailValues, length);
+			trailPrimitives = Arrays.copyOf(trailPrimitives, length);
+		}
+		trailIndices[trailSize] = index;
+		trailNames[trailSize] = name;
+		trailValues[trailSize] = value;
+		trailPrimitives[trailSize] = primitive;
+		trailSize++;
+	}
+	
+	private void ensureCapacity(int capacity) {
+		if (capacity > names.length) {
+			int length = Math.max(capacity, 2 * names.length);
+			names = Arrays.copyOf(names, length);
+			values = Arrays.copyOf(values, length);
+			primitives = Arrays.copyOf(primitives, length);
+		}
+	}
+	
+	private void bind(int i, String name, Object value, long primitive) {
+		log(i);
+		names[i] = name;
+		values[i] = value;
+		primitives[i] = primitive;
+	}
+	
+	private void append(String name, Object value, long primitive) {
+		ensureCapacity(size + 1);
+		bind(size, name, value, primitive);
+		size++;
+	}
+	
+	@Override
+	public void popEnvironment() {
+		if (depth == 0)
+			throw new RuntimeException("There is no scope to pop!");
+		
+		changed = true;
+		depth--;
+		size = scopes[depth];
+	}
+	
+	@Override
+	public void pushEnvironment() {
+		if (depth == scopes.length)
+			scopes = Arrays.copyOf(scopes, 2 * depth);
+		
+		changed = true;
+		if (depth < base.scopes.length)
+			trail(-depth - 1, null, null, scopes[depth]);
+		
+		scopes[depth] = size;
+		depth++;
+	}
+
+	@Override
+	public void declareVariable(String name, Object value) {
+		declare(name, value, 0);
+	}
+	
+	@Override
+	public void declareVariable(String name, int value) {
+		declare(name, FrameEnvironment.INT, value);
+	}
+	
+	@Override
+	public void declareVariable(String name, long value) {
+		declare(name, FrameEnvironment.LONG, value);
+	}
+	
+	private void declare(String name, Object value, long primitive) {
+		int i = FrameEnvironment.indexOf(names, depth == 0 ? 0 : scopes[depth - 1], size, name);
+		if (i == -1)
+			append(name, value, primitive);
+		else
+			bind(i, name, value, primitive);
+	}
+
+	@Override
+	public void declareVariables(String[] names, Object[] values) {
+		for (int i = 0; i < names.length; i++)
+			declareVariable(names[i], values[i]);
+	}
+
+	@Override
+	public void storeVariable(String name, Object value) {
+		bind(indexOf(name), name, value, 0);
+	}
+	
+	@Override
+	public void storeVariable(String name, long value) {
+		bind(indexOf(name), name, FrameEnvironment.LONG, value);
+	}
+
+	@Override
+	public Object lookupVariable(String name) {
+		int i = indexOf(name);
+		return FrameEnvironment.valueOf(FrameEnvironment.box(values[i], primitives[i]));
+	}
+	
+	@Override
+	public int lookupIntVariable(String name) {
+		int i = indexOf(name);
+		if (values[i] == FrameEnvironment.INT)
+			return (int) primitives[i];
+		return (Integer) FrameEnvironment.valueOf(values[i]);
+	}
+	
+	@Override
+	public long lookupLongVariable(String name) {
+		int i = indexOf(name);
+		if (values[i] == FrameEnvironment.LONG)
+			return primitives[i];
+		return (Long) FrameEnvironment.valueOf(values[i]);
+	}
+	
+	private int indexOf(String name) {
+		int i = FrameEnvironment.indexOf(names, 0, size, name);
+		if (i == -1)
+			throw new UndeclaredVariableException(name);
+		return i;
+	}
+
+	@Override
+	public void declareVariable(Object value) {
+		append(null, value, 0);
+	}
+
+	@Override
+	public void declareVariables(Object[] values) {
+		for (Object value : values)
+			append(null, value, 0);
+	}
+
+	@Override
+	public void storeVariable(int i, Object value) {
+		bind(i, names[i], value, 0);
+	}
+
+	@Override
+	public Object lookupVariable(int i) {
+		return FrameEnvironment.box(values[i], primitives[i]);
+	}
+
+}
@@ -40,6 +40,12 @@ public class PersistentEnvironment implements Environment {
 	
 	final private ImmutableMap<String, Object> bindings;
 	
+	/**
+	 * Computed on the first call of hashCode, as computing it walks the bindings of all the scopes.
+	 * Zero until then, as in String, so that environments shared between threads need no synchronization.
+	 */
+	private int hashCode;
+	
 	static public final Environment EMPTY = new PersistentEnvironment(null, (TrieMap<String, Object>) TrieMap.<String, Object>of());
 	
 	private PersistentEnvironment(PersistentEnvironment parent, ImmutableMap<String, Object> bindings) {
@@ -129,7 +135,12 @@ public class PersistentEnvironment implements Environment {
 	
 	@Override
 	public int hashCode() {
-		return (parent == null ? 0 : parent.hashCode()) + bindings.hashCode();   
+		int h = hashCode;
+		if (h == 0) {
+			h = (parent == null ? 0 : parent.hashCode()) + bindings.hashCode();
+			hashCode = h;
+		}
+		return h;
 	}
 	
 	@Override
@@ -140,6 +151,8 @@ public class PersistentEnvironment implements Environment {
 		
 		PersistentEnvironment that = (PersistentEnvironment) other;
 		
+		if (this.hashCode() != that.hashCode()) return false;
+		
 		if (this.bindings == that.bindings || this.bindings.equals(that.bindings)) {
 			
 			if (this.parent == that.parent) {
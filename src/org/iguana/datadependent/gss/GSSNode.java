@@ -29,14 +29,21 @@ package org.iguana.datadependent.gss;
 
 import iguana.utils.collections.hash.MurmurHash3;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.parser.gss.PoppedElements;
 
 public class GSSNode<T> extends org.iguana.parser.gss.GSSNode {
 	
 	private final GSSNodeData<T> data;
 
-	public GSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data) {
-		super(slot, inputIndex);
+	public GSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data, ParserRuntime runtime) {
+		super(slot, inputIndex, runtime);
+		this.data = data;
+	}
+
+	protected GSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data, ParserRuntime runtime, PoppedElements poppedElements) {
+		super(slot, inputIndex, runtime, poppedElements);
 		this.data = data;
 	}
 	
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.datadependent.gss;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+import org.iguana.parser.PositionJournal;
+import org.iguana.parser.gss.CompactPoppedElements;
+import org.iguana.parser.gss.GSSNodeData;
+
+/**
+ * 
+ * The data-dependent counterpart of {@link org.iguana.parser.gss.JournaledGSSNode}.
+ *
+ */
+public class JournaledGSSNode<T> extends GSSNode<T> implements PositionJournal.Table {
+
+	private final PositionJournal journal;
+
+	public JournaledGSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data, ParserRuntime runtime, PositionJournal journal) {
+		super(slot, inputIndex, data, runtime, new CompactPoppedElements());
+		this.journal = journal;
+	}
+
+	@Override
+	public void pop(Input input, EndGrammarSlot slot, NonPackedNode child) {
+		int count = countPoppedElements();
+		super.pop(input, slot, child);
+		if (countPoppedElements() != count)
+			recordPop(child.getRightExtent());
+	}
+
+	@Override
+	public void pop(Input input, EndGrammarSlot slot, NonPackedNode child, Object value) {
+		int count = countPoppedElements();
+		super.pop(input, slot, child, value);
+		if (countPoppedElements() != count)
+			recordPop(child.getRightExtent());
+	}
+
+	private void recordPop(int rightExtent) {
+		journal.record(rightExtent, this, rightExtent, null);
+	}
+
+	@Override
+	public void removeEntry(long key, Object objectKey) {
+		removePoppedElements((int) key);
+	}
+
+}
@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.datadependent.traversal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import org.iguana.datadependent.ast.AST;
+import org.iguana.datadependent.ast.CompiledExpression;
+import org.iguana.datadependent.ast.Expression;
+import org.iguana.datadependent.ast.Statement;
+import org.iguana.datadependent.ast.VariableDeclaration;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.exception.UndeclaredVariableException;
+import org.iguana.grammar.exception.UnexpectedTypeOfArgumentException;
+
+import static org.iguana.datadependent.ast.CompiledExpression.of;
+import static org.iguana.datadependent.ast.CompiledExpression.ofBoolean;
+import static org.iguana.datadependent.ast.CompiledExpression.ofInt;
+
+/**
+ * 
+ * Compiles the expressions and statements of the data-dependent grammars to trees of closures,
+ * see {@link CompiledExpression}. The slots compile their expressions when the grammar graph is built.
+ * 
+ * The closures do not dispatch on the kind of the expression, the names of the variables and of the
+ * left extents of labels are interned once, and the operands that are known to be ints, such as the literals, the extents and the
+ * results of the indentation and precedence functions, are passed unboxed. The calls of the functions that
+ * are not compiled here, such as the ones on maps and stacks, are interpreted.
+ *
+ */
+public class ExpressionCompiler implements IAbstractASTVisitor<CompiledExpression> {
+	
+	private static final ExpressionCompiler compiler = new ExpressionCompiler();
+	
+	public static CompiledExpression compile(Expression expression) {
+		return expression.accept(compiler);
+	}
+	
+	public static CompiledExpression[] compile(Expression[] expressions) {
+		if (expressions == null)
+			return null;
+		
+		CompiledExpression[] compiled = new CompiledExpression[expressions.length];
+		for (int i = 0; i < expressions.length; i++)
+			compiled[i] = compile(expressions[i]);
+		
+		return compiled;
+	}
+	
+	/**
+	 * Compiles the statements to one expression that executes them in order and evaluates to null.
+	 * The source of the compiled sequence is null unless it has one statement.
+	 */
+	public static CompiledExpression compile(Statement[] statements) {
+		if (statements.length == 1)
+			return statements[0].accept(compiler);
+		
+		CompiledExpression[] compiled = new CompiledExpression[statements.length];
+		for (int i = 0; i < statements.length; i++)
+			compiled[i] = statements[i].accept(compiler);
+		
+		return of(null, ctx -> {
+			for (CompiledExpression statement : compiled)
+				statement.evaluate(ctx);
+			return null;
+		});
+	}
+	
+	private interface IntComparison {
+		boolean test(int lhs, int rhs);
+	}
+	
+	private interface FloatComparison {
+		boolean test(float lhs, float rhs);
+	}
+	
+	private static int intArgument(Expression call, CompiledExpression argument, IEvaluatorContext ctx) {
+		if (argument.isInt())
+			return argument.evaluateInt(ctx);
+		
+		Object value = argument.evaluate(ctx);
+		if (!(value instanceof Integer))
+			throw new UnexpectedTypeOfArgumentException(call);
+		
+		return (Integer) value;
+	}
+	
+	private static NonPackedNode nodeArgument(Expression call, CompiledExpression argument, IEvaluatorContext ctx) {
+		Object value = argument.evaluate(ctx);
+		if (!(value instanceof NonPackedNode))
+			throw new UnexpectedTypeOfArgumentException(call);
+		
+		return (NonPackedNode) value;
+	}
+	
+	private CompiledExpression comparison(Expression expression, Expression lhsExpression, Expression rhsExpression, 
+			                              IntComparison ints, FloatComparison floats) {
+		CompiledExpression lhs = lhsExpression.accept(this);
+		CompiledExpression rhs = rhsExpression.accept(this);
+		
+		if (lhs.isInt() && rhs.isInt())
+			return ofBoolean(expression, ctx -> ints.test(lhs.evaluateInt(ctx), rhs.evaluateInt(ctx)));
+		
+		return ofBoolean(expression, ctx -> {
+			Object l = lhs.evaluate(ctx);
+			Object r = rhs.evaluate(ctx);
+			
+			if (l instanceof Integer && r instanceof Integer)
+				return ints.test((Integer) l, (Integer) r);
+			
+			if (l instanceof Float && r instanceof Float)
+				return floats.test((Float) l, (Float) r);
+			
+			throw new UnexpectedTypeOfArgumentException(expression);
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Boolean expression) {
+		if (expression == Expression.Boolean.TRUE)
+			return ofBoolean(expression, ctx -> true);
+		return ofBoolean(expression, ctx -> false);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Integer expression) {
+		int value = expression.getValue();
+		return ofInt(expression, ctx -> value);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Real expression) {
+		Float value = expression.getValue();
+		return of(expression, ctx -> value);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.String expression) {
+		String value = expression.getValue();
+		return of(expression, ctx -> value);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Tuple expression) {
+		Expression[] elements = expression.getElements();
+		
+		if (elements.length == 1)
+			return elements[0].accept(this);
+		
+		CompiledExpression[] compiled = compile(elements);
+		return of(expression, ctx -> {
+			List<Object> values = new ArrayList<>(compiled.length);
+			for (CompiledExpression element : compiled)
+				values.add(element.evaluate(ctx));
+			return values;
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Name expression) {
+		String name = expression.getName().intern();
+		int i = expression.getIndex();
+		
+		if (i != -1)
+			return of(expression, ctx -> {
+				Object value = ctx.lookupVariable(i);
+				if (value == null)
+					throw new UndeclaredVariableException(name);
+				return value;
+			});
+		
+		return of(expression, ctx -> {
+			Object value = ctx.lookupVariable(name);
+			if (value == null)
+				throw new UndeclaredVariableException(name);
+			return value;
+		}, ctx -> ctx.lookupIntVariable(name));
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Call expression) {
+		Expression[] arguments = expression.getArguments();
+		
+		switch (expression.getFunName()) {
+			
+			case "indent": {
+				CompiledExpression arg = arguments[0].accept(this);
+				return ofInt(expression, ctx -> ctx.getLineColumnIndex().getColumnNumber(intArgument(expression, arg, ctx)));
+			}
+			
+			case "not": {
+				CompiledExpression arg = arguments[0].accept(this);
+				if (arg.isBoolean())
+					return ofBoolean(expression, ctx -> !arg.evaluateBoolean(ctx));
+				
+				return ofBoolean(expression, ctx -> {
+					Object value = arg.evaluate(ctx);
+					if (!(value instanceof Boolean))
+						throw new UnexpectedTypeOfArgumentException(expression);
+					return !((Boolean) value);
+				});
+			}
+			
+			case "neg": {
+				CompiledExpression arg = arguments[0].accept(this);
+				return ofInt(expression, ctx -> -intArgument(expression, arg, ctx));
+			}
+			
+			case "len": {
+				CompiledExpression arg = arguments[0].accept(this);
+				return ofInt(expression, ctx -> {
+					NonPackedNode node = nodeArgument(expression, arg, ctx);
+					return node.getRightExtent() - node.getLeftExtent();
+				});
+			}
+			
+			case "pr1": {
+				CompiledExpression arg1 = arguments[0].accept(this);
+				CompiledExpression arg2 = arguments[1].accept(this);
+				CompiledExpression arg3 = arguments[2].accept(this);
+				return ofInt(expression, ctx -> {
+					int v = arg1.evaluateInt(ctx);
+					int curr = arg2.evaluateInt(ctx);
+					
+					if (v >= curr)
+						return v;
+					
+					int prev = arg3.evaluateInt(ctx); // prev is actually previous plus one
+					
+					if (v >= prev)
+						return curr;
+					
+					return 0;
+				});
+			}
+			
+			case "pr2": {
+				CompiledExpression arg1 = arguments[0].accept(this);
+				CompiledExpression arg2 = arguments[1].accept(this);
+				CompiledExpression[] arg3 = new CompiledExpression[arguments.length - 2];
+				for (int i = 2; i < arguments.length; i++)
+					arg3[i - 2] = arguments[i].accept(this);
+				
+				return ofInt(expression, ctx -> {
+					int v = arg1.evaluateInt(ctx);
+					int curr = arg2.evaluateInt(ctx);
+					
+					if (v >= curr)
+						return v;
+					
+					int prev = arg3[0].evaluateInt(ctx);
+					
+					if (v >= prev)
+						return curr;
+					
+					for (int i = 1; i < arg3.length; i++) {
+						prev = arg3[i].evaluateInt(ctx);
+						
+						if (v >= prev)
+							return prev;
+					}
+					
+					return 0;
+				});
+			}
+			
+			case "pr3": {
+				CompiledExpression arg1 = arguments[0].accept(this);
+				CompiledExpression arg2 = arguments[1].accept(this);
+				return ofInt(expression, ctx -> {
+					int v1 = arg1.evaluateInt(ctx);
+					int v2 = arg2.evaluateInt(ctx);
+					
+					if (v1 == 0)
+						return v2;
+					
+					if (v2 == 0)
+						return v1;
+					
+					return Math.min(v1, v2);
+				});
+			}
+			
+			case "min": {
+				CompiledExpression arg1 = arguments[0].accept(this);
+				CompiledExpression arg2 = arguments[1].accept(this);
+				return ofInt(expression, ctx -> Math.min(arg1.evaluateInt(ctx), arg2.evaluateInt(ctx)));
+			}
+			
+			default:
+				return CompiledExpression.interpreted(expression);
+		}
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Assignment expression) {
+		String id = expression.getId().intern();
+		int i = expression.getIndex();
+		CompiledExpression exp = expression.getExpression().accept(this);
+		
+		if (i != -1)
+			return of(expression, ctx -> {
+				ctx.storeVariable(i, exp.evaluate(ctx));
+				return null;
+			});
+		
+		return of(expression, ctx -> {
+			ctx.storeVariable(id, exp.evaluate(ctx));
+			return null;
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.LShiftANDEqZero expression) {
+		CompiledExpression lhs = expression.getLhs().accept(this);
+		CompiledExpression rhs = expression.getRhs().accept(this);
+		
+		if (lhs.isInt() && rhs.isInt())
+			return ofBoolean(expression, ctx -> (lhs.evaluateInt(ctx) & (1 << rhs.evaluateInt(ctx))) == 0);
+		
+		return ofBoolean(expression, ctx -> {
+			Object l = lhs.evaluate(ctx);
+			Object r = rhs.evaluate(ctx);
+			
+			if (l instanceof Integer && r instanceof Integer)
+				return (((Integer) l) & (1 << ((Integer) r))) == 0;
+			
+			throw new UnexpectedTypeOfArgumentException(expression);
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.OrIndent expression) {
+		CompiledExpression index = expression.getIndex().accept(this);
+		CompiledExpression ind = expression.getIndent().accept(this);
+		CompiledExpression first = expression.getFirst().accept(this);
+		CompiledExpression lExt = expression.getLExt().accept(this);
+		
+		return ofBoolean(expression, ctx -> {
+			int indent = ind.evaluateInt(ctx);
+			
+			if (indent == 0)
+				return true;
+			
+			if (first.evaluateInt(ctx) == 1) {
+				int i = index.evaluateInt(ctx);
+				int l = lExt.evaluateInt(ctx);
+				
+				if (l - i == 0)
+					return true;
+				
+				return ctx.getLineColumnIndex().getColumnNumber(l) > indent;
+			}
+			
+			return ctx.getLineColumnIndex().getColumnNumber(lExt.evaluateInt(ctx)) > indent;
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.AndIndent expression) {
+		CompiledExpression index = expression.getIndex().accept(this);
+		CompiledExpression first = expression.getFirst().accept(this);
+		CompiledExpression lExt = expression.getLExt().accept(this);
+		boolean returnIndex = expression.returnsIndex();
+		
+		return ofInt(expression, ctx -> {
+			if (first.evaluateInt(ctx) == 1) {
+				int i = index.evaluateInt(ctx);
+				
+				if (lExt.evaluateInt(ctx) - i == 0)
+					return returnIndex? i : 1;
+			}
+			
+			return 0;
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Or expression) {
+		CompiledExpression lhs = expression.getLhs().accept(this);
+		CompiledExpression rhs = expression.getRhs().accept(this);
+		return ofBoolean(expression, ctx -> lhs.evaluateBoolean(ctx) || rhs.evaluateBoolean(ctx));
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.And expression) {
+		CompiledExpression lhs = expression.getLhs().accept(this);
+		CompiledExpression rhs = expression.getRhs().accept(this);
+		return ofBoolean(expression, ctx -> lhs.evaluateBoolean(ctx) && rhs.evaluateBoolean(ctx));
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Less expression) {
+		return comparison(expression, expression.getLhs(), expression.getRhs(), (l, r) -> l < r, (l, r) -> l < r);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.LessThanEqual expression) {
+		return comparison(expression, expression.getLhs(), expression.getRhs(), (l, r) -> l <= r, (l, r) -> l <= r);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Greater expression) {
+		return comparison(expression, expression.getLhs(), expression.getRhs(), (l, r) -> l > r, (l, r) -> l > r);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.GreaterThanEqual expression) {
+		return comparison(expression, expression.getLhs(), expression.getRhs(), (l, r) -> l >= r, (l, r) -> l >= r);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Equal expression) {
+		CompiledExpression lhs = expression.getLhs().accept(this);
+		CompiledExpression rhs = expression.getRhs().accept(this);
+		
+		if (lhs.isInt() && rhs.isInt())
+			return ofBoolean(expression, ctx -> lhs.evaluateInt(ctx) == rhs.evaluateInt(ctx));
+		
+		return ofBoolean(expression, ctx -> {
+			Object l = lhs.evaluate(ctx);
+			Object r = rhs.evaluate(ctx);
+			
+			if (l == AST.UNDEF || r == AST.UNDEF)
+				return l == r;
+			
+			if ((l instanceof Integer && r instanceof Integer) || 
+				(l instanceof Float && r instanceof Float) || 
+				(l instanceof String && r instanceof String))
+				return l.equals(r);
+			
+			throw new UnexpectedTypeOfArgumentException(expression);
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.NotEqual expression) {
+		CompiledExpression lhs = expression.getLhs().accept(this);
+		CompiledExpression rhs = expression.getRhs().accept(this);
+		
+		if (lhs.isInt() && rhs.isInt())
+			return ofBoolean(expression, ctx -> lhs.evaluateInt(ctx) != rhs.evaluateInt(ctx));
+		
+		return ofBoolean(expression, ctx -> {
+			Object l = lhs.evaluate(ctx);
+			Object r = rhs.evaluate(ctx);
+			
+			if ((l instanceof Integer && r instanceof Integer) || 
+				(l instanceof Float && r instanceof Float))
+				return !l.equals(r);
+			
+			throw new UnexpectedTypeOfArgumentException(expression);
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.LeftExtent expression) {
+		String label = expression.getLabel();
+		String name = Expression.LeftExtent.variableName(label);
+		
+		return ofInt(expression, ctx -> ctx.lookupIntVariable(name));
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.RightExtent expression) {
+		String label = expression.getLabel().intern();
+		int i = expression.getIndex();
+		
+		return ofInt(expression, ctx -> {
+			Object value = i == -1? ctx.lookupVariable(label) : ctx.lookupVariable(i);
+			if (value == null)
+				throw new UndeclaredVariableException(label);
+			
+			if (!(value instanceof NonPackedNode))
+				throw new UnexpectedTypeOfArgumentException(expression);
+			
+			return ((NonPackedNode) value).getRightExtent();
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Yield expression) {
+		String label = expression.getLabel().intern();
+		int i = expression.getIndex();
+		
+		return of(expression, ctx -> {
+			Object value = i == -1? ctx.lookupVariable(label) : ctx.lookupVariable(i);
+			if (value == null)
+				throw new UndeclaredVariableException(label);
+			
+			if (!(value instanceof NonPackedNode))
+				throw new UnexpectedTypeOfArgumentException(expression);
+			
+			NonPackedNode node = (NonPackedNode) value;
+			return ctx.getInput().subString(node.getLeftExtent(), node.getRightExtent());
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.Val expression) {
+		String label = expression.getLabel().intern();
+		int i = expression.getIndex();
+		
+		return of(expression, ctx -> {
+			Object value = i == -1? ctx.lookupVariable(label) : ctx.lookupVariable(i);
+			if (value == null)
+				throw new UndeclaredVariableException(label);
+			
+			if (!(value instanceof NonterminalNode))
+				throw new UnexpectedTypeOfArgumentException(expression);
+			
+			return ((NonterminalNode) value).getValue();
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.EndOfFile expression) {
+		CompiledExpression index = expression.getIndex().accept(this);
+		return ofBoolean(expression, ctx -> ctx.getInput().length() == index.evaluateInt(ctx) + 1);
+	}
+
+	@Override
+	public CompiledExpression visit(Expression.IfThenElse expression) {
+		CompiledExpression condition = expression.getCondition().accept(this);
+		CompiledExpression thenPart = expression.getThenPart().accept(this);
+		CompiledExpression elsePart = expression.getElsePart().accept(this);
+		
+		if (thenPart.isInt() && elsePart.isInt())
+			return ofInt(expression, ctx -> condition.evaluateBoolean(ctx)? thenPart.evaluateInt(ctx) : elsePart.evaluateInt(ctx));
+		
+		if (thenPart.isBoolean() && elsePart.isBoolean())
+			return ofBoolean(expression, ctx -> condition.evaluateBoolean(ctx)? thenPart.evaluateBoolean(ctx) : elsePart.evaluateBoolean(ctx));
+		
+		return of(expression, ctx -> condition.evaluateBoolean(ctx)? thenPart.evaluate(ctx) : elsePart.evaluate(ctx));
+	}
+
+	@Override
+	public CompiledExpression visit(VariableDeclaration declaration) {
+		String name = declaration.getName().intern();
+		int i = declaration.getIndex();
+		CompiledExpression exp = declaration.getExpression() == null? null : declaration.getExpression().accept(this);
+		
+		return of(declaration, ctx -> {
+			Object value = exp == null? VariableDeclaration.defaultValue : exp.evaluate(ctx);
+			
+			if (i != -1)
+				ctx.declareVariable(value);
+			else
+				ctx.declareVariable(name, value);
+			
+			return null;
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Statement.Expression statement) {
+		CompiledExpression exp = statement.getExpression().accept(this);
+		return of(statement, ctx -> {
+			exp.evaluate(ctx);
+			return null;
+		});
+	}
+
+	@Override
+	public CompiledExpression visit(Statement.VariableDeclaration statement) {
+		return statement.getDeclaration().accept(this);
+	}
+
+}
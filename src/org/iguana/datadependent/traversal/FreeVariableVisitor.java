@@ -423,7 +423,7 @@ public class FreeVariableVisitor implements IAbstractASTVisitor<Void>, ISymbolVi
 	@Override
 	public Void visit(LeftExtent expression) {
 		
-		java.lang.String name = java.lang.String.format(org.iguana.datadependent.ast.Expression.LeftExtent.format, expression.getLabel());
+		java.lang.String name = org.iguana.datadependent.ast.Expression.LeftExtent.variableName(expression.getLabel());
 		
 		if (!expression.getEnv().contains(name)) 
 			use(name);
@@ -790,7 +790,7 @@ public class FreeVariableVisitor implements IAbstractASTVisitor<Void>, ISymbolVi
 		ImmutableSet<java.lang.String> env = symbol.getEnv();
 		
 		if (symbol.getLabel() != null)
-			env = env.__insert(java.lang.String.format(LeftExtent.format, symbol.getLabel()));
+			env = env.__insert(LeftExtent.variableName(symbol.getLabel()));
 		
 		for (Condition condition : symbol.getPreConditions()) {
 			condition.setEnv(env);
@@ -29,7 +29,24 @@ package org.iguana.grammar;
 
 import static iguana.regex.CharacterRanges.*;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -38,13 +55,12 @@ import iguana.utils.input.Input;
 
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.ast.Statement;
-import org.iguana.datadependent.env.GLLEvaluator;
-import org.iguana.datadependent.env.IEvaluatorContext;
 import org.iguana.grammar.condition.Condition;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.grammar.condition.ConditionsFactory;
 import org.iguana.grammar.exception.IncorrectNumberOfArgumentsException;
 import org.iguana.grammar.operations.FirstFollowSets;
+import org.iguana.grammar.slot.AbstractGrammarSlot;
 import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.grammar.slot.CodeTransition;
 import org.iguana.grammar.slot.ConditionalTransition;
@@ -58,33 +74,45 @@ import org.iguana.grammar.slot.NonterminalTransition;
 import org.iguana.grammar.slot.ReturnTransition;
 import org.iguana.grammar.slot.TerminalGrammarSlot;
 import org.iguana.grammar.slot.TerminalTransition;
+import org.iguana.grammar.slot.lookahead.ArrayFollowTest;
+import org.iguana.grammar.slot.lookahead.ArrayLookaheadTest;
 import org.iguana.grammar.slot.lookahead.FollowTest;
 import org.iguana.grammar.slot.lookahead.LookAheadTest;
-import org.iguana.grammar.slot.lookahead.RangeTreeFollowTest;
-import org.iguana.grammar.slot.lookahead.RangeTreeLookaheadTest;
 import org.iguana.grammar.symbol.*;
 import org.iguana.grammar.symbol.Terminal.Category;
 import org.iguana.grammar.transformation.VarToInt;
-import org.iguana.parser.ParserRuntime;
-import org.iguana.parser.ParserRuntimeImpl;
-import org.iguana.parser.gss.lookup.ArrayNodeLookup;
-import org.iguana.parser.gss.lookup.GSSNodeLookup;
-import org.iguana.parser.gss.lookup.IntOpenAddressingMap;
-import org.iguana.parser.gss.lookup.JavaHashMapNodeLookup;
 import iguana.regex.CharacterRange;
 import iguana.regex.Epsilon;
 import iguana.regex.RegularExpression;
 import iguana.regex.matcher.DFAMatcherFactory;
 import iguana.regex.matcher.MatcherFactory;
+import org.iguana.parser.ParserRuntimeFactory;
 import org.iguana.util.Configuration;
 import org.iguana.util.Configuration.EnvironmentImpl;
-import org.iguana.util.Configuration.HashMapImpl;
-import org.iguana.util.Configuration.LookupImpl;
 
+/**
+ * The compiled form of a grammar: grammar slots, transitions and lookahead tests.
+ * A grammar graph is not modified while parsing; all per-parse state lives in a
+ * {@link org.iguana.parser.ParserRuntime}, so a grammar graph can be shared between
+ * concurrent parses.
+ */
 public class GrammarGraph implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * The first bytes of a saved grammar graph, "IGGG".
+	 */
+	private static final int MAGIC = 0x49474747;
+
+	/**
+	 * The version of the format of saved grammar graphs, incremented when the format
+	 * or the construction of grammar graphs changes.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final int CONTENT_HASH_LENGTH = 32;
+
 	Map<Nonterminal, NonterminalGrammarSlot> nonterminalsMap;
 	
 	Map<Terminal, TerminalGrammarSlot> terminalsMap;
@@ -97,9 +125,7 @@ public class GrammarGraph implements Serializable {
 	
 	Grammar grammar;
 
-	private Configuration config;
-
-	private Input input;
+	private final Configuration config;
 	
 	private final Map<Integer, Map<String, Integer>> mapping;
 
@@ -109,27 +135,45 @@ public class GrammarGraph implements Serializable {
 	
 	private TerminalGrammarSlot epsilonSlot;
 
-    private ParserRuntime runtime;
+	private LookaheadTables lookaheadTables;
 
+	private TokenScanner tokenScanner;
+
+	private transient ParserRuntimeFactory runtimeFactory;
+
+    public static GrammarGraph from(Grammar grammar) {
+        return from(grammar, Configuration.load());
+    }
+
+    public static GrammarGraph from(Grammar grammar, Configuration config) {
+        GrammarGraph grammarGraph = new GrammarGraph(grammar, config);
+        grammarGraph.convert(new DFAMatcherFactory(), null);
+        return grammarGraph;
+    }
+
+    /**
+     * The grammar graph does not depend on the input; the input parameter is only kept
+     * for the existing callers.
+     */
     public static GrammarGraph from(Grammar grammar, Input input) {
-        return from(grammar, input, Configuration.load());
+        return from(grammar);
     }
 
     public static GrammarGraph from(Grammar grammar, Input input, Configuration config) {
-        IEvaluatorContext ctx = GLLEvaluator.getEvaluatorContext(config, input);
-        GrammarGraph grammarGraph = new GrammarGraph(grammar, input, config);
-        ParserRuntime runtime = new ParserRuntimeImpl(grammarGraph, config, ctx);
-        grammarGraph.convert(runtime);
-        return grammarGraph;
+        return from(grammar, config);
     }
 
-    private void convert(ParserRuntime runtime) {
-        matcherFactory = new DFAMatcherFactory();
+    private void convert(MatcherFactory matcherFactory, LookaheadTables lookaheadTables) {
+        this.matcherFactory = new SharingMatcherFactory(matcherFactory);
 
-        this.runtime = runtime;
-        this.firstFollow = new FirstFollowSets(this.grammar);
+        if (lookaheadTables == null) {
+            this.firstFollow = new FirstFollowSets(this.grammar);
+            this.lookaheadTables = new LookaheadTables();
+        } else {
+            this.lookaheadTables = lookaheadTables;
+        }
 
-        epsilonSlot = new TerminalGrammarSlot(Terminal.from(Epsilon.getInstance()), matcherFactory, runtime);
+        epsilonSlot = new TerminalGrammarSlot(Terminal.from(Epsilon.getInstance()), this.matcherFactory);
 
         terminalsMap.put(Terminal.from(Epsilon.getInstance()), epsilonSlot);
 
@@ -148,7 +192,7 @@ public class GrammarGraph implements Serializable {
         nonterminals.forEach(n -> setFirstFollowTests(n));
     }
 	
-	private GrammarGraph(Grammar grammar, Input input, Configuration config) {
+	private GrammarGraph(Grammar grammar, Configuration config) {
 		if (config.getEnvImpl() == EnvironmentImpl.ARRAY) {
 			VarToInt transformer = new VarToInt();
 			this.grammar = transformer.transform(grammar);
@@ -158,14 +202,149 @@ public class GrammarGraph implements Serializable {
 			this.grammar = grammar;
 			this.mapping = new HashMap<>();
 		}
-		this.input = input;
 		this.config = config;
+		this.runtimeFactory = ParserRuntimeFactory.of(config);
 		this.nonterminalsMap = new LinkedHashMap<>();
 		this.terminalsMap = new LinkedHashMap<>();
 		this.names = new HashMap<>();
 		this.slots = new ArrayList<>();
 	}
 	
+	private GrammarGraph(Grammar grammar, Map<Integer, Map<String, Integer>> mapping, Configuration config) {
+		this.grammar = grammar;
+		this.mapping = mapping;
+		this.config = config;
+		this.runtimeFactory = ParserRuntimeFactory.of(config);
+		this.nonterminalsMap = new LinkedHashMap<>();
+		this.terminalsMap = new LinkedHashMap<>();
+		this.names = new HashMap<>();
+		this.slots = new ArrayList<>();
+	}
+
+	/**
+	 * Saves this grammar graph in a binary format that can be loaded without transforming the grammar,
+	 * computing the first and follow sets, or compiling the terminals up front. The file contains
+	 * the grammar of this graph, after the transformations of the configuration, and the lookahead,
+	 * follow and second character sets of its slots, preceded by a SHA-256 hash of this content.
+	 * 
+	 * The grammar is stored with Java serialization, and loading builds the grammar slots and
+	 * transitions from it again. The matchers of the terminals are compiled on their first use.
+	 */
+	public void save(File file) {
+		try (OutputStream out = new FileOutputStream(file)) {
+			save(out);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public void save(OutputStream outputStream) {
+		try {
+			ByteArrayOutputStream grammarBytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(grammarBytes)) {
+				out.writeObject(grammar);
+				out.writeObject(mapping);
+			}
+
+			ByteArrayOutputStream content = new ByteArrayOutputStream();
+			DataOutputStream contentOut = new DataOutputStream(content);
+			contentOut.writeBoolean(config.getEnvImpl() == EnvironmentImpl.ARRAY);
+			contentOut.writeInt(config.getLookAheadCount());
+			contentOut.writeInt(slots.size());
+			contentOut.writeInt(grammarBytes.size());
+			grammarBytes.writeTo(contentOut);
+			lookaheadTables.write(contentOut);
+			contentOut.flush();
+
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.write(contentHash(content.toByteArray()));
+			out.writeInt(content.size());
+			content.writeTo(out);
+			out.flush();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	public static GrammarGraph load(File file) {
+		return load(file, Configuration.load());
+	}
+
+	public static GrammarGraph load(File file, Configuration config) {
+		try {
+			return load(new FileInputStream(file), config);
+		} catch (FileNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Loads a grammar graph saved with {@link #save(OutputStream)}. The saved graph must have been created
+	 * with the same environment implementation as the given configuration. If it was created with a smaller
+	 * lookahead than the configuration, the first and follow sets are computed.
+	 */
+	@SuppressWarnings("unchecked")
+	public static GrammarGraph load(InputStream inputStream, Configuration config) {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream))) {
+			if (in.readInt() != MAGIC)
+				throw new IllegalArgumentException("Not a saved grammar graph");
+
+			int version = in.readInt();
+			if (version != FORMAT_VERSION)
+				throw new IllegalArgumentException("Unsupported grammar graph format version " + version + ", expected " + FORMAT_VERSION);
+
+			byte[] hash = new byte[CONTENT_HASH_LENGTH];
+			in.readFully(hash);
+			byte[] content = new byte[in.readInt()];
+			in.readFully(content);
+			if (!Arrays.equals(hash, contentHash(content)))
+				throw new IllegalArgumentException("The content of the saved grammar graph does not match its hash");
+
+			DataInputStream contentIn = new DataInputStream(new ByteArrayInputStream(content));
+
+			boolean arrayEnv = contentIn.readBoolean();
+			if (arrayEnv != (config.getEnvImpl() == EnvironmentImpl.ARRAY))
+				throw new IllegalArgumentException("The grammar graph was saved with a different environment implementation");
+
+			int lookaheadCount = contentIn.readInt();
+			int slotsCount = contentIn.readInt();
+
+			byte[] grammarBytes = new byte[contentIn.readInt()];
+			contentIn.readFully(grammarBytes);
+			Grammar grammar;
+			Map<Integer, Map<String, Integer>> mapping;
+			try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(grammarBytes))) {
+				grammar = (Grammar) objectIn.readObject();
+				mapping = (Map<Integer, Map<String, Integer>>) objectIn.readObject();
+			}
+
+			LookaheadTables lookaheadTables = LookaheadTables.read(contentIn);
+			// The second character sets are only saved with a lookahead of more than one character
+			if (lookaheadCount < Math.min(config.getLookAheadCount(), 2))
+				lookaheadTables = null;
+
+			GrammarGraph grammarGraph = new GrammarGraph(grammar, mapping, config);
+			grammarGraph.convert(new LazyMatcherFactory(new DFAMatcherFactory()), lookaheadTables);
+
+			if (grammarGraph.slots.size() != slotsCount)
+				throw new IllegalStateException("The slots of the loaded grammar graph do not match the saved ones");
+
+			return grammarGraph;
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static byte[] contentHash(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	public NonterminalGrammarSlot getHead(Nonterminal start) {
 		return nonterminalsMap.get(start);
 	}	
@@ -174,6 +353,15 @@ public class GrammarGraph implements Serializable {
 		return terminalsMap.get(regex);
 	}
 
+	/**
+	 * Returns the scanner of the terminals of this grammar graph, which is created on the first call.
+	 */
+	public synchronized TokenScanner getTokenScanner() {
+		if (tokenScanner == null)
+			tokenScanner = new TokenScanner(terminalsMap.values(), slots.size());
+		return tokenScanner;
+	}
+
 	public GrammarSlot getSlot(String s) {
 		return names.get(s);
 	}
@@ -181,6 +369,26 @@ public class GrammarGraph implements Serializable {
 	public Collection<NonterminalGrammarSlot> getNonterminals() {
 		return nonterminalsMap.values();
 	}
+
+	/**
+	 * Returns all grammar slots, in the order of their ids.
+	 */
+	public List<GrammarSlot> getGrammarSlots() {
+		return Collections.unmodifiableList(slots);
+	}
+
+	public Configuration getConfiguration() {
+		return config;
+	}
+
+	/**
+	 * Returns the factory of the runtimes of the parses with the configuration of this grammar graph.
+	 */
+	public ParserRuntimeFactory getRuntimeFactory() {
+		if (runtimeFactory == null)
+			runtimeFactory = ParserRuntimeFactory.of(config);
+		return runtimeFactory;
+	}
 	
 	private void convert(Rule rule) {
 		Nonterminal nonterminal = rule.getHead();
@@ -191,12 +399,49 @@ public class GrammarGraph implements Serializable {
 	private void setFirstFollowTests(Nonterminal nonterminal) {
 		NonterminalGrammarSlot nonterminalSlot = getNonterminalGrammarSlot(nonterminal);
 		nonterminalSlot.setLookAheadTest(getLookAheadTest(nonterminal, nonterminalSlot));
-		nonterminalSlot.setFollowTest(getFollowTest(nonterminal));
+		nonterminalSlot.setFollowTest(getFollowTest(nonterminalSlot));
+		if (config.getLookAheadCount() > 1)
+			setSecondCharacterTests(nonterminal, nonterminalSlot);
+	}
+
+	/**
+	 * With a lookahead of more than one character, the first slots of the rules whose second
+	 * character is known also test the character after the first one, see
+	 * {@link FirstFollowSets#getSecondCharacterSet(Rule)}.
+	 */
+	private void setSecondCharacterTests(Nonterminal nonterminal, NonterminalGrammarSlot nonterminalSlot) {
+		List<BodyGrammarSlot> firstSlots = nonterminalSlot.getFirstSlots();
+
+		// The first and follow sets are not computed for a loaded grammar graph
+		if (firstFollow == null) {
+			for (BodyGrammarSlot firstSlot : firstSlots) {
+				Set<CharacterRange> saved = lookaheadTables.getSecondCharacters(firstSlot.getId());
+				if (saved != null)
+					firstSlot.setSecondCharacterTest(new ArrayFollowTest(saved));
+			}
+			return;
+		}
+
+		List<Rule> alternatives = grammar.getAlternatives(nonterminal);
+		for (int i = 0; i < alternatives.size(); i++) {
+			Set<CharacterRange> set = firstFollow.getSecondCharacterSet(alternatives.get(i));
+			if (set != null) {
+				Set<CharacterRange> nonOverlapping = toNonOverlappingSet(set);
+				lookaheadTables.putSecondCharacters(firstSlots.get(i).getId(), nonOverlapping);
+				firstSlots.get(i).setSecondCharacterTest(new ArrayFollowTest(nonOverlapping));
+			}
+		}
 	}
 
 	private LookAheadTest getLookAheadTest(Nonterminal nonterminal, NonterminalGrammarSlot nonterminalSlot) {
-		if (config.getLookAheadCount() == 0)
-			return i -> nonterminalSlot.getFirstSlots();
+		if (config.getLookAheadCount() == 0) {
+			BodyGrammarSlot[] firstSlots = nonterminalSlot.getFirstSlots().toArray(LookAheadTest.NO_SLOTS);
+			return i -> firstSlots;
+		}
+
+		Map<CharacterRange, List<BodyGrammarSlot>> saved = lookaheadTables.getLookahead(nonterminalSlot.getId(), nonterminalSlot.getFirstSlots());
+		if (saved != null)
+			return new ArrayLookaheadTest(saved);
 		
 		Map<CharacterRange, List<BodyGrammarSlot>> map = new HashMap<>();
 		
@@ -220,27 +465,38 @@ public class GrammarGraph implements Serializable {
 		
 		rangeMap.keySet().forEach(r -> nonOverlappingMap.computeIfAbsent(r, range -> new ArrayList<>()).addAll(f.apply(r))); 
 		
-		return new RangeTreeLookaheadTest(nonOverlappingMap);
+		lookaheadTables.putLookahead(nonterminalSlot.getId(), nonOverlappingMap, nonterminalSlot.getFirstSlots());
+		return new ArrayLookaheadTest(nonOverlappingMap);
 	}
 	
-	private FollowTest getFollowTest(Nonterminal nonterminal) {
+	private FollowTest getFollowTest(NonterminalGrammarSlot nonterminalSlot) {
 		
 		if (config.getLookAheadCount() == 0)
 			return FollowTest.DEFAULT;
+
+		Set<CharacterRange> saved = lookaheadTables.getFollow(nonterminalSlot.getId());
+		if (saved != null)
+			return new ArrayFollowTest(saved);
 		
 		// TODO: move toNonOverlapping to first follow itself
-		Set<CharacterRange> followSet = toNonOverlappingSet(firstFollow.getFollowSet(nonterminal));
+		Set<CharacterRange> followSet = toNonOverlappingSet(firstFollow.getFollowSet(nonterminalSlot.getNonterminal()));
 		
-		return new RangeTreeFollowTest(followSet);
+		lookaheadTables.putFollow(nonterminalSlot.getId(), followSet);
+		return new ArrayFollowTest(followSet);
 	}
 	
-	private FollowTest getFollowTest(Rule rule, int i) {
+	private FollowTest getFollowTest(BodyGrammarSlot slot, Rule rule, int i) {
 		if (config.getLookAheadCount() == 0)
 			return FollowTest.DEFAULT;
 
+		Set<CharacterRange> saved = lookaheadTables.getFollow(slot.getId());
+		if (saved != null)
+			return new ArrayFollowTest(saved);
+
 		Set<CharacterRange> set = toNonOverlappingSet(firstFollow.getPredictionSet(rule, i));
 		
-		return new RangeTreeFollowTest(set);
+		lookaheadTables.putFollow(slot.getId(), set);
+		return new ArrayFollowTest(set);
 	}
 	
 	private void addRule(NonterminalGrammarSlot head, Rule rule) {
@@ -255,10 +511,6 @@ public class GrammarGraph implements Serializable {
 			rule2graph.nextSymbol();
 	}
 
-    public ParserRuntime getRuntime() {
-        return runtime;
-    }
-
     private class GrammarGraphSymbolVisitor extends  AbstractGrammarGraphSymbolVisitor<Void> {
 		
 		private final NonterminalGrammarSlot head;
@@ -300,7 +552,7 @@ public class GrammarGraph implements Serializable {
 			validateNumberOfArguments(nonterminalSlot.getNonterminal(), arguments);
 			
 			Set<Condition> preConditions = (i == 0 && j == -1)? new HashSet<>() : symbol.getPreConditions();
-			currentSlot.addTransition(new NonterminalTransition(nonterminalSlot, currentSlot, slot, arguments, getConditions(preConditions), runtime));
+			currentSlot.addTransition(new NonterminalTransition(nonterminalSlot, currentSlot, slot, arguments, getConditions(preConditions)));
 			currentSlot = slot;
 			
 			return null;
@@ -315,7 +567,7 @@ public class GrammarGraph implements Serializable {
 			visitSymbol(sym);
 			
 			BodyGrammarSlot thenSlot = getBodyGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
-			currentSlot.addTransition(new ConditionalTransition(expression, currentSlot, thenSlot, runtime));
+			currentSlot.addTransition(new ConditionalTransition(expression, currentSlot, thenSlot));
 			currentSlot = thenSlot;
 			
 			return null;
@@ -330,7 +582,7 @@ public class GrammarGraph implements Serializable {
 			visitSymbol(sym);
 			
 			BodyGrammarSlot done = getBodyGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
-			currentSlot.addTransition(new CodeTransition(statements, currentSlot, done, runtime));
+			currentSlot.addTransition(new CodeTransition(statements, currentSlot, done));
 			currentSlot = done;
 			
 			return null;
@@ -342,12 +594,12 @@ public class GrammarGraph implements Serializable {
 				throw new RuntimeException("Return symbol can only be used at the end of a grammar rule!");
 			else {
 				if (rule.size() == 1)
-					done = new EpsilonGrammarSlot(rule.getPosition(i + 1), head, epsilonSlot, ConditionsFactory.DEFAULT, rule.getAction(), rule.getRuleType(), runtime);
+					done = new EpsilonGrammarSlot(rule.getPosition(i + 1), head, epsilonSlot, ConditionsFactory.DEFAULT, rule.getAction(), rule.getRuleType());
 				else
 					done = getEndGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
 			}
 			
-			currentSlot.addTransition(new ReturnTransition(symbol.getExpression(), currentSlot, done, runtime));
+			currentSlot.addTransition(new ReturnTransition(symbol.getExpression(), currentSlot, done));
 			currentSlot = done;
 			
 			return null;
@@ -391,11 +643,11 @@ public class GrammarGraph implements Serializable {
 			
 			if (symbol.getLabel() != null) {
 				BodyGrammarSlot declared = getBodyGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
-				currentSlot.addTransition(new EpsilonTransition(Type.DECLARE_LABEL, symbol.getLabel(), preconditions, currentSlot, declared, runtime));
+				currentSlot.addTransition(new EpsilonTransition(Type.DECLARE_LABEL, symbol.getLabel(), preconditions, currentSlot, declared));
 				currentSlot = declared;
 			} else {
 				BodyGrammarSlot checked = getBodyGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
-				currentSlot.addTransition(new EpsilonTransition(preconditions, currentSlot, checked, runtime));
+				currentSlot.addTransition(new EpsilonTransition(preconditions, currentSlot, checked));
 				currentSlot = checked;
 			}
 			
@@ -413,7 +665,7 @@ public class GrammarGraph implements Serializable {
 				else
 					stored = getBodyGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
 				
-				currentSlot.addTransition(new EpsilonTransition(Type.STORE_LABEL, symbol.getLabel(), getConditions(symbol.getPostConditions()), currentSlot, stored, runtime));
+				currentSlot.addTransition(new EpsilonTransition(Type.STORE_LABEL, symbol.getLabel(), getConditions(symbol.getPostConditions()), currentSlot, stored));
 				currentSlot = stored;
 			} else {
 				
@@ -423,7 +675,7 @@ public class GrammarGraph implements Serializable {
 				else
 					checked = getBodyGrammarSlot(rule, i + 1, rule.getPosition(i + 1), head, null, null, null);
 				
-				currentSlot.addTransition(new EpsilonTransition(getConditions(symbol.getPostConditions()), currentSlot, checked, runtime));
+				currentSlot.addTransition(new EpsilonTransition(getConditions(symbol.getPostConditions()), currentSlot, checked));
 				currentSlot = checked;
 			}
 		}
@@ -434,12 +686,12 @@ public class GrammarGraph implements Serializable {
 															 BodyGrammarSlot origin, BodyGrammarSlot dest,
 															 Set<Condition> preConditions, Set<Condition> postConditions) {
 		
-		return new TerminalTransition(slot, origin, dest, getConditions(preConditions), getConditions(postConditions), runtime);
+		return new TerminalTransition(slot, origin, dest, getConditions(preConditions), getConditions(postConditions));
 	}
 	
 	private TerminalGrammarSlot getTerminalGrammarSlot(Terminal t, String name) {
         return terminalsMap.computeIfAbsent(t, k -> {
-            TerminalGrammarSlot terminalSlot = new TerminalGrammarSlot(t, matcherFactory, name, runtime);
+            TerminalGrammarSlot terminalSlot = new TerminalGrammarSlot(t, matcherFactory, name);
             add(terminalSlot);
             return terminalSlot;
         });
@@ -448,7 +700,7 @@ public class GrammarGraph implements Serializable {
 	private NonterminalGrammarSlot getNonterminalGrammarSlot(Nonterminal nonterminal) {
 		return nonterminalsMap.computeIfAbsent(nonterminal, k -> {
 			NonterminalGrammarSlot ntSlot;
-			ntSlot = new NonterminalGrammarSlot(nonterminal, getNodeLookup(), nonterminal.getNodeType(), runtime);
+			ntSlot = new NonterminalGrammarSlot(nonterminal, nonterminal.getNodeType());
 			add(ntSlot);
 			return ntSlot;
 		});
@@ -458,14 +710,14 @@ public class GrammarGraph implements Serializable {
 		BodyGrammarSlot slot;
 		
 		if (rule.size() == 0) {
-			slot = new EpsilonGrammarSlot(rule.getPosition(0,0), nonterminal, epsilonSlot, ConditionsFactory.DEFAULT, rule.getAction(), rule.getRuleType(), runtime);
+			slot = new EpsilonGrammarSlot(rule.getPosition(0,0), nonterminal, epsilonSlot, ConditionsFactory.DEFAULT, rule.getAction(), rule.getRuleType());
 		} else {
 			// TODO: This is not a final solution; in particular, 
 			//       not any precondition of the first symbol (due to labels) can currently be moved to the first slot.  
 			Set<Condition> preConditions = new HashSet<>();
 			preConditions.addAll(rule.symbolAt(0).getPreConditions());
 			 
-			slot = new BodyGrammarSlot(rule.getPosition(0,0), rule.symbolAt(0).getLabel(), null, null, getConditions(preConditions), runtime);
+			slot = new BodyGrammarSlot(rule.getPosition(0,0), rule.symbolAt(0).getLabel(), null, null, getConditions(preConditions));
 		}
 		add(slot);
 		return slot;
@@ -477,12 +729,12 @@ public class GrammarGraph implements Serializable {
 		BodyGrammarSlot slot;
 		if (current != null)
 			slot = new BodyGrammarSlot(position, label, (label != null && !label.isEmpty())? current.get(label) : -1,
-									   variable, (variable != null && !variable.isEmpty())? current.get(variable) : -1, state, getConditions(rule.symbolAt(i - 1).getPostConditions()), runtime);
+									   variable, (variable != null && !variable.isEmpty())? current.get(variable) : -1, state, getConditions(rule.symbolAt(i - 1).getPostConditions()));
 		else
-			slot = new BodyGrammarSlot(position, label, variable, state, getConditions(rule.symbolAt(i - 1).getPostConditions()), runtime);
+			slot = new BodyGrammarSlot(position, label, variable, state, getConditions(rule.symbolAt(i - 1).getPostConditions()));
 		
 		add(slot);
-		slot.setFollowTest(getFollowTest(rule, i));
+		slot.setFollowTest(getFollowTest(slot, rule, i));
 		return slot;
 	}
 	
@@ -492,33 +744,21 @@ public class GrammarGraph implements Serializable {
 		BodyGrammarSlot slot;
 		if (current != null)
 			slot = new EndGrammarSlot(position, nonterminal, label, (label != null && !label.isEmpty())? current.get(label) : -1,
-									  variable, (variable != null && !variable.isEmpty())? current.get(variable) : -1, state, getConditions(rule.symbolAt(i - 1).getPostConditions()), rule.getAction(), rule.getRuleType(), runtime);
+									  variable, (variable != null && !variable.isEmpty())? current.get(variable) : -1, state, getConditions(rule.symbolAt(i - 1).getPostConditions()), rule.getAction(), rule.getRuleType());
 		else
-			slot = new EndGrammarSlot(position, nonterminal, label, variable, state, getConditions(rule.symbolAt(i - 1).getPostConditions()), rule.getAction(), rule.getRuleType(), runtime);
+			slot = new EndGrammarSlot(position, nonterminal, label, variable, state, getConditions(rule.symbolAt(i - 1).getPostConditions()), rule.getAction(), rule.getRuleType());
 		
 		add(slot);
-		slot.setFollowTest(getFollowTest(rule, i));
+		slot.setFollowTest(getFollowTest(slot, rule, i));
 		return slot;
 	}
 
-	private void add(GrammarSlot slot) {
+	private void add(AbstractGrammarSlot slot) {
+		slot.setId(slots.size());
         names.put(slot.toString(), slot);
 		slots.add(slot);
 	}
 	
-	private GSSNodeLookup getNodeLookup() {
-		if (config.getGSSLookupImpl() == LookupImpl.HASH_MAP) {
-			if (config.getHashmapImpl() == HashMapImpl.JAVA)
-				return new JavaHashMapNodeLookup();
-			else if (config.getHashmapImpl() == HashMapImpl.INT_OPEN_ADDRESSING)
-				return new IntOpenAddressingMap(); 
-			else
-				throw new RuntimeException();
-		} else {
-			return new ArrayNodeLookup(input);
-		}
-	}
-	
 	static private void validateNumberOfArguments(Nonterminal nonterminal, Expression[] arguments) {
 		String[] parameters = nonterminal.getParameters();
 		if ((parameters == null && arguments == null) 
@@ -527,10 +767,6 @@ public class GrammarGraph implements Serializable {
 		throw new IncorrectNumberOfArgumentsException(nonterminal, arguments);
 	}
 
-	public void reset(Input input) {
-		slots.forEach(s -> s.reset(input));
-	}
-
 	private Conditions getConditions(Set<Condition> conditions) {
 		if (conditions.isEmpty())
 			return ConditionsFactory.DEFAULT;
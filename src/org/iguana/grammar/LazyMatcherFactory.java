@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.grammar;
+
+import java.util.function.Supplier;
+
+import iguana.regex.RegularExpression;
+import iguana.regex.matcher.Matcher;
+import iguana.regex.matcher.MatcherFactory;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * A matcher factory that compiles the matcher of a regular expression the first time it is used,
+ * so that loading a grammar graph does not compile the terminals and conditions a parse does not reach.
+ *
+ */
+class LazyMatcherFactory implements MatcherFactory {
+
+	private final MatcherFactory factory;
+
+	LazyMatcherFactory(MatcherFactory factory) {
+		this.factory = factory;
+	}
+
+	@Override
+	public Matcher getMatcher(RegularExpression regex) {
+		return new LazyMatcher(() -> factory.getMatcher(regex));
+	}
+
+	@Override
+	public Matcher getBackwardsMatcher(RegularExpression regex) {
+		return new LazyMatcher(() -> factory.getBackwardsMatcher(regex));
+	}
+
+	private static class LazyMatcher implements Matcher {
+
+		private final Supplier<Matcher> supplier;
+
+		private volatile Matcher matcher;
+
+		LazyMatcher(Supplier<Matcher> supplier) {
+			this.supplier = supplier;
+		}
+
+		@Override
+		public int match(Input input, int i) {
+			return get().match(input, i);
+		}
+
+		@Override
+		public boolean match(Input input, int start, int end) {
+			return get().match(input, start, end);
+		}
+
+		private Matcher get() {
+			Matcher m = matcher;
+			if (m == null) {
+				synchronized (this) {
+					m = matcher;
+					if (m == null) {
+						m = supplier.get();
+						matcher = m;
+					}
+				}
+			}
+			return m;
+		}
+	}
+
+}
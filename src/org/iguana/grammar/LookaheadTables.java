@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.grammar;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.iguana.grammar.slot.BodyGrammarSlot;
+
+import iguana.regex.CharacterRange;
+
+/**
+ * 
+ * The lookahead and follow sets of the slots of a grammar graph, as non-overlapping character ranges,
+ * keyed by slot id. A grammar graph records the sets it computes from the first and follow sets of its
+ * grammar, so that they can be saved and used again without computing the first and follow sets.
+ * 
+ * A lookahead set is stored as a flat array of (start, end, n, alternative_1, ..., alternative_n) entries,
+ * where the alternatives are indices into the first slots of the nonterminal, and a follow set, or the set
+ * of second characters of a first slot, as a flat array of (start, end) pairs.
+ *
+ */
+class LookaheadTables {
+
+	private final Map<Integer, int[]> lookaheads;
+
+	private final Map<Integer, int[]> follows;
+
+	private final Map<Integer, int[]> secondCharacters;
+
+	LookaheadTables() {
+		this.lookaheads = new HashMap<>();
+		this.follows = new HashMap<>();
+		this.secondCharacters = new HashMap<>();
+	}
+
+	void putLookahead(int slotId, Map<CharacterRange, List<BodyGrammarSlot>> map, List<BodyGrammarSlot> firstSlots) {
+		List<CharacterRange> ranges = new ArrayList<>(map.keySet());
+		Collections.sort(ranges);
+
+		int size = 0;
+		for (CharacterRange range : ranges)
+			size += 3 + map.get(range).size();
+
+		int[] table = new int[size];
+		int i = 0;
+		for (CharacterRange range : ranges) {
+			List<BodyGrammarSlot> slots = map.get(range);
+			table[i++] = range.getStart();
+			table[i++] = range.getEnd();
+			table[i++] = slots.size();
+			for (BodyGrammarSlot slot : slots)
+				table[i++] = firstSlots.indexOf(slot);
+		}
+		lookaheads.put(slotId, table);
+	}
+
+	void putFollow(int slotId, Set<CharacterRange> set) {
+		follows.put(slotId, toTable(set));
+	}
+
+	void putSecondCharacters(int slotId, Set<CharacterRange> set) {
+		secondCharacters.put(slotId, toTable(set));
+	}
+
+	/**
+	 * Returns the lookahead set of the nonterminal slot with the given id, or null if there is none.
+	 */
+	Map<CharacterRange, List<BodyGrammarSlot>> getLookahead(int slotId, List<BodyGrammarSlot> firstSlots) {
+		int[] table = lookaheads.get(slotId);
+		if (table == null)
+			return null;
+
+		Map<CharacterRange, List<BodyGrammarSlot>> map = new HashMap<>();
+		int i = 0;
+		while (i < table.length) {
+			CharacterRange range = CharacterRange.in(table[i], table[i + 1]);
+			int n = table[i + 2];
+			List<BodyGrammarSlot> slots = new ArrayList<>(n);
+			for (int j = 0; j < n; j++)
+				slots.add(firstSlots.get(table[i + 3 + j]));
+			map.put(range, slots);
+			i += 3 + n;
+		}
+		return map;
+	}
+
+	/**
+	 * Returns the follow set of the slot with the given id, or null if there is none.
+	 */
+	Set<CharacterRange> getFollow(int slotId) {
+		return toSet(follows.get(slotId));
+	}
+
+	/**
+	 * Returns the set of second characters of the first slot with the given id, or null if the
+	 * slot does not test the second character.
+	 */
+	Set<CharacterRange> getSecondCharacters(int slotId) {
+		return toSet(secondCharacters.get(slotId));
+	}
+
+	boolean isEmpty() {
+		return lookaheads.isEmpty() && follows.isEmpty() && secondCharacters.isEmpty();
+	}
+
+	void write(DataOutput out) throws IOException {
+		write(out, lookaheads);
+		write(out, follows);
+		write(out, secondCharacters);
+	}
+
+	static LookaheadTables read(DataInput in) throws IOException {
+		LookaheadTables tables = new LookaheadTables();
+		read(in, tables.lookaheads);
+		read(in, tables.follows);
+		read(in, tables.secondCharacters);
+		return tables;
+	}
+
+	private static int[] toTable(Set<CharacterRange> set) {
+		List<CharacterRange> ranges = new ArrayList<>(set);
+		Collections.sort(ranges);
+
+		int[] table = new int[ranges.size() * 2];
+		int i = 0;
+		for (CharacterRange range : ranges) {
+			table[i++] = range.getStart();
+			table[i++] = range.getEnd();
+		}
+		return table;
+	}
+
+	private static Set<CharacterRange> toSet(int[] table) {
+		if (table == null)
+			return null;
+
+		Set<CharacterRange> set = new LinkedHashSet<>();
+		for (int i = 0; i < table.length; i += 2)
+			set.add(CharacterRange.in(table[i], table[i + 1]));
+		return set;
+	}
+
+	private static void write(DataOutput out, Map<Integer, int[]> tables) throws IOException {
+		out.writeInt(tables.size());
+		for (Map.Entry<Integer, int[]> e : tables.entrySet()) {
+			out.writeInt(e.getKey());
+			out.writeInt(e.getValue().length);
+			for (int v : e.getValue())
+				out.writeInt(v);
+		}
+	}
+
+	private static void read(DataInput in, Map<Integer, int[]> tables) throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			int slotId = in.readInt();
+			int[] table = new int[in.readInt()];
+			for (int j = 0; j < table.length; j++)
+				table[j] = in.readInt();
+			tables.put(slotId, table);
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.grammar;
+
+import iguana.regex.matcher.Matcher;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * The matcher of a regular expression in a grammar graph, shared by all the terminals and
+ * conditions with the same regular expression. The id is dense per grammar graph, so that
+ * the results of the matcher can be kept in a per-parse {@link org.iguana.parser.MatchCache}.
+ *
+ */
+public final class SharedMatcher implements Matcher {
+
+	private final int id;
+
+	private final Matcher matcher;
+
+	SharedMatcher(int id, Matcher matcher) {
+		this.id = id;
+		this.matcher = matcher;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public int match(Input input, int i) {
+		return matcher.match(input, i);
+	}
+
+	@Override
+	public boolean match(Input input, int start, int end) {
+		return matcher.match(input, start, end);
+	}
+
+}
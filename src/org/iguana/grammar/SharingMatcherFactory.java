@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.grammar;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import iguana.regex.RegularExpression;
+import iguana.regex.matcher.Matcher;
+import iguana.regex.matcher.MatcherFactory;
+
+/**
+ * 
+ * A matcher factory that returns the same {@link SharedMatcher} for equal regular expressions.
+ * Forward and backwards matchers of the same regular expression get different ids.
+ *
+ */
+class SharingMatcherFactory implements MatcherFactory {
+
+	private final MatcherFactory factory;
+
+	private final Map<RegularExpression, SharedMatcher> matchers = new HashMap<>();
+
+	private final Map<RegularExpression, SharedMatcher> backwardsMatchers = new HashMap<>();
+
+	private int count;
+
+	SharingMatcherFactory(MatcherFactory factory) {
+		this.factory = factory;
+	}
+
+	@Override
+	public synchronized Matcher getMatcher(RegularExpression regex) {
+		return matchers.computeIfAbsent(regex, r -> new SharedMatcher(count++, factory.getMatcher(r)));
+	}
+
+	@Override
+	public synchronized Matcher getBackwardsMatcher(RegularExpression regex) {
+		return backwardsMatchers.computeIfAbsent(regex, r -> new SharedMatcher(count++, factory.getBackwardsMatcher(r)));
+	}
+
+}
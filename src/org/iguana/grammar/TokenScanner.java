@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.grammar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import iguana.regex.CharacterRange;
+import iguana.regex.RegularExpression;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+
+/**
+ * 
+ * The terminals of a grammar graph that can be scanned ahead of a parse into a
+ * {@link org.iguana.parser.TokenLattice}, indexed by the characters they can start with.
+ * These are the terminals that are not nullable and only start with a character.
+ * The candidates for an ASCII character are looked up in an array; all scanned terminals
+ * that can start with another character are candidates for it, and their matcher decides.
+ *
+ */
+public class TokenScanner {
+
+	private static final int ASCII_SIZE = 128;
+
+	private static final TerminalGrammarSlot[] NO_TERMINALS = new TerminalGrammarSlot[0];
+
+	private final TerminalGrammarSlot[][] asciiCandidates;
+
+	private final TerminalGrammarSlot[] otherCandidates;
+
+	private final boolean[] scanned;
+
+	TokenScanner(Collection<TerminalGrammarSlot> terminals, int slotsCount) {
+		List<List<TerminalGrammarSlot>> ascii = new ArrayList<>(ASCII_SIZE);
+		for (int c = 0; c < ASCII_SIZE; c++)
+			ascii.add(new ArrayList<>());
+		List<TerminalGrammarSlot> others = new ArrayList<>();
+		scanned = new boolean[slotsCount];
+
+		for (TerminalGrammarSlot slot : terminals) {
+			RegularExpression regex = slot.getTerminal().getRegex();
+			if (regex.isNullable())
+				continue;
+
+			Set<CharacterRange> firstSet = regex.getFirstSet();
+			if (firstSet.isEmpty() || firstSet.stream().anyMatch(r -> r.getStart() < 0))
+				continue;
+
+			scanned[slot.getId()] = true;
+			for (CharacterRange range : firstSet) {
+				for (int c = range.getStart(); c <= Math.min(range.getEnd(), ASCII_SIZE - 1); c++)
+					if (!ascii.get(c).contains(slot))
+						ascii.get(c).add(slot);
+				if (range.getEnd() >= ASCII_SIZE && !others.contains(slot))
+					others.add(slot);
+			}
+		}
+
+		asciiCandidates = new TerminalGrammarSlot[ASCII_SIZE][];
+		for (int c = 0; c < ASCII_SIZE; c++)
+			asciiCandidates[c] = ascii.get(c).isEmpty() ? NO_TERMINALS : ascii.get(c).toArray(NO_TERMINALS);
+		otherCandidates = others.toArray(NO_TERMINALS);
+	}
+
+	/**
+	 * Returns the scanned terminals that may match at a position starting with the character c.
+	 */
+	public TerminalGrammarSlot[] getCandidates(int c) {
+		if (c < 0)
+			return NO_TERMINALS;
+		if (c < ASCII_SIZE)
+			return asciiCandidates[c];
+		return otherCandidates;
+	}
+
+	/**
+	 * Whether the matches of the terminal slot are in the token lattices of this scanner.
+	 */
+	public boolean isScanned(TerminalGrammarSlot slot) {
+		return scanned[slot.getId()];
+	}
+
+}
@@ -29,6 +29,7 @@ package org.iguana.grammar.condition;
 
 import iguana.utils.input.Input;
 import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.parser.gss.GSSNode;
 
 
@@ -40,10 +41,14 @@ import org.iguana.parser.gss.GSSNode;
 @FunctionalInterface
 public interface Conditions {
 	
-	public boolean execute(Input input, GSSNode u, int i);
+	/**
+	 * Returns true if one of the conditions rejects the parse at the GSS node u and the input index i.
+	 * The slot is the body grammar slot that checks the conditions, to which a rejection is reported.
+	 */
+	public boolean execute(Input input, BodyGrammarSlot slot, GSSNode u, int i);
 	
-	default boolean execute(Input input, GSSNode u, int i, IEvaluatorContext ctx) {
-		return execute(input, u, i);
+	default boolean execute(Input input, BodyGrammarSlot slot, GSSNode u, int i, IEvaluatorContext ctx) {
+		return execute(input, slot, u, i);
 	}
 	
 }
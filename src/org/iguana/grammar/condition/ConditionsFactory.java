@@ -35,6 +35,7 @@ import java.util.stream.Collectors;
 import iguana.utils.input.Input;
 import org.iguana.datadependent.env.GLLEvaluator;
 import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.parser.gss.GSSNode;
 import iguana.regex.matcher.MatcherFactory;
 import org.iguana.traversal.ToSlotActionConditionVisitor;
@@ -47,7 +48,7 @@ public class ConditionsFactory {
 	public static Conditions DEFAULT = new Conditions() {
 		
 		@Override
-		public boolean execute(Input input, GSSNode u, int i) {
+		public boolean execute(Input input, BodyGrammarSlot slot, GSSNode u, int i) {
 			return false;
 		}
 		
@@ -76,16 +77,17 @@ public class ConditionsFactory {
 			return new Conditions() {
 				
 				@Override
-				public boolean execute(Input input, GSSNode u, int i) {
-					return execute(input, u, i, GLLEvaluator.getDefaultEvaluatorContext(input));
+				public boolean execute(Input input, BodyGrammarSlot slot, GSSNode u, int i) {
+					return execute(input, slot, u, i, GLLEvaluator.getDefaultEvaluatorContext(input));
 				}
 				
 				@Override
-				public boolean execute(Input input, GSSNode u, int i, IEvaluatorContext ctx) {
-					for (SlotAction c : actions) {
-					    if (c.execute(input, u, i, ctx)) {
+				public boolean execute(Input input, BodyGrammarSlot slot, GSSNode u, int i, IEvaluatorContext ctx) {
+					for (int k = 0; k < actions.size(); k++) {
+					    if (actions.get(k).execute(input, u, i, ctx)) {
 //			                log.trace("Condition %s executed with %s", c, ctx.getEnvironment());
-                            u.getGrammarSlot().getRuntime().recordParseError(input, i, u.getGrammarSlot(), u);
+                            u.getRuntime().conditionRejected(list.get(k), slot, u, i);
+                            u.getRuntime().recordParseError(input, i, u.getGrammarSlot(), u);
 			                return true;
 			            }
 			        }
@@ -103,11 +105,12 @@ public class ConditionsFactory {
 		return new Conditions() {
 			
 			@Override
-			public boolean execute(Input input, GSSNode u, int i) {
-		        for (SlotAction c : actions) {
-		            if (c.execute(input, u, i)) {
+			public boolean execute(Input input, BodyGrammarSlot slot, GSSNode u, int i) {
+		        for (int k = 0; k < actions.size(); k++) {
+		            if (actions.get(k).execute(input, u, i)) {
 //		                log.trace("Condition %s executed", c);
-                        u.getGrammarSlot().getRuntime().recordParseError(input, i, u.getGrammarSlot(), u);
+                        u.getRuntime().conditionRejected(list.get(k), slot, u, i);
+                        u.getRuntime().recordParseError(input, i, u.getGrammarSlot(), u);
 		                return true;
 		            }
 		        }
@@ -19,8 +19,8 @@ object IggyParser {
 
     val result = Iguana.parse(input, GrammarGraph.from(iggyGrammar, input), start)
 
-    if (result.isParseError)
-      throw new RuntimeException(result.asParseError.toString)
+    if (!result.isParseSuccess)
+      throw new RuntimeException(result.toString)
 
     getGrammar(result.asParseSuccess.getTerm, input)
   }
@@ -36,9 +36,12 @@ import java.util.Set;
 import org.iguana.grammar.AbstractGrammarGraphSymbolVisitor;
 import org.iguana.grammar.Grammar;
 import org.iguana.grammar.symbol.*;
+import iguana.regex.Alt;
+import iguana.regex.Character;
 import iguana.regex.CharacterRange;
 import iguana.regex.EOF;
 import iguana.regex.Epsilon;
+import iguana.regex.RegularExpression;
 import org.iguana.traversal.ISymbolVisitor;
 import org.iguana.util.Tuple;
 
@@ -64,6 +67,13 @@ public class FirstFollowSets {
 	private final ISymbolVisitor<Boolean> nullableVisitor;
 	
 	private final ISymbolVisitor<Nonterminal> nonterminalVisitor;
+
+	/**
+	 * The second character sets of the nonterminals computed so far, with UNKNOWN for the unknown ones.
+	 */
+	private final Map<Nonterminal, Set<CharacterRange>> secondCharacterSets = new HashMap<>();
+
+	private static final Set<CharacterRange> UNKNOWN = new HashSet<>();
 	
 	public FirstFollowSets(Grammar grammar) {
 		this.definitions = grammar.getDefinitions();
@@ -114,6 +124,73 @@ public class FirstFollowSets {
 	public Set<CharacterRange> getPredictionSet(Rule rule, int index) {
 		return predictionSets.get(Tuple.of(rule, index));
 	}
+
+	/**
+	 * Returns the characters that can follow the first character of the strings predicted by the rule,
+	 * or null if they are not known. They are known if the rule starts with a terminal that matches
+	 * a single character, a terminal that starts with a sequence of two single characters, such as a
+	 * keyword, or a nonterminal whose rules all have known second characters.
+	 */
+	public Set<CharacterRange> getSecondCharacterSet(Rule rule) {
+		Set<CharacterRange> set = getSecondCharacterSet(rule, new HashSet<>());
+		return set == UNKNOWN ? null : set;
+	}
+
+	private Set<CharacterRange> getSecondCharacterSet(Rule rule, Set<Nonterminal> visiting) {
+		if (rule.size() == 0 || isNullable(rule.symbolAt(0)))
+			return UNKNOWN;
+
+		Symbol symbol = rule.symbolAt(0);
+		if (symbol instanceof Terminal) {
+			RegularExpression regex = ((Terminal) symbol).getRegularExpression();
+			if (regex instanceof iguana.regex.Sequence && ((iguana.regex.Sequence<?>) regex).getSymbols().size() == 1)
+				regex = ((iguana.regex.Sequence<?>) regex).getSymbols().get(0);
+
+			if (isSingleCharacter(regex))
+				return getPredictionSet(rule, 1);
+
+			if (regex instanceof iguana.regex.Sequence) {
+				List<? extends RegularExpression> symbols = ((iguana.regex.Sequence<?>) regex).getSymbols();
+				if (isSingleCharacter(symbols.get(0)) && isSingleCharacter(symbols.get(1)))
+					return symbols.get(1).getFirstSet();
+			}
+			return UNKNOWN;
+		}
+
+		Nonterminal nonterminal = symbol.accept(nonterminalVisitor);
+		if (nonterminal == null || !definitions.containsKey(nonterminal))
+			return UNKNOWN;
+
+		Set<CharacterRange> set = secondCharacterSets.get(nonterminal);
+		if (set != null)
+			return set;
+
+		// A left-recursive nonterminal
+		if (!visiting.add(nonterminal))
+			return UNKNOWN;
+
+		set = new HashSet<>();
+		for (Rule alternative : definitions.get(nonterminal)) {
+			Set<CharacterRange> alternativeSet = getSecondCharacterSet(alternative, visiting);
+			if (alternativeSet == UNKNOWN) {
+				set = UNKNOWN;
+				break;
+			}
+			set.addAll(alternativeSet);
+		}
+
+		visiting.remove(nonterminal);
+		secondCharacterSets.put(nonterminal, set);
+		return set;
+	}
+
+	private static boolean isSingleCharacter(RegularExpression regex) {
+		if (regex instanceof Character || regex instanceof CharacterRange)
+			return true;
+		if (regex instanceof Alt)
+			return ((Alt<?>) regex).getSymbols().stream().allMatch(r -> isSingleCharacter(r));
+		return false;
+	}
 	
 	private void calculateFirstSets() {
 		
@@ -27,8 +27,6 @@
 
 package org.iguana.grammar.slot;
 
-import org.iguana.parser.ParserRuntime;
-
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -38,17 +36,25 @@ public abstract class AbstractGrammarSlot implements GrammarSlot {
 
 	protected final List<Transition> transitions;
 
-    protected final ParserRuntime runtime;
+	private int id = -1;
 	
-	public AbstractGrammarSlot(ParserRuntime runtime) {
-		this(runtime, Collections.emptyList());
+	public AbstractGrammarSlot() {
+		this(Collections.emptyList());
 	}
 	
-	public AbstractGrammarSlot(ParserRuntime runtime, List<Transition> transitions) {
-        this.runtime = runtime;
+	public AbstractGrammarSlot(List<Transition> transitions) {
 		this.transitions = new ArrayList<>(transitions);
 	}
 
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
 	@Override
 	public boolean addTransition(Transition transition) {
 		return transitions.add(transition);
@@ -58,10 +64,5 @@ public abstract class AbstractGrammarSlot implements GrammarSlot {
 	public Iterable<Transition> getTransitions() {
 		return transitions;
 	}
-
-    @Override
-    public ParserRuntime getRuntime() {
-        return runtime;
-    }
 	
 }
@@ -27,7 +27,6 @@
 
 package org.iguana.grammar.slot;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -43,7 +42,9 @@ import iguana.parsetrees.term.RuleType;
 import iguana.utils.collections.Keys;
 import iguana.utils.input.Input;
 
+import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.IEvaluatorContext;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.grammar.slot.lookahead.FollowTest;
 import org.iguana.grammar.symbol.Position;
@@ -58,12 +59,16 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 	
 	protected final Position position;
 	
-	private HashMap<Key, IntermediateNode> intermediateNodes;
-	
 	private final Conditions conditions;
 	
 	private final String label;
 	
+	/**
+	 * The interned name of the variable holding the left extent of the labeled symbol, see
+	 * {@link Expression.LeftExtent#variableName(String)}.
+	 */
+	private final String leftExtentName;
+	
 	private final int i1;
 	
 	private final String variable;
@@ -73,21 +78,22 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 	private final Set<String> state;
 	
 	private FollowTest followTest;
+
+	private FollowTest secondCharacterTest;
 	
-	public BodyGrammarSlot(Position position, String label, String variable, Set<String> state, Conditions conditions, ParserRuntime runtime) {
-		this(position, label, -1, variable, -1, state, conditions, runtime);
+	public BodyGrammarSlot(Position position, String label, String variable, Set<String> state, Conditions conditions) {
+		this(position, label, -1, variable, -1, state, conditions);
 	}
 	
-	public BodyGrammarSlot(Position position, String label, int i1, String variable, int i2, Set<String> state, Conditions conditions, ParserRuntime runtime) {
-		super(runtime);
+	public BodyGrammarSlot(Position position, String label, int i1, String variable, int i2, Set<String> state, Conditions conditions) {
 		this.position = position;
 		this.conditions = conditions;
-		this.label = label;
+		this.label = label == null? null : label.intern();
+		this.leftExtentName = label == null? null : Expression.LeftExtent.variableName(label);
 		this.i1 = i1;
-		this.variable = variable;
+		this.variable = variable == null? null : variable.intern();
 		this.i2 = i2;
 		this.state = state;
-		this.intermediateNodes = new HashMap<>();
 	}
 	
 	@Override
@@ -99,6 +105,10 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 	public boolean isFirst() {
 		return position.isFirst();
 	}
+
+	public Position getPosition() {
+		return position;
+	}
 	
 	public void setFollowTest(FollowTest followTest) {
 		this.followTest = followTest;
@@ -107,42 +117,38 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 	public boolean testFollow(int v) {
 		return followTest.test(v);
 	}
+
+	/**
+	 * Sets the test of the second character of the input predicted by this first slot of a rule,
+	 * used when the lookahead is more than one character.
+	 */
+	public void setSecondCharacterTest(FollowTest secondCharacterTest) {
+		this.secondCharacterTest = secondCharacterTest;
+	}
+
+	/**
+	 * Tests the character after the input index i, at which this first slot would be scheduled.
+	 */
+	public boolean testSecondCharacter(Input input, int i) {
+		return secondCharacterTest == null || i + 1 >= input.length() || secondCharacterTest.test(input.charAt(i + 1));
+	}
 	
-	public IntermediateNode createIntermediateNode(NonPackedNode leftChild, NonPackedNode rightChild) {
+	public IntermediateNode createIntermediateNode(NonPackedNode leftChild, NonPackedNode rightChild, ParserRuntime runtime) {
 		IntermediateNode newNode = SPPFNodeFactory.createIntermediateNode(this, leftChild, rightChild);
 		runtime.intermediateNodeAdded(newNode);
         runtime.packedNodeAdded(this, leftChild.getRightExtent());
 		return newNode;
 	}
 	
-	public NonPackedNode getIntermediateNode2(Input input, NonPackedNode leftChild, NonPackedNode rightChild) {
+	public NonPackedNode getIntermediateNode2(Input input, NonPackedNode leftChild, NonPackedNode rightChild, ParserRuntime runtime) {
 		
 		if (isFirst())
 			return rightChild;
 		
-		Holder<IntermediateNode> holder = new Holder<>();
-		
-		BiFunction<Key, IntermediateNode, IntermediateNode> creator = (key, value) -> {
-			if (value != null) {
-				boolean ambiguous = value.addPackedNode(this, leftChild, rightChild);
-                runtime.packedNodeAdded(this, leftChild.getRightExtent());
-                if (ambiguous) runtime.ambiguousNodeAdded(value);
-				return value;
-			} else {
-				IntermediateNode newNode = createIntermediateNode(leftChild, rightChild);
-				holder.set(newNode);
-				return newNode;				
-			}
-		};
-
-        Key key = Keys.from((x, y) -> x * input.length() + y, leftChild.getLeftExtent(), rightChild.getRightExtent());
-
-        intermediateNodes.compute(key, creator);
-		
-		return holder.get();
+		return runtime.getIntermediateNodeLookup(this).get(this, leftChild, rightChild, runtime);
 	}
 	
-	public NonPackedNode getIntermediateNode2(Input input, NonPackedNode leftChild, NonPackedNode rightChild, Environment env) {
+	public NonPackedNode getIntermediateNode2(Input input, NonPackedNode leftChild, NonPackedNode rightChild, Environment env, ParserRuntime runtime) {
 		
 		if (isFirst())
 			return rightChild;
@@ -155,14 +161,15 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
                 if (ambiguous) runtime.ambiguousNodeAdded(value);
 				return value;
 			} else {
-				IntermediateNode newNode = createIntermediateNode(leftChild, rightChild);
+				IntermediateNode newNode = createIntermediateNode(leftChild, rightChild, runtime);
 				holder.set(newNode);
 				return newNode;				
 			}
 		};
 
-        Key key = Keys.from(leftChild.getLeftExtent(), rightChild.getRightExtent(), env);
-        intermediateNodes.compute(key, creator);
+        // With the canonical environment, an existing node with an equal key is found by reference
+        Key key = Keys.from(leftChild.getLeftExtent(), rightChild.getRightExtent(), runtime.intern(env));
+        runtime.getIntermediateNodes(this).compute(key, creator);
 		
 		return holder.get();
 	}	
@@ -171,11 +178,6 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 		return conditions;
 	}
 
-	@Override
-	public void reset(Input input) {
-		intermediateNodes = new HashMap<>();
-	}
-	
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
 		getTransitions().forEach(t -> t.execute(input, u, node));
 	}
@@ -189,6 +191,10 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 		return label;
 	}
 	
+	public String getLeftExtentName() {
+		return leftExtentName;
+	}
+	
 	public String getVariable() {
 		return variable;
 	}
@@ -201,20 +207,24 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 		return label != null || variable != null || state != null; 
 	}
 	
-	public Environment doBinding(NonPackedNode sppfNode, Environment env) {
+	/**
+	 * Binds the label and the variables of this slot to the given node in the current environment
+	 * of the evaluator context, see IEvaluatorContext#declareVariable.
+	 */
+	public void doBinding(NonPackedNode sppfNode, IEvaluatorContext ctx) {
 		
 		if (label != null) {
 			if (i1 != -1)
-				env = env._declare(sppfNode);
+				ctx.declareVariable(sppfNode);
 			else
-				env = env._declare(label, sppfNode);
+				ctx.declareVariable(label, sppfNode);
 		}
 		
 		if (variable != null && state == null) {
 			if (i2 != -1)
-				env = env._declare(((NonterminalNode) sppfNode).getValue());
+				ctx.declareVariable(((NonterminalNode) sppfNode).getValue());
 			else
-				env = env._declare(variable, ((NonterminalNode) sppfNode).getValue());
+				ctx.declareVariable(variable, ((NonterminalNode) sppfNode).getValue());
 		}
 
 		if (variable == null && state != null) { // TODO: support for the array-based environment implementation
@@ -222,14 +232,14 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 				String v = state.iterator().next();
 				if (!v.equals("_")) {
 					Object value = ((NonterminalNode) sppfNode).getValue();
-					env = env._declare(v, value);
+					ctx.declareVariable(v, value);
 				}
 			} else {
 				List<?> values = (List<?>) ((NonterminalNode) sppfNode).getValue();
 				Iterator<?> it = values.iterator();
 				for (String v : state) {
 					if (!v.equals("_"))
-						env = env._declare(v, it.next());
+						ctx.declareVariable(v, it.next());
 				}
 			}
 		}
@@ -238,15 +248,13 @@ public class BodyGrammarSlot extends AbstractGrammarSlot implements PackedNodeSl
 			List<?> values = (List<?>) ((NonterminalNode) sppfNode).getValue();
 			Iterator<?> it = values.iterator();
 			
-			env = env._declare(variable, it.next());
+			ctx.declareVariable(variable, it.next());
 			
 			for (String v : state) {
 				if (!v.equals("_"))
-					env = env._declare(v, it.next());
+					ctx.declareVariable(v, it.next());
 			}
 		}
-		
-		return env;
 	}
 
     @Override
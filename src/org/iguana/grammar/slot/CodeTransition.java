@@ -29,8 +29,10 @@ package org.iguana.grammar.slot;
 
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.utils.input.Input;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.ast.Statement;
 import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.traversal.ExpressionCompiler;
 import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 
@@ -39,15 +41,20 @@ import static iguana.utils.string.StringUtil.*;
 public class CodeTransition extends AbstractTransition {
 	
 	private final Statement[] statements;
+	
+	private final CompiledExpression compiledStatements;
 
-	public CodeTransition(Statement[] statements, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+	public CodeTransition(Statement[] statements, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		super(origin, dest);
 		this.statements = statements;
+		this.compiledStatements = ExpressionCompiler.compile(statements);
 	}
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
-		runtime.evaluate(statements, runtime.getEmptyEnvironment());
+		ParserRuntime runtime = u.getRuntime();
+
+		runtime.evaluate(compiledStatements, runtime.getEmptyEnvironment());
 		if (runtime.getEnvironment().isEmpty())
 			dest.execute(input, u, node);
 		else
@@ -61,7 +68,9 @@ public class CodeTransition extends AbstractTransition {
 	 */
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
-		runtime.evaluate(statements, env);
+		ParserRuntime runtime = u.getRuntime();
+
+		runtime.evaluate(compiledStatements, env);
 		dest.execute(input, u, node, runtime.getEnvironment());
 	}
 
@@ -29,8 +29,10 @@ package org.iguana.grammar.slot;
 
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.utils.input.Input;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.traversal.ExpressionCompiler;
 import org.iguana.grammar.exception.UnexpectedRuntimeTypeException;
 import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
@@ -39,16 +41,19 @@ public class ConditionalTransition extends AbstractTransition {
 	
 	private final Expression condition;
 	
+	private final CompiledExpression compiledCondition;
+	
 	private final BodyGrammarSlot ifFalse;
 
-	public ConditionalTransition(Expression condition, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		this(condition, origin, dest, null, runtime);
+	public ConditionalTransition(Expression condition, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		this(condition, origin, dest, null);
 	}
 	
 	public ConditionalTransition(Expression condition, BodyGrammarSlot origin, BodyGrammarSlot dest,
-                                 BodyGrammarSlot ifFalse, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+                                 BodyGrammarSlot ifFalse) {
+		super(origin, dest);
 		this.condition = condition;
+		this.compiledCondition = ExpressionCompiler.compile(condition);
 		this.ifFalse = ifFalse;
 	}
 
@@ -56,16 +61,25 @@ public class ConditionalTransition extends AbstractTransition {
 		return ifFalse;
 	}
 	
-	@Override
-	public void execute(Input input, GSSNode u, NonPackedNode node) {
+	private boolean evaluate(ParserRuntime runtime, Environment env) {
+		if (compiledCondition.isBoolean())
+			return runtime.evaluateBoolean(compiledCondition, env);
 		
-		Object value = runtime.evaluate(condition, runtime.getEmptyEnvironment());
+		Object value = runtime.evaluate(compiledCondition, env);
 		
 		if (!(value instanceof Boolean)) {
 			throw new UnexpectedRuntimeTypeException(condition);
 		}
 		
-		boolean isTrue = ((Boolean) value) == true;
+		return (Boolean) value;
+	}
+	
+	@Override
+	public void execute(Input input, GSSNode u, NonPackedNode node) {
+		ParserRuntime runtime = u.getRuntime();
+
+		
+		boolean isTrue = evaluate(runtime, runtime.getEmptyEnvironment());
 		
 		if (isTrue)
 			dest.execute(input, u, node);
@@ -81,14 +95,10 @@ public class ConditionalTransition extends AbstractTransition {
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
+		ParserRuntime runtime = u.getRuntime();
+
 		
-		Object value = runtime.evaluate(condition, env);
-		
-		if (!(value instanceof Boolean)) {
-			throw new UnexpectedRuntimeTypeException(condition);
-		}
-		
-		boolean isTrue = ((Boolean) value) == true;
+		boolean isTrue = evaluate(runtime, env);
 		
 		if (isTrue)
 			dest.execute(input, u, node, env);
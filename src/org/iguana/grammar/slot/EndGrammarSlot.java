@@ -35,7 +35,6 @@ import iguana.utils.input.Input;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.grammar.symbol.Position;
-import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 
 import java.util.Collections;
@@ -49,14 +48,14 @@ public class EndGrammarSlot extends BodyGrammarSlot implements PackedNodeSlot {
 
 	public EndGrammarSlot(Position position, NonterminalGrammarSlot nonterminal, String label,
 			              String variable, Set<String> state, Conditions conditions, Action action,
-                          RuleType ruleType, ParserRuntime runtime) {
-		this(position, nonterminal, label, -1, variable, -1, state, conditions, action, ruleType, runtime);
+                          RuleType ruleType) {
+		this(position, nonterminal, label, -1, variable, -1, state, conditions, action, ruleType);
 	}
 	
 	public EndGrammarSlot(Position position, NonterminalGrammarSlot nonterminal, String label, int i1,
             			  String variable, int i2, Set<String> state, Conditions conditions,
-                          Action action, RuleType ruleType, ParserRuntime runtime) {
-		super(position, label, i1, variable, i2, state, conditions, runtime);
+                          Action action, RuleType ruleType) {
+		super(position, label, i1, variable, i2, state, conditions);
 		this.nonterminal = nonterminal;
 		this.action = action;
         this.ruleType = ruleType;
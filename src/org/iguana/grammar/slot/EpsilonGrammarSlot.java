@@ -34,7 +34,6 @@ import iguana.utils.input.Input;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.grammar.symbol.Position;
-import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 
 public class EpsilonGrammarSlot extends EndGrammarSlot {
@@ -42,8 +41,8 @@ public class EpsilonGrammarSlot extends EndGrammarSlot {
 	private TerminalGrammarSlot epsilonSlot;
 
 	public EpsilonGrammarSlot(Position position, NonterminalGrammarSlot nonterminal, TerminalGrammarSlot epsilonSlot,
-			                  Conditions conditions, Action action, RuleType ruleType, ParserRuntime runtime) {
-		super(position, nonterminal, null, null, null, conditions, action, ruleType, runtime);
+			                  Conditions conditions, Action action, RuleType ruleType) {
+		super(position, nonterminal, null, null, null, conditions, action, ruleType);
 		this.epsilonSlot = epsilonSlot;
 	}
 	
@@ -51,7 +50,7 @@ public class EpsilonGrammarSlot extends EndGrammarSlot {
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
         int i = node.getRightExtent();
 		if (getNonterminal().testFollow(input.charAt(i)))
-            u.pop(input, this, epsilonSlot.getTerminalNode(input, i));
+            u.pop(input, this, epsilonSlot.getTerminalNode(input, i, u.getRuntime()));
 	}
 	
 	/**
@@ -64,14 +63,14 @@ public class EpsilonGrammarSlot extends EndGrammarSlot {
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
         int i = node.getRightExtent();
 		if (getNonterminal().testFollow(input.charAt(i)))
-            u.pop(input, this, epsilonSlot.getTerminalNode(input, i));
+            u.pop(input, this, epsilonSlot.getTerminalNode(input, i, u.getRuntime()));
 	}
 	
 	@Override
 	public void execute(Input input, GSSNode u,NonPackedNode node, Object value) {
         int i = node.getRightExtent();
 		if (getNonterminal().testFollow(input.charAt(i)))
-            u.pop(input, this, epsilonSlot.getTerminalNode(input, i), value);
+            u.pop(input, this, epsilonSlot.getTerminalNode(input, i, u.getRuntime()), value);
 	}
 
 }
@@ -30,48 +30,51 @@ package org.iguana.grammar.slot;
 
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.utils.input.Input;
-import org.iguana.datadependent.ast.AST;
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.condition.Conditions;
-import org.iguana.grammar.exception.UnexpectedRuntimeTypeException;
 import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
-import org.iguana.util.Tuple;
+import org.iguana.util.Extent;
 
 public class EpsilonTransition extends AbstractTransition {
 	
 	private final Type type;
 	private final String label;
+	private final String leftExtentName;
 	private final Conditions conditions;
 
-	public EpsilonTransition(Conditions conditions, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		this(Type.DUMMY, conditions, origin, dest, runtime);
+	public EpsilonTransition(Conditions conditions, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		this(Type.DUMMY, conditions, origin, dest);
 	}
 	
-	public EpsilonTransition(Type type, Conditions conditions, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+	public EpsilonTransition(Type type, Conditions conditions, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		super(origin, dest);
 		this.type = type;
 		this.label = null;
+		this.leftExtentName = null;
 		this.conditions = conditions;
 	}
 	
-	public EpsilonTransition(Type type, String label, Conditions conditions, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+	public EpsilonTransition(Type type, String label, Conditions conditions, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		super(origin, dest);
 		
 		assert label != null && (type == Type.DECLARE_LABEL || type == Type.STORE_LABEL);
 		
 		this.type = type;
-		this.label = label;
+		this.label = label.intern();
+		this.leftExtentName = Expression.LeftExtent.variableName(label);
 		this.conditions = conditions;
 	}
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
+		ParserRuntime runtime = u.getRuntime();
+
         int i = node.getRightExtent();
 		switch(type) {
             case DUMMY:
-                if (conditions.execute(input, u, i))
+                if (conditions.execute(input, origin, u, i))
                     return;
                 break;
 
@@ -79,7 +82,7 @@ public class EpsilonTransition extends AbstractTransition {
                 break;
 
             case OPEN:
-                if (conditions.execute(input, u, i))
+                if (conditions.execute(input, origin, u, i))
                     return;
 
                 runtime.setEnvironment(runtime.getEmptyEnvironment());
@@ -89,7 +92,7 @@ public class EpsilonTransition extends AbstractTransition {
                 return;
 
             case CLOSE:
-                if (conditions.execute(input, u, i))
+                if (conditions.execute(input, origin, u, i))
                     return;
                 break;
 
@@ -97,10 +100,10 @@ public class EpsilonTransition extends AbstractTransition {
 
                 runtime.setEnvironment(runtime.getEmptyEnvironment());
 
-                runtime.getEvaluatorContext().declareVariable(label, Tuple.<Integer, Integer>of(i, -1));
-                runtime.getEvaluatorContext().declareVariable(String.format(Expression.LeftExtent.format, label), Tuple.<Integer, Integer>of(i, -1));
+                runtime.getEvaluatorContext().declareVariable(label, Extent.of(i, -1));
+                runtime.getEvaluatorContext().declareVariable(leftExtentName, i);
 
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
 
                 dest.execute(input, u, node, runtime.getEnvironment());
@@ -110,18 +113,10 @@ public class EpsilonTransition extends AbstractTransition {
 
                 runtime.setEnvironment(runtime.getEmptyEnvironment());
 
-                Object value = runtime.getEvaluatorContext().lookupVariable(label);
-
-                Integer lhs;
-                if (!(value instanceof Tuple)) {
-                    lhs = (Integer) ((Tuple<?,?>) value).getFirst();
-                } else {
-                    throw new UnexpectedRuntimeTypeException(AST.var(label));
-                }
-
-                runtime.getEvaluatorContext().storeVariable(label, Tuple.<Integer, Integer>of(lhs, i));
+                long extent = runtime.getEvaluatorContext().lookupLongVariable(label);
+                runtime.getEvaluatorContext().storeVariable(label, Extent.of(Extent.left(extent), i));
 
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
 
                 dest.execute(input, u, node, runtime.getEnvironment());
@@ -152,6 +147,7 @@ public class EpsilonTransition extends AbstractTransition {
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
+		ParserRuntime runtime = u.getRuntime();
 
         int i = node.getRightExtent();
 
@@ -160,7 +156,7 @@ public class EpsilonTransition extends AbstractTransition {
 		switch(type) {
 		
             case DUMMY:
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
                 break;
 
@@ -168,39 +164,31 @@ public class EpsilonTransition extends AbstractTransition {
                 break;
 
             case OPEN:
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
                 runtime.getEvaluatorContext().pushEnvironment();
                 break;
 
             case CLOSE:
                 runtime.getEvaluatorContext().popEnvironment();
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
                 break;
 
             case DECLARE_LABEL:
-                runtime.getEvaluatorContext().declareVariable(label, Tuple.of(i, -1));
-                runtime.getEvaluatorContext().declareVariable(String.format(Expression.LeftExtent.format, label), Tuple.of(i, -1));
+                runtime.getEvaluatorContext().declareVariable(label, Extent.of(i, -1));
+                runtime.getEvaluatorContext().declareVariable(leftExtentName, i);
 
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
                 break;
 
             case STORE_LABEL:
 
-                Object value = runtime.getEvaluatorContext().lookupVariable(label);
-
-                Integer lhs;
-                if (!(value instanceof Tuple)) {
-                    lhs = (Integer) ((Tuple<?,?>) value).getFirst();
-                } else {
-                    throw new UnexpectedRuntimeTypeException(AST.var(label));
-                }
-
-                runtime.getEvaluatorContext().storeVariable(label, Tuple.<Integer, Integer>of(lhs, i));
+                long extent = runtime.getEvaluatorContext().lookupLongVariable(label);
+                runtime.getEvaluatorContext().storeVariable(label, Extent.of(Extent.left(extent), i));
 
-                if (conditions.execute(input, u, i, runtime.getEvaluatorContext()))
+                if (conditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
                     return;
                 break;
             }
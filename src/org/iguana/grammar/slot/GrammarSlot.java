@@ -28,8 +28,6 @@
 package org.iguana.grammar.slot;
 
 import iguana.parsetrees.slot.Slot;
-import iguana.utils.input.Input;
-import org.iguana.parser.ParserRuntime;
 
 /**
  * A GrammarSlot is a position immediately before or after
@@ -52,12 +50,14 @@ public interface GrammarSlot extends Slot {
 	
 	default boolean isEnd() { return false; }
 
-	void reset(Input input);
+	/**
+	 * A dense, zero-based identifier assigned when the slot is added to a grammar graph.
+	 * Parser runtimes use it to index their per-parse tables.
+	 */
+	int getId();
 	
 	boolean addTransition(Transition transition);
 	
 	Iterable<Transition> getTransitions();
 
-    ParserRuntime getRuntime();
-
 }
@@ -37,16 +37,14 @@ import iguana.parsetrees.sppf.DummyNode;
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.parsetrees.sppf.NonterminalNode;
 import iguana.utils.input.Input;
-import org.iguana.datadependent.ast.Expression;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.slot.lookahead.FollowTest;
 import org.iguana.grammar.slot.lookahead.LookAheadTest;
 import org.iguana.grammar.symbol.Nonterminal;
 import org.iguana.parser.ParserRuntime;
-import org.iguana.parser.descriptor.Descriptor;
 import org.iguana.parser.gss.GSSNode;
 import org.iguana.parser.gss.GSSNodeData;
-import org.iguana.parser.gss.lookup.GSSNodeLookup;
 import org.iguana.parser.gss.lookup.GSSNodeLookup.GSSNodeCreator;
 import org.iguana.util.Configuration.EnvironmentImpl;
 import iguana.utils.collections.key.Key;
@@ -63,18 +61,14 @@ public class NonterminalGrammarSlot extends AbstractGrammarSlot implements Nonte
 	
 	private final List<BodyGrammarSlot> firstSlots;
 	
-	private final GSSNodeLookup nodeLookup;
-
 	private LookAheadTest lookAheadTest;
 	
 	private FollowTest followTest;
 
 	private final int nodeType;
 
-	public NonterminalGrammarSlot(Nonterminal nonterminal, GSSNodeLookup nodeLookup, int nodeType, ParserRuntime runtime) {
-		super(runtime);
+	public NonterminalGrammarSlot(Nonterminal nonterminal, int nodeType) {
 		this.nonterminal = nonterminal;
-		this.nodeLookup = nodeLookup;
 		this.firstSlots = new ArrayList<>();
 		this.nodeType = nodeType;
 	}
@@ -87,7 +81,7 @@ public class NonterminalGrammarSlot extends AbstractGrammarSlot implements Nonte
 		return firstSlots;
 	}
 	
-	public List<BodyGrammarSlot> getFirstSlots(int v) {
+	public BodyGrammarSlot[] getFirstSlots(int v) {
 		return lookAheadTest.get(v);
 	}
 	
@@ -127,33 +121,40 @@ public class NonterminalGrammarSlot extends AbstractGrammarSlot implements Nonte
 	public void create(Input input, BodyGrammarSlot returnSlot, GSSNode u, NonPackedNode node) {
 
         int i = node.getRightExtent();
+        ParserRuntime runtime = u.getRuntime();
 
-		GSSNodeCreator creator = gssNode -> {
-			// No GSS node labelled (slot, k) exits
-			if (gssNode == null) {
-				
-				gssNode = new GSSNode(this, i);
+		GSSNodeCreator creator = new GSSNodeCreator() {
+			
+			@Override
+			public GSSNode newNode() {
+				GSSNode gssNode = runtime.createGSSNode(NonterminalGrammarSlot.this, i);
 				runtime.gssNodeAdded(gssNode);
-
-				gssNode.createGSSEdge(input, returnSlot, u, node);
-				
-				final GSSNode __gssNode = gssNode;
-				
-				List<BodyGrammarSlot> firstSlots = getFirstSlots(input.charAt(i));
-				if (firstSlots != null)
-					for (BodyGrammarSlot s : firstSlots) {
-						if (!s.getConditions().execute(input, __gssNode, i))
-							runtime.scheduleDescriptor(new Descriptor(s, __gssNode, new DummyNode(i), input));
+				return gssNode;
+			}
+			
+			@Override
+			public void addTo(GSSNode gssNode, boolean created) {
+				// No GSS node labelled (slot, k) existed
+				if (created) {
+					gssNode.createGSSEdge(input, returnSlot, u, node);
+					
+					for (BodyGrammarSlot s : getFirstSlots(input.charAt(i))) {
+						if (!s.testSecondCharacter(input, i)) {
+							runtime.lookaheadPruned(s, i);
+							continue;
+						}
+						if (!s.getConditions().execute(input, s, gssNode, i))
+							runtime.scheduleDescriptor(s, gssNode, new DummyNode(i));
 					}
-				// nonterminal.getFirstSlots().forEach(s -> scheduleDescriptor(new Descriptor(s, __gssNode, i, DummyNode.getInstance())));
-			} else {
-				runtime.log("GSSNode found: %s", gssNode);
-				gssNode.createGSSEdge(input, returnSlot, u, node);
+					// nonterminal.getFirstSlots().forEach(s -> scheduleDescriptor(new Descriptor(s, __gssNode, i, DummyNode.getInstance())));
+				} else {
+					runtime.log("GSSNode found: %s", gssNode);
+					gssNode.createGSSEdge(input, returnSlot, u, node);
+				}
 			}
-			return gssNode;
 		};
 		
-		nodeLookup.get(i, creator);
+		runtime.getGSSNodeLookup(this).get(i, creator);
 	}
 	
 	@Override
@@ -169,17 +170,8 @@ public class NonterminalGrammarSlot extends AbstractGrammarSlot implements Nonte
 		throw new RuntimeException("Will be removed soon!");
 	}
 	
-	public GSSNode getGSSNode(int i) {
-		return nodeLookup.get(this, i);
-	}
-	
-	public Iterable<GSSNode> getGSSNodes() {
-		return nodeLookup.getNodes();
-	}
-
-	@Override
-	public void reset(Input input) {
-		nodeLookup.reset(input);
+	public GSSNode getGSSNode(int i, ParserRuntime runtime) {
+		return runtime.getGSSNodeLookup(this).get(this, i, runtime);
 	}
 	
 	/**
@@ -187,89 +179,106 @@ public class NonterminalGrammarSlot extends AbstractGrammarSlot implements Nonte
 	 * Data-dependent GLL parsing
 	 * 
 	 */
-	public void create(Input input, BodyGrammarSlot returnSlot, GSSNode u, NonPackedNode node, Expression[] arguments, Environment env) {
+	public void create(Input input, BodyGrammarSlot returnSlot, GSSNode u, NonPackedNode node, CompiledExpression[] arguments, Environment env) {
 		assert !(env.isEmpty() && arguments == null);
 
         int i = node.getRightExtent();
+        ParserRuntime runtime = u.getRuntime();
 		
 		if (arguments == null) {
 			
-			GSSNodeCreator creator = gssNode -> {
-				// No GSS node labelled (slot, k) exits
-				if (gssNode == null) {
-					
-					gssNode = new GSSNode(this, i);
+			GSSNodeCreator creator = new GSSNodeCreator() {
+				
+				@Override
+				public GSSNode newNode() {
+					GSSNode gssNode = runtime.createGSSNode(NonterminalGrammarSlot.this, i);
 					runtime.gssNodeAdded(gssNode);
-					
-					gssNode.createGSSEdge(input, returnSlot, u, node, env); // Record environment on the edge;
-					
-					final GSSNode __gssNode = gssNode;
-					
-					List<BodyGrammarSlot> firstSlots = getFirstSlots(input.charAt(i));
-					if (firstSlots != null)
-						for (BodyGrammarSlot s : firstSlots) {
-							if (!s.getConditions().execute(input, __gssNode, i))
-								runtime.scheduleDescriptor(new Descriptor(s, __gssNode, new DummyNode(i), input));
+					return gssNode;
+				}
+				
+				@Override
+				public void addTo(GSSNode gssNode, boolean created) {
+					// No GSS node labelled (slot, k) existed
+					if (created) {
+						gssNode.createGSSEdge(input, returnSlot, u, node, env); // Record environment on the edge;
+						
+						for (BodyGrammarSlot s : getFirstSlots(input.charAt(i))) {
+							if (!s.testSecondCharacter(input, i)) {
+								runtime.lookaheadPruned(s, i);
+								continue;
+							}
+							if (!s.getConditions().execute(input, s, gssNode, i))
+								runtime.scheduleDescriptor(s, gssNode, new DummyNode(i));
 						}
-					// nonterminal.getFirstSlots().forEach(s -> scheduleDescriptor(new Descriptor(s, __gssNode, i, DummyNode.getInstance())));
-				} else {
-					runtime.log("GSSNode found: %s", gssNode);
-					gssNode.createGSSEdge(input, returnSlot, u, node, env); // Record environment on the edge
+						// nonterminal.getFirstSlots().forEach(s -> scheduleDescriptor(new Descriptor(s, __gssNode, i, DummyNode.getInstance())));
+					} else {
+						runtime.log("GSSNode found: %s", gssNode);
+						gssNode.createGSSEdge(input, returnSlot, u, node, env); // Record environment on the edge
+					}
 				}
-				return gssNode;
-			};	
+			};
 			
-			nodeLookup.get(i, creator);
+			runtime.getGSSNodeLookup(this).get(i, creator);
 			return;
 		}
 		
-		GSSNodeData<Object> data = new GSSNodeData<>(runtime.evaluate(arguments, env));
+		GSSNodeData<Object> data = runtime.intern(CompiledExpression.areInts(arguments) ? GSSNodeData.ofInts(runtime.evaluateInts(arguments, env))
+				                                                                       : new GSSNodeData<>(runtime.evaluate(arguments, env)));
 		
-		GSSNodeCreator creator = gssNode -> {
-			if (gssNode == null) {
-				
-				gssNode = new org.iguana.datadependent.gss.GSSNode<>(this, i, data);
-				 
+		GSSNodeCreator creator = new GSSNodeCreator() {
+			
+			@Override
+			public GSSNode newNode() {
+				GSSNode gssNode = runtime.createGSSNode(NonterminalGrammarSlot.this, i, data);
 				runtime.gssNodeAdded(gssNode);
 				runtime.log("GSSNode created: %s(%s)", gssNode, data);
+				return gssNode;
+			}
+			
+			@Override
+			public void addTo(GSSNode gssNode, boolean created) {
+				if (created) {
 				
-				if (env.isEmpty()) gssNode.createGSSEdge(input, returnSlot, u, node);
-				else gssNode.createGSSEdge(input, returnSlot, u, node, env);
-				
-				Environment newEnv;
+					if (env.isEmpty()) gssNode.createGSSEdge(input, returnSlot, u, node);
+					else gssNode.createGSSEdge(input, returnSlot, u, node, env);
 				
-				if (runtime.getConfiguration().getEnvImpl() == EnvironmentImpl.ARRAY)
-					newEnv = runtime.getEmptyEnvironment().declare(data.getValues());
-				else
-					newEnv = runtime.getEmptyEnvironment().declare(nonterminal.getParameters(), data.getValues());
+					Environment newEnv;
 				
-				final GSSNode __gssNode = gssNode;
+					if (runtime.getConfiguration().getEnvImpl() == EnvironmentImpl.ARRAY)
+						newEnv = runtime.getEmptyEnvironment().declare(data.getValues());
+					else
+						newEnv = runtime.getEmptyEnvironment().declare(nonterminal.getParameters(), data.getValues());
 				
-				for (BodyGrammarSlot s : getFirstSlots(input.charAt(i))) {
+					for (BodyGrammarSlot s : getFirstSlots(input.charAt(i))) {
 					
-					runtime.setEnvironment(newEnv);
+						if (!s.testSecondCharacter(input, i)) {
+							runtime.lookaheadPruned(s, i);
+							continue;
+						}
 
-					if (s.getLabel() != null)
-						runtime.getEvaluatorContext().declareVariable(String.format(Expression.LeftExtent.format, s.getLabel()), i);
+						runtime.setEnvironment(newEnv);
 
-					if (!s.getConditions().execute(input, __gssNode, i, runtime.getEvaluatorContext()))
-						runtime.scheduleDescriptor(new org.iguana.datadependent.descriptor.Descriptor(s, __gssNode, new DummyNode(i), input, runtime.getEnvironment()));
-				}
+						if (s.getLabel() != null)
+							runtime.getEvaluatorContext().declareVariable(s.getLeftExtentName(), i);
+
+						if (!s.getConditions().execute(input, s, gssNode, i, runtime.getEvaluatorContext()))
+							runtime.scheduleDescriptor(s, gssNode, new DummyNode(i), runtime.getEnvironment());
+					}
 				
-				// nonterminal.getFirstSlots().forEach(s -> scheduleDescriptor(new org.jgll.datadependent.descriptor.Descriptor(s, __gssNode, i, DummyNode.getInstance(), newEnv)));
+					// nonterminal.getFirstSlots().forEach(s -> scheduleDescriptor(new org.jgll.datadependent.descriptor.Descriptor(s, gssNode, i, DummyNode.getInstance(), newEnv)));
 				
-			} else {
-//				log.trace("GSSNode found: %s",  gssNode);
-				if (env.isEmpty()) gssNode.createGSSEdge(input, returnSlot, u, node);
-				else gssNode.createGSSEdge(input, returnSlot, u, node, env);
+				} else {
+//					log.trace("GSSNode found: %s",  gssNode);
+					if (env.isEmpty()) gssNode.createGSSEdge(input, returnSlot, u, node);
+					else gssNode.createGSSEdge(input, returnSlot, u, node, env);
+				}
 			}
-			return gssNode;
 		};
-		nodeLookup.get(i, data, creator);
+		runtime.getGSSNodeLookup(this).get(i, data, creator);
 	}
 	
-	public <T> GSSNode getGSSNode(int i, GSSNodeData<T> data) {
-		return nodeLookup.get(this, i, data);
+	public <T> GSSNode getGSSNode(int i, GSSNodeData<T> data, ParserRuntime runtime) {
+		return runtime.getGSSNodeLookup(this).get(this, i, data, runtime);
 	}
 
     @Override
@@ -29,8 +29,10 @@ package org.iguana.grammar.slot;
 
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.utils.input.Input;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.traversal.ExpressionCompiler;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.grammar.condition.ConditionsFactory;
 import org.iguana.parser.ParserRuntime;
@@ -46,26 +48,31 @@ public class NonterminalTransition extends AbstractTransition {
 	private final Conditions preConditions;
 	
 	private final Expression[] arguments;
+	
+	private final CompiledExpression[] compiledArguments;
 
 	public NonterminalTransition(NonterminalGrammarSlot nonterminal, BodyGrammarSlot origin, BodyGrammarSlot dest,
-                                 Conditions preConditions, ParserRuntime runtime) {
-		this(nonterminal, origin, dest, null, preConditions, runtime);
+                                 Conditions preConditions) {
+		this(nonterminal, origin, dest, null, preConditions);
 	}
 	
-	public NonterminalTransition(NonterminalGrammarSlot nonterminal, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		this(nonterminal, origin, dest, null, ConditionsFactory.DEFAULT, runtime);
+	public NonterminalTransition(NonterminalGrammarSlot nonterminal, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		this(nonterminal, origin, dest, null, ConditionsFactory.DEFAULT);
 	}	
 	
 	public NonterminalTransition(NonterminalGrammarSlot nonterminal, BodyGrammarSlot origin, BodyGrammarSlot dest, 
-			                     Expression[] arguments, Conditions preConditions, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+			                     Expression[] arguments, Conditions preConditions) {
+		super(origin, dest);
 		this.nonterminal = nonterminal;
 		this.arguments = arguments;
+		this.compiledArguments = ExpressionCompiler.compile(arguments);
 		this.preConditions = preConditions;
 	}
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
+		ParserRuntime runtime = u.getRuntime();
+
 //		if (!nonterminal.testPredict(parser.getInput().charAt(i))) {
 //			parser.recordParseError(origin);
 //			return;
@@ -75,25 +82,23 @@ public class NonterminalTransition extends AbstractTransition {
 		
 		if (nonterminal.getParameters() == null && dest.getLabel() == null) {
 			
-			if (preConditions.execute(input, u, i))
+			if (preConditions.execute(input, origin, u, i))
 				return;
 			
 			nonterminal.create(input, dest, u, node);
 			
 		} else {
 			
-			Environment env = runtime.getEmptyEnvironment();
+			runtime.setEnvironment(runtime.getEmptyEnvironment());
 			
 			if (dest.getLabel() != null) {
-				env = env._declare(String.format(Expression.LeftExtent.format, dest.getLabel()), i);
+				runtime.getEvaluatorContext().declareVariable(dest.getLeftExtentName(), i);
 			}
 			
-			runtime.setEnvironment(env);
-			
-			if (preConditions.execute(input, u, i, runtime.getEvaluatorContext()))
+			if (preConditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
 				return;
 			
-			nonterminal.create(input, dest, u, node, arguments, runtime.getEnvironment());
+			nonterminal.create(input, dest, u, node, compiledArguments, runtime.getEnvironment());
 		}
 		
 	}
@@ -116,7 +121,8 @@ public class NonterminalTransition extends AbstractTransition {
 	 */
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
-		
+		ParserRuntime runtime = u.getRuntime();
+
 //		if (!nonterminal.testPredict(parser.getInput().charAt(i))) {
 //			parser.recordParseError(origin);
 //			return;
@@ -124,16 +130,16 @@ public class NonterminalTransition extends AbstractTransition {
 
         int i = node.getRightExtent();
 
-        if (dest.getLabel() != null) {
-			env = env._declare(String.format(Expression.LeftExtent.format, dest.getLabel()), i);
-		}
-		
 		runtime.setEnvironment(env);
 		
-		if (preConditions.execute(input, u, i, runtime.getEvaluatorContext()))
+		if (dest.getLabel() != null) {
+			runtime.getEvaluatorContext().declareVariable(dest.getLeftExtentName(), i);
+		}
+		
+		if (preConditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
 			return;
 				
-		nonterminal.create(input, dest, u, node, arguments, runtime.getEnvironment());
+		nonterminal.create(input, dest, u, node, compiledArguments, runtime.getEnvironment());
 	}
 
 }
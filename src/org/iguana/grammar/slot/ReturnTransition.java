@@ -29,23 +29,30 @@ package org.iguana.grammar.slot;
 
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.utils.input.Input;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.traversal.ExpressionCompiler;
 import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 
 public class ReturnTransition extends AbstractTransition {
 	
 	private final Expression expression;
+	
+	private final CompiledExpression compiledExpression;
 
-	public ReturnTransition(Expression expression, BodyGrammarSlot origin, BodyGrammarSlot dest, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+	public ReturnTransition(Expression expression, BodyGrammarSlot origin, BodyGrammarSlot dest) {
+		super(origin, dest);
 		this.expression = expression;
+		this.compiledExpression = ExpressionCompiler.compile(expression);
 	}
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
-	   Object value = runtime.evaluate(expression, runtime.getEmptyEnvironment());
+		ParserRuntime runtime = u.getRuntime();
+
+	   Object value = runtime.evaluate(compiledExpression, runtime.getEmptyEnvironment());
 	   ((EndGrammarSlot) dest).execute(input, u, node, value);
 	}
 
@@ -56,7 +63,9 @@ public class ReturnTransition extends AbstractTransition {
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
-		Object value = runtime.evaluate(expression, env);
+		ParserRuntime runtime = u.getRuntime();
+
+		Object value = runtime.evaluate(compiledExpression, env);
 		((EndGrammarSlot) dest).execute(input, u, node, value);
 	}
 
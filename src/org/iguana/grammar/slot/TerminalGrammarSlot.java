@@ -28,11 +28,10 @@
 package org.iguana.grammar.slot;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import iguana.parsetrees.slot.TerminalSlot;
+import iguana.parsetrees.sppf.SPPFNodeFactory;
 import iguana.parsetrees.sppf.TerminalNode;
 import iguana.parsetrees.term.TerminalType;
 import iguana.utils.input.Input;
@@ -41,45 +40,49 @@ import org.iguana.parser.ParserRuntime;
 import iguana.regex.matcher.Matcher;
 import iguana.regex.matcher.MatcherFactory;
 
-import static iguana.parsetrees.sppf.SPPFNodeFactory.*;
-
 
 public class TerminalGrammarSlot extends AbstractGrammarSlot implements TerminalSlot {
 	
 	private final Terminal terminal;
     private final Matcher matcher;
-    private final Map<Integer, TerminalNode> terminalNodes;
     private final String terminalName;
 
-	public TerminalGrammarSlot(Terminal terminal, MatcherFactory factory, String terminalName, ParserRuntime runtime) {
-		super(runtime, Collections.emptyList());
+	public TerminalGrammarSlot(Terminal terminal, MatcherFactory factory, String terminalName) {
+		super(Collections.emptyList());
 		this.terminal = terminal;
         this.matcher = factory.getMatcher(terminal.getRegex());
-        this.terminalNodes = new HashMap<>();
         this.terminalName = terminalName;
     }
 
-    public TerminalGrammarSlot(Terminal terminal, MatcherFactory factory, ParserRuntime runtime) {
-        this(terminal, factory, null, runtime);
+    public TerminalGrammarSlot(Terminal terminal, MatcherFactory factory) {
+        this(terminal, factory, null);
     }
 
-	public TerminalNode getTerminalNode(Input input, int i) {
-		return terminalNodes.computeIfAbsent(i, k -> {
-			int length = matcher.match(input, i);
-			if (length < 0) {
-				return null;
-			} else {
-				TerminalNode t = createTerminalNode(this, i, i + length, input);
-				runtime.terminalNodeAdded(t);
-				return t;
-			}
-		});
+	public TerminalNode getTerminalNode(Input input, int i, ParserRuntime runtime) {
+		return runtime.getTerminalNodeLookup(this).get(this, input, i, runtime);
+	}
+
+	/**
+	 * Matches the terminal at the given input index and creates its terminal node,
+	 * or returns null if the terminal does not match.
+	 */
+	public TerminalNode createTerminalNode(Input input, int i, ParserRuntime runtime) {
+		int length = runtime.match(this, input, i);
+		if (length < 0)
+			return null;
+		TerminalNode t = SPPFNodeFactory.createTerminalNode(this, i, i + length, input);
+		runtime.terminalNodeAdded(t);
+		return t;
 	}
 
     public Terminal getTerminal() {
         return terminal;
     }
 
+    public Matcher getMatcher() {
+        return matcher;
+    }
+
     @Override
 	public Set<Transition> getTransitions() {
 		return Collections.emptySet();
@@ -95,11 +98,6 @@ public class TerminalGrammarSlot extends AbstractGrammarSlot implements Terminal
 		return terminal.toString();
 	}
 
-    @Override
-	public void reset(Input input) {
-		terminalNodes.clear();
-	}
-
     @Override
     public TerminalType terminalType() {
         return terminal;
@@ -30,7 +30,6 @@ package org.iguana.grammar.slot;
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.parsetrees.sppf.TerminalNode;
 import iguana.utils.input.Input;
-import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.condition.Conditions;
 import org.iguana.parser.ParserRuntime;
@@ -46,8 +45,8 @@ public class TerminalTransition extends AbstractTransition {
 	private final Conditions postConditions;
 
     public TerminalTransition(TerminalGrammarSlot slot, BodyGrammarSlot origin, BodyGrammarSlot dest,
-                              Conditions preConditions, Conditions postConditions, ParserRuntime runtime) {
-		super(origin, dest, runtime);
+                              Conditions preConditions, Conditions postConditions) {
+		super(origin, dest);
         this.slot = slot;
         this.preConditions = preConditions;
         this.postConditions = postConditions;
@@ -55,6 +54,8 @@ public class TerminalTransition extends AbstractTransition {
 
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node) {
+		ParserRuntime runtime = u.getRuntime();
+
 		int i = node.getRightExtent();
 
 		if (dest.getLabel() != null) {
@@ -62,22 +63,24 @@ public class TerminalTransition extends AbstractTransition {
             return;
         }
 		
-		if (preConditions.execute(input, u, i))
+		if (preConditions.execute(input, origin, u, i))
 			return;
 			
-		TerminalNode cr = slot.getTerminalNode(input, i);
+		TerminalNode cr = slot.getTerminalNode(input, i, runtime);
 		
 		if (cr == null) {
 			runtime.recordParseError(input, i, origin, u);
 			return;			
 		}
 
+		runtime.terminalMatched(this, u, node, cr);
+
 		int rightExtent = cr.getRightExtent();
 			
-		if (postConditions.execute(input, u, rightExtent))
+		if (postConditions.execute(input, origin, u, rightExtent))
 			return;
 			
-		NonPackedNode n = dest.isFirst() ? cr : dest.createIntermediateNode(node, cr);
+		NonPackedNode n = dest.isFirst() ? cr : dest.createIntermediateNode(node, cr, runtime);
 				
 		dest.execute(input, u, n);
 	}
@@ -98,31 +101,34 @@ public class TerminalTransition extends AbstractTransition {
 	 */
 	@Override
 	public void execute(Input input, GSSNode u, NonPackedNode node, Environment env) {
+		ParserRuntime runtime = u.getRuntime();
 
         int i = node.getRightExtent();
 
 		runtime.setEnvironment(env);
 		
 		if (dest.getLabel() != null)
-			runtime.getEvaluatorContext().declareVariable(String.format(Expression.LeftExtent.format, dest.getLabel()), i);
+			runtime.getEvaluatorContext().declareVariable(dest.getLeftExtentName(), i);
 
-		if (preConditions.execute(input, u, i, runtime.getEvaluatorContext()))
+		if (preConditions.execute(input, origin, u, i, runtime.getEvaluatorContext()))
 			return;
 		
-		TerminalNode cr = slot.getTerminalNode(input, i);
+		TerminalNode cr = slot.getTerminalNode(input, i, runtime);
 		
 		if (cr == null) {
 			runtime.recordParseError(input, i, origin, u);
 			return;
 		}
 
+		runtime.terminalMatched(this, u, node, cr, env);
+
 		if (dest.getLabel() != null)
 			runtime.getEvaluatorContext().declareVariable(dest.getLabel(), cr);
 
-		if (postConditions.execute(input, u, cr.getRightExtent(), runtime.getEvaluatorContext()))
+		if (postConditions.execute(input, origin, u, cr.getRightExtent(), runtime.getEvaluatorContext()))
 			return;
 		
-		NonPackedNode n = dest.isFirst() ? cr : dest.createIntermediateNode(node, cr);
+		NonPackedNode n = dest.isFirst() ? cr : dest.createIntermediateNode(node, cr, runtime);
 				
 		dest.execute(input, u, n, runtime.getEnvironment());
 	}
@@ -0,0 +1,94 @@
+package org.iguana.grammar.slot.lookahead;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import iguana.regex.CharacterRange;
+
+/**
+ * 
+ * A follow test that looks up the characters below {@link #DIRECT_SIZE} in a bitset, and
+ * the other values, including EOF, by a binary search over the sorted starts and ends of the
+ * ranges that are not covered by the bitset.
+ *
+ */
+public class ArrayFollowTest implements FollowTest {
+
+	public static final int DIRECT_SIZE = 256;
+
+	private final long[] bits = new long[DIRECT_SIZE / 64];
+
+	private final int[] starts;
+
+	private final int[] ends;
+
+	public ArrayFollowTest(Set<CharacterRange> set) {
+		List<CharacterRange> ranges = new ArrayList<>();
+		for (CharacterRange range : set) {
+			for (int c = Math.max(range.getStart(), 0); c <= Math.min(range.getEnd(), DIRECT_SIZE - 1); c++)
+				bits[c >>> 6] |= 1L << c;
+			ranges.addAll(outsideDirect(range));
+		}
+
+		List<CharacterRange> merged = merge(ranges);
+		starts = new int[merged.size()];
+		ends = new int[merged.size()];
+		for (int i = 0; i < merged.size(); i++) {
+			starts[i] = merged.get(i).getStart();
+			ends[i] = merged.get(i).getEnd();
+		}
+	}
+
+	@Override
+	public boolean test(int v) {
+		if (v >= 0 && v < DIRECT_SIZE)
+			return (bits[v >>> 6] & (1L << v)) != 0;
+		return indexOf(starts, ends, v) >= 0;
+	}
+
+	/**
+	 * Returns the parts of the range below 0 and from DIRECT_SIZE on.
+	 */
+	static List<CharacterRange> outsideDirect(CharacterRange range) {
+		List<CharacterRange> parts = new ArrayList<>(2);
+		if (range.getStart() < 0)
+			parts.add(CharacterRange.in(range.getStart(), Math.min(range.getEnd(), -1)));
+		if (range.getEnd() >= DIRECT_SIZE)
+			parts.add(CharacterRange.in(Math.max(range.getStart(), DIRECT_SIZE), range.getEnd()));
+		return parts;
+	}
+
+	/**
+	 * Returns the index of the range that contains v in the sorted, non-overlapping ranges, or -1.
+	 */
+	static int indexOf(int[] starts, int[] ends, int v) {
+		int low = 0;
+		int high = starts.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (v < starts[mid])
+				high = mid - 1;
+			else if (v > ends[mid])
+				low = mid + 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	private static List<CharacterRange> merge(List<CharacterRange> ranges) {
+		ranges.sort((r1, r2) -> Integer.compare(r1.getStart(), r2.getStart()));
+		List<CharacterRange> merged = new ArrayList<>();
+		for (CharacterRange range : ranges) {
+			if (!merged.isEmpty() && range.getStart() <= merged.get(merged.size() - 1).getEnd() + 1) {
+				CharacterRange last = merged.remove(merged.size() - 1);
+				merged.add(CharacterRange.in(last.getStart(), Math.max(last.getEnd(), range.getEnd())));
+			} else {
+				merged.add(range);
+			}
+		}
+		return merged;
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.iguana.grammar.slot.lookahead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.iguana.grammar.slot.BodyGrammarSlot;
+
+import iguana.regex.CharacterRange;
+
+/**
+ * 
+ * A lookahead test that looks up the alternatives of the characters below {@link ArrayFollowTest#DIRECT_SIZE}
+ * in an array indexed by the character, and of the other values, including EOF, by a binary search
+ * over the sorted starts and ends of the ranges that are not covered by the array. The alternatives
+ * are arrays, shared by all characters with the same alternatives.
+ *
+ */
+public class ArrayLookaheadTest implements LookAheadTest {
+
+	private final BodyGrammarSlot[][] direct = new BodyGrammarSlot[ArrayFollowTest.DIRECT_SIZE][];
+
+	private final int[] starts;
+
+	private final int[] ends;
+
+	private final BodyGrammarSlot[][] alternatives;
+
+	/**
+	 * @param nonOverlappingMap a map from non-overlapping character ranges to the alternatives they select
+	 */
+	public ArrayLookaheadTest(Map<CharacterRange, List<BodyGrammarSlot>> nonOverlappingMap) {
+		Arrays.fill(direct, NO_SLOTS);
+
+		List<CharacterRange> ranges = new ArrayList<>();
+		List<BodyGrammarSlot[]> values = new ArrayList<>();
+		Map<List<BodyGrammarSlot>, BodyGrammarSlot[]> interned = new HashMap<>();
+
+		for (Entry<CharacterRange, List<BodyGrammarSlot>> e : nonOverlappingMap.entrySet()) {
+			CharacterRange range = e.getKey();
+			BodyGrammarSlot[] slots = interned.computeIfAbsent(e.getValue(), l -> l.isEmpty() ? NO_SLOTS : l.toArray(NO_SLOTS));
+			for (int c = Math.max(range.getStart(), 0); c <= Math.min(range.getEnd(), ArrayFollowTest.DIRECT_SIZE - 1); c++)
+				direct[c] = slots;
+			for (CharacterRange part : ArrayFollowTest.outsideDirect(range)) {
+				ranges.add(part);
+				values.add(slots);
+			}
+		}
+
+		Integer[] order = new Integer[ranges.size()];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, (i, j) -> Integer.compare(ranges.get(i).getStart(), ranges.get(j).getStart()));
+
+		starts = new int[order.length];
+		ends = new int[order.length];
+		alternatives = new BodyGrammarSlot[order.length][];
+		for (int i = 0; i < order.length; i++) {
+			starts[i] = ranges.get(order[i]).getStart();
+			ends[i] = ranges.get(order[i]).getEnd();
+			alternatives[i] = values.get(order[i]);
+		}
+	}
+
+	@Override
+	public BodyGrammarSlot[] get(int v) {
+		if (v >= 0 && v < ArrayFollowTest.DIRECT_SIZE)
+			return direct[v];
+		int i = ArrayFollowTest.indexOf(starts, ends, v);
+		return i < 0 ? NO_SLOTS : alternatives[i];
+	}
+
+}
@@ -1,16 +1,16 @@
 package org.iguana.grammar.slot.lookahead;
 
-import java.util.List;
-
 import org.iguana.grammar.slot.BodyGrammarSlot;
 
 @FunctionalInterface
 public interface LookAheadTest {
 	
 	/**
-	 * Returns a list of first slots that can be parsed
-	 * at the given input character. 
+	 * Returns the first slots that can be parsed
+	 * at the given input character. The returned array should not be modified.
 	 */
-	List<BodyGrammarSlot> get(int v);
+	BodyGrammarSlot[] get(int v);
+	
+	public static final BodyGrammarSlot[] NO_SLOTS = new BodyGrammarSlot[0];
 	
 }
@@ -1,6 +1,5 @@
 package org.iguana.grammar.slot.lookahead;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -10,16 +9,16 @@ import iguana.utils.collections.rangemap.RangeTree;
 
 public class RangeTreeLookaheadTest implements LookAheadTest {
 	
-	private final RangeTree<List<BodyGrammarSlot>> rangeTree = new RangeTree<>();
+	private final RangeTree<BodyGrammarSlot[]> rangeTree = new RangeTree<>();
 
 	public RangeTreeLookaheadTest(Map<CharacterRange, List<BodyGrammarSlot>> nonOverlappingMap) {
-		nonOverlappingMap.entrySet().forEach(e -> rangeTree.insert(e.getKey(), e.getValue().isEmpty() ? Collections.emptyList() : e.getValue()));
+		nonOverlappingMap.entrySet().forEach(e -> rangeTree.insert(e.getKey(), e.getValue().isEmpty() ? NO_SLOTS : e.getValue().toArray(NO_SLOTS)));
 	}
 	
 	@Override
-	public List<BodyGrammarSlot> get(int v) {
-		List<BodyGrammarSlot> alternatives = rangeTree.get(v);
-		return alternatives == null ? Collections.emptyList() : alternatives;
+	public BodyGrammarSlot[] get(int v) {
+		BodyGrammarSlot[] alternatives = rangeTree.get(v);
+		return alternatives == null ? NO_SLOTS : alternatives;
 	}
 
 }
@@ -447,7 +447,13 @@ public class VarToInt implements GrammarTransformation, IAbstractASTVisitor<Abst
 
 	@Override
 	public AbstractAST visit(RightExtent expression) {
-		throw new RuntimeException("Unsupported yet expression: " + expression);
+		java.lang.String label = expression.getLabel();
+		java.lang.Integer i = current.get(label);
+		
+		if (i == null)
+			throw new UndeclaredVariableException(label);
+		
+		return AST.rExt(label, i);
 	}
 
 	@Override
@@ -463,7 +469,13 @@ public class VarToInt implements GrammarTransformation, IAbstractASTVisitor<Abst
 
 	@Override
 	public AbstractAST visit(Val expression) {
-		throw new RuntimeException("Unsupported yet expression: " + expression);
+		java.lang.String label = expression.getLabel();
+		java.lang.Integer i = current.get(label);
+		
+		if (i == null)
+			throw new UndeclaredVariableException(label);
+		
+		return AST.val(label, i);
 	}
 
 	@Override
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+import java.util.Arrays;
+
+import iguana.regex.matcher.Matcher;
+import iguana.utils.input.Input;
+import iguana.utils.logging.LogLevel;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.PositionOrderedDescriptorWorklist;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.util.Configuration;
+
+/**
+ * 
+ * A runtime that processes the descriptors in the order of their input index and discards
+ * the entries of the GSS and SPPF node tables that can no longer be looked up.
+ * 
+ * A GSS node at index i is only looked up by the descriptors at i, an intermediate node
+ * and a popped element by the descriptors at their right extent, and a terminal node by
+ * the descriptors at its left extent. Once the worklist moves past a position, the entries
+ * at that position are removed. The table entries then only cover the positions between
+ * the earliest pending descriptor and the furthest position a pending descriptor has
+ * reached, instead of the whole input. Nodes that are not part of the final parse forest
+ * become garbage as soon as no table, GSS edge or descriptor refers to them.
+ * 
+ * The GSS nodes are not registered with the runtime, and {@link #getGSSNodes()} only
+ * returns the nodes at the positions that are not discarded yet.
+ * 
+ * The journal is a ring of lists of undo records indexed by the position, which grows
+ * when an entry is recorded further ahead of the first kept position than the ring is
+ * long. The records are kept in arrays and reused once their position is discarded, so
+ * recording an entry does not allocate, except when the arrays grow.
+ * 
+ * @see Configuration.MemoryMode
+ *
+ */
+public class BoundedParserRuntime extends JournaledParserRuntime {
+
+	private final PositionOrderedDescriptorWorklist worklist;
+
+	private static final int DEFAULT_RING_SIZE = 64;
+
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * The first undo record of each position, indexed by the position modulo the length
+	 * of the ring, or -1 if the position has no records.
+	 */
+	private int[] heads;
+
+	/**
+	 * The table, key and object key of every undo record, and the next record of the same
+	 * position, or -1. The free records are linked in the same way.
+	 */
+	private Table[] tables;
+
+	private long[] keys;
+
+	private Object[] objectKeys;
+
+	private int[] nextRecords;
+
+	private int free = -1;
+
+	private int used;
+
+	/**
+	 * The number of positions that have records.
+	 */
+	private int journalSize;
+
+	/**
+	 * The entries before this position are discarded.
+	 */
+	private int position;
+
+	public BoundedParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx) {
+		this(grammarGraph, input, config, ctx, new PositionOrderedDescriptorWorklist(input));
+	}
+
+	private BoundedParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx, PositionOrderedDescriptorWorklist worklist) {
+		super(grammarGraph, input, config, ctx, worklist);
+		this.worklist = worklist;
+		this.heads = new int[DEFAULT_RING_SIZE];
+		Arrays.fill(heads, -1);
+		this.tables = new Table[DEFAULT_CAPACITY];
+		this.keys = new long[DEFAULT_CAPACITY];
+		this.objectKeys = new Object[DEFAULT_CAPACITY];
+		this.nextRecords = new int[DEFAULT_CAPACITY];
+	}
+
+	@Override
+	public void record(int position, Table table, long key, Object objectKey) {
+		assert position >= this.position;
+
+		if (position - this.position >= heads.length)
+			growRing(position - this.position + 1);
+
+		int record;
+		if (free != -1) {
+			record = free;
+			free = nextRecords[record];
+		} else {
+			if (used == tables.length) growRecords();
+			record = used++;
+		}
+
+		tables[record] = table;
+		keys[record] = key;
+		objectKeys[record] = objectKey;
+
+		int k = position & (heads.length - 1);
+		if (heads[k] == -1) journalSize++;
+		nextRecords[record] = heads[k];
+		heads[k] = record;
+	}
+
+	@Override
+	public void processDescriptors() {
+		int count = 0;
+		boolean logging = getConfiguration().getLogLevel() != LogLevel.NONE;
+		while (!worklist.isEmpty()) {
+			int next = worklist.nextInputIndex();
+			if (next > position)
+				discard(next);
+
+			if (logging) {
+				Descriptor descriptor = worklist.pop();
+				log("Processing %s", descriptor);
+				descriptor.execute();
+			} else {
+				worklist.executeNext(getInput());
+			}
+			if ((++count & CANCELLATION_CHECK_MASK) == 0) checkLimits();
+		}
+	}
+
+	/**
+	 * The matches are not cached, as the cache would grow with the input.
+	 */
+	@Override
+	public int match(Matcher matcher, Input input, int i) {
+		return matcher.match(input, i);
+	}
+
+	/**
+	 * The environments are not interned, as the table of the canonical environments would grow with the input.
+	 */
+	@Override
+	public Environment intern(Environment env) {
+		return env;
+	}
+
+	@Override
+	public <T> GSSNodeData<T> intern(GSSNodeData<T> data) {
+		return data;
+	}
+
+	/**
+	 * No token lattice is built, as it would grow with the input.
+	 */
+	@Override
+	protected TokenLattice getTokenLattice() {
+		return null;
+	}
+
+	/**
+	 * The number of positions whose entries are kept.
+	 */
+	public int getJournalSize() {
+		return journalSize;
+	}
+
+	private void discard(int nextPosition) {
+		// The positions after the ring have no records
+		int end = Math.min(nextPosition, position + heads.length);
+		for (int i = position; i < end; i++) {
+			int k = i & (heads.length - 1);
+			int record = heads[k];
+			if (record == -1) continue;
+
+			heads[k] = -1;
+			journalSize--;
+			while (record != -1) {
+				tables[record].removeEntry(keys[record], objectKeys[record]);
+				tables[record] = null;
+				objectKeys[record] = null;
+				int following = nextRecords[record];
+				nextRecords[record] = free;
+				free = record;
+				record = following;
+			}
+		}
+		position = nextPosition;
+	}
+
+	/**
+	 * Moves the records from the first kept position on to a ring that spans at least the
+	 * given number of positions.
+	 */
+	private void growRing(int span) {
+		int length = heads.length;
+		while (length < span)
+			length *= 2;
+
+		int[] newHeads = new int[length];
+		Arrays.fill(newHeads, -1);
+		for (int i = position; i < position + heads.length; i++)
+			newHeads[i & (length - 1)] = heads[i & (heads.length - 1)];
+		heads = newHeads;
+	}
+
+	private void growRecords() {
+		int capacity = tables.length * 2;
+		tables = Arrays.copyOf(tables, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+		objectKeys = Arrays.copyOf(objectKeys, capacity);
+		nextRecords = Arrays.copyOf(nextRecords, capacity);
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The canonical instances of the environments and GSS node data of a parse. Interning a value returns the first
+ * interned instance equal to it, so equal values share one instance. As the environments and GSSNodeData cache
+ * their hash codes and check the reference first in equals, the node tables keyed by interned values find an
+ * equal key by reference, and compare the elements only when two distinct values have the same hash code.
+ *
+ * The table keeps the interned values until the end of the parse, so it is not used by the runtimes that bound
+ * the memory of a parse, nor by the parallel runtime.
+ */
+public class HashConsingTable {
+
+    private final Map<Object, Object> table = new HashMap<>();
+
+    private long lookups;
+
+    private long hits;
+
+    /**
+     * Returns the canonical instance equal to the value, which is the value itself if no equal value has been interned.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value) {
+        lookups++;
+        Object canonical = table.putIfAbsent(value, value);
+        if (canonical == null)
+            return value;
+        hits++;
+        return (T) canonical;
+    }
+
+    public int size() {
+        return table.size();
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+}
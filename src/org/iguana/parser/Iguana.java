@@ -38,14 +38,15 @@ import org.iguana.grammar.Grammar;
 import org.iguana.grammar.GrammarGraph;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
 import org.iguana.grammar.symbol.Nonterminal;
-import org.iguana.parser.descriptor.Descriptor;
 import org.iguana.parser.gss.GSSNode;
 import org.iguana.parser.gss.GSSNodeData;
 import org.iguana.util.Configuration;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.input.LineColumnIndex;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * 
@@ -57,14 +58,32 @@ import java.util.Map;
 public class Iguana {
 	
 	public static ParseResult parse(Input input, GrammarGraph grammarGraph, Configuration config, Nonterminal nonterminal, Map<String, ?> map, boolean global) {
-        IEvaluatorContext ctx = GLLEvaluator.getEvaluatorContext(config, input);
-
-        ParserRuntime runtime = grammarGraph.getRuntime();
-
-        grammarGraph.reset(input);
+        return parse(input, grammarGraph, config, nonterminal, map, global, ParseOptions.DEFAULT);
+    }
 
-        if (global)
-            map.forEach((k,v) -> ctx.declareGlobalVariable(k, v));
+    /**
+     * Parses the input with the limits of the given options. If a limit is exceeded, or the
+     * options' cancellation token is cancelled, a ParseAborted result carrying the statistics
+     * of the parse so far is returned.
+     */
+	public static ParseResult parse(Input input, GrammarGraph grammarGraph, Configuration config, Nonterminal nonterminal, Map<String, ?> map, boolean global, ParseOptions options) {
+        // The contexts of the workers of a parallel parse share an index. The single context of a
+        // sequential parse creates its index only if a data-dependent expression asks for a column.
+        LineColumnIndex lineColumnIndex = config.getParallelism() > 1 ? new LineColumnIndex(input, config.getTabWidth()) : null;
+        Supplier<IEvaluatorContext> contextFactory = () -> {
+            IEvaluatorContext c = lineColumnIndex == null ? GLLEvaluator.getEvaluatorContext(config, input)
+                                                          : GLLEvaluator.getEvaluatorContext(config, input, lineColumnIndex);
+            if (global)
+                map.forEach((k,v) -> c.declareGlobalVariable(k, v));
+            return c;
+        };
+
+        ParserRuntimeFactory runtimeFactory = config == grammarGraph.getConfiguration()
+                                              ? grammarGraph.getRuntimeFactory()
+                                              : ParserRuntimeFactory.of(config);
+        ParserRuntime runtime = runtimeFactory.create(grammarGraph, input, config, contextFactory);
+
+        IEvaluatorContext ctx = runtime.getEvaluatorContext();
 
         NonterminalGrammarSlot startSymbol = grammarGraph.getHead(nonterminal);
 
@@ -85,27 +104,32 @@ public class Iguana {
             for (String parameter : nonterminal.getParameters())
                 arguments[i++] = map.get(parameter);
 
-            startGSSNode = startSymbol.getGSSNode(0, new GSSNodeData<>(arguments));
+            startGSSNode = startSymbol.getGSSNode(0, new GSSNodeData<>(arguments), runtime);
             env = ctx.getEmptyEnvironment().declare(nonterminal.getParameters(), arguments);
         } else {
             env = null;
-            startGSSNode = startSymbol.getGSSNode(0);
+            startGSSNode = startSymbol.getGSSNode(0, runtime);
         }
 
         runtime.log("Parsing %s:", input.getURI());
 
+        runtime.setParseOptions(options);
+
         Timer timer = new Timer();
         timer.start();
 
         if (env == null)
-            startSymbol.getFirstSlots().forEach(s -> runtime.scheduleDescriptor(new Descriptor(s, startGSSNode, new DummyNode(0), input)));
+            startSymbol.getFirstSlots().forEach(s -> runtime.scheduleDescriptor(s, startGSSNode, new DummyNode(0)));
         else
-            startSymbol.getFirstSlots().forEach(s -> runtime.scheduleDescriptor(new org.iguana.datadependent.descriptor.Descriptor(s, startGSSNode, new DummyNode(0), input, env)));
-
-        while(runtime.hasDescriptor()) {
-            Descriptor descriptor = runtime.nextDescriptor();
-            runtime.log("Processing %s", descriptor);
-            descriptor.execute();
+            startSymbol.getFirstSlots().forEach(s -> runtime.scheduleDescriptor(s, startGSSNode, new DummyNode(0), env));
+
+        try {
+            runtime.processDescriptors();
+        } catch (ParseAbortedException e) {
+            timer.stop();
+            ParseAborted parseAborted = new ParseAborted(e.getReason(), runtime.getParseStatistics(timer), input);
+            runtime.log("Parsing aborted: %s", e.getReason());
+            return parseAborted;
         }
 
         root = startGSSNode.getNonterminalNode(input, input.length() - 1);
@@ -128,7 +152,11 @@ public class Iguana {
     }
 	
 	public static ParseResult parse(Input input, GrammarGraph grammarGraph, Nonterminal startSymbol) {
-		return parse(input, grammarGraph, Configuration.load(), startSymbol, Collections.emptyMap(), true);
+		return parse(input, grammarGraph, grammarGraph.getConfiguration(), startSymbol, Collections.emptyMap(), true);
+	}
+
+	public static ParseResult parse(Input input, GrammarGraph grammarGraph, Nonterminal startSymbol, ParseOptions options) {
+		return parse(input, grammarGraph, grammarGraph.getConfiguration(), startSymbol, Collections.emptyMap(), true, options);
 	}
 
     public static ParseResult parse(Input input, Grammar grammar, Nonterminal startSymbol) {
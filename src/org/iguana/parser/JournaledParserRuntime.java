@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+import java.util.Map;
+
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.descriptor.DescriptorWorklist;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.parser.gss.JournaledGSSNode;
+import org.iguana.parser.gss.lookup.GSSNodeLookup;
+import org.iguana.parser.gss.lookup.JournaledNodeLookup;
+import org.iguana.parser.sppf.lookup.IntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.JournaledIntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.JournaledIntermediateNodeMap;
+import org.iguana.parser.sppf.lookup.JournaledTerminalNodeLookup;
+import org.iguana.parser.sppf.lookup.TerminalNodeLookup;
+import org.iguana.util.Configuration;
+
+/**
+ * 
+ * A runtime whose GSS nodes, popped elements and SPPF node tables report every entry they
+ * add to the {@link PositionJournal} of the runtime, so that the entries of a range of
+ * input positions can be removed again.
+ *
+ */
+public abstract class JournaledParserRuntime extends ParserRuntimeImpl implements PositionJournal {
+
+	protected JournaledParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx, DescriptorWorklist worklist) {
+		super(grammarGraph, input, config, ctx, worklist);
+	}
+
+	@Override
+	public GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex) {
+		return new JournaledGSSNode(slot, inputIndex, this, this);
+	}
+
+	@Override
+	public <T> GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data) {
+		return new org.iguana.datadependent.gss.JournaledGSSNode<>(slot, inputIndex, data, this, this);
+	}
+
+	@Override
+	protected GSSNodeLookup createGSSNodeLookup() {
+		return new JournaledNodeLookup(this);
+	}
+
+	@Override
+	protected IntermediateNodeLookup createIntermediateNodeLookup() {
+		return new JournaledIntermediateNodeLookup(this);
+	}
+
+	@Override
+	protected TerminalNodeLookup createTerminalNodeLookup() {
+		return new JournaledTerminalNodeLookup(this);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected <K, V> Map<K, V> createMap() {
+		return (Map<K, V>) new JournaledIntermediateNodeMap(this);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser;
+
+import iguana.utils.input.Input;
+import org.iguana.grammar.SharedMatcher;
+
+import java.util.Arrays;
+
+/**
+ * The results of the shared matchers of a parse, keyed by the id of the matcher and the input index.
+ * The table is an open addressing hash table with linear probing over primitive arrays, so lookups
+ * do not allocate. The results are only valid for one input: when a matcher is run on another input,
+ * as after an edit in an incremental parse, the table is cleared.
+ */
+public class MatchCache {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private static final long EMPTY = -1L;
+
+    private Input input;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private int threshold;
+
+    private int mask;
+
+    private long lookups;
+
+    private long hits;
+
+    public MatchCache() {
+        allocate(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the length of the match of the matcher at the input index i, or -1 if
+     * it does not match, running the matcher only the first time.
+     */
+    public int match(SharedMatcher matcher, Input input, int i) {
+        if (input != this.input) {
+            if (size > 0)
+                allocate(DEFAULT_INITIAL_CAPACITY);
+            this.input = input;
+        }
+
+        lookups++;
+        long key = ((long) matcher.getId() << 32) | (i & 0xFFFFFFFFL);
+        int j = hash(key) & mask;
+        long k;
+        while ((k = keys[j]) != EMPTY) {
+            if (k == key) {
+                hits++;
+                return values[j];
+            }
+            j = (j + 1) & mask;
+        }
+
+        int length = matcher.match(input, i);
+        keys[j] = key;
+        values[j] = length;
+        if (++size > threshold)
+            rehash();
+        return length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void resetStatistics() {
+        lookups = 0;
+        hits = 0;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int oldSize = size;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = hash(oldKeys[i]) & mask;
+                while (keys[j] != EMPTY)
+                    j = (j + 1) & mask;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+        size = oldSize;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new int[capacity];
+        size = 0;
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
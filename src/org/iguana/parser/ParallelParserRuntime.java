@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
+import iguana.parsetrees.sppf.TerminalNode;
+import iguana.regex.matcher.Matcher;
+import iguana.utils.benchmark.Timer;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.SharedMatcher;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalTransition;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.DescriptorWorklist;
+import org.iguana.parser.gss.ConcurrentGSSNode;
+import org.iguana.parser.gss.GSSEdge;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.parser.gss.lookup.ConcurrentNodeLookup;
+import org.iguana.parser.gss.lookup.GSSNodeLookup;
+import org.iguana.parser.sppf.lookup.ConcurrentIntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.ConcurrentTerminalNodeLookup;
+import org.iguana.parser.sppf.lookup.IntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.TerminalNodeLookup;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseStatistics;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 
+ * A parser runtime that executes descriptors on a pool of worker threads. Each worker has
+ * its own work-stealing deque of descriptors. By default, the parses with the same parallelism
+ * share one pool, so a parse does not start threads of its own. The GSS lookups and SPPF node tables are
+ * concurrent maps, and edge creation and popping on a GSS node are serialized per node,
+ * so a parse creates the same GSS and SPPF nodes, and the same statistics, as the
+ * sequential {@link ParserRuntimeImpl}. Only the order of packed nodes under an ambiguous
+ * node may differ.
+ * 
+ * Data-dependent grammars are supported by giving each worker its own evaluator context.
+ * Each worker also has its own match cache, so the match cache counts depend on the
+ * scheduling. The environments and GSS node arguments are not hash-consed, and the
+ * parse is not profiled.
+ * 
+ * A parse keeps a count of its scheduled descriptors that are not yet executed, and is done when
+ * the count drops to zero. When the parse is aborted, the descriptors that are still scheduled
+ * are skipped, and processDescriptors returns only after the workers have stopped changing the
+ * GSS and SPPF of the parse.
+ *
+ */
+public class ParallelParserRuntime extends ParserRuntimeImpl {
+
+    private static final Map<Integer, ForkJoinPool> sharedPools = new ConcurrentHashMap<>();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of scheduled descriptors that are not yet executed or skipped. Also the monitor
+     * on which processDescriptors waits for the count to drop to zero.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Set when the parse fails or is aborted, after which the scheduled descriptors are skipped.
+     */
+    private volatile boolean stopped;
+
+    private final ThreadLocal<IEvaluatorContext> contexts;
+
+    private final ThreadLocal<MatchCache> matchCaches;
+
+    private final Queue<MatchCache> allMatchCaches = new ConcurrentLinkedQueue<>();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final LongAdder descriptorsCount = new LongAdder();
+
+    private final LongAdder countNonterminalNodes = new LongAdder();
+
+    private final LongAdder countIntermediateNodes = new LongAdder();
+
+    private final LongAdder countTerminalNodes = new LongAdder();
+
+    private final LongAdder countPackedNodes = new LongAdder();
+
+    private final LongAdder countAmbiguousNodes = new LongAdder();
+
+    private final LongAdder countGSSNodes = new LongAdder();
+
+    private final LongAdder countGSSEdges = new LongAdder();
+
+    private final LongAdder countLookaheadPruned = new LongAdder();
+
+    public ParallelParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, Supplier<IEvaluatorContext> contextFactory) {
+        this(grammarGraph, input, config, contextFactory, getSharedPool(config.getParallelism()));
+    }
+
+    /**
+     * Creates a runtime that executes the descriptors on the given pool, which may be shared with
+     * other parses and is not shut down by this runtime.
+     */
+    public ParallelParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, Supplier<IEvaluatorContext> contextFactory, ForkJoinPool pool) {
+        super(grammarGraph, input, config, contextFactory.get(), (DescriptorWorklist) null);
+        this.pool = pool;
+        this.contexts = ThreadLocal.withInitial(contextFactory);
+        this.matchCaches = ThreadLocal.withInitial(() -> {
+            MatchCache matchCache = new MatchCache();
+            allMatchCaches.add(matchCache);
+            return matchCache;
+        });
+
+        // The per-slot tables and the token lattice are created before the workers start,
+        // as the lazy initialization in ParserRuntimeImpl is not thread-safe.
+        for (GrammarSlot slot : grammarGraph.getGrammarSlots()) {
+            if (slot instanceof NonterminalGrammarSlot)
+                getGSSNodeLookup((NonterminalGrammarSlot) slot);
+            else if (slot instanceof TerminalGrammarSlot)
+                getTerminalNodeLookup((TerminalGrammarSlot) slot);
+            else if (slot instanceof BodyGrammarSlot) {
+                getIntermediateNodeLookup((BodyGrammarSlot) slot);
+                getIntermediateNodes((BodyGrammarSlot) slot);
+            }
+        }
+        getTokenLattice();
+    }
+
+    /**
+     * The pool shared by the parses with the given parallelism. Its workers are daemon threads.
+     */
+    public static ForkJoinPool getSharedPool(int parallelism) {
+        return sharedPools.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    @Override
+    public void scheduleDescriptor(Descriptor descriptor) {
+        if (descriptor instanceof org.iguana.datadependent.descriptor.Descriptor)
+            scheduleDescriptor(descriptor.getGrammarSlot(), descriptor.getGSSNode(), descriptor.getSPPFNode(),
+                               ((org.iguana.datadependent.descriptor.Descriptor) descriptor).getEnvironment());
+        else
+            scheduleDescriptor(descriptor.getGrammarSlot(), descriptor.getGSSNode(), descriptor.getSPPFNode());
+    }
+
+    @Override
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+        schedule(new DescriptorTask(slot, gssNode, sppfNode, null));
+        log("Descriptor created: (%s, %s, %s)", slot, gssNode, sppfNode);
+    }
+
+    @Override
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+        schedule(new DescriptorTask(slot, gssNode, sppfNode, env));
+        log("Descriptor created: (%s, %s, %s, %s)", slot, gssNode, sppfNode, env);
+    }
+
+    private void schedule(DescriptorTask task) {
+        pending.incrementAndGet();
+        descriptorsCount.increment();
+        if (ForkJoinTask.getPool() == pool)
+            task.fork();
+        else
+            pool.execute(task);
+    }
+
+    @Override
+    public void processDescriptors() {
+        try {
+            while (pending.get() > 0 && failure.get() == null) {
+                checkLimits();
+                synchronized (pending) {
+                    if (pending.get() > 0)
+                        pending.wait(10);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParseAbortedException(AbortReason.CANCELLED);
+        } finally {
+            stopped = true;
+            // The workers finish the descriptors they are executing and skip the others
+            while (pending.get() > 0)
+                Thread.yield();
+        }
+
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if (t instanceof Error)
+            throw (Error) t;
+        if (t != null)
+            throw new RuntimeException(t);
+    }
+
+    @Override
+    public synchronized void recordParseError(Input input, int i, GrammarSlot slot, GSSNode u) {
+        super.recordParseError(input, i, slot, u);
+    }
+
+    @Override
+    public synchronized ParseError getParseError() {
+        return super.getParseError();
+    }
+
+    @Override
+    public IEvaluatorContext getEvaluatorContext() {
+        return contexts.get();
+    }
+
+    @Override
+    public GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex) {
+        return new ConcurrentGSSNode(slot, inputIndex, this);
+    }
+
+    @Override
+    public <T> GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data) {
+        return new org.iguana.datadependent.gss.ConcurrentGSSNode<>(slot, inputIndex, data, this);
+    }
+
+    @Override
+    protected <K, V> Map<K, V> createMap() {
+        return new ConcurrentHashMap<>();
+    }
+
+    @Override
+    protected GSSNodeLookup createGSSNodeLookup() {
+        return new ConcurrentNodeLookup();
+    }
+
+    @Override
+    protected IntermediateNodeLookup createIntermediateNodeLookup() {
+        return new ConcurrentIntermediateNodeLookup();
+    }
+
+    @Override
+    protected TerminalNodeLookup createTerminalNodeLookup() {
+        return new ConcurrentTerminalNodeLookup();
+    }
+
+    @Override
+    public void terminalNodeAdded(TerminalNode node) {
+        countTerminalNodes.increment();
+        log("Terminal node added %s", node);
+    }
+
+    @Override
+    public void nonterminalNodeAdded(NonterminalNode node) {
+        countNonterminalNodes.increment();
+        log("Nonterminal node added %s", node);
+    }
+
+    @Override
+    public void intermediateNodeAdded(IntermediateNode node) {
+        countIntermediateNodes.increment();
+        log("Intermediate node added %s", node);
+    }
+
+    @Override
+    public void packedNodeAdded(Object slot, int pivot) {
+        countPackedNodes.increment();
+        log("Packed node added (%s, %d)", slot, pivot);
+    }
+
+    @Override
+    public void ambiguousNodeAdded(NonterminalOrIntermediateNode node) {
+        countAmbiguousNodes.increment();
+        log("Ambiguous node added: %s", node);
+    }
+
+    @Override
+    public void gssNodeAdded(GSSNode node) {
+        countGSSNodes.increment();
+        log("GSS node added %s", node);
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSEdge edge) {
+        countGSSEdges.increment();
+        log("GSS Edge added %s", edge);
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSNode source, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode node) {
+        countGSSEdges.increment();
+        log("GSS Edge added %s -> (%s, %s, %s)", source, returnSlot, node, destination);
+    }
+
+    @Override
+    public void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode) {}
+
+    @Override
+    public void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode, Environment env) {}
+
+    @Override
+    public void lookaheadPruned(BodyGrammarSlot slot, int i) {
+        countLookaheadPruned.increment();
+    }
+
+    /**
+     * The match cache is not thread-safe, so each worker has its own.
+     */
+    @Override
+    public int match(Matcher matcher, Input input, int i) {
+        if (matcher instanceof SharedMatcher)
+            return matchCaches.get().match((SharedMatcher) matcher, input, i);
+        return matcher.match(input, i);
+    }
+
+    /**
+     * The hash-consing table is not thread-safe, so the environments are not interned.
+     */
+    @Override
+    public Environment intern(Environment env) {
+        return env;
+    }
+
+    @Override
+    public <T> GSSNodeData<T> intern(GSSNodeData<T> data) {
+        return data;
+    }
+
+    @Override
+    public ParseStatistics getParseStatistics(Timer timer) {
+        return ParseStatistics.builder()
+                              .setNanoTime(timer.getNanoTime())
+                              .setUserTime(timer.getUserTime())
+                              .setSystemTime(timer.getSystemTime())
+                              .setMemoryUsed(getMemoryUsed())
+                              .setDescriptorsCount(descriptorsCount.intValue())
+                              .setGSSNodesCount(countGSSNodes.intValue() + 1) // + start gss node
+                              .setGSSEdgesCount(countGSSEdges.intValue())
+                              .setNonterminalNodesCount(countNonterminalNodes.intValue())
+                              .setTerminalNodesCount(countTerminalNodes.intValue())
+                              .setIntermediateNodesCount(countIntermediateNodes.intValue())
+                              .setPackedNodesCount(countPackedNodes.intValue())
+                              .setAmbiguousNodesCount(countAmbiguousNodes.intValue())
+                              .setLookaheadPrunedCount(countLookaheadPruned.intValue())
+                              .setMatchCacheLookups(allMatchCaches.stream().mapToLong(MatchCache::getLookups).sum())
+                              .setMatchCacheHits(allMatchCaches.stream().mapToLong(MatchCache::getHits).sum())
+                              .build();
+    }
+
+    @Override
+    protected long getDescriptorsCount() {
+        return descriptorsCount.sum();
+    }
+
+    @Override
+    protected long getGSSNodesCount() {
+        return countGSSNodes.sum();
+    }
+
+    @Override
+    protected long getSPPFNodesCount() {
+        return countTerminalNodes.sum() + countNonterminalNodes.sum() + countIntermediateNodes.sum() + countPackedNodes.sum();
+    }
+
+    /**
+     * A descriptor, executed as a fork/join task. The environment is null for descriptors
+     * that are not data-dependent.
+     */
+    private class DescriptorTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BodyGrammarSlot slot;
+
+        private final GSSNode gssNode;
+
+        private final NonPackedNode sppfNode;
+
+        private final Environment env;
+
+        DescriptorTask(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+            this.slot = slot;
+            this.gssNode = gssNode;
+            this.sppfNode = sppfNode;
+            this.env = env;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (stopped) return;
+                log("Processing (%s, %s, %s)", slot, gssNode, sppfNode);
+                if (env == null)
+                    slot.execute(getInput(), gssNode, sppfNode);
+                else
+                    slot.execute(getInput(), gssNode, sppfNode, env);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                stopped = true;
+            } finally {
+                if (pending.decrementAndGet() == 0) {
+                    synchronized (pending) {
+                        pending.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 
+ * The limits of a single parse: a deadline, the maximum number of descriptors, GSS nodes and SPPF nodes,
+ * and a cancellation token. The runtime checks them every {@link ParserRuntimeImpl#CANCELLATION_CHECK_MASK} + 1
+ * descriptors, so a parse can overrun a limit by the work of that many descriptors before it is stopped with
+ * a {@link ParseAborted} result. The SPPF node count is the sum of the terminal, nonterminal, intermediate
+ * and packed nodes.
+ * 
+ * The default options have no limits.
+ *
+ */
+public class ParseOptions {
+
+	public static final ParseOptions DEFAULT = builder().build();
+
+	private final Instant deadline;
+
+	private final Duration timeout;
+
+	private final long maxDescriptors;
+
+	private final long maxGSSNodes;
+
+	private final long maxSPPFNodes;
+
+	private final CancellationToken cancellationToken;
+
+	private ParseOptions(Builder builder) {
+		this.deadline = builder.deadline;
+		this.timeout = builder.timeout;
+		this.maxDescriptors = builder.maxDescriptors;
+		this.maxGSSNodes = builder.maxGSSNodes;
+		this.maxSPPFNodes = builder.maxSPPFNodes;
+		this.cancellationToken = builder.cancellationToken;
+	}
+
+	public Instant getDeadline() {
+		return deadline;
+	}
+
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	public long getMaxDescriptors() {
+		return maxDescriptors;
+	}
+
+	public long getMaxGSSNodes() {
+		return maxGSSNodes;
+	}
+
+	public long getMaxSPPFNodes() {
+		return maxSPPFNodes;
+	}
+
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * Returns true if these options have any limit or a cancellation token.
+	 */
+	public boolean hasLimits() {
+		return deadline != null || timeout != null || maxDescriptors != Long.MAX_VALUE || maxGSSNodes != Long.MAX_VALUE
+			|| maxSPPFNodes != Long.MAX_VALUE || cancellationToken != null;
+	}
+
+	/**
+	 * Returns the time left, in nanoseconds, to a parse that starts now, the earliest of the deadline
+	 * and the timeout, or Long.MAX_VALUE if there is neither.
+	 */
+	long getRemainingNanos() {
+		long remaining = Long.MAX_VALUE;
+		if (timeout != null)
+			remaining = saturatedNanos(timeout);
+		if (deadline != null)
+			remaining = Math.min(remaining, saturatedNanos(Duration.between(Instant.now(), deadline)));
+		return Math.max(0, remaining);
+	}
+
+	private static long saturatedNanos(Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (ArithmeticException e) {
+			return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public String toString() {
+		return "Deadline: " + deadline + "\n" +
+			   "Timeout: " + timeout + "\n" +
+			   "Max descriptors: " + maxDescriptors + "\n" +
+			   "Max GSS nodes: " + maxGSSNodes + "\n" +
+			   "Max SPPF nodes: " + maxSPPFNodes;
+	}
+
+	public static class Builder {
+
+		private Instant deadline;
+
+		private Duration timeout;
+
+		private long maxDescriptors = Long.MAX_VALUE;
+
+		private long maxGSSNodes = Long.MAX_VALUE;
+
+		private long maxSPPFNodes = Long.MAX_VALUE;
+
+		private CancellationToken cancellationToken;
+
+		public ParseOptions build() {
+			return new ParseOptions(this);
+		}
+
+		public Builder setDeadline(Instant deadline) {
+			this.deadline = deadline;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum time a parse can take, measured from the start of the parse.
+		 */
+		public Builder setTimeout(Duration timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		public Builder setMaxDescriptors(long maxDescriptors) {
+			this.maxDescriptors = maxDescriptors;
+			return this;
+		}
+
+		public Builder setMaxGSSNodes(long maxGSSNodes) {
+			this.maxGSSNodes = maxGSSNodes;
+			return this;
+		}
+
+		public Builder setMaxSPPFNodes(long maxSPPFNodes) {
+			this.maxSPPFNodes = maxSPPFNodes;
+			return this;
+		}
+
+		public Builder setCancellationToken(CancellationToken cancellationToken) {
+			this.cancellationToken = cancellationToken;
+			return this;
+		}
+	}
+
+}
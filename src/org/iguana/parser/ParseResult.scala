@@ -6,18 +6,23 @@ import iguana.parsetrees.term.{TermBuilder, DefaultTermBuilder, SPPFToTerms, Ter
 import iguana.utils.input.Input
 import org.iguana.grammar.slot.GrammarSlot
 import org.iguana.parser.gss.GSSNode
+import org.iguana.parser.tree.{LazyTerm, ParseTreeVisitor, ParseTreeWalker}
 import org.iguana.util.ParseStatistics
 
 trait ParseResult {
 
   def isParseError: Boolean
 
-  def isParseSuccess: Boolean = !isParseError
+  def isParseSuccess: Boolean = !isParseError && !isParseAborted
+
+  def isParseAborted: Boolean = false
 
   def asParseError: ParseError
 
   def asParseSuccess: ParseSuccess
 
+  def asParseAborted: ParseAborted = throw new RuntimeException("Cannot call getParseAborted on " + getClass.getSimpleName + ".")
+
   def getInput: Input
 
   def asTerm: Option[Term] = if (isParseSuccess) Some(this.asParseSuccess.getTerm) else None
@@ -33,6 +38,22 @@ case class ParseSuccess(sppfNode: NonterminalNode, statistics: ParseStatistics,
 
   def getTerm[T >: Any](builder: TermBuilder[T]): T = SPPFToTerms.convert(sppfNode, builder)
 
+  /**
+   * A view of the parse tree whose nodes are created from the SPPF as they are visited.
+   */
+  def getLazyTerm: LazyTerm = LazyTerm.of(sppfNode, input)
+
+  /**
+   * Reports the nodes of the parse tree to the visitor in document order, without creating a tree.
+   * Throws an IllegalStateException when an ambiguity is reached.
+   */
+  def walk(visitor: ParseTreeVisitor): Unit = ParseTreeWalker.walk(sppfNode, visitor)
+
+  /**
+   * Whether the parse tree has an ambiguous node, in which case it cannot be walked.
+   */
+  def isAmbiguous: Boolean = ParseTreeWalker.isAmbiguous(sppfNode)
+
   override def isParseError: Boolean = false
 
   override def getInput: Input = input
@@ -67,6 +88,32 @@ case class ParseError (slot: GrammarSlot, input: Input, inputIndex: Int, gssNode
   override def toString = s"Parse error at ${inputIndex}, line: ${input.getLineNumber(inputIndex)}, column: ${input.getColumnNumber(inputIndex)}"
 }
 
+/**
+ * The result of a parse that was stopped before completion because a limit of its
+ * ParseOptions was exceeded, or because it was cancelled. The statistics describe the
+ * work done until the parse was stopped.
+ */
+case class ParseAborted(reason: AbortReason, statistics: ParseStatistics, input: Input) extends ParseResult {
+
+  override def isParseError: Boolean = false
+
+  override def isParseAborted: Boolean = true
+
+  override def getInput: Input = input
+
+  override def asParseError: ParseError = throw new RuntimeException("Cannot call getParseError on ParseAborted.")
+
+  override def asParseSuccess: ParseSuccess = throw new RuntimeException("Cannot call getParseSuccess on ParseAborted.")
+
+  override def asParseAborted: ParseAborted = this
+
+  def getReason() = reason
+
+  def getStatistics() = statistics
+
+  override def toString = s"Parse aborted (${reason}) after ${statistics.getDescriptorsCount} descriptors"
+}
+
 //case class ParseStatistics(nanoTime: Long = 0,
 //                           systemTime: Long = 0,
 //                           userTime: Long = 0,
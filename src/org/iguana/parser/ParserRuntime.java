@@ -1,36 +1,83 @@
 package org.iguana.parser;
 
 import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.parsetrees.sppf.NonterminalNode;
 import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
 import iguana.parsetrees.sppf.TerminalNode;
+import iguana.regex.matcher.Matcher;
 import iguana.utils.benchmark.Timer;
+import iguana.utils.collections.key.Key;
 import iguana.utils.input.Input;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.ast.Statement;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.datadependent.env.IEvaluatorContext;
 import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.Condition;
 import org.iguana.grammar.condition.DataDependentCondition;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
 import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalTransition;
 import org.iguana.parser.descriptor.Descriptor;
 import org.iguana.parser.gss.GSSEdge;
 import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.parser.gss.lookup.GSSNodeLookup;
+import org.iguana.parser.sppf.lookup.IntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.TerminalNodeLookup;
 import org.iguana.util.Configuration;
 import org.iguana.util.ParseStatistics;
 
+import java.util.Map;
+
+/**
+ * The state of a single parse: the descriptor worklist, the GSS, the SPPF node tables,
+ * the evaluator context and the statistics counters. A {@link GrammarGraph} holds no
+ * per-parse state, so one graph can be shared by several runtimes at the same time.
+ */
 public interface ParserRuntime {
 
-    boolean hasDescriptor();
+    void scheduleDescriptor(Descriptor descriptor);
 
-    Descriptor nextDescriptor();
+    void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode);
 
-    void scheduleDescriptor(Descriptor descriptor);
+    /**
+     * Executes the scheduled descriptors, and the descriptors they schedule, until none is left.
+     */
+    void processDescriptors();
+
+    /**
+     * Sets the limits of this parse, which processDescriptors() checks periodically. The time limits
+     * start when this method is called.
+     */
+    void setParseOptions(ParseOptions options);
 
     void recordParseError(Input input, int i, GrammarSlot slot, GSSNode u);
 
     Iterable<GSSNode> getGSSNodes();
 
+    Input getInput();
+
+    GSSNodeLookup getGSSNodeLookup(NonterminalGrammarSlot slot);
+
+    GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex);
+
+    <T> GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data);
+
+    IntermediateNodeLookup getIntermediateNodeLookup(BodyGrammarSlot slot);
+
+    /**
+     * The intermediate nodes created in data-dependent parsing, whose keys also contain the environment.
+     */
+    Map<Key, IntermediateNode> getIntermediateNodes(BodyGrammarSlot slot);
+
+    TerminalNodeLookup getTerminalNodeLookup(TerminalGrammarSlot slot);
+
     /**
      *
      * Data-dependent GLL parsing
@@ -44,6 +91,24 @@ public interface ParserRuntime {
 
     Object[] evaluate(Expression[] arguments, Environment env);
 
+    /**
+     * Evaluates an expression, or a sequence of statements, compiled by
+     * {@link org.iguana.datadependent.traversal.ExpressionCompiler}. The slots evaluate their compiled
+     * expressions, and the methods above interpret the expressions.
+     */
+    Object evaluate(CompiledExpression expression, Environment env);
+
+    Object[] evaluate(CompiledExpression[] arguments, Environment env);
+
+    /**
+     * Evaluates arguments that all evaluate to an int, see {@link CompiledExpression#isInt()}, without boxing them.
+     */
+    int[] evaluateInts(CompiledExpression[] arguments, Environment env);
+
+    boolean evaluateBoolean(CompiledExpression expression, Environment env);
+
+    void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env);
+
     IEvaluatorContext getEvaluatorContext();
 
     Environment getEnvironment();
@@ -68,6 +133,62 @@ public interface ParserRuntime {
 
     void gssEdgeAdded(GSSEdge edge);
 
+    /**
+     * Reports an edge that is not kept as a GSSEdge object, see {@link org.iguana.parser.gss.CompactGSSNode}.
+     */
+    void gssEdgeAdded(GSSNode source, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode node);
+
+    /**
+     * Reports that the GSS node u is popped at the end slot of one of its rules, whether or not
+     * the popped element is new.
+     */
+    void gssNodePopped(GSSNode u, EndGrammarSlot slot);
+
+    /**
+     * Reports that the first slot s was not scheduled at the input index i because of the second
+     * character of the lookahead, where a lookahead of one character would have scheduled it.
+     */
+    void lookaheadPruned(BodyGrammarSlot slot, int i);
+
+    /**
+     * Reports that the condition, checked at the body grammar slot, rejected the parse at the
+     * GSS node u and the input index i.
+     */
+    void conditionRejected(Condition condition, BodyGrammarSlot slot, GSSNode u, int i);
+
+    /**
+     * Reports that a terminal transition, executed from the GSS node u and the SPPF node
+     * node, matched terminalNode. Used to resume a parse after an edit, see
+     * {@link org.iguana.parser.incremental.IncrementalParser}.
+     */
+    void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode);
+
+    void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode, Environment env);
+
+    /**
+     * Returns the length of the match of the matcher at the input index i, or -1 if it does not match.
+     * The results of a {@link org.iguana.grammar.SharedMatcher} are kept for the rest of the parse,
+     * so that the terminals and conditions with the same regular expression only match once per index.
+     */
+    int match(Matcher matcher, Input input, int i);
+
+    /**
+     * Returns the length of the match of the terminal at the input index i, or -1 if it does not match.
+     * If the token lattice is enabled, the matches of most terminals are looked up in the {@link TokenLattice}.
+     */
+    int match(TerminalGrammarSlot slot, Input input, int i);
+
+    /**
+     * Returns the canonical instance of the environment, see {@link HashConsingTable}. The environments
+     * of the scheduled descriptors and of the keys of the intermediate nodes are interned.
+     */
+    Environment intern(Environment env);
+
+    /**
+     * Returns the canonical instance of the arguments of a GSS node, see {@link HashConsingTable}.
+     */
+    <T> GSSNodeData<T> intern(GSSNodeData<T> data);
+
     ParseError getParseError();
 
     ParseStatistics getParseStatistics(Timer timer);
@@ -86,6 +207,11 @@ public interface ParserRuntime {
 
     void log(String s, Object arg1, Object arg2, Object arg3);
 
+    /**
+     * Logs an event with an input index, which is only boxed if the event is actually logged.
+     */
+    void log(String s, Object arg1, int arg2, Object arg3);
+
     void log(String s, Object arg1, Object arg2, Object arg3, Object arg4);
 
     void log(String s, Object... args);
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.MemoryMode;
+
+import java.util.function.Supplier;
+
+/**
+ * 
+ * Creates the runtime of a parse. A {@link GrammarGraph} selects its factory from its
+ * configuration once, see {@link GrammarGraph#getRuntimeFactory()}, so the parses of a graph
+ * do not choose between the runtimes again.
+ *
+ */
+@FunctionalInterface
+public interface ParserRuntimeFactory {
+
+	/**
+	 * Creates a runtime for a parse of the input. The context factory is called once, or,
+	 * by the parallel runtime, once per worker.
+	 */
+	ParserRuntime create(GrammarGraph grammarGraph, Input input, Configuration config, Supplier<IEvaluatorContext> contextFactory);
+
+	/**
+	 * Returns the factory of the runtime the configuration asks for. A configuration without
+	 * statistics, profiling or logging gets the {@link UninstrumentedParserRuntime}.
+	 */
+	static ParserRuntimeFactory of(Configuration config) {
+		if (config.getParallelism() > 1)
+			return ParallelParserRuntime::new;
+		if (config.getMemoryMode() == MemoryMode.BOUNDED)
+			return (graph, input, c, contextFactory) -> new BoundedParserRuntime(graph, input, c, contextFactory.get());
+		if (config.isProfilingEnabled())
+			return (graph, input, c, contextFactory) -> new ProfilingParserRuntime(graph, input, c, contextFactory.get());
+		if (config.isInstrumented())
+			return (graph, input, c, contextFactory) -> new ParserRuntimeImpl(graph, input, c, contextFactory.get());
+		return (graph, input, c, contextFactory) -> new UninstrumentedParserRuntime(graph, input, c, contextFactory.get());
+	}
+
+}
@@ -1,34 +1,83 @@
 package org.iguana.parser;
 
 import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.parsetrees.sppf.NonterminalNode;
 import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
 import iguana.parsetrees.sppf.TerminalNode;
+import iguana.regex.matcher.Matcher;
 import iguana.utils.benchmark.Timer;
+import iguana.utils.collections.key.Key;
 import iguana.utils.input.Input;
 import iguana.utils.logging.IguanaLogger;
 import iguana.utils.logging.JavaUtilIguanaLogger;
 import iguana.utils.logging.LogLevel;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.ast.Expression;
 import org.iguana.datadependent.ast.Statement;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.datadependent.env.IEvaluatorContext;
 import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.SharedMatcher;
+import org.iguana.grammar.condition.Condition;
 import org.iguana.grammar.condition.DataDependentCondition;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
 import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalTransition;
+import org.iguana.parser.descriptor.DequeDescriptorWorklist;
 import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.DescriptorWorklist;
+import org.iguana.parser.descriptor.PackedDescriptorWorklist;
+import org.iguana.parser.gss.CompactGSSNode;
 import org.iguana.parser.gss.GSSEdge;
 import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.parser.gss.lookup.ArrayNodeLookup;
+import org.iguana.parser.gss.lookup.GSSNodeLookup;
+import org.iguana.parser.gss.lookup.IntOpenAddressingMap;
+import org.iguana.parser.gss.lookup.JavaHashMapNodeLookup;
+import org.iguana.parser.sppf.lookup.ArrayIntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.ArrayTerminalNodeLookup;
+import org.iguana.parser.sppf.lookup.IntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.JavaHashMapIntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.JavaHashMapTerminalNodeLookup;
+import org.iguana.parser.sppf.lookup.OpenAddressingIntermediateNodeLookup;
+import org.iguana.parser.sppf.lookup.OpenAddressingTerminalNodeLookup;
+import org.iguana.parser.sppf.lookup.TerminalNodeLookup;
 import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.GSSImpl;
+import org.iguana.util.Configuration.HashMapImpl;
+import org.iguana.util.Configuration.LookupImpl;
+import org.iguana.util.Configuration.WorklistImpl;
 import org.iguana.util.ParseStatistics;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ParserRuntimeImpl implements ParserRuntime {
 
+    /**
+     * The longest input for which the SPPF node tables are arrays indexed by the input positions.
+     */
+    public static final int DENSE_LOOKUP_MAX_INPUT_LENGTH = 1024;
+
+    /**
+     * The largest number of grammar slots times input positions for which the SPPF node tables are
+     * arrays indexed by the input positions, as each table may allocate an array as long as the input.
+     */
+    public static final int DENSE_LOOKUP_MAX_CELLS = 1 << 16;
+
+    /**
+     * The interrupt status of the parsing thread and the limits of the parse options are checked
+     * once every CANCELLATION_CHECK_MASK + 1 descriptors.
+     */
+    protected static final int CANCELLATION_CHECK_MASK = (1 << 10) - 1;
+
     /**
      * The grammar slot at which a parse error is occurred.
      */
@@ -46,25 +95,99 @@ public class ParserRuntimeImpl implements ParserRuntime {
      */
     private GSSNode errorGSSNode;
 
-    private final Deque<Descriptor> descriptorsStack;
+    private final DescriptorWorklist worklist;
+
+    private ParseOptions options = ParseOptions.DEFAULT;
+
+    /**
+     * The deadline of the parse as a System.nanoTime() value, if the options have one.
+     */
+    private long deadline;
+
+    private boolean hasDeadline;
+
+    /**
+     * The GSS nodes created in this parse, indexed by their id.
+     */
+    private final List<GSSNode> gssNodes;
 
     private final IguanaLogger logger;
 
+    /**
+     * Whether the events are logged. The hot paths test it before calling the logger, so
+     * that no argument array is allocated and no index is boxed when logging is off.
+     */
+    private final boolean logging;
+
     private final GrammarGraph grammarGraph;
 
     private final IEvaluatorContext ctx;
 
     private final Configuration config;
 
-    public ParserRuntimeImpl(GrammarGraph grammarGraph, Configuration config, IEvaluatorContext ctx) {
+    private final Input input;
+
+    /**
+     * Per-parse tables, indexed by the id of the grammar slot they belong to.
+     * They are created on the first access, as most slots are never reached in a parse.
+     */
+    private final GSSNodeLookup[] gssNodeLookups;
+
+    private final Map<Key, IntermediateNode>[] intermediateNodes;
+
+    private final IntermediateNodeLookup[] intermediateNodeLookups;
+
+    private final TerminalNodeLookup[] terminalNodeLookups;
+
+    private final MatchCache matchCache = new MatchCache();
+
+    private final HashConsingTable hashConsingTable = new HashConsingTable();
+
+    private TokenLattice tokenLattice;
+
+    /**
+     * Whether the SPPF node tables are arrays indexed by the input positions.
+     */
+    private final boolean denseLookups;
+
+    public ParserRuntimeImpl(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx) {
+        this(grammarGraph, input, config, ctx, new ArrayList<>());
+    }
+
+    /**
+     * Creates a runtime that keeps the scheduled descriptors in the given worklist instead
+     * of the one selected by the configuration. The worklist is null for runtimes that
+     * override the scheduling and processing of descriptors and keep no worklist.
+     */
+    protected ParserRuntimeImpl(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx, DescriptorWorklist worklist) {
+        this(grammarGraph, input, config, ctx, new ArrayList<>(), worklist);
+    }
+
+    private ParserRuntimeImpl(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx, List<GSSNode> gssNodes) {
+        this(grammarGraph, input, config, ctx, gssNodes, config.getWorklistImpl() == WorklistImpl.PACKED
+                ? new PackedDescriptorWorklist(grammarGraph.getGrammarSlots().toArray(new GrammarSlot[0]), gssNodes)
+                : new DequeDescriptorWorklist(input));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ParserRuntimeImpl(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx, List<GSSNode> gssNodes, DescriptorWorklist worklist) {
         this.grammarGraph = grammarGraph;
-        this.descriptorsStack = new ArrayDeque<>();
+        this.input = input;
         this.ctx = ctx;
         this.config = config;
+        this.gssNodes = gssNodes;
+        this.worklist = worklist;
+        int slotsCount = grammarGraph.getGrammarSlots().size();
+        this.gssNodeLookups = new GSSNodeLookup[slotsCount];
+        this.intermediateNodes = new Map[slotsCount];
+        this.intermediateNodeLookups = new IntermediateNodeLookup[slotsCount];
+        this.terminalNodeLookups = new TerminalNodeLookup[slotsCount];
+        this.denseLookups = input.length() <= DENSE_LOOKUP_MAX_INPUT_LENGTH && (long) slotsCount * input.length() <= DENSE_LOOKUP_MAX_CELLS;
         if (config.getLogLevel() == LogLevel.NONE)
             logger = IguanaLogger.DEFAULT;
         else
             logger = new JavaUtilIguanaLogger("Iguana Logger", config.getLogLevel());
+        this.logging = logger != IguanaLogger.DEFAULT;
     }
 
     /**
@@ -77,7 +200,8 @@ public class ParserRuntimeImpl implements ParserRuntime {
     @Override
     public void recordParseError(Input input, int i, GrammarSlot slot, GSSNode u) {
         if (i >= this.errorIndex) {
-            logger.log("Error recorded at %s %d", slot, i);
+            if (logging)
+                logger.log("Error recorded at %s %d", slot, i);
             this.errorInput = input;
             this.errorIndex = i;
             this.errorSlot = slot;
@@ -85,26 +209,257 @@ public class ParserRuntimeImpl implements ParserRuntime {
         }
     }
 
+    protected boolean hasDescriptor() {
+        return !worklist.isEmpty();
+    }
+
+    protected Descriptor nextDescriptor() {
+        return worklist.pop();
+    }
+
     @Override
-    public boolean hasDescriptor() {
-        return !descriptorsStack.isEmpty();
+    public void scheduleDescriptor(Descriptor descriptor) {
+        worklist.push(descriptor);
+        if (logging)
+            logger.log("Descriptor created: %s", descriptor);
+        descriptorsCount++;
     }
 
     @Override
-    public Descriptor nextDescriptor() {
-        return descriptorsStack.pop();
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+        worklist.push(slot, gssNode, sppfNode);
+        if (logging)
+            logger.log("Descriptor created: (%s, %s, %s)", slot, gssNode, sppfNode);
+        descriptorsCount++;
     }
 
     @Override
-    public final void scheduleDescriptor(Descriptor descriptor) {
-        descriptorsStack.push(descriptor);
-        logger.log("Descriptor created: %s", descriptor);
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+        env = intern(env);
+        worklist.push(slot, gssNode, sppfNode, env);
+        if (logging)
+            logger.log("Descriptor created: (%s, %s, %s, %s)", slot, gssNode, sppfNode, env);
         descriptorsCount++;
     }
 
+    @Override
+    public void processDescriptors() {
+        int count = 0;
+        if (config.getLogLevel() == LogLevel.NONE) {
+            while (!worklist.isEmpty()) {
+                worklist.executeNext(input);
+                if ((++count & CANCELLATION_CHECK_MASK) == 0) checkLimits();
+            }
+        } else {
+            while (hasDescriptor()) {
+                Descriptor descriptor = nextDescriptor();
+                logger.log("Processing %s", descriptor);
+                descriptor.execute();
+                if ((++count & CANCELLATION_CHECK_MASK) == 0) checkLimits();
+            }
+        }
+    }
+
+    /**
+     * The worklist of the scheduled descriptors, for subclasses that schedule descriptors
+     * without the counting and logging of this class.
+     */
+    protected DescriptorWorklist getWorklist() {
+        return worklist;
+    }
+
+    @Override
+    public void setParseOptions(ParseOptions options) {
+        this.options = options;
+        long remaining = options.getRemainingNanos();
+        this.hasDeadline = remaining != Long.MAX_VALUE;
+        // Capped so that the overflow-safe comparison in checkLimits holds
+        this.deadline = System.nanoTime() + Math.min(remaining, Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Throws a ParseAbortedException if the parse is cancelled, by its cancellation token or by
+     * interrupting the current thread, or if it exceeds a limit of its options. The interrupt status
+     * of the thread is left set.
+     */
+    protected void checkLimits() {
+        if (Thread.currentThread().isInterrupted())
+            throw new ParseAbortedException(AbortReason.CANCELLED);
+
+        if (options == ParseOptions.DEFAULT)
+            return;
+
+        CancellationToken token = options.getCancellationToken();
+        if (token != null && token.isCancelled())
+            throw new ParseAbortedException(AbortReason.CANCELLED);
+        if (hasDeadline && System.nanoTime() - deadline > 0)
+            throw new ParseAbortedException(AbortReason.DEADLINE_EXCEEDED);
+        if (getDescriptorsCount() > options.getMaxDescriptors())
+            throw new ParseAbortedException(AbortReason.DESCRIPTOR_LIMIT_EXCEEDED);
+        if (getGSSNodesCount() > options.getMaxGSSNodes())
+            throw new ParseAbortedException(AbortReason.GSS_NODE_LIMIT_EXCEEDED);
+        if (getSPPFNodesCount() > options.getMaxSPPFNodes())
+            throw new ParseAbortedException(AbortReason.SPPF_NODE_LIMIT_EXCEEDED);
+    }
+
+    protected long getDescriptorsCount() {
+        return descriptorsCount;
+    }
+
+    protected long getGSSNodesCount() {
+        return countGSSNodes;
+    }
+
+    protected long getSPPFNodesCount() {
+        return (long) countTerminalNodes + countNonterminalNodes + countIntermediateNodes + countPackedNodes;
+    }
+
     @Override
     public Iterable<GSSNode> getGSSNodes() {
-        return grammarGraph.getNonterminals().stream().flatMap(s -> StreamSupport.stream(s.getGSSNodes().spliterator(), false)).collect(Collectors.toList());
+        List<GSSNode> gssNodes = new ArrayList<>();
+        for (GSSNodeLookup lookup : gssNodeLookups) {
+            if (lookup != null)
+                lookup.getNodes().forEach(gssNodes::add);
+        }
+        return gssNodes;
+    }
+
+    @Override
+    public Input getInput() {
+        return input;
+    }
+
+    @Override
+    public GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex) {
+        if (config.getGSSImpl() == GSSImpl.COMPACT)
+            return register(new CompactGSSNode(slot, inputIndex, this));
+        return register(new GSSNode(slot, inputIndex, this));
+    }
+
+    @Override
+    public <T> GSSNode createGSSNode(NonterminalGrammarSlot slot, int inputIndex, GSSNodeData<T> data) {
+        return register(new org.iguana.datadependent.gss.GSSNode<>(slot, inputIndex, data, this));
+    }
+
+    private GSSNode register(GSSNode node) {
+        node.setId(gssNodes.size());
+        gssNodes.add(node);
+        return node;
+    }
+
+    @Override
+    public GSSNodeLookup getGSSNodeLookup(NonterminalGrammarSlot slot) {
+        GSSNodeLookup lookup = gssNodeLookups[slot.getId()];
+        if (lookup == null) {
+            lookup = createGSSNodeLookup();
+            gssNodeLookups[slot.getId()] = lookup;
+        }
+        return lookup;
+    }
+
+    @Override
+    public Map<Key, IntermediateNode> getIntermediateNodes(BodyGrammarSlot slot) {
+        Map<Key, IntermediateNode> map = intermediateNodes[slot.getId()];
+        if (map == null) {
+            map = createMap();
+            intermediateNodes[slot.getId()] = map;
+        }
+        return map;
+    }
+
+    @Override
+    public IntermediateNodeLookup getIntermediateNodeLookup(BodyGrammarSlot slot) {
+        IntermediateNodeLookup lookup = intermediateNodeLookups[slot.getId()];
+        if (lookup == null) {
+            lookup = createIntermediateNodeLookup();
+            intermediateNodeLookups[slot.getId()] = lookup;
+        }
+        return lookup;
+    }
+
+    @Override
+    public TerminalNodeLookup getTerminalNodeLookup(TerminalGrammarSlot slot) {
+        TerminalNodeLookup lookup = terminalNodeLookups[slot.getId()];
+        if (lookup == null) {
+            lookup = createTerminalNodeLookup();
+            terminalNodeLookups[slot.getId()] = lookup;
+        }
+        return lookup;
+    }
+
+    @Override
+    public int match(Matcher matcher, Input input, int i) {
+        if (matcher instanceof SharedMatcher)
+            return matchCache.match((SharedMatcher) matcher, input, i);
+        return matcher.match(input, i);
+    }
+
+    @Override
+    public int match(TerminalGrammarSlot slot, Input input, int i) {
+        TokenLattice lattice = getTokenLattice();
+        if (lattice != null && lattice.covers(slot, input))
+            return lattice.get(slot, i);
+        return match(slot.getMatcher(), input, i);
+    }
+
+    @Override
+    public Environment intern(Environment env) {
+        return hashConsingTable.intern(env);
+    }
+
+    @Override
+    public <T> GSSNodeData<T> intern(GSSNodeData<T> data) {
+        return hashConsingTable.intern(data);
+    }
+
+    /**
+     * Returns the token lattice of the input of this runtime, which is built on the first call,
+     * or null if the token lattice is not enabled in the configuration.
+     */
+    protected TokenLattice getTokenLattice() {
+        if (tokenLattice == null && config.isTokenLatticeEnabled())
+            tokenLattice = TokenLattice.build(grammarGraph.getTokenScanner(), input);
+        return tokenLattice;
+    }
+
+    protected <K, V> Map<K, V> createMap() {
+        return new HashMap<>();
+    }
+
+    protected GSSNodeLookup createGSSNodeLookup() {
+        if (config.getGSSLookupImpl() == LookupImpl.HASH_MAP) {
+            if (config.getHashmapImpl() == HashMapImpl.JAVA)
+                return new JavaHashMapNodeLookup();
+            else if (config.getHashmapImpl() == HashMapImpl.INT_OPEN_ADDRESSING)
+                return new IntOpenAddressingMap();
+            else
+                throw new RuntimeException();
+        } else {
+            return new ArrayNodeLookup(input);
+        }
+    }
+
+    /**
+     * With INT_OPEN_ADDRESSING the SPPF nodes are kept in primitive-keyed tables. For inputs up to
+     * DENSE_LOOKUP_MAX_INPUT_LENGTH, of grammars with few enough slots that the slots times the input
+     * length is at most DENSE_LOOKUP_MAX_CELLS, they are kept in arrays indexed by the extents instead.
+     */
+    protected IntermediateNodeLookup createIntermediateNodeLookup() {
+        if (config.getHashmapImpl() == HashMapImpl.JAVA)
+            return new JavaHashMapIntermediateNodeLookup();
+        else if (config.getHashmapImpl() == HashMapImpl.INT_OPEN_ADDRESSING)
+            return denseLookups ? new ArrayIntermediateNodeLookup(input) : new OpenAddressingIntermediateNodeLookup();
+        else
+            throw new RuntimeException();
+    }
+
+    protected TerminalNodeLookup createTerminalNodeLookup() {
+        if (config.getHashmapImpl() == HashMapImpl.JAVA)
+            return new JavaHashMapTerminalNodeLookup();
+        else if (config.getHashmapImpl() == HashMapImpl.INT_OPEN_ADDRESSING)
+            return denseLookups ? new ArrayTerminalNodeLookup(input) : new OpenAddressingTerminalNodeLookup();
+        else
+            throw new RuntimeException();
     }
 
     @Override
@@ -114,17 +469,17 @@ public class ParserRuntimeImpl implements ParserRuntime {
 
     @Override
     public Environment getEnvironment() {
-        return ctx.getEnvironment();
+        return getEvaluatorContext().getEnvironment();
     }
 
     @Override
     public void setEnvironment(Environment env) {
-        ctx.setEnvironment(env);
+        getEvaluatorContext().setEnvironment(env);
     }
 
     @Override
     public Environment getEmptyEnvironment() {
-        return ctx.getEmptyEnvironment();
+        return getEvaluatorContext().getEmptyEnvironment();
     }
 
     @Override
@@ -136,6 +491,7 @@ public class ParserRuntimeImpl implements ParserRuntime {
     public Object evaluate(Statement[] statements, Environment env) {
         assert statements.length > 1;
 
+        IEvaluatorContext ctx = getEvaluatorContext();
         ctx.setEnvironment(env);
 
         int i = 0;
@@ -149,12 +505,14 @@ public class ParserRuntimeImpl implements ParserRuntime {
 
     @Override
     public Object evaluate(DataDependentCondition condition, Environment env) {
+        IEvaluatorContext ctx = getEvaluatorContext();
         ctx.setEnvironment(env);
         return condition.getExpression().interpret(ctx);
     }
 
     @Override
     public Object evaluate(Expression expression, Environment env) {
+        IEvaluatorContext ctx = getEvaluatorContext();
         ctx.setEnvironment(env);
         return expression.interpret(ctx);
     }
@@ -163,6 +521,7 @@ public class ParserRuntimeImpl implements ParserRuntime {
     public Object[] evaluate(Expression[] arguments, Environment env) {
         if (arguments == null) return null;
 
+        IEvaluatorContext ctx = getEvaluatorContext();
         ctx.setEnvironment(env);
 
         Object[] values = new Object[arguments.length];
@@ -176,34 +535,79 @@ public class ParserRuntimeImpl implements ParserRuntime {
         return values;
     }
 
+    @Override
+    public Object evaluate(CompiledExpression expression, Environment env) {
+        IEvaluatorContext ctx = getEvaluatorContext();
+        ctx.setEnvironment(env);
+        return expression.evaluate(ctx);
+    }
+
+    @Override
+    public Object[] evaluate(CompiledExpression[] arguments, Environment env) {
+        if (arguments == null) return null;
+
+        IEvaluatorContext ctx = getEvaluatorContext();
+        ctx.setEnvironment(env);
+
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++)
+            values[i] = arguments[i].evaluate(ctx);
+
+        return values;
+    }
+
+    @Override
+    public int[] evaluateInts(CompiledExpression[] arguments, Environment env) {
+        IEvaluatorContext ctx = getEvaluatorContext();
+        ctx.setEnvironment(env);
+
+        int[] values = new int[arguments.length];
+        for (int i = 0; i < arguments.length; i++)
+            values[i] = arguments[i].evaluateInt(ctx);
+
+        return values;
+    }
+
+    @Override
+    public boolean evaluateBoolean(CompiledExpression expression, Environment env) {
+        IEvaluatorContext ctx = getEvaluatorContext();
+        ctx.setEnvironment(env);
+        return expression.evaluateBoolean(ctx);
+    }
+
     @Override
     public void terminalNodeAdded(TerminalNode node) {
         countTerminalNodes++;
-        logger.log("Terminal node added %s", node);
+        if (logging)
+            logger.log("Terminal node added %s", node);
     }
 
     @Override
     public void nonterminalNodeAdded(NonterminalNode node) {
         countNonterminalNodes++;
-        logger.log("Nonterminal node added %s", node);
+        if (logging)
+            logger.log("Nonterminal node added %s", node);
     }
 
     @Override
     public void intermediateNodeAdded(IntermediateNode node) {
         countIntermediateNodes++;
-        logger.log("Intermediate node added %s", node);
+        if (logging)
+            logger.log("Intermediate node added %s", node);
     }
 
     @Override
     public void packedNodeAdded(Object slot, int pivot) {
         countPackedNodes++;
-        logger.log("Packed node added (%s, %d)", slot, pivot);
+        if (logging)
+            logger.log("Packed node added (%s, %d)", slot, pivot);
     }
 
     @Override
     public void ambiguousNodeAdded(NonterminalOrIntermediateNode node) {
         countAmbiguousNodes++;
-        logger.log("Ambiguous node added: %s", node);
+        if (logging)
+            logger.log("Ambiguous node added: %s", node);
 //		System.out.println(String.format("Ambiguous node added: %s %s", node, input.getNodeInfo(node)));
 //		org.iguana.util.Visualization.generateSPPFGraph("/Users/afroozeh/output", node, input);
 //		for (PackedNode packedNode : node.getChildren()) {
@@ -218,43 +622,81 @@ public class ParserRuntimeImpl implements ParserRuntime {
     @Override
     public void gssNodeAdded(GSSNode node) {
         countGSSNodes++;
-        logger.log("GSS node added %s", node);
+        if (logging)
+            logger.log("GSS node added %s", node);
     }
 
     @Override
     public void gssEdgeAdded(GSSEdge edge) {
         countGSSEdges++;
-        logger.log("GSS Edge added %s", edge);
+        if (logging)
+            logger.log("GSS Edge added %s", edge);
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSNode source, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode node) {
+        countGSSEdges++;
+        if (logging)
+            logger.log("GSS Edge added %s -> (%s, %s, %s)", source, returnSlot, node, destination);
     }
 
+    @Override
+    public void gssNodePopped(GSSNode u, EndGrammarSlot slot) {}
+
+    @Override
+    public void lookaheadPruned(BodyGrammarSlot slot, int i) {
+        countLookaheadPruned++;
+    }
+
+    @Override
+    public void conditionRejected(Condition condition, BodyGrammarSlot slot, GSSNode u, int i) {}
+
+    @Override
+    public void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode) {}
+
+    @Override
+    public void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode, Environment env) {}
+
     @Override
     public void log(String s) {
-        logger.log(s);
+        if (logging)
+            logger.log(s);
     }
 
     @Override
     public void log(String s, Object arg) {
-        logger.log(s, arg);
+        if (logging)
+            logger.log(s, arg);
     }
 
     @Override
     public void log(String s, Object arg1, Object arg2) {
-        logger.log(s, arg1, arg2);
+        if (logging)
+            logger.log(s, arg1, arg2);
     }
 
     @Override
     public void log(String s, Object arg1, Object arg2, Object arg3) {
-        logger.log(s, arg1, arg2, arg3);
+        if (logging)
+            logger.log(s, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void log(String s, Object arg1, int arg2, Object arg3) {
+        if (logging)
+            logger.log(s, arg1, arg2, arg3);
     }
 
     @Override
     public void log(String s, Object arg1, Object arg2, Object arg3, Object arg4) {
-        logger.log(s, arg1, arg2, arg3, arg4);
+        if (logging)
+            logger.log(s, arg1, arg2, arg3, arg4);
     }
 
     @Override
     public void log(String s, Object...args) {
-        logger.log(s, args);
+        if (logging)
+            logger.log(s, args);
     }
 
     @Override
@@ -264,6 +706,10 @@ public class ParserRuntimeImpl implements ParserRuntime {
 
     @Override
     public ParseStatistics getParseStatistics(Timer timer) {
+        return getParseStatisticsBuilder(timer).build();
+    }
+
+    protected ParseStatistics.Builder getParseStatisticsBuilder(Timer timer) {
         return ParseStatistics.builder()
                               .setNanoTime(timer.getNanoTime())
                               .setUserTime(timer.getUserTime())
@@ -277,7 +723,26 @@ public class ParserRuntimeImpl implements ParserRuntime {
                               .setIntermediateNodesCount(countIntermediateNodes)
                               .setPackedNodesCount(countPackedNodes)
                               .setAmbiguousNodesCount(countAmbiguousNodes)
-                              .build();
+                              .setLookaheadPrunedCount(countLookaheadPruned)
+                              .setMatchCacheLookups(matchCache.getLookups())
+                              .setMatchCacheHits(matchCache.getHits());
+    }
+
+    /**
+     * Sets the statistics counters back to zero, so that the statistics of the next call to
+     * {@link #getParseStatistics(Timer)} only cover the work done after this call.
+     */
+    protected void resetStatistics() {
+        descriptorsCount = 0;
+        countNonterminalNodes = 0;
+        countIntermediateNodes = 0;
+        countTerminalNodes = 0;
+        countPackedNodes = 0;
+        countAmbiguousNodes = 0;
+        countGSSNodes = 0;
+        countGSSEdges = 0;
+        countLookaheadPruned = 0;
+        matchCache.resetStatistics();
     }
 
     public static int getMemoryUsed() {
@@ -308,4 +773,6 @@ public class ParserRuntimeImpl implements ParserRuntime {
 
     private int countGSSEdges;
 
+    private int countLookaheadPruned;
+
 }
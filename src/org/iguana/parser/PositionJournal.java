@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+/**
+ * 
+ * Receives, for every entry added to the GSS or to the SPPF node tables, the input position
+ * the entry belongs to and the table and key to remove the entry with again. A journaled
+ * runtime uses these to drop the entries of a range of positions: the positions after an
+ * edit in {@link org.iguana.parser.incremental.IncrementalParser}, or the positions no
+ * descriptor can reach anymore in {@link BoundedParserRuntime}.
+ * 
+ * An entry is given as a table and a key rather than as a removal action, so a journal can
+ * keep its records in arrays instead of allocating an object per entry.
+ *
+ */
+public interface PositionJournal {
+
+	/**
+	 * Records that the entry of the table with the given key belongs to the given position.
+	 * A table whose keys are not primitives passes the key as the object, and any long.
+	 */
+	void record(int position, Table table, long key, Object objectKey);
+
+	/**
+	 * A table whose entries are recorded in a journal.
+	 */
+	@FunctionalInterface
+	interface Table {
+
+		void removeEntry(long key, Object objectKey);
+
+	}
+
+}
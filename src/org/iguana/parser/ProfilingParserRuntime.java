@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this
+ *    list of conditions and the following disclaimer in the documentation and/or
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
+import iguana.parsetrees.sppf.TerminalNode;
+import iguana.utils.benchmark.Timer;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.Condition;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.gss.GSSEdge;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.sppf.lookup.TerminalNodeLookup;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseProfile;
+import org.iguana.util.ParseProfile.SlotKind;
+import org.iguana.util.ParseStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sequential parser runtime used when profiling is enabled, see {@link Configuration#isProfilingEnabled()}.
+ * Besides the counts of ParserRuntimeImpl, it counts the work done per grammar slot, and the time spent in the
+ * terminal node lookups, which includes matching the terminals. The counts are returned as the
+ * {@link ParseProfile} of the ParseStatistics.
+ *
+ * Descriptors are counted when they are scheduled, which is the same as when they are executed unless the
+ * parse is aborted. An ambiguity is counted at the slot of the ambiguous node, and a condition rejection at the
+ * body slot that checked the condition.
+ */
+public class ProfilingParserRuntime extends ParserRuntimeImpl {
+
+    private final List<GrammarSlot> slots;
+
+    private final long[] descriptors;
+
+    private final long[] gssNodes;
+
+    private final long[] gssEdges;
+
+    private final long[] pops;
+
+    private final long[] packedNodes;
+
+    private final long[] ambiguities;
+
+    private final long[] conditionRejections;
+
+    private final long[] terminalMatches;
+
+    private final long[] terminalMatchNanos;
+
+    private final Map<Condition, long[]> rejectionsPerCondition = new LinkedHashMap<>();
+
+    private final TerminalNodeLookup[] timedTerminalNodeLookups;
+
+    public ProfilingParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx) {
+        super(grammarGraph, input, config, ctx);
+        this.slots = grammarGraph.getGrammarSlots();
+        int slotsCount = slots.size();
+        this.descriptors = new long[slotsCount];
+        this.gssNodes = new long[slotsCount];
+        this.gssEdges = new long[slotsCount];
+        this.pops = new long[slotsCount];
+        this.packedNodes = new long[slotsCount];
+        this.ambiguities = new long[slotsCount];
+        this.conditionRejections = new long[slotsCount];
+        this.terminalMatches = new long[slotsCount];
+        this.terminalMatchNanos = new long[slotsCount];
+        this.timedTerminalNodeLookups = new TerminalNodeLookup[slotsCount];
+    }
+
+    @Override
+    public void scheduleDescriptor(Descriptor descriptor) {
+        super.scheduleDescriptor(descriptor);
+        descriptors[descriptor.getGrammarSlot().getId()]++;
+    }
+
+    @Override
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+        super.scheduleDescriptor(slot, gssNode, sppfNode);
+        descriptors[slot.getId()]++;
+    }
+
+    @Override
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+        super.scheduleDescriptor(slot, gssNode, sppfNode, env);
+        descriptors[slot.getId()]++;
+    }
+
+    @Override
+    public void gssNodeAdded(GSSNode node) {
+        super.gssNodeAdded(node);
+        gssNodes[node.getGrammarSlot().getId()]++;
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSEdge edge) {
+        super.gssEdgeAdded(edge);
+        gssEdges[edge.getReturnSlot().getId()]++;
+    }
+
+    @Override
+    public void gssEdgeAdded(GSSNode source, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode node) {
+        super.gssEdgeAdded(source, returnSlot, destination, node);
+        gssEdges[returnSlot.getId()]++;
+    }
+
+    @Override
+    public void gssNodePopped(GSSNode u, EndGrammarSlot slot) {
+        pops[u.getGrammarSlot().getId()]++;
+    }
+
+    @Override
+    public void packedNodeAdded(Object slot, int pivot) {
+        super.packedNodeAdded(slot, pivot);
+        if (slot instanceof GrammarSlot)
+            packedNodes[((GrammarSlot) slot).getId()]++;
+    }
+
+    @Override
+    public void ambiguousNodeAdded(NonterminalOrIntermediateNode node) {
+        super.ambiguousNodeAdded(node);
+        Object slot = node.slot();
+        if (slot instanceof GrammarSlot)
+            ambiguities[((GrammarSlot) slot).getId()]++;
+    }
+
+    @Override
+    public void conditionRejected(Condition condition, BodyGrammarSlot slot, GSSNode u, int i) {
+        conditionRejections[slot.getId()]++;
+        rejectionsPerCondition.computeIfAbsent(condition, c -> new long[1])[0]++;
+    }
+
+    @Override
+    public TerminalNodeLookup getTerminalNodeLookup(TerminalGrammarSlot slot) {
+        TerminalNodeLookup lookup = timedTerminalNodeLookups[slot.getId()];
+        if (lookup == null) {
+            lookup = new TimedTerminalNodeLookup(super.getTerminalNodeLookup(slot));
+            timedTerminalNodeLookups[slot.getId()] = lookup;
+        }
+        return lookup;
+    }
+
+    @Override
+    public ParseStatistics getParseStatistics(Timer timer) {
+        return getParseStatisticsBuilder(timer).setProfile(getParseProfile()).build();
+    }
+
+    /**
+     * Returns the counts of this parse so far, leaving out the slots at which nothing happened.
+     */
+    public ParseProfile getParseProfile() {
+        ParseProfile profile = new ParseProfile();
+
+        for (GrammarSlot slot : slots) {
+            int id = slot.getId();
+            if (descriptors[id] == 0 && gssNodes[id] == 0 && gssEdges[id] == 0 && pops[id] == 0 && packedNodes[id] == 0 &&
+                ambiguities[id] == 0 && conditionRejections[id] == 0 && terminalMatches[id] == 0)
+                continue;
+
+            ParseProfile.SlotProfile slotProfile;
+            if (slot instanceof NonterminalGrammarSlot)
+                slotProfile = profile.getSlotProfile(SlotKind.NONTERMINAL, slot.toString(), ((NonterminalGrammarSlot) slot).getNonterminal().getName());
+            else if (slot instanceof BodyGrammarSlot)
+                slotProfile = profile.getSlotProfile(SlotKind.BODY, slot.toString(), ((BodyGrammarSlot) slot).getPosition().getRule().getHead().getName());
+            else if (slot instanceof TerminalGrammarSlot)
+                slotProfile = profile.getSlotProfile(SlotKind.TERMINAL, slot.toString(), null);
+            else
+                continue;
+
+            slotProfile.addDescriptors(descriptors[id])
+                       .addGSSNodes(gssNodes[id])
+                       .addGSSEdges(gssEdges[id])
+                       .addPops(pops[id])
+                       .addPackedNodes(packedNodes[id])
+                       .addAmbiguities(ambiguities[id])
+                       .addConditionRejections(conditionRejections[id])
+                       .addTerminalMatches(terminalMatches[id], terminalMatchNanos[id]);
+        }
+
+        rejectionsPerCondition.forEach((c, count) -> profile.addConditionRejections(c.toString(), count[0]));
+
+        return profile;
+    }
+
+    /**
+     * Measures the time of the lookups of a terminal slot, including the matching of the terminal
+     * at the input positions it has not been matched at yet.
+     */
+    private class TimedTerminalNodeLookup implements TerminalNodeLookup {
+
+        private final TerminalNodeLookup lookup;
+
+        TimedTerminalNodeLookup(TerminalNodeLookup lookup) {
+            this.lookup = lookup;
+        }
+
+        @Override
+        public TerminalNode get(TerminalGrammarSlot slot, Input input, int i, ParserRuntime runtime) {
+            long start = System.nanoTime();
+            TerminalNode node = lookup.get(slot, input, i, runtime);
+            int id = slot.getId();
+            terminalMatchNanos[id] += System.nanoTime() - start;
+            terminalMatches[id]++;
+            return node;
+        }
+
+        @Override
+        public int size() {
+            return lookup.size();
+        }
+    }
+
+}
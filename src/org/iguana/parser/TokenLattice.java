@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser;
+
+import iguana.utils.input.Input;
+import org.iguana.grammar.TokenScanner;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The matches of the scanned terminals of a grammar graph at the positions of an input,
+ * see {@link org.iguana.util.Configuration#isTokenLatticeEnabled()}. A position is scanned on
+ * the first lookup at it, and only the terminals that can start with the character at that
+ * position are matched. The positions the parser never asks for, such as the positions inside
+ * a long identifier, are not scanned, so building the lattice is not quadratic in the length
+ * of such tokens.
+ *
+ * The matches of a position are kept as (terminal slot id, length) pairs in one array. The
+ * arrays are published atomically, so the workers of a parallel parse can share a lattice;
+ * two workers that scan the same position at the same time compute the same matches.
+ */
+public class TokenLattice {
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final TokenScanner scanner;
+
+    private final Input input;
+
+    /**
+     * The matches at each position, or null for the positions not scanned yet.
+     */
+    private final AtomicReferenceArray<int[]> matches;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private TokenLattice(TokenScanner scanner, Input input) {
+        this.scanner = scanner;
+        this.input = input;
+        this.matches = new AtomicReferenceArray<>(input.length());
+    }
+
+    /**
+     * Creates the lattice of the input. No position is scanned before its first lookup.
+     */
+    public static TokenLattice build(TokenScanner scanner, Input input) {
+        return new TokenLattice(scanner, input);
+    }
+
+    private int[] scan(int i) {
+        int[] pairs = NO_MATCHES;
+        int n = 0;
+        for (TerminalGrammarSlot slot : scanner.getCandidates(input.charAt(i))) {
+            int length = slot.getMatcher().match(input, i);
+            if (length >= 0) {
+                if (n == pairs.length)
+                    pairs = Arrays.copyOf(pairs, Math.max(4, n << 1));
+                pairs[n++] = slot.getId();
+                pairs[n++] = length;
+            }
+        }
+        if (n < pairs.length)
+            pairs = Arrays.copyOf(pairs, n);
+
+        if (matches.compareAndSet(i, null, pairs))
+            size.addAndGet(n >> 1);
+        else
+            pairs = matches.get(i);
+        return pairs;
+    }
+
+    /**
+     * Whether the matches of the terminal slot on the input are in this lattice.
+     */
+    public boolean covers(TerminalGrammarSlot slot, Input input) {
+        return input == this.input && scanner.isScanned(slot);
+    }
+
+    /**
+     * Returns the length of the match of a covered terminal slot at the input index i, or -1 if it does not match.
+     * The position is scanned if this is the first lookup at it.
+     */
+    public int get(TerminalGrammarSlot slot, int i) {
+        if (i < 0 || i >= matches.length())
+            return -1;
+        int[] pairs = matches.get(i);
+        if (pairs == null)
+            pairs = scan(i);
+        int id = slot.getId();
+        for (int j = 0; j < pairs.length; j += 2)
+            if (pairs[j] == id)
+                return pairs[j + 1];
+        return -1;
+    }
+
+    /**
+     * The number of matches at the positions scanned so far.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * The number of positions scanned so far.
+     */
+    public int getScannedPositions() {
+        int count = 0;
+        for (int i = 0; i < matches.length(); i++)
+            if (matches.get(i) != null)
+                count++;
+        return count;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
+import iguana.parsetrees.sppf.TerminalNode;
+import iguana.utils.benchmark.Timer;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.DescriptorWorklist;
+import org.iguana.parser.gss.GSSEdge;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseStatistics;
+
+/**
+ * The sequential parser runtime used when neither statistics nor logging are enabled,
+ * see {@link Configuration#isInstrumented()}. Its event hooks and log methods do nothing,
+ * so that, with this class being the only runtime used in a process, their calls are
+ * inlined to nothing and their arguments are neither boxed nor formatted.
+ *
+ * The ParseStatistics of a parse only contain the times and the memory used, and
+ * ParseOptions with descriptor or node limits are rejected.
+ */
+public final class UninstrumentedParserRuntime extends ParserRuntimeImpl {
+
+    private final DescriptorWorklist worklist;
+
+    public UninstrumentedParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, IEvaluatorContext ctx) {
+        super(grammarGraph, input, config, ctx);
+        if (config.isInstrumented())
+            throw new IllegalArgumentException("The configuration enables statistics or logging: " + config);
+        this.worklist = getWorklist();
+    }
+
+    @Override
+    public void scheduleDescriptor(Descriptor descriptor) {
+        worklist.push(descriptor);
+    }
+
+    @Override
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+        worklist.push(slot, gssNode, sppfNode);
+    }
+
+    @Override
+    public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+        worklist.push(slot, gssNode, sppfNode, intern(env));
+    }
+
+    @Override
+    public void setParseOptions(ParseOptions options) {
+        if (options.getMaxDescriptors() != Long.MAX_VALUE || options.getMaxGSSNodes() != Long.MAX_VALUE || options.getMaxSPPFNodes() != Long.MAX_VALUE)
+            throw new IllegalArgumentException("Descriptor and node limits require statistics to be enabled: " + options);
+        super.setParseOptions(options);
+    }
+
+    @Override
+    public void terminalNodeAdded(TerminalNode node) {}
+
+    @Override
+    public void nonterminalNodeAdded(NonterminalNode node) {}
+
+    @Override
+    public void intermediateNodeAdded(IntermediateNode node) {}
+
+    @Override
+    public void packedNodeAdded(Object slot, int pivot) {}
+
+    @Override
+    public void ambiguousNodeAdded(NonterminalOrIntermediateNode node) {}
+
+    @Override
+    public void gssNodeAdded(GSSNode node) {}
+
+    @Override
+    public void gssEdgeAdded(GSSEdge edge) {}
+
+    @Override
+    public void gssEdgeAdded(GSSNode source, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode node) {}
+
+    @Override
+    public void lookaheadPruned(BodyGrammarSlot slot, int i) {}
+
+    @Override
+    public void log(String s) {}
+
+    @Override
+    public void log(String s, Object arg) {}
+
+    @Override
+    public void log(String s, Object arg1, Object arg2) {}
+
+    @Override
+    public void log(String s, Object arg1, Object arg2, Object arg3) {}
+
+    @Override
+    public void log(String s, Object arg1, int arg2, Object arg3) {}
+
+    @Override
+    public void log(String s, Object arg1, Object arg2, Object arg3, Object arg4) {}
+
+    @Override
+    public void log(String s, Object... args) {}
+
+    @Override
+    public ParseStatistics getParseStatistics(Timer timer) {
+        return ParseStatistics.builder()
+                              .setNanoTime(timer.getNanoTime())
+                              .setUserTime(timer.getUserTime())
+                              .setSystemTime(timer.getSystemTime())
+                              .setMemoryUsed(getMemoryUsed())
+                              .build();
+    }
+
+}
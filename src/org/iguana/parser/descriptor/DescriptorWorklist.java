@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.descriptor;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.parser.gss.GSSNode;
+
+/**
+ * 
+ * The set of descriptors that are scheduled but not yet processed.
+ * 
+ * @see org.iguana.util.Configuration.WorklistImpl
+ *
+ */
+public interface DescriptorWorklist {
+
+	void push(Descriptor descriptor);
+
+	void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode);
+
+	boolean isEmpty();
+
+	int size();
+
+	/**
+	 * Removes the next descriptor and returns it as a {@link Descriptor} object.
+	 */
+	Descriptor pop();
+
+	/**
+	 * Removes the next descriptor and executes it, without creating a {@link Descriptor} object
+	 * if the worklist does not store them.
+	 */
+	void executeNext(Input input);
+
+	/**
+	 * 
+	 * Data-dependent GLL parsing
+	 * 
+	 */
+	void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env);
+
+}
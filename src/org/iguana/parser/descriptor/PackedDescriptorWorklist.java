@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.descriptor;
+
+import java.util.Arrays;
+import java.util.List;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.parser.gss.GSSNode;
+
+/**
+ * 
+ * A stack of descriptors stored in growable arrays instead of {@link Descriptor} objects.
+ * The grammar slot id and the GSS node id of a descriptor are packed into one long; the
+ * SPPF node, and the environment of a data-dependent descriptor, are kept in parallel arrays,
+ * as SPPF nodes do not have dense ids. Scheduling and executing a descriptor do not allocate,
+ * except when the arrays grow.
+ *
+ */
+public class PackedDescriptorWorklist implements DescriptorWorklist {
+
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	private final GrammarSlot[] slots;
+
+	private final List<GSSNode> gssNodes;
+
+	private long[] ids;
+
+	private NonPackedNode[] sppfNodes;
+
+	/**
+	 * Allocated when the first data-dependent descriptor is scheduled.
+	 */
+	private Environment[] environments;
+
+	private int size;
+
+	/**
+	 * @param slots    the grammar slots, indexed by their id
+	 * @param gssNodes the GSS nodes of the current parse, indexed by their id
+	 */
+	public PackedDescriptorWorklist(GrammarSlot[] slots, List<GSSNode> gssNodes) {
+		this.slots = slots;
+		this.gssNodes = gssNodes;
+		this.ids = new long[DEFAULT_CAPACITY];
+		this.sppfNodes = new NonPackedNode[DEFAULT_CAPACITY];
+	}
+
+	public static long pack(int slotId, int gssNodeId) {
+		return ((long) slotId << 32) | (gssNodeId & 0xFFFFFFFFL);
+	}
+
+	public static int slotId(long packed) {
+		return (int) (packed >>> 32);
+	}
+
+	public static int gssNodeId(long packed) {
+		return (int) packed;
+	}
+
+	@Override
+	public void push(Descriptor descriptor) {
+		if (descriptor instanceof org.iguana.datadependent.descriptor.Descriptor)
+			push(descriptor.getGrammarSlot(), descriptor.getGSSNode(), descriptor.getSPPFNode(), ((org.iguana.datadependent.descriptor.Descriptor) descriptor).getEnvironment());
+		else
+			push(descriptor.getGrammarSlot(), descriptor.getGSSNode(), descriptor.getSPPFNode());
+	}
+
+	@Override
+	public void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+		if (size == ids.length) grow();
+		ids[size] = pack(slot.getId(), gssNode.getId());
+		sppfNodes[size] = sppfNode;
+		size++;
+	}
+
+	@Override
+	public void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+		if (environments == null) environments = new Environment[ids.length];
+		if (size == ids.length) grow();
+		ids[size] = pack(slot.getId(), gssNode.getId());
+		sppfNodes[size] = sppfNode;
+		environments[size] = env;
+		size++;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Descriptor pop() {
+		size--;
+		long packed = ids[size];
+		BodyGrammarSlot slot = (BodyGrammarSlot) slots[slotId(packed)];
+		GSSNode gssNode = gssNodes.get(gssNodeId(packed));
+		NonPackedNode sppfNode = sppfNodes[size];
+		sppfNodes[size] = null;
+
+		Environment env = environments == null ? null : environments[size];
+		if (env == null)
+			return new Descriptor(slot, gssNode, sppfNode, gssNode.getRuntime().getInput());
+
+		environments[size] = null;
+		return new org.iguana.datadependent.descriptor.Descriptor(slot, gssNode, sppfNode, gssNode.getRuntime().getInput(), env);
+	}
+
+	@Override
+	public void executeNext(Input input) {
+		size--;
+		long packed = ids[size];
+		BodyGrammarSlot slot = (BodyGrammarSlot) slots[slotId(packed)];
+		GSSNode gssNode = gssNodes.get(gssNodeId(packed));
+		NonPackedNode sppfNode = sppfNodes[size];
+		sppfNodes[size] = null;
+
+		Environment env = environments == null ? null : environments[size];
+		if (env == null) {
+			slot.execute(input, gssNode, sppfNode);
+		} else {
+			environments[size] = null;
+			slot.execute(input, gssNode, sppfNode, env);
+		}
+	}
+
+	private void grow() {
+		int capacity = ids.length * 2;
+		ids = Arrays.copyOf(ids, capacity);
+		sppfNodes = Arrays.copyOf(sppfNodes, capacity);
+		if (environments != null)
+			environments = Arrays.copyOf(environments, capacity);
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.descriptor;
+
+import java.util.Arrays;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.parser.gss.GSSNode;
+
+/**
+ * 
+ * Keeps the descriptors in buckets by their input index and processes the buckets in
+ * ascending order. A descriptor only schedules descriptors at its own or a later input
+ * index, so once the worklist has moved past an input index no descriptor at that index
+ * is scheduled anymore.
+ * 
+ * The buckets form a ring indexed by the input index, which grows when a descriptor is
+ * scheduled further ahead of the current input index than the ring is long. A bucket keeps
+ * the slots, GSS nodes, SPPF nodes and environments of its descriptors in arrays and is
+ * reused by the later input indices that map to it, so scheduling and executing a descriptor
+ * do not allocate, except when the arrays grow.
+ *
+ */
+public class PositionOrderedDescriptorWorklist implements DescriptorWorklist {
+
+	private static final int DEFAULT_RING_SIZE = 64;
+
+	private Bucket[] ring = new Bucket[DEFAULT_RING_SIZE];
+
+	private int currentIndex;
+
+	private int size;
+
+	private final Input input;
+
+	public PositionOrderedDescriptorWorklist(Input input) {
+		this.input = input;
+	}
+
+	@Override
+	public void push(Descriptor descriptor) {
+		if (descriptor instanceof org.iguana.datadependent.descriptor.Descriptor)
+			push(descriptor.getGrammarSlot(), descriptor.getGSSNode(), descriptor.getSPPFNode(), ((org.iguana.datadependent.descriptor.Descriptor) descriptor).getEnvironment());
+		else
+			push(descriptor.getGrammarSlot(), descriptor.getGSSNode(), descriptor.getSPPFNode());
+	}
+
+	@Override
+	public void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+		getBucket(sppfNode.getRightExtent()).push(slot, gssNode, sppfNode, null);
+		size++;
+	}
+
+	@Override
+	public void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+		getBucket(sppfNode.getRightExtent()).push(slot, gssNode, sppfNode, env);
+		size++;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * The input index of the descriptor that is returned by the next call to pop. The
+	 * worklist should not be empty.
+	 */
+	public int nextInputIndex() {
+		while (true) {
+			Bucket bucket = ring[currentIndex & (ring.length - 1)];
+			if (bucket != null && bucket.size > 0)
+				return currentIndex;
+			currentIndex++;
+		}
+	}
+
+	@Override
+	public Descriptor pop() {
+		Bucket bucket = ring[nextInputIndex() & (ring.length - 1)];
+		size--;
+		int i = --bucket.size;
+		BodyGrammarSlot slot = bucket.slots[i];
+		GSSNode gssNode = bucket.gssNodes[i];
+		NonPackedNode sppfNode = bucket.sppfNodes[i];
+		Environment env = bucket.environments[i];
+		bucket.clear(i);
+
+		if (env == null)
+			return new Descriptor(slot, gssNode, sppfNode, input);
+		return new org.iguana.datadependent.descriptor.Descriptor(slot, gssNode, sppfNode, input, env);
+	}
+
+	@Override
+	public void executeNext(Input input) {
+		Bucket bucket = ring[nextInputIndex() & (ring.length - 1)];
+		size--;
+		int i = --bucket.size;
+		BodyGrammarSlot slot = bucket.slots[i];
+		GSSNode gssNode = bucket.gssNodes[i];
+		NonPackedNode sppfNode = bucket.sppfNodes[i];
+		Environment env = bucket.environments[i];
+		bucket.clear(i);
+
+		if (env == null)
+			slot.execute(input, gssNode, sppfNode);
+		else
+			slot.execute(input, gssNode, sppfNode, env);
+	}
+
+	private Bucket getBucket(int inputIndex) {
+		if (inputIndex < currentIndex)
+			throw new IllegalStateException("Descriptor at " + inputIndex + " scheduled after the worklist moved to " + currentIndex);
+
+		if (inputIndex - currentIndex >= ring.length)
+			grow(inputIndex - currentIndex + 1);
+
+		int k = inputIndex & (ring.length - 1);
+		Bucket bucket = ring[k];
+		if (bucket == null) {
+			bucket = new Bucket();
+			ring[k] = bucket;
+		}
+		return bucket;
+	}
+
+	/**
+	 * Moves the buckets from the current input index on to a ring that spans at least the
+	 * given number of input indices.
+	 */
+	private void grow(int span) {
+		int length = ring.length;
+		while (length < span)
+			length *= 2;
+
+		Bucket[] newRing = new Bucket[length];
+		for (int i = currentIndex; i < currentIndex + ring.length; i++)
+			newRing[i & (length - 1)] = ring[i & (ring.length - 1)];
+		ring = newRing;
+	}
+
+	private static class Bucket {
+
+		private static final int DEFAULT_CAPACITY = 16;
+
+		BodyGrammarSlot[] slots = new BodyGrammarSlot[DEFAULT_CAPACITY];
+
+		GSSNode[] gssNodes = new GSSNode[DEFAULT_CAPACITY];
+
+		NonPackedNode[] sppfNodes = new NonPackedNode[DEFAULT_CAPACITY];
+
+		Environment[] environments = new Environment[DEFAULT_CAPACITY];
+
+		int size;
+
+		void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+			if (size == slots.length) {
+				int capacity = size * 2;
+				slots = Arrays.copyOf(slots, capacity);
+				gssNodes = Arrays.copyOf(gssNodes, capacity);
+				sppfNodes = Arrays.copyOf(sppfNodes, capacity);
+				environments = Arrays.copyOf(environments, capacity);
+			}
+			slots[size] = slot;
+			gssNodes[size] = gssNode;
+			sppfNodes[size] = sppfNode;
+			environments[size] = env;
+			size++;
+		}
+
+		/**
+		 * Drops the references of the given entry, so the nodes can be collected.
+		 */
+		void clear(int i) {
+			slots[i] = null;
+			gssNodes[i] = null;
+			sppfNodes[i] = null;
+			environments[i] = null;
+		}
+	}
+
+}
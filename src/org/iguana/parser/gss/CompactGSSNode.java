@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gss;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.utils.input.Input;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+
+/**
+ * 
+ * A GSS node that keeps its outgoing edges in parallel arrays of return slots, destination
+ * nodes and SPPF nodes instead of one GSSEdge object per edge, and its popped elements in
+ * a CompactPoppedElements. An edge with the same return slot and destination as an existing
+ * edge is not added again, as it would only reschedule the descriptors of the existing edge.
+ * 
+ * The data-dependent edges, which carry an environment, are kept as objects as in GSSNode.
+ *
+ */
+public class CompactGSSNode extends GSSNode {
+
+	private static final int LINEAR_SCAN_LIMIT = 8;
+
+	private BodyGrammarSlot[] returnSlots = new BodyGrammarSlot[2];
+
+	private GSSNode[] destinations = new GSSNode[2];
+
+	private NonPackedNode[] nodes = new NonPackedNode[2];
+
+	private int edgesCount;
+
+	/**
+	 * Open addressing table from (return slot, destination) to the position of the edge
+	 * plus one, zero marks an empty entry. Created when the linear scan gets too long.
+	 */
+	private int[] index;
+
+	private final CompactPoppedElements poppedElements;
+
+	public CompactGSSNode(NonterminalGrammarSlot slot, int inputIndex, ParserRuntime runtime) {
+		this(slot, inputIndex, runtime, new CompactPoppedElements());
+	}
+
+	private CompactGSSNode(NonterminalGrammarSlot slot, int inputIndex, ParserRuntime runtime, CompactPoppedElements poppedElements) {
+		super(slot, inputIndex, runtime, poppedElements);
+		this.poppedElements = poppedElements;
+	}
+
+	@Override
+	public void createGSSEdge(Input input, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode w) {
+		if (!addEdge(returnSlot, destination, w))
+			return;
+
+		getRuntime().gssEdgeAdded(this, returnSlot, destination, w);
+
+		for (int i = 0; i < poppedElements.size(); i++) {
+			NonterminalNode z = poppedElements.get(i);
+			if (returnSlot.testFollow(input.charAt(z.getRightExtent()))) {
+				NewGSSEdgeImpl.addDescriptor(input, this, z, returnSlot, w, destination);
+			}
+		}
+	}
+
+	@Override
+	protected void iterateOverEdges(Input input, NonterminalNode node) {
+		int c = input.charAt(node.getRightExtent());
+		for (int i = 0; i < edgesCount; i++) {
+			BodyGrammarSlot returnSlot = returnSlots[i];
+			if (!returnSlot.testFollow(c)) continue;
+
+			NewGSSEdgeImpl.addDescriptor(input, this, node, returnSlot, nodes[i], destinations[i]);
+		}
+		super.iterateOverEdges(input, node);
+	}
+
+	/**
+	 * Creates GSSEdge objects for the edges kept in the arrays. Only meant for inspecting
+	 * the GSS, e.g., for visualization.
+	 */
+	@Override
+	public Iterable<GSSEdge> getGSSEdges() {
+		List<GSSEdge> edges = new ArrayList<>();
+		for (int i = 0; i < edgesCount; i++)
+			edges.add(new NewGSSEdgeImpl(returnSlots[i], nodes[i], destinations[i]));
+		super.getGSSEdges().forEach(edges::add);
+		return edges;
+	}
+
+	@Override
+	public int countGSSEdges() {
+		return edgesCount + super.countGSSEdges();
+	}
+
+	@Override
+	public int getCountGSSEdges() {
+		return countGSSEdges();
+	}
+
+	private boolean addEdge(BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode w) {
+		if (index == null) {
+			for (int i = 0; i < edgesCount; i++) {
+				if (returnSlots[i] == returnSlot && destinations[i] == destination)
+					return false;
+			}
+		} else {
+			int mask = index.length - 1;
+			int j = hash(returnSlot, destination) & mask;
+			int p;
+			while ((p = index[j]) != 0) {
+				if (returnSlots[p - 1] == returnSlot && destinations[p - 1] == destination)
+					return false;
+				j = (j + 1) & mask;
+			}
+		}
+
+		if (edgesCount == returnSlots.length) {
+			int capacity = edgesCount << 1;
+			returnSlots = Arrays.copyOf(returnSlots, capacity);
+			destinations = Arrays.copyOf(destinations, capacity);
+			nodes = Arrays.copyOf(nodes, capacity);
+		}
+
+		int position = edgesCount++;
+		returnSlots[position] = returnSlot;
+		destinations[position] = destination;
+		nodes[position] = w;
+
+		if (index != null && edgesCount * 2 <= index.length) {
+			insert(index, position);
+		} else if (index != null || edgesCount > LINEAR_SCAN_LIMIT) {
+			index = new int[Integer.highestOneBit(edgesCount) << 2];
+			for (int i = 0; i < edgesCount; i++)
+				insert(index, i);
+		}
+
+		return true;
+	}
+
+	private void insert(int[] table, int position) {
+		int mask = table.length - 1;
+		int j = hash(returnSlots[position], destinations[position]) & mask;
+		while (table[j] != 0)
+			j = (j + 1) & mask;
+		table[j] = position + 1;
+	}
+
+	private static int hash(BodyGrammarSlot returnSlot, GSSNode destination) {
+		int h = (returnSlot.getId() * 31 + destination.getInputIndex()) * 0x9E3779B9;
+		h += destination.getGrammarSlot().getId();
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
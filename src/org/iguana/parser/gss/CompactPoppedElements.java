@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gss;
+
+import static iguana.parsetrees.sppf.SPPFNodeFactory.createNonterminalNode;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.utils.collections.Keys;
+import iguana.utils.collections.key.Key;
+import iguana.utils.input.Input;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+
+/**
+ * 
+ * The popped elements of a CompactGSSNode. The nonterminal nodes are kept in an array in
+ * the order they are popped. The nodes without a value are found by their right extent,
+ * with a linear scan while there are few of them and with an open addressing table of
+ * their positions after that, so no key object is allocated per pop. The nodes with a
+ * value are found by a key made of their right extent and value, as in PoppedElements.
+ * 
+ * The popped elements of a GSS node all belong to the input of its runtime, so, unlike
+ * PoppedElements, the input is not part of the keys.
+ *
+ */
+public class CompactPoppedElements extends PoppedElements {
+
+	private static final int LINEAR_SCAN_LIMIT = 8;
+
+	private NonterminalNode[] nodes = new NonterminalNode[2];
+
+	private int size;
+
+	/**
+	 * The positions of the nodes without a value in the nodes array.
+	 */
+	private int[] plainNodes = new int[2];
+
+	private int plainNodesCount;
+
+	/**
+	 * Open addressing table from right extent to the position of the node plus one,
+	 * zero marks an empty entry. Created when the linear scan gets too long.
+	 */
+	private int[] index;
+
+	private Map<Key, NonterminalNode> valueNodes;
+
+	@Override
+	public NonterminalNode add(Input input, EndGrammarSlot slot, NonPackedNode child, ParserRuntime runtime) {
+		int rightExtent = child.getRightExtent();
+		NonterminalNode node = find(rightExtent);
+
+		if (node != null) {
+			boolean ambiguous = node.addPackedNode(slot, child);
+			runtime.packedNodeAdded(slot, rightExtent);
+			if (ambiguous) runtime.ambiguousNodeAdded(node);
+			return null;
+		}
+
+		node = createNonterminalNode(slot.getNonterminal(), slot, child, input);
+		runtime.packedNodeAdded(slot, rightExtent);
+		runtime.nonterminalNodeAdded(node);
+		addPlainNode(append(node));
+		return node;
+	}
+
+	@Override
+	public NonterminalNode add(Input input, EndGrammarSlot slot, NonPackedNode child, Object value, ParserRuntime runtime) {
+		if (valueNodes == null)
+			valueNodes = new HashMap<>();
+
+		Key key = Keys.from(child.getRightExtent(), value);
+		NonterminalNode node = valueNodes.get(key);
+
+		if (node != null) {
+			boolean ambiguous = node.addPackedNode(slot, child);
+			runtime.packedNodeAdded(slot, child.getRightExtent());
+			if (ambiguous) runtime.ambiguousNodeAdded(node);
+			return null;
+		}
+
+		node = createNonterminalNode(slot.getNonterminal(), slot, child, value, input);
+		runtime.nonterminalNodeAdded(node);
+		runtime.packedNodeAdded(slot, child.getRightExtent());
+		valueNodes.put(key, node);
+		append(node);
+		return node;
+	}
+
+	/**
+	 * Returns the i-th popped node, in the order the nodes are popped.
+	 */
+	public NonterminalNode get(int i) {
+		return nodes[i];
+	}
+
+	@Override
+	public void forEach(Consumer<NonterminalNode> c) {
+		for (int i = 0; i < size; i++)
+			c.accept(nodes[i]);
+	}
+
+	@Override
+	public NonterminalNode getNonterminalNode(Input input, int j) {
+		NonterminalNode node = find(j);
+		if (node != null)
+			return node;
+
+		for (int i = 0; i < size; i++) {
+			if (nodes[i].getRightExtent() == j)
+				return nodes[i];
+		}
+		return null;
+	}
+
+	@Override
+	public NonterminalNode getNonterminalNode(Input input) {
+		NonterminalNode node = null;
+		int max = 0;
+		for (int i = 0; i < size; i++) {
+			if (node == null || nodes[i].getRightExtent() > max) {
+				node = nodes[i];
+				max = node.getRightExtent();
+			}
+		}
+		return node;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void remove(int rightExtent) {
+		int[] positions = new int[size];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (nodes[i].getRightExtent() != rightExtent) {
+				positions[i] = count;
+				nodes[count++] = nodes[i];
+			} else {
+				positions[i] = -1;
+			}
+		}
+		Arrays.fill(nodes, count, size, null);
+		size = count;
+
+		int plainCount = 0;
+		for (int i = 0; i < plainNodesCount; i++) {
+			int position = positions[plainNodes[i]];
+			if (position >= 0)
+				plainNodes[plainCount++] = position;
+		}
+		plainNodesCount = plainCount;
+
+		index = null;
+		if (plainNodesCount > LINEAR_SCAN_LIMIT) {
+			index = new int[Integer.highestOneBit(plainNodesCount) << 2];
+			for (int i = 0; i < plainNodesCount; i++)
+				insert(index, plainNodes[i]);
+		}
+
+		if (valueNodes != null)
+			valueNodes.values().removeIf(node -> node.getRightExtent() == rightExtent);
+	}
+
+	private NonterminalNode find(int rightExtent) {
+		if (index == null) {
+			for (int i = 0; i < plainNodesCount; i++) {
+				NonterminalNode node = nodes[plainNodes[i]];
+				if (node.getRightExtent() == rightExtent)
+					return node;
+			}
+			return null;
+		}
+
+		int mask = index.length - 1;
+		int j = hash(rightExtent) & mask;
+		int p;
+		while ((p = index[j]) != 0) {
+			NonterminalNode node = nodes[p - 1];
+			if (node.getRightExtent() == rightExtent)
+				return node;
+			j = (j + 1) & mask;
+		}
+		return null;
+	}
+
+	private int append(NonterminalNode node) {
+		if (size == nodes.length)
+			nodes = Arrays.copyOf(nodes, size << 1);
+		nodes[size] = node;
+		return size++;
+	}
+
+	private void addPlainNode(int position) {
+		if (plainNodesCount == plainNodes.length)
+			plainNodes = Arrays.copyOf(plainNodes, plainNodesCount << 1);
+		plainNodes[plainNodesCount++] = position;
+
+		if (index != null && plainNodesCount * 2 <= index.length) {
+			insert(index, position);
+		} else if (index != null || plainNodesCount > LINEAR_SCAN_LIMIT) {
+			int capacity = Integer.highestOneBit(plainNodesCount) << 2;
+			index = new int[capacity];
+			for (int i = 0; i < plainNodesCount; i++)
+				insert(index, plainNodes[i]);
+		}
+	}
+
+	private void insert(int[] table, int position) {
+		int mask = table.length - 1;
+		int j = hash(nodes[position].getRightExtent()) & mask;
+		while (table[j] != 0)
+			j = (j + 1) & mask;
+		table[j] = position + 1;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -29,6 +29,7 @@ package org.iguana.parser.gss;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import iguana.parsetrees.sppf.NonPackedNode;
 import iguana.parsetrees.sppf.NonterminalNode;
@@ -38,7 +39,7 @@ import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.grammar.slot.EndGrammarSlot;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
-import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.ParserRuntime;
 
 /**
  *
@@ -56,49 +57,54 @@ public class GSSNode {
 	
 	private final List<GSSEdge> gssEdges;
 
-	public GSSNode(NonterminalGrammarSlot slot, int inputIndex) {
+	private final ParserRuntime runtime;
+
+	private int id = -1;
+
+	public GSSNode(NonterminalGrammarSlot slot, int inputIndex, ParserRuntime runtime) {
+		this(slot, inputIndex, runtime, new PoppedElements());
+	}
+
+	protected GSSNode(NonterminalGrammarSlot slot, int inputIndex, ParserRuntime runtime, PoppedElements poppedElements) {
 		this.slot = slot;
 		this.inputIndex = inputIndex;
-		this.poppedElements = new PoppedElements(slot.getRuntime());
+		this.runtime = runtime;
+		this.poppedElements = poppedElements;
 		this.gssEdges = new ArrayList<>();
 	}
 	
 	public void createGSSEdge(Input input, BodyGrammarSlot returnSlot, GSSNode destination, NonPackedNode w) {
 		NewGSSEdgeImpl edge = new NewGSSEdgeImpl(returnSlot, w, destination);
-		slot.getRuntime().gssEdgeAdded(edge);
+		runtime.gssEdgeAdded(edge);
 		
 		gssEdges.add(edge);
 		
 		poppedElements.forEach(z -> {
 			if (edge.getReturnSlot().testFollow(input.charAt(z.getRightExtent()))) {
-				Descriptor descriptor = edge.addDescriptor(input, this, z);
-				if (descriptor != null) {
-					slot.getRuntime().scheduleDescriptor(descriptor);
-				}
+				edge.addDescriptor(input, this, z);
 			}
 		});
 	}
 
     public void pop(Input input, EndGrammarSlot slot, NonPackedNode child) {
-        slot.getRuntime().log("Pop %s, %d, %s", this, inputIndex, child);
-        NonterminalNode node = poppedElements.add(input, slot, child);
+        runtime.log("Pop %s, %d, %s", this, inputIndex, child);
+        runtime.gssNodePopped(this, slot);
+        NonterminalNode node = poppedElements.add(input, slot, child, runtime);
         if (node == null) return; else iterateOverEdges(input, node);
     }
 
     public void pop(Input input, EndGrammarSlot slot, NonPackedNode child, Object value) {
-        NonterminalNode node = poppedElements.add(input, slot, child, value);
+        runtime.gssNodePopped(this, slot);
+        NonterminalNode node = poppedElements.add(input, slot, child, value, runtime);
         if (node == null) return; else iterateOverEdges(input, node);
     }
 
-    private void iterateOverEdges(Input input, NonterminalNode node) {
-        for(GSSEdge edge : getGSSEdges()) {
+    protected void iterateOverEdges(Input input, NonterminalNode node) {
+        for(GSSEdge edge : gssEdges) {
 
             if (!edge.getReturnSlot().testFollow(input.charAt(node.getRightExtent()))) continue;
 
-            Descriptor descriptor = edge.addDescriptor(input, this, node);
-            if (descriptor != null) {
-                slot.getRuntime().scheduleDescriptor(descriptor);
-            }
+            edge.addDescriptor(input, this, node);
         }
     }
 
@@ -114,6 +120,24 @@ public class GSSNode {
 		return slot;
 	}
 
+	/**
+	 * A dense, zero-based identifier assigned by the runtime that created this node.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
+	/**
+	 * The runtime of the parse this node was created in.
+	 */
+	public ParserRuntime getRuntime() {
+		return runtime;
+	}
+
 	public int getInputIndex() {
 		return inputIndex;
 	}
@@ -125,6 +149,20 @@ public class GSSNode {
 	public int countPoppedElements() {
 		return poppedElements.size();
 	}
+
+	/**
+	 * Calls the consumer with every nonterminal node popped at this GSS node.
+	 */
+	public void forEachPoppedElement(Consumer<NonterminalNode> c) {
+		poppedElements.forEach(c);
+	}
+
+	/**
+	 * Removes the popped elements with the given right extent.
+	 */
+	public void removePoppedElements(int rightExtent) {
+		poppedElements.remove(rightExtent);
+	}
 		
 	public Iterable<GSSEdge> getGSSEdges() {
 		return gssEdges;
@@ -166,14 +204,11 @@ public class GSSNode {
 		NewGSSEdgeImpl edge = new org.iguana.datadependent.gss.NewGSSEdgeImpl(returnSlot, w, destination, env);
 		
 		gssEdges.add(edge);
-		returnSlot.getRuntime().gssEdgeAdded(edge);
+		runtime.gssEdgeAdded(edge);
 
 		poppedElements.forEach(z -> {
 			if (edge.getReturnSlot().testFollow(input.charAt(z.getRightExtent()))) {
-				Descriptor descriptor = edge.addDescriptor(input, this, z);
-				if (descriptor != null) {
-                    returnSlot.getRuntime().scheduleDescriptor(descriptor);
-				}
+				edge.addDescriptor(input, this, z);
 			}
 		});
 	}
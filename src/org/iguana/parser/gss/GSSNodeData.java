@@ -31,19 +31,79 @@ import java.util.Iterator;
 
 import static iguana.utils.string.StringUtil.*;
 
+/**
+ * 
+ * The values of the arguments of a GSS node. When all the arguments are ints, they are stored
+ * in an int array, see {@link #ofInts(int[])}. The hash code is computed when the data is created,
+ * and is the same for the boxed and the int form of the same values.
+ *
+ */
 public class GSSNodeData<T> implements Iterable<T> {
 	
 	private final T[] elements;
 	
+	private final int[] ints;
+	
 	public final int size;
 	
+	private final int hashCode;
+	
 	public GSSNodeData(T[] elements) {
 		this.elements = elements;
+		this.ints = null;
 		this.size = elements == null? 0 : elements.length;
+		
+		int result = 17;
+		for (int i = 0; i < size; i++)
+			result = 31 * result + elements[i].hashCode();
+		
+		this.hashCode = result;
+	}
+	
+	private GSSNodeData(int[] ints) {
+		this.elements = null;
+		this.ints = ints;
+		this.size = ints.length;
+		
+		int result = 17;
+		for (int i = 0; i < size; i++)
+			result = 31 * result + ints[i];
+		
+		this.hashCode = result;
+	}
+	
+	public static GSSNodeData<Object> ofInts(int[] values) {
+		return new GSSNodeData<>(values);
 	}
 	
+	public boolean isInts() {
+		return ints != null;
+	}
+	
+	/**
+	 * Returns the values of the int form, see {@link #isInts()}.
+	 */
+	public int[] getInts() {
+		return ints;
+	}
+	
+	/**
+	 * Returns the values, boxing the values of the int form.
+	 */
+	@SuppressWarnings("unchecked")
 	public T[] getValues() {
-		return elements;
+		if (ints == null)
+			return elements;
+		
+		Object[] values = new Object[size];
+		for (int i = 0; i < size; i++)
+			values[i] = ints[i];
+		return (T[]) values;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public T get(int i) {
+		return ints == null ? elements[i] : (T) (Integer) ints[i];
 	}
 	
 	@Override
@@ -56,15 +116,19 @@ public class GSSNodeData<T> implements Iterable<T> {
 		
 		GSSNodeData<?> that = (GSSNodeData<?>) other;
 		
-		if (this.size != that.size) return false;
+		if (this.hashCode != that.hashCode || this.size != that.size) return false;
 		
-		Iterator<T> iter1 = iterator();
-		Iterator<?> iter2 = that.iterator();
+		if (this.ints != null && that.ints != null) {
+			for (int i = 0; i < size; i++) {
+				if (this.ints[i] != that.ints[i])
+					return false;
+			}
+			return true;
+		}
 		
-		while (iter1.hasNext()) {
-			if (!iter1.next().equals(iter2.next())) {
+		for (int i = 0; i < size; i++) {
+			if (!get(i).equals(that.get(i)))
 				return false;
-			};
 		}
 		
 		return true;
@@ -72,14 +136,7 @@ public class GSSNodeData<T> implements Iterable<T> {
 	
 	@Override
 	public int hashCode() {
-		int result = 17;
-		
-		for (T element : elements) {
-			result = 31 * result + element.hashCode();
-		}
-		
-		return result;
-		
+		return hashCode;
 	}
 
 	@Override
@@ -89,7 +146,7 @@ public class GSSNodeData<T> implements Iterable<T> {
 	
 	@Override
 	public String toString() {
-		return listToString(elements, ",");
+		return listToString(getValues(), ",");
 	}
 	
 	static private class GSSNodeDataIterator<T> implements Iterator<T> {
@@ -109,7 +166,7 @@ public class GSSNodeData<T> implements Iterable<T> {
 
 		@Override
 		public T next() {
-			return data.elements[i++];
+			return data.get(i++);
 		}
 		
 	}
@@ -33,7 +33,6 @@ import iguana.utils.input.Input;
 import org.iguana.datadependent.env.Environment;
 import org.iguana.grammar.slot.BodyGrammarSlot;
 import org.iguana.parser.ParserRuntime;
-import org.iguana.parser.descriptor.Descriptor;
 
 public class NewGSSEdgeImpl implements GSSEdge {
 	
@@ -88,7 +87,15 @@ public class NewGSSEdgeImpl implements GSSEdge {
 	}
 
 	@Override
-	public Descriptor addDescriptor(Input input, GSSNode source, NonPackedNode sppfNode) {
+	public boolean addDescriptor(Input input, GSSNode source, NonPackedNode sppfNode) {
+		return addDescriptor(input, source, sppfNode, returnSlot, node, destination);
+	}
+
+	/**
+	 * Adds the descriptor for returning over the edge (source, returnSlot, node, destination),
+	 * so that edges that are not kept as objects can share it.
+	 */
+	public static boolean addDescriptor(Input input, GSSNode source, NonPackedNode sppfNode, BodyGrammarSlot returnSlot, NonPackedNode node, GSSNode destination) {
 		
 		/**
 		 * 
@@ -97,40 +104,44 @@ public class NewGSSEdgeImpl implements GSSEdge {
 		 */
 
         int i = sppfNode.getRightExtent();
-        ParserRuntime runtime = returnSlot.getRuntime();
+        ParserRuntime runtime = source.getRuntime();
 		
 		NonPackedNode y;
-		BodyGrammarSlot returnSlot = this.returnSlot;
 		
 		if (returnSlot.requiresBinding()) {
-			Environment env = returnSlot.doBinding(sppfNode, runtime.getEmptyEnvironment());
-
-            runtime.setEnvironment(env);
+            runtime.setEnvironment(runtime.getEmptyEnvironment());
+			returnSlot.doBinding(sppfNode, runtime.getEvaluatorContext());
 			
-			if (returnSlot.getConditions().execute(input, source, i, runtime.getEvaluatorContext()))
-				return null;
+			if (returnSlot.getConditions().execute(input, returnSlot, source, i, runtime.getEvaluatorContext()))
+				return false;
 			
-			env = runtime.getEnvironment();
+			Environment env = runtime.getEnvironment();
 			
-			y = returnSlot.getIntermediateNode2(input, node, sppfNode, env);
+			y = returnSlot.getIntermediateNode2(input, node, sppfNode, env, runtime);
 			
 //			y = parser.getNode(returnSlot, node, sppfNode, env);
 //			if (!parser.hasDescriptor(returnSlot, destination, inputIndex, y, env))
 //				return new org.iguana.datadependent.descriptor.Descriptor(returnSlot, destination, inputIndex, y, env);
 			
-			return y != null ? new org.iguana.datadependent.descriptor.Descriptor(returnSlot, destination, y, input, env) : null;
+			if (y == null) return false;
+
+			runtime.scheduleDescriptor(returnSlot, destination, y, env);
+			return true;
 		}
 		
-		if (returnSlot.getConditions().execute(input, source, i))
-			return null;
+		if (returnSlot.getConditions().execute(input, returnSlot, source, i))
+			return false;
 		
 //		y = parser.getNode(returnSlot, node, sppfNode);
 //		if (!parser.hasDescriptor(returnSlot, destination, inputIndex, y))
 //			return new Descriptor(returnSlot, destination, inputIndex, y);
 		
-		y = returnSlot.getIntermediateNode2(input, node, sppfNode);
+		y = returnSlot.getIntermediateNode2(input, node, sppfNode, runtime);
 		
-		return y != null ? new Descriptor(returnSlot, destination, y, input) : null;
+		if (y == null) return false;
+
+		runtime.scheduleDescriptor(returnSlot, destination, y);
+		return true;
 	}
 
 }
@@ -44,19 +44,13 @@ import static iguana.parsetrees.sppf.SPPFNodeFactory.*;
 
 public class PoppedElements {
 
-    private ParserRuntime runtime;
-
 	private NonterminalNode firstNode;
 
     private Input firstInput;
 	
 	private Map<Object, NonterminalNode> poppedElements;
-
-    public PoppedElements(ParserRuntime runtime) {
-        this.runtime = runtime;
-    }
 	
-	public NonterminalNode add(Input input, EndGrammarSlot slot, NonPackedNode child) {
+	public NonterminalNode add(Input input, EndGrammarSlot slot, NonPackedNode child, ParserRuntime runtime) {
 
 		// No node added yet
 		if (firstNode == null) {
@@ -99,7 +93,7 @@ public class PoppedElements {
 		}
 	}
 	
-	public NonterminalNode add(Input input, EndGrammarSlot slot, NonPackedNode child, Object value) {
+	public NonterminalNode add(Input input, EndGrammarSlot slot, NonPackedNode child, Object value, ParserRuntime runtime) {
 		// No node added yet
 		if (firstNode == null) {
             firstNode = createNonterminalNode(slot.getNonterminal(), slot, child, value, input);
@@ -180,6 +174,20 @@ public class PoppedElements {
         return node;
     }
 	
+	/**
+	 * Removes the nonterminal nodes with the given right extent.
+	 */
+	public void remove(int rightExtent) {
+		if (poppedElements == null) {
+			if (firstNode != null && firstNode.getRightExtent() == rightExtent) {
+				firstNode = null;
+				firstInput = null;
+			}
+		} else {
+			poppedElements.values().removeIf(node -> node.getRightExtent() == rightExtent);
+		}
+	}
+
 	public int size() {
 		if (poppedElements == null) {
 			return firstNode != null ? 1 : 0;
@@ -30,8 +30,8 @@ package org.iguana.parser.gss.lookup;
 import java.util.HashMap;
 import java.util.Map;
 
-import iguana.utils.input.Input;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 import org.iguana.parser.gss.GSSNodeData;
 import org.iguana.util.Tuple;
@@ -49,7 +49,7 @@ public abstract class AbstractNodeLookup implements GSSNodeLookup {
 	 * Data-dependent GLL parsing
 	 * 
 	 */
-	protected Map<Tuple<Integer, GSSNodeData<?>>, GSSNode> map = new HashMap<>();
+	protected final Map<Tuple<Integer, GSSNodeData<?>>, GSSNode> map = new HashMap<>();
 	
 	
 	@Override
@@ -58,15 +58,10 @@ public abstract class AbstractNodeLookup implements GSSNodeLookup {
 	}
 	
 	@Override
-	public void reset(Input input) {
-		map = new HashMap<>();
-	}
-	
-	@Override
-	public <T> GSSNode get(NonterminalGrammarSlot slot, int i, GSSNodeData<T> data) {
+	public <T> GSSNode get(NonterminalGrammarSlot slot, int i, GSSNodeData<T> data, ParserRuntime runtime) {
 		GSSNode gssNode = map.get(new Tuple<>(i, data));
 		if (gssNode == null)
-			return new org.iguana.datadependent.gss.GSSNode<>(slot, i, data);
+			return runtime.createGSSNode(slot, i, data);
 		return gssNode;
 	}
 	
@@ -33,22 +33,17 @@ import java.util.stream.Collectors;
 import iguana.utils.collections.CollectionsUtil;
 import iguana.utils.input.Input;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 
 public class ArrayNodeLookup extends AbstractNodeLookup {
 
-	private GSSNode[] gssNodes;
+	private final GSSNode[] gssNodes;
 	
 	public ArrayNodeLookup(Input input) {
 		gssNodes = new GSSNode[input.length()];
 	}
 	
-	@Override
-	public void reset(Input input) {
-		super.reset(input);
-		gssNodes = new GSSNode[input.length()];		
-	}
-	
 	@Override
 	public Iterable<GSSNode> getNodes() {
 		return CollectionsUtil.concat(Arrays.stream(gssNodes).filter(n -> n != null).collect(Collectors.toList()), super.map.values());
@@ -60,10 +55,10 @@ public class ArrayNodeLookup extends AbstractNodeLookup {
 	}
 
 	@Override
-	public GSSNode get(NonterminalGrammarSlot slot, int i) {
+	public GSSNode get(NonterminalGrammarSlot slot, int i, ParserRuntime runtime) {
 		GSSNode node = gssNodes[i];
 		if (node == null) {
-			node = new GSSNode(slot, i);
+			node = runtime.createGSSNode(slot, i);
 			gssNodes[i] = node;
 			return node;
 		} 
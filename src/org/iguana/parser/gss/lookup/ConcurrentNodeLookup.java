@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.gss.lookup;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import iguana.utils.collections.CollectionsUtil;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.util.Tuple;
+
+/**
+ * A GSS node lookup that can be used by several threads at the same time.
+ * A GSS node is created exactly once for each input index. Only the creation of the node holds
+ * the lock of the map; the edges and descriptors are added to the node outside of it.
+ */
+public class ConcurrentNodeLookup implements GSSNodeLookup {
+
+	private final ConcurrentHashMap<Integer, GSSNode> map = new ConcurrentHashMap<>();
+
+	/**
+	 * 
+	 * Data-dependent GLL parsing
+	 * 
+	 */
+	private final ConcurrentHashMap<Tuple<Integer, GSSNodeData<?>>, GSSNode> dataMap = new ConcurrentHashMap<>();
+
+	@Override
+	public void get(int i, GSSNodeCreator creator) {
+		GSSNode[] created = new GSSNode[1];
+		GSSNode node = map.computeIfAbsent(i, k -> created[0] = creator.newNode());
+		creator.addTo(node, node == created[0]);
+	}
+
+	@Override
+	public GSSNode get(NonterminalGrammarSlot slot, int i, ParserRuntime runtime) {
+		return map.computeIfAbsent(i, k -> runtime.createGSSNode(slot, i));
+	}
+
+	@Override
+	public Iterable<GSSNode> getNodes() {
+		return CollectionsUtil.concat(map.values(), dataMap.values());
+	}
+
+	@Override
+	public <T> void get(int i, GSSNodeData<T> data, GSSNodeCreator creator) {
+		GSSNode[] created = new GSSNode[1];
+		GSSNode node = dataMap.computeIfAbsent(new Tuple<>(i, data), k -> created[0] = creator.newNode());
+		creator.addTo(node, node == created[0]);
+	}
+
+	@Override
+	public <T> GSSNode get(NonterminalGrammarSlot slot, int i, GSSNodeData<T> data, ParserRuntime runtime) {
+		GSSNode gssNode = dataMap.get(new Tuple<>(i, data));
+		if (gssNode == null)
+			return runtime.createGSSNode(slot, i, data);
+		return gssNode;
+	}
+
+}
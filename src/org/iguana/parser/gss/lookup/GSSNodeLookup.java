@@ -27,8 +27,8 @@
 
 package org.iguana.parser.gss.lookup;
 
-import iguana.utils.input.Input;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 import org.iguana.parser.gss.GSSNodeData;
 
@@ -41,9 +41,7 @@ public interface GSSNodeLookup {
 	
 	void get(int i, GSSNodeCreator creator);
 	
-	GSSNode get(NonterminalGrammarSlot slot, int i);
-	
-	void reset(Input input);
+	GSSNode get(NonterminalGrammarSlot slot, int i, ParserRuntime runtime);
 	
 	Iterable<GSSNode> getNodes();
 	
@@ -54,10 +52,30 @@ public interface GSSNodeLookup {
 	 */
 	<T> void get(int i, GSSNodeData<T> data, GSSNodeCreator creator);
 	
-	<T> GSSNode get(NonterminalGrammarSlot slot, int i, GSSNodeData<T> data);
+	<T> GSSNode get(NonterminalGrammarSlot slot, int i, GSSNodeData<T> data, ParserRuntime runtime);
 	
-	@FunctionalInterface
+	/**
+	 * Creates the GSS node of an input index if there is none, and adds to the new or the
+	 * existing node, for example, the edge to the GSS node it is reached from. A lookup that is
+	 * used by several threads creates the node under its lock and adds to it outside the lock.
+	 */
 	interface GSSNodeCreator {
-		GSSNode create(GSSNode node);
+		
+		GSSNode newNode();
+		
+		void addTo(GSSNode node, boolean created);
+		
+		/**
+		 * Creates a GSS node if the given node is null, adds to it, and returns it.
+		 */
+		default GSSNode create(GSSNode node) {
+			if (node == null) {
+				node = newNode();
+				addTo(node, true);
+			} else {
+				addTo(node, false);
+			}
+			return node;
+		}
 	}
 }
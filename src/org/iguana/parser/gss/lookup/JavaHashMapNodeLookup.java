@@ -32,33 +32,27 @@ import java.util.HashMap;
 import java.util.Map;
 
 import iguana.utils.collections.CollectionsUtil;
-import iguana.utils.input.Input;
 import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
 import org.iguana.parser.gss.GSSNode;
 
 public class JavaHashMapNodeLookup extends AbstractNodeLookup {
 
-	private Map<Integer, GSSNode> map = new HashMap<>();
+	private final Map<Integer, GSSNode> map = new HashMap<>();
 	
 	@Override
 	public void get(int i, GSSNodeCreator creator) {
 		map.compute(i, (k, v) -> creator.create(v)); 
 	}
 	
-	@Override
-	public void reset(Input input) {
-		super.reset(input);
-		map = new HashMap<>();
-	}
-
 	@Override
 	public Iterable<GSSNode> getNodes() {
 		return CollectionsUtil.concat(map.values(), super.map.values());
 	}
 
 	@Override
-	public GSSNode get(NonterminalGrammarSlot slot, int i) {
-		return map.computeIfAbsent(i, k -> new GSSNode(slot, i));
+	public GSSNode get(NonterminalGrammarSlot slot, int i, ParserRuntime runtime) {
+		return map.computeIfAbsent(i, k -> runtime.createGSSNode(slot, i));
 	}
 
 }
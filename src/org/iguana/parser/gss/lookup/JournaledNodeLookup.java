@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gss.lookup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import iguana.utils.collections.CollectionsUtil;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+import org.iguana.parser.PositionJournal;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.util.Tuple;
+
+/**
+ * 
+ * A GSS node lookup that records the removal of every node it adds at the input index
+ * of the node.
+ *
+ */
+public class JournaledNodeLookup extends AbstractNodeLookup implements PositionJournal.Table {
+
+	private final Map<Integer, GSSNode> nodes = new HashMap<>();
+
+	private final PositionJournal journal;
+
+	public JournaledNodeLookup(PositionJournal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	public void get(int i, GSSNodeCreator creator) {
+		GSSNode node = nodes.get(i);
+		GSSNode newNode = creator.create(node);
+		if (node == null && newNode != null) {
+			nodes.put(i, newNode);
+			journal.record(i, this, i, null);
+		}
+	}
+
+	@Override
+	public GSSNode get(NonterminalGrammarSlot slot, int i, ParserRuntime runtime) {
+		GSSNode node = nodes.get(i);
+		if (node == null) {
+			node = runtime.createGSSNode(slot, i);
+			nodes.put(i, node);
+			journal.record(i, this, i, null);
+		}
+		return node;
+	}
+
+	@Override
+	public <T> void get(int i, GSSNodeData<T> data, GSSNodeCreator creator) {
+		Tuple<Integer, GSSNodeData<?>> key = new Tuple<>(i, data);
+		GSSNode node = map.get(key);
+		GSSNode newNode = creator.create(node);
+		if (node == null && newNode != null) {
+			map.put(key, newNode);
+			journal.record(i, this, i, key);
+		}
+	}
+
+	/**
+	 * Removes the node with the given data key, or the node without data at the given index.
+	 */
+	@Override
+	public void removeEntry(long key, Object objectKey) {
+		if (objectKey == null)
+			nodes.remove((int) key);
+		else
+			map.remove(objectKey);
+	}
+
+	@Override
+	public Iterable<GSSNode> getNodes() {
+		return CollectionsUtil.concat(nodes.values(), map.values());
+	}
+
+}
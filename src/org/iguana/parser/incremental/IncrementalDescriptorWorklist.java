@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.incremental;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.parser.descriptor.Descriptor;
+import org.iguana.parser.descriptor.DescriptorWorklist;
+import org.iguana.parser.gss.GSSNode;
+
+/**
+ * 
+ * A stack of {@link Descriptor} objects whose input can be replaced between parses. The
+ * reads of the input are attributed to the position of the descriptor that is executed.
+ *
+ */
+class IncrementalDescriptorWorklist implements DescriptorWorklist {
+
+	private final Deque<Descriptor> descriptors = new ArrayDeque<>();
+
+	private ReadTrackingInput input;
+
+	IncrementalDescriptorWorklist(ReadTrackingInput input) {
+		this.input = input;
+	}
+
+	void setInput(ReadTrackingInput input) {
+		this.input = input;
+	}
+
+	@Override
+	public void push(Descriptor descriptor) {
+		descriptors.push(descriptor);
+	}
+
+	@Override
+	public void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+		descriptors.push(new Descriptor(slot, gssNode, sppfNode, input));
+	}
+
+	@Override
+	public void push(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+		descriptors.push(new org.iguana.datadependent.descriptor.Descriptor(slot, gssNode, sppfNode, input, env));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return descriptors.isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return descriptors.size();
+	}
+
+	@Override
+	public Descriptor pop() {
+		Descriptor descriptor = descriptors.pop();
+		input.setPosition(descriptor.getInputIndex());
+		return descriptor;
+	}
+
+	@Override
+	public void executeNext(Input input) {
+		pop().execute();
+	}
+
+}
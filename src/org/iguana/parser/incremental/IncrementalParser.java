@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.incremental;
+
+import iguana.parsetrees.sppf.DummyNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.utils.benchmark.Timer;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.parser.ParseAborted;
+import org.iguana.parser.ParseAbortedException;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseSuccess;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.GSSNodeData;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseStatistics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 
+ * Parses a sequence of versions of an input, each obtained from the previous one by a
+ * {@link TextEdit}. A reparse keeps the GSS and the SPPF nodes of the previous parse that
+ * end before the edit, reuses the GSS nodes and the SPPF nodes of the previous parse after
+ * the edit with their extents shifted, and only parses the text in between again.
+ * 
+ * The work done up to a position is only reused if it did not look at the edited text,
+ * and the work done after the edit is only reused if it did not look back before the end
+ * of the removed text. The parser records the input indices read by the descriptors at
+ * every position, so no bound on the lookahead or lookbehind of the grammar is assumed.
+ * 
+ * The statistics of a reparse only count the nodes and descriptors created by the reparse,
+ * including the copies of the reused nodes. The SPPF of a previous result is not modified
+ * by a reparse.
+ * 
+ * As with {@link org.iguana.parser.Iguana}, the map given for a data-dependent start symbol
+ * holds either the global variables of the parse, or the arguments of the start symbol by
+ * parameter name. Every version of the input is parsed with the same variables.
+ *
+ */
+public class IncrementalParser {
+
+	private final GrammarGraph grammarGraph;
+
+	private final Configuration config;
+
+	private final NonterminalGrammarSlot startSymbol;
+
+	private final Nonterminal nonterminal;
+
+	private final Map<String, ?> map;
+
+	private final boolean global;
+
+	private IncrementalParserRuntime runtime;
+
+	private ParseResult result;
+
+	public IncrementalParser(GrammarGraph grammarGraph, Nonterminal nonterminal) {
+		this(grammarGraph, nonterminal, Collections.emptyMap(), true);
+	}
+
+	public IncrementalParser(GrammarGraph grammarGraph, Nonterminal nonterminal, Map<String, ?> map, boolean global) {
+		this.grammarGraph = grammarGraph;
+		this.config = grammarGraph.getConfiguration();
+		this.startSymbol = grammarGraph.getHead(nonterminal);
+		this.nonterminal = nonterminal;
+		this.map = map;
+		this.global = global;
+
+		if (startSymbol == null)
+			throw new RuntimeException("No nonterminal named " + nonterminal + " found");
+	}
+
+	/**
+	 * Parses the input from scratch.
+	 */
+	public ParseResult parse(Input input) {
+		runtime = new IncrementalParserRuntime(grammarGraph, input, config, global ? map : Collections.emptyMap());
+
+		GSSNode startGSSNode = getStartGSSNode();
+
+		runtime.log("Parsing %s:", input.getURI());
+
+		Timer timer = new Timer();
+		timer.start();
+
+		if (hasArguments()) {
+			Environment env = runtime.getEvaluatorContext().getEmptyEnvironment().declare(nonterminal.getParameters(), getArguments());
+			startSymbol.getFirstSlots().forEach(s -> runtime.scheduleDescriptor(s, startGSSNode, new DummyNode(0), env));
+		} else {
+			startSymbol.getFirstSlots().forEach(s -> runtime.scheduleDescriptor(s, startGSSNode, new DummyNode(0)));
+		}
+		try {
+			runtime.processDescriptors();
+		} catch (ParseAbortedException e) {
+			return result = createAborted(input, e, timer);
+		}
+
+		timer.stop();
+
+		return result = createResult(input, startGSSNode, timer);
+	}
+
+	/**
+	 * Parses the input of the last result with the edit applied.
+	 */
+	public ParseResult reparse(TextEdit edit) {
+		if (result == null)
+			throw new IllegalStateException("No input has been parsed yet");
+
+		return reparse(result, edit);
+	}
+
+	/**
+	 * Parses the input of the given result with the edit applied. The work of the previous
+	 * parse is only reused if the given result is the last result of this parser and was not
+	 * aborted, otherwise the edited input is parsed from scratch.
+	 */
+	public ParseResult reparse(ParseResult previous, TextEdit edit) {
+		Input input = edit.apply(previous.getInput());
+
+		if (previous != result || previous.isParseAborted())
+			return parse(input);
+
+		int k = runtime.getResumePosition(edit);
+
+		if (k <= 0)
+			return parse(input);
+
+		runtime.log("Reparsing %s from %d:", input.getURI(), k);
+
+		Timer timer = new Timer();
+		timer.start();
+
+		try {
+			runtime.resume(k, edit, input);
+		} catch (ParseAbortedException e) {
+			return result = createAborted(input, e, timer);
+		}
+
+		timer.stop();
+
+		return result = createResult(input, getStartGSSNode(), timer);
+	}
+
+	private boolean hasArguments() {
+		return !global && !map.isEmpty();
+	}
+
+	private Object[] getArguments() {
+		Object[] arguments = new Object[map.size()];
+
+		int i = 0;
+		for (String parameter : nonterminal.getParameters())
+			arguments[i++] = map.get(parameter);
+
+		return arguments;
+	}
+
+	private GSSNode getStartGSSNode() {
+		if (hasArguments())
+			return startSymbol.getGSSNode(0, new GSSNodeData<>(getArguments()), runtime);
+		return startSymbol.getGSSNode(0, runtime);
+	}
+
+	private ParseResult createResult(Input input, GSSNode startGSSNode, Timer timer) {
+		NonterminalNode root = startGSSNode.getNonterminalNode(input, input.length() - 1);
+
+		if (root == null) {
+			ParseResult parseError = runtime.getParseError();
+			runtime.log("Parse error:\n %s", parseError);
+			return parseError;
+		}
+
+		ParseStatistics parseStatistics = runtime.getParseStatistics(timer);
+		runtime.log("Parsing finished successfully.");
+		runtime.log(parseStatistics.toString());
+		return new ParseSuccess(root, parseStatistics, input);
+	}
+
+	private ParseResult createAborted(Input input, ParseAbortedException e, Timer timer) {
+		timer.stop();
+		ParseAborted parseAborted = new ParseAborted(e.getReason(), runtime.getParseStatistics(timer), input);
+		runtime.log("Parsing aborted: %s", e.getReason());
+		return parseAborted;
+	}
+
+}
@@ -0,0 +1,643 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.incremental;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import iguana.parsetrees.sppf.DummyNode;
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
+import iguana.parsetrees.sppf.PackedNode;
+import iguana.parsetrees.sppf.SPPFNodeFactory;
+import iguana.parsetrees.sppf.TerminalNode;
+import iguana.utils.input.Input;
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.GLLEvaluator;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.EndGrammarSlot;
+import org.iguana.grammar.slot.GrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.slot.TerminalTransition;
+import org.iguana.parser.ParseError;
+import org.iguana.parser.JournaledParserRuntime;
+import org.iguana.parser.gss.GSSNode;
+import org.iguana.parser.gss.JournaledGSSNode;
+import org.iguana.util.Configuration;
+
+/**
+ * 
+ * A parser runtime that can resume a finished parse on an edited input.
+ * 
+ * Every entry added to the GSS and the SPPF node tables is recorded in a journal at the
+ * input position it belongs to: a GSS node at its input index, a popped element, an
+ * intermediate or a terminal node at its right extent. Every terminal transition that
+ * matched a terminal ending after its start is recorded at the right extent of the
+ * terminal. To resume the parse from a position k, the journal entries at k and after
+ * are undone, and the terminal transitions that started before k and matched a terminal
+ * ending at k or after are executed again on the new input. Everything else is left as
+ * it was in the previous parse.
+ * 
+ * The input of the runtime is a {@link ReadTrackingInput}, so k is the first position
+ * whose descriptors read the edited text, rather than a guess of how far the grammar
+ * looks ahead.
+ * 
+ * The GSS nodes of the previous parse after the edit are reused: when the resumed parse
+ * creates a GSS node after the edit, and the previous parse had a GSS node of the same
+ * nonterminal at the corresponding position whose descriptors did not read before the end
+ * of the removed text, the popped elements of the previous node are copied with their
+ * extents shifted by the length difference of the edit, instead of parsing the body of the
+ * nonterminal again. The GSS nodes of the nonterminal nodes in the copied SPPF are reused
+ * with it. Only GSS nodes without data are reused, as their data may hold input positions.
+ * A reused GSS node has no GSS edges and terminal transitions recorded for its body, so the
+ * next resume starts at the first reused node at the latest.
+ *
+ */
+class IncrementalParserRuntime extends JournaledParserRuntime {
+
+	private final IncrementalDescriptorWorklist worklist;
+
+	private ReadTrackingInput input;
+
+	private IEvaluatorContext ctx;
+
+	/**
+	 * The global variables declared in the evaluator context of every version of the input.
+	 */
+	private final Map<String, ?> globals;
+
+	private List<Runnable>[] journal;
+
+	private List<TerminalMatch>[] terminalMatches;
+
+	/**
+	 * The GSS nodes created at each input position.
+	 */
+	private List<GSSNode>[] gssNodes;
+
+	/**
+	 * The parse errors in the order they are recorded. Only an error at the same or a later
+	 * position than the last one is recorded, so the positions are ascending.
+	 */
+	private final List<ParseErrorRecord> errors = new ArrayList<>();
+
+	/**
+	 * The last parse error recorded by the descriptors of each GSS node, which is recorded
+	 * again when the node is reused.
+	 */
+	private final Map<GSSNode, ParseErrorRecord> gssNodeErrors = new IdentityHashMap<>();
+
+	private final Set<GSSNode> reusedGSSNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private int firstReusedPosition = Integer.MAX_VALUE;
+
+	/**
+	 * The GSS nodes of the previous parse that can be reused while the parse is resumed,
+	 * keyed by their grammar slot and their input index in the previous input.
+	 */
+	private Map<Long, ReusableGSSNode> reusableGSSNodes;
+
+	/**
+	 * The first position of the edited input at which a GSS node can be reused.
+	 */
+	private int reuseFrom;
+
+	/**
+	 * The length difference of the edit, by which the extents of the reused nodes are shifted.
+	 */
+	private int delta;
+
+	IncrementalParserRuntime(GrammarGraph grammarGraph, Input input, Configuration config, Map<String, ?> globals) {
+		this(grammarGraph, new ReadTrackingInput(input), config, globals);
+	}
+
+	private IncrementalParserRuntime(GrammarGraph grammarGraph, ReadTrackingInput input, Configuration config, Map<String, ?> globals) {
+		this(grammarGraph, input, config, createEvaluatorContext(config, input, globals), globals, new IncrementalDescriptorWorklist(input));
+	}
+
+	@SuppressWarnings("unchecked")
+	private IncrementalParserRuntime(GrammarGraph grammarGraph, ReadTrackingInput input, Configuration config, IEvaluatorContext ctx, Map<String, ?> globals, IncrementalDescriptorWorklist worklist) {
+		super(grammarGraph, input, config, ctx, worklist);
+		this.worklist = worklist;
+		this.input = input;
+		this.ctx = ctx;
+		this.globals = globals;
+		this.journal = new List[input.length() + 1];
+		this.terminalMatches = new List[input.length() + 1];
+		this.gssNodes = new List[input.length() + 1];
+	}
+
+	/**
+	 * Returns the position from which the parse should be resumed after the given edit: the
+	 * first position whose descriptors read the edited text, and at the latest the offset of
+	 * the edit or the first position at which a GSS node is reused.
+	 */
+	int getResumePosition(TextEdit edit) {
+		return Math.min(input.firstPositionReading(edit.getOffset()), firstReusedPosition);
+	}
+
+	/**
+	 * Undoes the work done at position k and after, replaces the input by the edited input,
+	 * and continues the parse from the terminal transitions that cross k. The position k
+	 * should not be after the resume position of the edit.
+	 */
+	void resume(int k, TextEdit edit, Input editedInput) {
+		int end = edit.getOffset() + edit.getRemovedLength();
+		int s = input.firstPositionNotReadingBefore(end);
+		Map<Long, ReusableGSSNode> reusable = getReusableGSSNodes(s);
+
+		List<TerminalMatch> crossing = new ArrayList<>();
+		for (int i = k; i < terminalMatches.length; i++) {
+			if (terminalMatches[i] == null) continue;
+			for (TerminalMatch match : terminalMatches[i])
+				if (match.node.getRightExtent() < k)
+					crossing.add(match);
+		}
+
+		for (int i = journal.length - 1; i >= k; i--) {
+			List<Runnable> removals = journal[i];
+			if (removals == null) continue;
+			for (int j = removals.size() - 1; j >= 0; j--)
+				removals.get(j).run();
+		}
+
+		journal = truncate(journal, k, editedInput.length() + 1);
+		terminalMatches = truncate(terminalMatches, k, editedInput.length() + 1);
+		gssNodes = truncate(gssNodes, k, editedInput.length() + 1);
+
+		while (!errors.isEmpty() && errors.get(errors.size() - 1).inputIndex >= k)
+			errors.remove(errors.size() - 1);
+
+		reusedGSSNodes.clear();
+		firstReusedPosition = Integer.MAX_VALUE;
+
+		this.delta = edit.getInsertedText().length() - edit.getRemovedLength();
+		this.input = input.edit(editedInput, k, s, delta);
+		this.ctx = createEvaluatorContext(getConfiguration(), input, globals);
+		this.reusableGSSNodes = reusable;
+		this.reuseFrom = s + delta;
+		worklist.setInput(input);
+		resetStatistics();
+
+		for (TerminalMatch match : crossing) {
+			input.setPosition(match.node.getRightExtent());
+			if (match.env == null)
+				match.transition.execute(input, match.u, match.node);
+			else
+				match.transition.execute(input, match.u, match.node, match.env);
+		}
+
+		processDescriptors();
+
+		reusableGSSNodes = null;
+	}
+
+	@Override
+	public void processDescriptors() {
+		super.processDescriptors();
+		input.setPosition(ReadTrackingInput.NONE);
+	}
+
+	@Override
+	public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode) {
+		// The body of a reused GSS node is not parsed again
+		if (!reusedGSSNodes.isEmpty() && reusedGSSNodes.contains(gssNode)) return;
+		super.scheduleDescriptor(slot, gssNode, sppfNode);
+	}
+
+	@Override
+	public void scheduleDescriptor(BodyGrammarSlot slot, GSSNode gssNode, NonPackedNode sppfNode, Environment env) {
+		if (!reusedGSSNodes.isEmpty() && reusedGSSNodes.contains(gssNode)) return;
+		super.scheduleDescriptor(slot, gssNode, sppfNode, env);
+	}
+
+	@Override
+	public void gssNodeAdded(GSSNode node) {
+		super.gssNodeAdded(node);
+		addGSSNode(node);
+		if (reusableGSSNodes != null && node.getInputIndex() >= reuseFrom)
+			reuse(node);
+	}
+
+	private void addGSSNode(GSSNode node) {
+		int i = node.getInputIndex();
+		if (gssNodes[i] == null)
+			gssNodes[i] = new ArrayList<>(2);
+		gssNodes[i].add(node);
+	}
+
+	private GSSNode findGSSNode(NonterminalGrammarSlot slot, int i) {
+		if (i < 0 || i >= gssNodes.length || gssNodes[i] == null)
+			return null;
+		for (GSSNode node : gssNodes[i]) {
+			if (node.getGrammarSlot() == slot && node instanceof JournaledGSSNode)
+				return node;
+		}
+		return null;
+	}
+
+	private Map<Long, ReusableGSSNode> getReusableGSSNodes(int s) {
+		Map<Long, ReusableGSSNode> reusable = new HashMap<>();
+		for (int i = s; i < gssNodes.length; i++) {
+			if (gssNodes[i] == null) continue;
+			for (GSSNode node : gssNodes[i]) {
+				if (!(node instanceof JournaledGSSNode)) continue;
+				List<NonterminalNode> poppedElements = new ArrayList<>(node.countPoppedElements());
+				node.forEachPoppedElement(poppedElements::add);
+				reusable.put(key(node.getGrammarSlot(), i), new ReusableGSSNode(node, poppedElements, gssNodeErrors.get(node)));
+			}
+		}
+		return reusable;
+	}
+
+	/**
+	 * Reuses the GSS node of the previous parse that corresponds to the newly created node, if
+	 * there is one and all the GSS nodes of the nonterminal nodes in its SPPF can be reused too.
+	 */
+	private void reuse(GSSNode node) {
+		ReusableGSSNode root = reusableGSSNodes.get(key(node.getGrammarSlot(), node.getInputIndex() - delta));
+		if (root == null || !(node instanceof JournaledGSSNode)) return;
+
+		List<ReusableGSSNode> reused = new ArrayList<>();
+		Set<ReusableGSSNode> visited = new HashSet<>();
+		Deque<ReusableGSSNode> pending = new ArrayDeque<>();
+		reused.add(root);
+		visited.add(root);
+		pending.push(root);
+		while (!pending.isEmpty()) {
+			for (long key : pending.pop().getCallees()) {
+				ReusableGSSNode callee = reusableGSSNodes.get(key);
+				if (callee == null) return;
+				if (!visited.add(callee)) continue;
+
+				GSSNode existing = findGSSNode(callee.node.getGrammarSlot(), callee.node.getInputIndex() + delta);
+				if (existing == null) {
+					reused.add(callee);
+					pending.push(callee);
+				} else if (!reusedGSSNodes.contains(existing)) {
+					// A node that is being parsed may not have all its popped elements yet
+					return;
+				}
+			}
+		}
+
+		Map<ReusableGSSNode, GSSNode> newNodes = new IdentityHashMap<>();
+		newNodes.put(root, node);
+		for (ReusableGSSNode r : reused) {
+			if (r == root) continue;
+			NonterminalGrammarSlot slot = r.node.getGrammarSlot();
+			GSSNode u = getGSSNodeLookup(slot).get(slot, r.node.getInputIndex() + delta, this);
+			super.gssNodeAdded(u);
+			addGSSNode(u);
+			newNodes.put(r, u);
+		}
+
+		for (GSSNode u : newNodes.values()) {
+			reusedGSSNodes.add(u);
+			firstReusedPosition = Math.min(firstReusedPosition, u.getInputIndex());
+		}
+
+		log("Reusing %s", node);
+
+		int position = input.getPosition();
+		input.setPosition(ReadTrackingInput.NONE);
+		pop(reused, newNodes);
+		input.setPosition(position);
+
+		for (ReusableGSSNode r : reused) {
+			if (r.error != null)
+				recordParseError(input, r.error.inputIndex + delta, r.error.slot, newNodes.get(r));
+		}
+	}
+
+	/**
+	 * Pops the copies of the popped elements of the reused nodes. A nonterminal node is
+	 * popped after the nonterminal nodes in its SPPF, which have a smaller right extent
+	 * or the same right extent and a larger left extent, except for the nodes with the same
+	 * extents, which are popped once their children are.
+	 */
+	private void pop(List<ReusableGSSNode> reused, Map<ReusableGSSNode, GSSNode> newNodes) {
+		List<Pop> pops = new ArrayList<>();
+		for (ReusableGSSNode r : reused) {
+			GSSNode u = newNodes.get(r);
+			for (NonterminalNode node : r.poppedElements) {
+				scala.collection.Seq<?> packedNodes = node.children();
+				for (int i = 0; i < packedNodes.size(); i++) {
+					PackedNode packedNode = (PackedNode) packedNodes.apply(i);
+					pops.add(new Pop(u, (EndGrammarSlot) packedNode.slot(), (NonPackedNode) packedNode.children().apply(0), node));
+				}
+			}
+		}
+		pops.sort(Comparator.<Pop>comparingInt(p -> p.node.getRightExtent()).thenComparing(Comparator.comparingInt((Pop p) -> p.node.getLeftExtent()).reversed()));
+
+		Map<NonPackedNode, NonPackedNode> copies = new IdentityHashMap<>();
+		while (!pops.isEmpty()) {
+			List<Pop> waiting = new ArrayList<>();
+			for (Pop pop : pops) {
+				NonPackedNode child = copy(pop.child, copies);
+				if (child == null)
+					waiting.add(pop);
+				else
+					pop.gssNode.pop(input, pop.slot, child);
+			}
+			if (waiting.size() == pops.size())
+				throw new IllegalStateException("Cannot reuse the popped elements of " + waiting.get(0).gssNode);
+			pops = waiting;
+		}
+	}
+
+	/**
+	 * Returns the copy of a node of the previous SPPF with its extents shifted, or null if it
+	 * contains a nonterminal node that is not popped yet.
+	 */
+	private NonPackedNode copy(NonPackedNode node, Map<NonPackedNode, NonPackedNode> copies) {
+		if (node instanceof NonterminalNode) {
+			GSSNode u = findGSSNode(getNonterminalSlot((NonterminalNode) node), node.getLeftExtent() + delta);
+			return u == null ? null : u.getNonterminalNode(input, node.getRightExtent() + delta);
+		}
+
+		NonPackedNode copy = copies.get(node);
+		if (copy != null)
+			return copy;
+
+		if (node instanceof TerminalNode) {
+			TerminalNode terminalNode = SPPFNodeFactory.createTerminalNode((TerminalGrammarSlot) ((TerminalNode) node).slot(),
+					node.getLeftExtent() + delta, node.getRightExtent() + delta, input);
+			terminalNodeAdded(terminalNode);
+			copy = terminalNode;
+		} else if (node instanceof IntermediateNode) {
+			copy = copyIntermediateNode((IntermediateNode) node, copies);
+			if (copy == null)
+				return null;
+		} else if (node instanceof DummyNode) {
+			copy = new DummyNode(node.getRightExtent() + delta);
+		} else {
+			throw new IllegalStateException("Unexpected node " + node);
+		}
+
+		copies.put(node, copy);
+		return copy;
+	}
+
+	private IntermediateNode copyIntermediateNode(IntermediateNode node, Map<NonPackedNode, NonPackedNode> copies) {
+		scala.collection.Seq<?> packedNodes = node.children();
+		NonPackedNode[] children = new NonPackedNode[packedNodes.size() * 2];
+		for (int i = 0; i < packedNodes.size(); i++) {
+			scala.collection.Seq<?> packedNodeChildren = ((PackedNode) packedNodes.apply(i)).children();
+			for (int j = 0; j < 2; j++) {
+				children[2 * i + j] = copy((NonPackedNode) packedNodeChildren.apply(j), copies);
+				if (children[2 * i + j] == null)
+					return null;
+			}
+		}
+
+		IntermediateNode copy = null;
+		for (int i = 0; i < packedNodes.size(); i++) {
+			BodyGrammarSlot slot = (BodyGrammarSlot) ((PackedNode) packedNodes.apply(i)).slot();
+			NonPackedNode leftChild = children[2 * i];
+			NonPackedNode rightChild = children[2 * i + 1];
+			if (copy == null) {
+				copy = slot.createIntermediateNode(leftChild, rightChild, this);
+			} else {
+				boolean ambiguous = copy.addPackedNode(slot, leftChild, rightChild);
+				packedNodeAdded(slot, leftChild.getRightExtent());
+				if (ambiguous) ambiguousNodeAdded(copy);
+			}
+		}
+		return copy;
+	}
+
+	private static NonterminalGrammarSlot getNonterminalSlot(NonterminalNode node) {
+		return ((EndGrammarSlot) ((PackedNode) node.children().apply(0)).slot()).getNonterminal();
+	}
+
+	private static long key(NonterminalGrammarSlot slot, int i) {
+		return ((long) slot.getId() << 32) | (i & 0xFFFFFFFFL);
+	}
+
+	@Override
+	public void record(int position, Table table, long key, Object objectKey) {
+		record(position, () -> table.removeEntry(key, objectKey));
+	}
+
+	private void record(int position, Runnable removal) {
+		List<Runnable> removals = journal[position];
+		if (removals == null) {
+			removals = new ArrayList<>();
+			journal[position] = removals;
+		}
+		removals.add(removal);
+	}
+
+	@Override
+	public void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode) {
+		terminalMatched(transition, u, node, terminalNode, null);
+	}
+
+	@Override
+	public void terminalMatched(TerminalTransition transition, GSSNode u, NonPackedNode node, TerminalNode terminalNode, Environment env) {
+		int rightExtent = terminalNode.getRightExtent();
+		if (rightExtent == node.getRightExtent()) return;
+
+		List<TerminalMatch> matches = terminalMatches[rightExtent];
+		if (matches == null) {
+			matches = new ArrayList<>();
+			terminalMatches[rightExtent] = matches;
+		}
+		matches.add(new TerminalMatch(transition, u, node, env));
+	}
+
+	@Override
+	public void recordParseError(Input input, int i, GrammarSlot slot, GSSNode u) {
+		if (errors.isEmpty() || i >= errors.get(errors.size() - 1).inputIndex) {
+			log("Error recorded at %s %d", slot, i);
+			errors.add(new ParseErrorRecord(slot, i, u));
+		}
+
+		if (u == null) return;
+
+		ParseErrorRecord previous = gssNodeErrors.get(u);
+		if (previous == null || i > previous.inputIndex) {
+			gssNodeErrors.put(u, new ParseErrorRecord(slot, i, u));
+			record(i, () -> {
+				if (previous == null) gssNodeErrors.remove(u);
+				else gssNodeErrors.put(u, previous);
+			});
+		}
+	}
+
+	@Override
+	public ParseError getParseError() {
+		if (errors.isEmpty())
+			return new ParseError(null, input.getInput(), 0, null);
+
+		ParseErrorRecord error = errors.get(errors.size() - 1);
+		return new ParseError(error.slot, input.getInput(), error.inputIndex, error.gssNode);
+	}
+
+	@Override
+	public Input getInput() {
+		return input;
+	}
+
+	@Override
+	public IEvaluatorContext getEvaluatorContext() {
+		return ctx;
+	}
+
+	private static IEvaluatorContext createEvaluatorContext(Configuration config, Input input, Map<String, ?> globals) {
+		IEvaluatorContext ctx = GLLEvaluator.getEvaluatorContext(config, input);
+		globals.forEach((k, v) -> ctx.declareGlobalVariable(k, v));
+		return ctx;
+	}
+
+	private static <T> T[] truncate(T[] array, int from, int length) {
+		T[] result = Arrays.copyOf(array, length);
+		if (from < length)
+			Arrays.fill(result, from, length, null);
+		return result;
+	}
+
+	private static class TerminalMatch {
+
+		private final TerminalTransition transition;
+
+		private final GSSNode u;
+
+		private final NonPackedNode node;
+
+		private final Environment env;
+
+		TerminalMatch(TerminalTransition transition, GSSNode u, NonPackedNode node, Environment env) {
+			this.transition = transition;
+			this.u = u;
+			this.node = node;
+			this.env = env;
+		}
+	}
+
+	private static class ParseErrorRecord {
+
+		private final GrammarSlot slot;
+
+		private final int inputIndex;
+
+		private final GSSNode gssNode;
+
+		ParseErrorRecord(GrammarSlot slot, int inputIndex, GSSNode gssNode) {
+			this.slot = slot;
+			this.inputIndex = inputIndex;
+			this.gssNode = gssNode;
+		}
+	}
+
+	/**
+	 * A GSS node of the previous parse with the nonterminal nodes it popped, which are
+	 * removed from the node itself when the parse is resumed.
+	 */
+	private static class ReusableGSSNode {
+
+		private final GSSNode node;
+
+		private final List<NonterminalNode> poppedElements;
+
+		private final ParseErrorRecord error;
+
+		/**
+		 * The keys of the GSS nodes of the nonterminal nodes in the SPPF of the popped elements.
+		 */
+		private Set<Long> callees;
+
+		ReusableGSSNode(GSSNode node, List<NonterminalNode> poppedElements, ParseErrorRecord error) {
+			this.node = node;
+			this.poppedElements = poppedElements;
+			this.error = error;
+		}
+
+		Set<Long> getCallees() {
+			if (callees == null) {
+				callees = new HashSet<>();
+				Set<NonPackedNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+				for (NonterminalNode node : poppedElements)
+					addCallees(node, visited);
+			}
+			return callees;
+		}
+
+		private void addCallees(NonterminalOrIntermediateNode node, Set<NonPackedNode> visited) {
+			scala.collection.Seq<?> packedNodes = node.children();
+			for (int i = 0; i < packedNodes.size(); i++) {
+				scala.collection.Seq<?> children = ((PackedNode) packedNodes.apply(i)).children();
+				for (int j = 0; j < children.size(); j++) {
+					NonPackedNode child = (NonPackedNode) children.apply(j);
+					if (child instanceof NonterminalNode)
+						callees.add(key(getNonterminalSlot((NonterminalNode) child), child.getLeftExtent()));
+					else if (child instanceof IntermediateNode && visited.add(child))
+						addCallees((IntermediateNode) child, visited);
+				}
+			}
+		}
+	}
+
+	private static class Pop {
+
+		private final GSSNode gssNode;
+
+		private final EndGrammarSlot slot;
+
+		private final NonPackedNode child;
+
+		/**
+		 * The nonterminal node of the previous parse the packed node belongs to.
+		 */
+		private final NonterminalNode node;
+
+		Pop(GSSNode gssNode, EndGrammarSlot slot, NonPackedNode child, NonterminalNode node) {
+			this.gssNode = gssNode;
+			this.slot = slot;
+			this.child = child;
+			this.node = node;
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.incremental;
+
+import java.net.URI;
+import java.util.Arrays;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * An input that records, for every input position, the smallest and the largest input
+ * index read while the descriptors at that position are executed. The runtime sets the
+ * position of the descriptor it executes; reads outside of a descriptor are not recorded.
+ * 
+ * The recorded indices tell which work of a parse is still valid after an edit: the work
+ * done at a position before the edit is valid if it did not read at or after the offset of
+ * the edit, and the work done at a position after the edit is valid, shifted by the length
+ * difference of the edit, if it did not read before the end of the removed text.
+ *
+ */
+class ReadTrackingInput implements Input {
+
+	static final int NONE = -1;
+
+	private final Input input;
+
+	/**
+	 * The largest index read by the descriptors at each position, or NONE.
+	 */
+	private final int[] maxRead;
+
+	/**
+	 * The smallest index read by the descriptors at each position, or Integer.MAX_VALUE.
+	 */
+	private final int[] minRead;
+
+	private int position = NONE;
+
+	ReadTrackingInput(Input input) {
+		this.input = input;
+		this.maxRead = new int[input.length()];
+		this.minRead = new int[input.length()];
+		Arrays.fill(maxRead, NONE);
+		Arrays.fill(minRead, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates the tracking input of the edited input, which keeps the reads of this input
+	 * before position k, and the reads at and after position s shifted by delta.
+	 */
+	ReadTrackingInput edit(Input editedInput, int k, int s, int delta) {
+		ReadTrackingInput edited = new ReadTrackingInput(editedInput);
+		System.arraycopy(maxRead, 0, edited.maxRead, 0, k);
+		System.arraycopy(minRead, 0, edited.minRead, 0, k);
+		for (int i = s; i < maxRead.length; i++) {
+			if (maxRead[i] == NONE) continue;
+			edited.maxRead[i + delta] = maxRead[i] + delta;
+			edited.minRead[i + delta] = minRead[i] + delta;
+		}
+		return edited;
+	}
+
+	/**
+	 * Returns the input whose reads are recorded.
+	 */
+	Input getInput() {
+		return input;
+	}
+
+	int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Attributes the following reads to the given position, or to no position if it is NONE.
+	 */
+	void setPosition(int position) {
+		this.position = position;
+	}
+
+	/**
+	 * Returns the first position before the given offset whose descriptors read at or after
+	 * the offset, or the offset if there is none.
+	 */
+	int firstPositionReading(int offset) {
+		for (int i = 0; i < offset; i++) {
+			if (maxRead[i] >= offset)
+				return i;
+		}
+		return offset;
+	}
+
+	/**
+	 * Returns the first position at or after the given end such that no descriptor at that
+	 * position or after it read before the end.
+	 */
+	int firstPositionNotReadingBefore(int end) {
+		int s = maxRead.length;
+		while (s > end && minRead[s - 1] >= end)
+			s--;
+		return s;
+	}
+
+	private void read(int i) {
+		if (position == NONE) return;
+		if (i > maxRead[position]) maxRead[position] = i;
+		if (i < minRead[position]) minRead[position] = i;
+	}
+
+	@Override
+	public int charAt(int i) {
+		read(i);
+		return input.charAt(i);
+	}
+
+	@Override
+	public int length() {
+		return input.length();
+	}
+
+	@Override
+	public String subString(int start, int end) {
+		if (end > start) {
+			read(start);
+			read(end - 1);
+		}
+		return input.subString(start, end);
+	}
+
+	@Override
+	public int getLineNumber(int i) {
+		read(0);
+		read(i);
+		return input.getLineNumber(i);
+	}
+
+	@Override
+	public int getColumnNumber(int i) {
+		read(0);
+		read(i);
+		return input.getColumnNumber(i);
+	}
+
+	@Override
+	public boolean isStartOfLine(int i) {
+		read(Math.max(i - 1, 0));
+		return input.isStartOfLine(i);
+	}
+
+	@Override
+	public boolean isEndOfLine(int i) {
+		read(i);
+		return input.isEndOfLine(i);
+	}
+
+	@Override
+	public boolean isEndOfFile(int i) {
+		read(i);
+		return input.isEndOfFile(i);
+	}
+
+	@Override
+	public URI getURI() {
+		return input.getURI();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+
+		if (obj instanceof ReadTrackingInput)
+			return input.equals(((ReadTrackingInput) obj).input);
+
+		return input.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return input.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return input.toString();
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.incremental;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * An edit of the text of an input: removedLength characters starting at offset are
+ * replaced by insertedText.
+ *
+ */
+public class TextEdit {
+
+	private final int offset;
+
+	private final int removedLength;
+
+	private final String insertedText;
+
+	public TextEdit(int offset, int removedLength, String insertedText) {
+		if (offset < 0)
+			throw new IllegalArgumentException("Offset cannot be negative: " + offset);
+		if (removedLength < 0)
+			throw new IllegalArgumentException("Removed length cannot be negative: " + removedLength);
+		if (insertedText == null)
+			throw new IllegalArgumentException("Inserted text cannot be null");
+
+		this.offset = offset;
+		this.removedLength = removedLength;
+		this.insertedText = insertedText;
+	}
+
+	public static TextEdit insert(int offset, String text) {
+		return new TextEdit(offset, 0, text);
+	}
+
+	public static TextEdit delete(int offset, int length) {
+		return new TextEdit(offset, length, "");
+	}
+
+	public static TextEdit replace(int offset, int length, String text) {
+		return new TextEdit(offset, length, text);
+	}
+
+	public int getOffset() {
+		return offset;
+	}
+
+	public int getRemovedLength() {
+		return removedLength;
+	}
+
+	public String getInsertedText() {
+		return insertedText;
+	}
+
+	/**
+	 * Returns the input whose text is the text of the given input with this edit applied.
+	 * The edited input keeps the URI of the given input.
+	 */
+	public Input apply(Input input) {
+		// The last position of an input is the end of file
+		String text = input.subString(0, input.length() - 1);
+		if (offset + removedLength > text.length())
+			throw new IllegalArgumentException(String.format("Edit %s is outside of the input of length %d", this, text.length()));
+
+		return Input.fromString(text.substring(0, offset) + insertedText + text.substring(offset + removedLength), input.getURI());
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+
+		if (!(obj instanceof TextEdit))
+			return false;
+
+		TextEdit other = (TextEdit) obj;
+		return offset == other.offset && removedLength == other.removedLength && insertedText.equals(other.insertedText);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * offset + removedLength) + insertedText.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("(%d, %d, \"%s\")", offset, removedLength, insertedText);
+	}
+
+}
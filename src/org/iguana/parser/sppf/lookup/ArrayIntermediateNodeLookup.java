@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import java.util.Arrays;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * Stores the intermediate nodes in one array per left extent, indexed by the distance
+ * between the left and right extents. The array of rows is created when the first node
+ * is added, and a row when the first node with its left extent is added. A row grows to
+ * the longest node seen so far. Only suitable for small inputs, as the memory use is
+ * quadratic in the input length in the worst case.
+ *
+ */
+public class ArrayIntermediateNodeLookup extends AbstractIntermediateNodeLookup {
+
+	private static final int INITIAL_ROW_LENGTH = 8;
+
+	private final int length;
+
+	private IntermediateNode[][] rows;
+
+	private int size;
+
+	public ArrayIntermediateNodeLookup(Input input) {
+		length = input.length() + 1;
+	}
+
+	@Override
+	protected IntermediateNode get(int leftExtent, int rightExtent) {
+		if (rows == null)
+			return null;
+		IntermediateNode[] row = rows[leftExtent];
+		int j = rightExtent - leftExtent;
+		if (row == null || j >= row.length)
+			return null;
+		return row[j];
+	}
+
+	@Override
+	protected void put(int leftExtent, int rightExtent, IntermediateNode node) {
+		if (rows == null)
+			rows = new IntermediateNode[length][];
+		IntermediateNode[] row = rows[leftExtent];
+		int j = rightExtent - leftExtent;
+		if (row == null) {
+			row = new IntermediateNode[Math.max(INITIAL_ROW_LENGTH, j + 1)];
+			rows[leftExtent] = row;
+		} else if (j >= row.length) {
+			row = Arrays.copyOf(row, Math.max(row.length << 1, j + 1));
+			rows[leftExtent] = row;
+		}
+		if (row[j] == null)
+			size++;
+		row[j] = node;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+}
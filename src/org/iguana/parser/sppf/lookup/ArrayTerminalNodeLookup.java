@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import iguana.parsetrees.sppf.TerminalNode;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * Stores the terminal nodes in an array indexed by their left extent, which is created
+ * when the first node is added.
+ *
+ */
+public class ArrayTerminalNodeLookup extends AbstractTerminalNodeLookup {
+
+	private final int length;
+
+	private TerminalNode[] nodes;
+
+	private int size;
+
+	public ArrayTerminalNodeLookup(Input input) {
+		length = input.length() + 1;
+	}
+
+	@Override
+	protected TerminalNode get(int i) {
+		return nodes == null ? null : nodes[i];
+	}
+
+	@Override
+	protected void put(int i, TerminalNode node) {
+		if (nodes == null)
+			nodes = new TerminalNode[length];
+		if (nodes[i] == null)
+			size++;
+		nodes[i] = node;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+}
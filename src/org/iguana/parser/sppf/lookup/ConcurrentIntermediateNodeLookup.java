@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.parser.ParserRuntime;
+import org.iguana.util.Holder;
+
+/**
+ * 
+ * The intermediate node lookup used by the parallel parser. Creating a node, or adding
+ * a packed node to an existing one, happens atomically for each key.
+ *
+ */
+public class ConcurrentIntermediateNodeLookup implements IntermediateNodeLookup {
+
+	private final ConcurrentHashMap<Long, IntermediateNode> map = new ConcurrentHashMap<>();
+
+	@Override
+	public IntermediateNode get(BodyGrammarSlot slot, NonPackedNode leftChild, NonPackedNode rightChild, ParserRuntime runtime) {
+		Holder<IntermediateNode> holder = new Holder<>();
+		long key = AbstractIntermediateNodeLookup.key(leftChild.getLeftExtent(), rightChild.getRightExtent());
+		map.compute(key, (k, value) -> {
+			if (value != null) {
+				boolean ambiguous = value.addPackedNode(slot, leftChild, rightChild);
+				runtime.packedNodeAdded(slot, leftChild.getRightExtent());
+				if (ambiguous) runtime.ambiguousNodeAdded(value);
+				return value;
+			} else {
+				IntermediateNode newNode = slot.createIntermediateNode(leftChild, rightChild, runtime);
+				holder.set(newNode);
+				return newNode;
+			}
+		});
+		return holder.get();
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+}
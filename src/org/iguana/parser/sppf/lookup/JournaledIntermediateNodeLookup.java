@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+import org.iguana.parser.PositionJournal;
+
+/**
+ * 
+ * An intermediate node lookup that records the removal of every node it adds at the
+ * right extent of the node.
+ *
+ */
+public class JournaledIntermediateNodeLookup extends AbstractIntermediateNodeLookup implements PositionJournal.Table {
+
+	private final Map<Long, IntermediateNode> map = new HashMap<>();
+
+	private final PositionJournal journal;
+
+	public JournaledIntermediateNodeLookup(PositionJournal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	protected IntermediateNode get(int leftExtent, int rightExtent) {
+		return map.get(key(leftExtent, rightExtent));
+	}
+
+	@Override
+	protected void put(int leftExtent, int rightExtent, IntermediateNode node) {
+		long key = key(leftExtent, rightExtent);
+		map.put(key, node);
+		journal.record(rightExtent, this, key, null);
+	}
+
+	@Override
+	public void removeEntry(long key, Object objectKey) {
+		map.remove(key);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import java.util.HashMap;
+import java.util.function.BiFunction;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.utils.collections.key.Key;
+import org.iguana.parser.PositionJournal;
+
+/**
+ * 
+ * The intermediate nodes of a slot in data-dependent parsing. Records the removal of
+ * every node it adds at the right extent of the node.
+ *
+ */
+@SuppressWarnings("serial")
+public class JournaledIntermediateNodeMap extends HashMap<Key, IntermediateNode> implements PositionJournal.Table {
+
+	private final PositionJournal journal;
+
+	public JournaledIntermediateNodeMap(PositionJournal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	public IntermediateNode compute(Key key, BiFunction<? super Key, ? super IntermediateNode, ? extends IntermediateNode> remappingFunction) {
+		boolean added = !containsKey(key);
+		IntermediateNode node = super.compute(key, remappingFunction);
+		if (added && node != null)
+			journal.record(node.getRightExtent(), this, 0, key);
+		return node;
+	}
+
+	@Override
+	public void removeEntry(long key, Object objectKey) {
+		remove(objectKey);
+	}
+
+}
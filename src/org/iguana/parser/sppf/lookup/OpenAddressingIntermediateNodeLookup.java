@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import iguana.parsetrees.sppf.IntermediateNode;
+
+/**
+ * 
+ * An open addressing hash table with linear probing, keyed by the left and right extents
+ * packed into a long. Lookups do not allocate.
+ *
+ */
+public class OpenAddressingIntermediateNodeLookup extends AbstractIntermediateNodeLookup {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private static final float LOAD_FACTOR = 0.7f;
+
+	private long[] keys;
+
+	private IntermediateNode[] values;
+
+	private int size;
+
+	private int threshold;
+
+	private int mask;
+
+	public OpenAddressingIntermediateNodeLookup() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public OpenAddressingIntermediateNodeLookup(int initialCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+		allocate(capacity);
+	}
+
+	@Override
+	protected IntermediateNode get(int leftExtent, int rightExtent) {
+		long key = key(leftExtent, rightExtent);
+		int j = hash(key) & mask;
+		IntermediateNode value;
+		while ((value = values[j]) != null) {
+			if (keys[j] == key)
+				return value;
+			j = (j + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	protected void put(int leftExtent, int rightExtent, IntermediateNode node) {
+		long key = key(leftExtent, rightExtent);
+		int j = hash(key) & mask;
+		while (values[j] != null) {
+			if (keys[j] == key) {
+				values[j] = node;
+				return;
+			}
+			j = (j + 1) & mask;
+		}
+		keys[j] = key;
+		values[j] = node;
+		if (++size > threshold)
+			rehash();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		IntermediateNode[] oldValues = values;
+		allocate(oldKeys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				int j = hash(oldKeys[i]) & mask;
+				while (values[j] != null)
+					j = (j + 1) & mask;
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new IntermediateNode[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int hash(long key) {
+		int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.tree;
+
+import iguana.parsetrees.sppf.DummyNode;
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
+import iguana.parsetrees.sppf.PackedNode;
+import iguana.parsetrees.sppf.TerminalNode;
+import iguana.parsetrees.term.DefaultTermBuilder;
+import iguana.parsetrees.term.SPPFToTerms;
+import iguana.parsetrees.term.Term;
+import iguana.parsetrees.term.TermBuilder;
+import iguana.utils.input.Input;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *
+ * A view of a node of the parse tree that creates the views of its children from the SPPF when they are
+ * first asked for, so only the parts of the tree that are visited are created. The children of a nonterminal
+ * are the nonterminals and terminals of its rule, with the intermediate nodes of the SPPF left out. EBNF
+ * nonterminals, such as the ones of A* or A?, and layout appear as the nonterminals they are desugared to.
+ *
+ * A subtree can be converted to a {@link Term} with {@link #toTerm(TermBuilder)}, which converts only that
+ * subtree. The children of an ambiguous node cannot be listed, but the node can be converted to a Term.
+ *
+ * A view keeps its children once they are created, so it should not be shared by threads.
+ *
+ */
+public class LazyTerm {
+
+	private final NonPackedNode node;
+
+	private final Input input;
+
+	private List<LazyTerm> children;
+
+	private LazyTerm(NonPackedNode node, Input input) {
+		this.node = node;
+		this.input = input;
+	}
+
+	public static LazyTerm of(NonterminalNode root, Input input) {
+		return new LazyTerm(root, input);
+	}
+
+	public boolean isTerminal() {
+		return node instanceof TerminalNode;
+	}
+
+	public boolean isEpsilon() {
+		return isTerminal() && getTerminal() == Terminal.epsilon();
+	}
+
+	public boolean isAmbiguous() {
+		return !isTerminal() && ((NonterminalOrIntermediateNode) node).isAmbiguous();
+	}
+
+	/**
+	 * The rule of this nonterminal. If the node is ambiguous, the rule of its first alternative.
+	 */
+	public Rule getRule() {
+		if (isTerminal())
+			throw new IllegalStateException("A terminal has no rule: " + this);
+		return getRule(firstPackedNode((NonterminalNode) node));
+	}
+
+	public Terminal getTerminal() {
+		if (!isTerminal())
+			throw new IllegalStateException("A nonterminal has no terminal: " + this);
+		return getTerminal((TerminalNode) node);
+	}
+
+	public int getLeftExtent() {
+		return node.getLeftExtent();
+	}
+
+	public int getRightExtent() {
+		return node.getRightExtent();
+	}
+
+	public String getText() {
+		return input.subString(node.getLeftExtent(), node.getRightExtent());
+	}
+
+	public NonPackedNode getSPPFNode() {
+		return node;
+	}
+
+	/**
+	 * The children of this node, in document order, or an empty list for terminals.
+	 *
+	 * @throws IllegalStateException if this node is ambiguous, or if an intermediate node under it is
+	 */
+	public List<LazyTerm> getChildren() {
+		if (children == null) {
+			if (isTerminal()) {
+				children = Collections.emptyList();
+			} else {
+				List<NonPackedNode> nodes = new ArrayList<>();
+				addChildren(getPackedNode((NonterminalNode) node), nodes);
+				List<LazyTerm> list = new ArrayList<>(nodes.size());
+				for (NonPackedNode child : nodes)
+					list.add(new LazyTerm(child, input));
+				children = Collections.unmodifiableList(list);
+			}
+		}
+		return children;
+	}
+
+	public Term toTerm() {
+		return toTerm(new DefaultTermBuilder(input));
+	}
+
+	/**
+	 * Converts the subtree of this node with the given builder.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T toTerm(TermBuilder<T> builder) {
+		if (isEpsilon())
+			return builder.epsilon(node.getLeftExtent());
+		if (isTerminal())
+			return builder.terminalTerm(getTerminal(), node.getLeftExtent(), node.getRightExtent(), input);
+		return (T) SPPFToTerms.convert((NonterminalNode) node, builder);
+	}
+
+	@Override
+	public String toString() {
+		return (isTerminal() ? getTerminal().toString() : getRule().getHead().getName()) + "(" + getLeftExtent() + ", " + getRightExtent() + ")";
+	}
+
+	/*
+	 * The navigation of the SPPF shared with ParseTreeWalker
+	 */
+
+	static PackedNode firstPackedNode(NonterminalOrIntermediateNode node) {
+		return (PackedNode) node.children().apply(0);
+	}
+
+	/**
+	 * Returns the only packed node of the given node.
+	 *
+	 * @throws IllegalStateException if the node is ambiguous
+	 */
+	static PackedNode getPackedNode(NonterminalOrIntermediateNode node) {
+		if (node.isAmbiguous())
+			throw new IllegalStateException("Ambiguity at (" + node.getLeftExtent() + ", " + node.getRightExtent() + ")");
+		return firstPackedNode(node);
+	}
+
+	static Rule getRule(PackedNode packedNode) {
+		return ((BodyGrammarSlot) packedNode.slot()).getPosition().getRule();
+	}
+
+	static Terminal getTerminal(TerminalNode node) {
+		return ((TerminalGrammarSlot) node.slot()).getTerminal();
+	}
+
+	/**
+	 * Adds the children of the packed node to the list in document order, replacing the intermediate
+	 * nodes by their children.
+	 */
+	private static void addChildren(PackedNode packedNode, List<NonPackedNode> nodes) {
+		scala.collection.Seq<?> children = packedNode.children();
+		for (int i = 0; i < children.size(); i++) {
+			NonPackedNode child = (NonPackedNode) children.apply(i);
+			if (child instanceof IntermediateNode)
+				addChildren(getPackedNode((IntermediateNode) child), nodes);
+			else if (!(child instanceof DummyNode))
+				nodes.add(child);
+		}
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.tree;
+
+import iguana.parsetrees.sppf.DummyNode;
+import iguana.parsetrees.sppf.IntermediateNode;
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.parsetrees.sppf.NonterminalNode;
+import iguana.parsetrees.sppf.NonterminalOrIntermediateNode;
+import iguana.parsetrees.sppf.PackedNode;
+import iguana.parsetrees.sppf.TerminalNode;
+import org.iguana.grammar.symbol.Rule;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Walks an unambiguous SPPF as a parse tree in document order, reporting its nonterminals and terminals
+ * to a {@link ParseTreeVisitor} without creating a tree. The SPPF is walked with an explicit stack, so
+ * deep trees do not overflow the call stack.
+ *
+ */
+public class ParseTreeWalker {
+
+	/**
+	 * The nodes still to be visited, with the last one on top. An entry with a rule marks the end
+	 * of the nonterminal of that entry.
+	 */
+	private NonPackedNode[] nodes = new NonPackedNode[64];
+
+	private Rule[] ends = new Rule[64];
+
+	private int size;
+
+	private ParseTreeWalker() {}
+
+	/**
+	 * @throws IllegalStateException when an ambiguous node is reached. The nodes before it have been
+	 *                               reported to the visitor.
+	 */
+	public static void walk(NonterminalNode root, ParseTreeVisitor visitor) {
+		new ParseTreeWalker().run(root, visitor);
+	}
+
+	/**
+	 * Returns true if the parse tree of the SPPF contains an ambiguous node, in which case it cannot be walked.
+	 */
+	public static boolean isAmbiguous(NonterminalNode root) {
+		return new ParseTreeWalker().findAmbiguity(root);
+	}
+
+	private boolean findAmbiguity(NonterminalNode root) {
+		push(root, null);
+
+		while (size > 0) {
+			size--;
+			NonPackedNode node = nodes[size];
+			nodes[size] = null;
+
+			if (node instanceof NonterminalOrIntermediateNode) {
+				NonterminalOrIntermediateNode n = (NonterminalOrIntermediateNode) node;
+				if (n.isAmbiguous())
+					return true;
+				pushChildren(LazyTerm.firstPackedNode(n));
+			}
+		}
+		return false;
+	}
+
+	private void run(NonterminalNode root, ParseTreeVisitor visitor) {
+		push(root, null);
+
+		while (size > 0) {
+			size--;
+			NonPackedNode node = nodes[size];
+			Rule end = ends[size];
+			nodes[size] = null;
+			ends[size] = null;
+
+			if (end != null) {
+				visitor.endNonterminal(end, node.getLeftExtent(), node.getRightExtent());
+			}
+			else if (node instanceof TerminalNode) {
+				visitor.terminal(LazyTerm.getTerminal((TerminalNode) node), node.getLeftExtent(), node.getRightExtent());
+			}
+			else if (node instanceof IntermediateNode) {
+				pushChildren(LazyTerm.getPackedNode((IntermediateNode) node));
+			}
+			else if (node instanceof NonterminalNode) {
+				PackedNode packedNode = LazyTerm.getPackedNode((NonterminalNode) node);
+				Rule rule = LazyTerm.getRule(packedNode);
+				if (visitor.startNonterminal(rule, node.getLeftExtent(), node.getRightExtent())) {
+					push(node, rule);
+					pushChildren(packedNode);
+				}
+			}
+		}
+	}
+
+	private void pushChildren(PackedNode packedNode) {
+		scala.collection.Seq<?> children = packedNode.children();
+		for (int i = children.size() - 1; i >= 0; i--) {
+			NonPackedNode child = (NonPackedNode) children.apply(i);
+			if (!(child instanceof DummyNode))
+				push(child, null);
+		}
+	}
+
+	private void push(NonPackedNode node, Rule end) {
+		if (size == nodes.length) {
+			nodes = Arrays.copyOf(nodes, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+		}
+		nodes[size] = node;
+		ends[size] = end;
+		size++;
+	}
+
+}
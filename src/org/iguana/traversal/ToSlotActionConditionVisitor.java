@@ -31,7 +31,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import iguana.utils.input.Input;
+import org.iguana.datadependent.ast.CompiledExpression;
 import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.datadependent.traversal.ExpressionCompiler;
 import org.iguana.grammar.condition.DataDependentCondition;
 import org.iguana.grammar.condition.PositionalCondition;
 import org.iguana.grammar.condition.RegularExpressionCondition;
@@ -54,6 +56,8 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 	
 	@Override
 	public SlotAction visit(DataDependentCondition condition) {
+		CompiledExpression expression = ExpressionCompiler.compile(condition.getExpression());
+		
 		return new SlotAction() {
 			
 			@Override
@@ -63,7 +67,10 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 			
 			@Override
 			public boolean execute(Input input, GSSNode gssNode, int inputIndex, IEvaluatorContext ctx) {
-				Object value = condition.getExpression().interpret(ctx);
+				if (expression.isBoolean())
+					return !expression.evaluateBoolean(ctx);
+				
+				Object value = expression.evaluate(ctx);
 				if (!(value instanceof Boolean)) 
 					throw new RuntimeException("Data dependent condition should evaluate to a boolean value."); 
 				return (!(Boolean) value);
@@ -111,7 +118,7 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 		    		Matcher matcher = factory.getMatcher(condition.getRegularExpression());
 					
 					@Override
-					public boolean execute(Input input, GSSNode gssNode, int i) { return matcher.match(input, i) == -1; }
+					public boolean execute(Input input, GSSNode gssNode, int i) { return match(matcher, input, gssNode, i) == -1; }
 					
 					@Override
 					public String toString() { return condition.toString(); }
@@ -123,7 +130,7 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 			    	Matcher matcher = factory.getMatcher(condition.getRegularExpression());
 			    	
 					@Override
-					public boolean execute(Input input, GSSNode gssNode, int i) { return matcher.match(input, i) >= 0; }
+					public boolean execute(Input input, GSSNode gssNode, int i) { return match(matcher, input, gssNode, i) >= 0; }
 					
 					@Override
 					public String toString() { return condition.toString(); }
@@ -148,7 +155,7 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 					Matcher matcher = factory.getBackwardsMatcher(condition.getRegularExpression());
 					
 					@Override
-					public boolean execute(Input input, GSSNode gssNode, int i) { return matcher.match(input, i) >= 0; }
+					public boolean execute(Input input, GSSNode gssNode, int i) { return match(matcher, input, gssNode, i) >= 0; }
 					
 					@Override
 					public String toString() { return condition.toString(); }
@@ -159,7 +166,7 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 					Matcher matcher = factory.getBackwardsMatcher(condition.getRegularExpression());
 					
 					@Override
-					public boolean execute(Input input, GSSNode node, int i) { return matcher.match(input, i) == -1; }
+					public boolean execute(Input input, GSSNode node, int i) { return match(matcher, input, node, i) == -1; }
 					
 					@Override
 					public String toString() { return condition.toString(); }
@@ -170,4 +177,15 @@ public class ToSlotActionConditionVisitor implements IConditionVisitor<SlotActio
 		}
 	}
 
+	/**
+	 * Matches through the match cache of the parse the GSS node belongs to, so that conditions
+	 * with the same regular expression share their results. NOT_MATCH is not cached, as its
+	 * result depends on both the start and the end index.
+	 */
+	private static int match(Matcher matcher, Input input, GSSNode gssNode, int i) {
+		if (gssNode == null)
+			return matcher.match(input, i);
+		return gssNode.getRuntime().match(matcher, input, i);
+	}
+
 }
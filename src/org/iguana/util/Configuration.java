@@ -53,6 +53,22 @@ public class Configuration {
 
     private final LogLevel logLevel;
 
+    private final int parallelism;
+
+    private final WorklistImpl worklistImpl;
+
+    private final GSSImpl gssImpl;
+
+    private final MemoryMode memoryMode;
+
+    private final boolean statisticsEnabled;
+
+    private final boolean profilingEnabled;
+
+    private final boolean tokenLatticeEnabled;
+
+    private final int tabWidth;
+
     public static Configuration load() {
         Configuration configuration;
         try {
@@ -72,12 +88,26 @@ public class Configuration {
 		this.hashmapImpl = builder.hashmapImpl;
 		this.envImpl = builder.envImpl;
         this.logLevel = builder.logLevel;
+        this.parallelism = builder.parallelism;
+        this.worklistImpl = builder.worklistImpl;
+        this.gssImpl = builder.gssImpl;
+        this.memoryMode = builder.memoryMode;
+        this.statisticsEnabled = builder.statisticsEnabled;
+        this.profilingEnabled = builder.profilingEnabled;
+        this.tokenLatticeEnabled = builder.tokenLatticeEnabled;
+        this.tabWidth = builder.tabWidth;
 	}
 		
 	public LookupImpl getGSSLookupImpl() {
 		return gssLookupImpl;
 	}
 			
+	/**
+	 * The number of characters the parser looks at to decide which rules of a nonterminal to try.
+	 * With 0, all rules are tried. With 1, the rules are selected by the first character of the input.
+	 * With 2 or more, the rules whose second character is known are also tested on the second character,
+	 * see {@link org.iguana.util.ParseStatistics#getLookaheadPrunedCount()}.
+	 */
 	public int getLookAheadCount() {
 		return lookAheadCount;
 	}
@@ -86,6 +116,10 @@ public class Configuration {
 		return matcherType;
 	}
 	
+	/**
+	 * The tables of the GSS and SPPF nodes. INT_OPEN_ADDRESSING, the default, keys them by
+	 * unboxed extents; JAVA uses java.util.HashMap with boxed keys.
+	 */
 	public HashMapImpl getHashmapImpl() {
 		return hashmapImpl;
 	}
@@ -98,9 +132,98 @@ public class Configuration {
         return logLevel;
     }
 
+    /**
+     * The number of worker threads that process descriptors. A value of one, the default,
+     * selects the sequential parser. The parallel parser, see
+     * {@link org.iguana.parser.ParallelParserRuntime}, ignores the memory mode, the GSS
+     * implementation and the profiling option, does not hash-cons the environments, and
+     * keeps a match cache per worker thread.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public WorklistImpl getWorklistImpl() {
+        return worklistImpl;
+    }
+
+    public GSSImpl getGSSImpl() {
+        return gssImpl;
+    }
+
+    public MemoryMode getMemoryMode() {
+        return memoryMode;
+    }
+
+    /**
+     * Whether the parser counts the descriptors, GSS and SPPF nodes it creates. Without the counts
+     * the ParseStatistics of a parse only contain the times and the memory used, and the descriptor
+     * and node limits of ParseOptions cannot be used. The counts are off by default, so that a parse
+     * uses the uninstrumented runtime unless statistics, profiling or logging are asked for.
+     */
+    public boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    /**
+     * Whether the sequential parser counts its work per grammar slot, see
+     * {@link org.iguana.parser.ProfilingParserRuntime}. The counts are returned as the ParseProfile
+     * of the ParseStatistics. The parallel parser and the BOUNDED memory mode do not profile.
+     */
+    public boolean isProfilingEnabled() {
+        return profilingEnabled;
+    }
+
+    /**
+     * Whether the matches of the terminals at a position are computed together, on the first lookup at
+     * the position, see {@link org.iguana.parser.TokenLattice}. The BOUNDED memory mode does not use the token lattice.
+     */
+    public boolean isTokenLatticeEnabled() {
+        return tokenLatticeEnabled;
+    }
+
+    /**
+     * The number of columns between the tab stops, used for the columns of indentation-sensitive
+     * grammars, see {@link org.iguana.util.input.LineColumnIndex}. With 1, the default, a tab is one column.
+     */
+    public int getTabWidth() {
+        return tabWidth;
+    }
+
+    /**
+     * Whether the parser reports its events, either to count them or to log them. If not, the
+     * sequential parser uses {@link org.iguana.parser.UninstrumentedParserRuntime}, whose event
+     * hooks do nothing.
+     */
+    public boolean isInstrumented() {
+        return statisticsEnabled || profilingEnabled || logLevel != LogLevel.NONE;
+    }
+
     public static Builder builder() {
 		return new Builder();
 	}
+
+    /**
+     * Returns a builder with the options of the given configuration.
+     */
+    public static Builder builder(Configuration config) {
+        Builder builder = new Builder();
+        builder.gssLookupImpl = config.gssLookupImpl;
+        builder.matcherType = config.matcherType;
+        builder.hashmapImpl = config.hashmapImpl;
+        builder.lookaheadCount = config.lookAheadCount;
+        builder.logLevel = config.logLevel;
+        builder.parallelism = config.parallelism;
+        builder.worklistImpl = config.worklistImpl;
+        builder.gssImpl = config.gssImpl;
+        builder.memoryMode = config.memoryMode;
+        builder.statisticsEnabled = config.statisticsEnabled;
+        builder.profilingEnabled = config.profilingEnabled;
+        builder.tokenLatticeEnabled = config.tokenLatticeEnabled;
+        builder.tabWidth = config.tabWidth;
+        builder.envImpl = config.envImpl;
+        return builder;
+    }
 	
 	public enum MatcherType {
 		DFA,
@@ -117,10 +240,48 @@ public class Configuration {
 		INT_OPEN_ADDRESSING
 	}
 	
+	/**
+	 * The representation of the environments of data-dependent parsing. MUTABLE binds variables
+	 * in a mutable frame and copies it only when the environment is stored in a descriptor,
+	 * a GSS edge or a node key, see MutableEvaluatorContext.
+	 */
 	public enum EnvironmentImpl {
 		ARRAY,
 		HASH_MAP,
-		TRIE
+		TRIE,
+		MUTABLE
+	}
+
+	/**
+	 * The representation of the descriptors that are scheduled but not yet processed.
+	 * DEQUE allocates a descriptor object per scheduled descriptor, PACKED stores
+	 * the grammar slot and GSS node ids in primitive arrays.
+	 */
+	public enum WorklistImpl {
+		DEQUE,
+		PACKED
+	}
+
+	/**
+	 * The representation of the GSS nodes. OBJECT keeps a GSSEdge object per edge,
+	 * COMPACT keeps the edges in arrays, finds the popped elements by their right extent
+	 * without allocating keys, and does not add duplicate edges. The parallel parser
+	 * always uses OBJECT.
+	 */
+	public enum GSSImpl {
+		OBJECT,
+		COMPACT
+	}
+
+	/**
+	 * FULL keeps the GSS and SPPF node tables of the whole input until the end of the parse.
+	 * BOUNDED processes the descriptors in input order and discards the table entries of the
+	 * positions no descriptor can reach anymore, see {@link org.iguana.parser.BoundedParserRuntime}.
+	 * The parallel parser always uses FULL. BOUNDED cannot be combined with profiling.
+	 */
+	public enum MemoryMode {
+		FULL,
+		BOUNDED
 	}
 		
 	@Override
@@ -130,7 +291,15 @@ public class Configuration {
 		sb.append(MatcherType.class.getName()).append(": ").append(matcherType)
 		  .append(LookupImpl.class.getName()).append(": ").append(gssLookupImpl)
 		  .append(HashMapImpl.class.getName()).append(": ").append(hashmapImpl)
-		  .append("LookaheadCount").append(": ").append(lookAheadCount);
+		  .append(WorklistImpl.class.getName()).append(": ").append(worklistImpl)
+		  .append(GSSImpl.class.getName()).append(": ").append(gssImpl)
+		  .append(MemoryMode.class.getName()).append(": ").append(memoryMode)
+		  .append("LookaheadCount").append(": ").append(lookAheadCount)
+		  .append("Parallelism").append(": ").append(parallelism)
+		  .append("Statistics").append(": ").append(statisticsEnabled)
+		  .append("Profiling").append(": ").append(profilingEnabled)
+		  .append("TokenLattice").append(": ").append(tokenLatticeEnabled)
+		  .append("TabWidth").append(": ").append(tabWidth);
 		
 		return sb.toString();
 	}
@@ -139,13 +308,27 @@ public class Configuration {
 		
 		private LookupImpl gssLookupImpl = LookupImpl.HASH_MAP;
 		private MatcherType matcherType = MatcherType.JAVA_REGEX;
-		private HashMapImpl hashmapImpl = HashMapImpl.JAVA; // HashMapImpl.INT_OPEN_ADDRESSING;
+		private HashMapImpl hashmapImpl = HashMapImpl.INT_OPEN_ADDRESSING;
 		private int lookaheadCount = DEFAULT_LOOKAHEAD;
         private LogLevel logLevel = LogLevel.NONE;
+        private int parallelism = 1;
+        private WorklistImpl worklistImpl = WorklistImpl.PACKED;
+        private GSSImpl gssImpl = GSSImpl.OBJECT;
+        private MemoryMode memoryMode = MemoryMode.FULL;
+        private boolean statisticsEnabled = false;
+        private boolean profilingEnabled = false;
+        private boolean tokenLatticeEnabled = false;
+        private int tabWidth = 1;
 		
 		private EnvironmentImpl envImpl = EnvironmentImpl.TRIE;
 				
+		/**
+		 * @throws IllegalStateException if both the bounded memory mode and profiling are
+		 *                               enabled, as the bounded runtime is not profiled
+		 */
 		public Configuration build() {
+			if (memoryMode == MemoryMode.BOUNDED && profilingEnabled)
+				throw new IllegalStateException("Profiling is not supported in the bounded memory mode");
 			return new Configuration(this);
 		}
 		
@@ -179,5 +362,49 @@ public class Configuration {
             return this;
         }
 
+        public Builder setWorklistImpl(WorklistImpl worklistImpl) {
+            this.worklistImpl = worklistImpl;
+            return this;
+        }
+
+        public Builder setGSSImpl(GSSImpl gssImpl) {
+            this.gssImpl = gssImpl;
+            return this;
+        }
+
+        public Builder setMemoryMode(MemoryMode memoryMode) {
+            this.memoryMode = memoryMode;
+            return this;
+        }
+
+        public Builder setStatisticsEnabled(boolean statisticsEnabled) {
+            this.statisticsEnabled = statisticsEnabled;
+            return this;
+        }
+
+        public Builder setProfilingEnabled(boolean profilingEnabled) {
+            this.profilingEnabled = profilingEnabled;
+            return this;
+        }
+
+        public Builder setTokenLatticeEnabled(boolean tokenLatticeEnabled) {
+            this.tokenLatticeEnabled = tokenLatticeEnabled;
+            return this;
+        }
+
+        public Builder setTabWidth(int tabWidth) {
+            if (tabWidth < 1)
+                throw new IllegalArgumentException("Tab width should be at least one: " + tabWidth);
+            this.tabWidth = tabWidth;
+            return this;
+        }
+
+        public Builder setParallelism(int parallelism) {
+            if (parallelism < 1)
+                throw new IllegalArgumentException("Parallelism should be at least one: " + parallelism);
+            this.parallelism = parallelism;
+            return this;
+        }
+
 	}
 }
@@ -29,13 +29,24 @@ package org.iguana.util;
 
 import static java.util.stream.Stream.*;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -49,7 +60,11 @@ import org.iguana.grammar.Grammar;
 import org.iguana.grammar.GrammarGraph;
 import org.iguana.grammar.symbol.Nonterminal;
 import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseOptions;
 import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseSuccess;
+import org.iguana.parser.tree.ParseTreeVisitor;
+import org.iguana.util.input.Utf8MappedFileInput;
 
 import com.google.common.testing.GcFinalization;
 
@@ -62,8 +77,10 @@ public class IguanaRunner {
 	private final int runCount;
 	private final Nonterminal start;
 	private final boolean runGCInBetween;
-	private final int timeout;
+	private final ParseOptions parseOptions;
+	private final int threads;
     private final boolean buildTrees;
+    private final boolean walkTrees;
     private final TermBuilder<?> termBuilder;
 
     private final IguanaLogger logger;
@@ -75,9 +92,15 @@ public class IguanaRunner {
 		this.start = builder.start;
 		this.warmupCount = builder.warmupCount;
 		this.runCount = builder.runCount;
-		this.runGCInBetween = builder.runGCInBetween;
-		this.timeout = builder.timeout;
+		// A full GC waited for by one thread would also pause the parses of the other threads
+		this.runGCInBetween = builder.runGCInBetween && builder.threads <= 1;
+		if (builder.timeout > 0)
+			this.parseOptions = ParseOptions.builder().setTimeout(Duration.ofSeconds(builder.timeout)).build();
+		else
+			this.parseOptions = ParseOptions.DEFAULT;
+		this.threads = builder.threads;
         this.buildTrees = builder.buildTrees;
+        this.walkTrees = builder.walkTrees;
         this.termBuilder = builder.termBuilder;
         if (builder.log) {
             logger = new JavaUtilIguanaLogger("Iguana", builder.logLevel);
@@ -86,95 +109,178 @@ public class IguanaRunner {
         }
 	}
 
-	public List<RunResult> run() {
+	/**
+	 * @throws InterruptedException if the calling thread is interrupted before all inputs are parsed
+	 */
+	public List<RunResult> run() throws InterruptedException {
+		List<RunResult> results = new ArrayList<>();
+		run(results::add);
+		return results;
+	}
+
+	/**
+	 * Parses the inputs and passes the results to the given consumer as they complete. With more than
+	 * one thread, the inputs are parsed concurrently, each with its own parser runtime, against one
+	 * grammar graph; the consumer is always called from the calling thread, one input at a time.
+	 * A parse that takes longer than the timeout is aborted and reported as a failure. A memory-mapped
+	 * input is released after its runs.
+	 * 
+	 * @throws InterruptedException if the calling thread is interrupted before all inputs are parsed.
+	 *                              The parses that are still running are cancelled.
+	 */
+	public void run(Consumer<? super RunResult> consumer) throws InterruptedException {
 
 		final GrammarGraph grammarGraph = GrammarGraph.from(grammar, Input.empty(), config);
-		
-		List<RunResult> results = new ArrayList<>();
+
+		if (threads <= 1) {
+			Iterator<Input> it = inputs.iterator();
+			while (it.hasNext()) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				run(grammarGraph, it.next()).forEach(consumer);
+			}
+		} else {
+			runConcurrently(grammarGraph, consumer);
+		}
+	}
+
+	private void runConcurrently(GrammarGraph grammarGraph, Consumer<? super RunResult> consumer) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads, daemonThreads());
+		CompletionService<List<RunResult>> completionService = new ExecutorCompletionService<>(executor);
 
 		Iterator<Input> it = inputs.iterator();
-		
-		while (it.hasNext()) {
-			
-			Input input = it.next();
-
-            logger.log(input.getURI());
-
-			logger.log("Warming up: ");
-			for (int i = 0; i < warmupCount; i++) {
-				try {
-                    ParseResult result = run(grammarGraph, input, start);
-                    if (result.isParseError()) {
-						logger.log(result.asParseError());
-					} else {
-                        if (buildTrees) {
-                            result.asParseSuccess().getTerm();
-                        }
-                    }
-					logger.log((i + 1) + " ");
-				} catch (Exception e) {
-					continue;
+		int running = 0;
+
+		try {
+			while (true) {
+				// Only a few inputs per thread are taken from the stream ahead of time, so that
+				// the inputs of large batches are not all in memory at once.
+				while (running < 2 * threads && it.hasNext()) {
+					Input input = it.next();
+					completionService.submit(() -> run(grammarGraph, input));
+					running++;
 				}
+
+				if (running == 0) break;
+
+				List<RunResult> results = completionService.take().get();
+				running--;
+				results.forEach(consumer);
 			}
-            logger.log("\n");
-            logger.log("Running: ");
-			for (int i = 0; i < runCount; i++) {			
-				try {
-					ParseResult result = run(grammarGraph, input, start);
-					if (result.isParseSuccess()) {
-						results.add(new SuccessResult(input.length(), input.getURI(), result.asParseSuccess().getStatistics()));
-                        logger.log("  : Success");
-                        if (buildTrees) {
-                            result.asParseSuccess().getTerm();
-//                            TreeVisualization.generate(result.asParseSuccess().getTree(), "/Users/afroozeh/output", "tree", input);
-                        }
-					} else {
-						results.add(new FailureResult(input.getURI(), result.asParseError().toString()));
-                        logger.log("  : Error");
-					}
-
-                    logger.log((i + 1) + " ");
-				} catch (Exception e) {
-					e.printStackTrace();
-					results.add(new FailureResult(input.getURI(), "Time out"));
-                    logger.log("Time out");
-					continue;
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<RunResult> run(GrammarGraph grammarGraph, Input input) {
+		try {
+			return runInput(grammarGraph, input);
+		} finally {
+			if (input instanceof Closeable)
+				close((Closeable) input);
+		}
+	}
+
+	private List<RunResult> runInput(GrammarGraph grammarGraph, Input input) {
+
+		List<RunResult> results = new ArrayList<>();
+
+		logger.log(input.getURI());
+
+		logger.log("Warming up: ");
+		for (int i = 0; i < warmupCount; i++) {
+			try {
+				ParseResult result = run(grammarGraph, input, start);
+				if (result.isParseSuccess()) {
+					visitTree(result.asParseSuccess());
+				} else if (result.isParseAborted()) {
+					logger.log(result.asParseAborted());
+				} else {
+					logger.log(result.asParseError());
 				}
+				logger.log((i + 1) + " ");
+			} catch (Exception e) {
+				continue;
 			}
-            logger.log("\n");
 		}
-		
+		logger.log("\n");
+		logger.log("Running: ");
+		for (int i = 0; i < runCount; i++) {
+			try {
+				ParseResult result = run(grammarGraph, input, start);
+				if (result.isParseSuccess()) {
+					results.add(new SuccessResult(input.length(), input.getURI(), result.asParseSuccess().getStatistics()));
+					logger.log("  : Success");
+					visitTree(result.asParseSuccess());
+				} else if (result.isParseAborted()) {
+					results.add(new FailureResult(input.getURI(), result.asParseAborted().toString()));
+					logger.log("  : Aborted");
+				} else {
+					results.add(new FailureResult(input.getURI(), result.asParseError().toString()));
+					logger.log("  : Error");
+				}
+
+				logger.log((i + 1) + " ");
+			} catch (Exception e) {
+				results.add(new FailureResult(input.getURI(), e.toString()));
+				logger.log("  : Failed with %s", e);
+				continue;
+			}
+		}
+		logger.log("\n");
+
 		return results;
-            
 	}
-	
-	private ParseResult run(GrammarGraph grammarGraph, Input input, Nonterminal start) throws Exception {
-		ParseResult result = Iguana.parse(input, grammarGraph, start);
+
+	/**
+	 * Converts the SPPF to a term if buildTrees is set, with the term builder if there is one. Otherwise,
+	 * if walkTrees is set, walks the parse tree without creating it. An ambiguous parse tree cannot be
+	 * walked, and is converted to a term instead.
+	 */
+	private void visitTree(ParseSuccess success) {
+		if (buildTrees || walkTrees && success.isAmbiguous()) {
+			if (termBuilder != null)
+				success.getTerm(termBuilder);
+			else
+				success.getTerm();
+		} else if (walkTrees) {
+			success.walk(NO_OP_VISITOR);
+		}
+	}
+
+	private static final ParseTreeVisitor NO_OP_VISITOR = new ParseTreeVisitor() {};
+
+	/**
+	 * Parses the input with the timeout in the parse options, so a parse that takes longer
+	 * returns a ParseAborted result.
+	 */
+	private ParseResult run(GrammarGraph grammarGraph, Input input, Nonterminal start) {
+		ParseResult result = Iguana.parse(input, grammarGraph, start, parseOptions);
+
 		if (runGCInBetween)
 			GcFinalization.awaitFullGc();
-		
+
 		return result;
-		
-//		ExecutorService executor = Executors.newSingleThreadExecutor();
-//        Future<ParseResult> future = executor.submit(() -> {
-//			return parser.parse(input, grammarGraph, start);
-//        });
-//        
-//        ParseResult result;
-//        if (timeout > 0)
-//        	result = future.get(timeout, TimeUnit.SECONDS);
-//        else 
-//        	result = future.get();
-//        
-//        executor.shutdownNow();
-//
-//		if (runGCInBetween)
-//			GcFinalization.awaitFullGc();
-//		
-//		return result;
+	}
+
+	private static void close(Closeable closeable) {
+		try {
+			closeable.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 
+	private static ThreadFactory daemonThreads() {
+		return r -> {
+			Thread thread = new Thread(r);
+			thread.setDaemon(true);
+			return thread;
+		};
 	}
-	
+
 	public static Builder builder(Grammar grammar, Nonterminal start) {
 		return new Builder(grammar, start);
 	}
@@ -188,12 +294,16 @@ public class IguanaRunner {
 		private int warmupCount = 0;
 		private int runCount = 1;
 		private boolean runGCInBetween = false;
-		private int timeout = 30;
+		private int timeout = 0;
+		private int threads = 1;
 		private int limit = Integer.MAX_VALUE;
         private boolean buildTrees;
+        private boolean walkTrees;
         private TermBuilder<?> termBuilder;
         private boolean log;
         private LogLevel logLevel= LogLevel.INFO;
+        private boolean memoryMapped;
+        private boolean profiling;
 
 		private Set<String> ignoreSet = new HashSet<>();
 		
@@ -203,12 +313,23 @@ public class IguanaRunner {
 		}
 		
 		public Builder addDirectory(String dir, String ext, boolean recursive) {
-			inputs = concat(inputs, find(dir, ext, recursive, ignoreSet).stream().map(Input::fromFile));
+			boolean memoryMapped = this.memoryMapped;
+			inputs = concat(inputs, find(dir, ext, recursive, ignoreSet).stream().map(f -> readFile(f, memoryMapped)));
 			return this;
 		}
 		
 		public Builder addFile(String f) {
-			inputs = concat(inputs, Stream.of(Input.fromFile(new File(f))));
+			boolean memoryMapped = this.memoryMapped;
+			inputs = concat(inputs, Stream.of(new File(f)).map(file -> readFile(file, memoryMapped)));
+			return this;
+		}
+
+		/**
+		 * If set, the files added after this call are memory-mapped and decoded as UTF-8 while
+		 * they are parsed, instead of being read into strings.
+		 */
+		public Builder setMemoryMapped(boolean memoryMapped) {
+			this.memoryMapped = memoryMapped;
 			return this;
 		}
 		
@@ -242,31 +363,73 @@ public class IguanaRunner {
 			return this;
 		}
 		
+		/**
+		 * If set, a full garbage collection is awaited after every parse. Ignored when the inputs
+		 * are parsed by more than one thread.
+		 */
 		public Builder setRunGCInBetween(boolean runGCInBetween) {
 			this.runGCInBetween = runGCInBetween;
 			return this;
 		}
 				
+		/**
+		 * Sets the timeout of a parse in seconds, or 0 for no timeout, which is the default.
+		 */
 		public Builder setTimeout(int timeout) {
+			if (timeout < 0)
+				throw new IllegalArgumentException("Timeout cannot be negative: " + timeout);
 			this.timeout = timeout;
 			return this;
 		}
 		
+		/**
+		 * Sets the number of threads that parse the inputs concurrently, one by default.
+		 */
+		public Builder setThreads(int threads) {
+			if (threads < 1)
+				throw new IllegalArgumentException("Threads should be at least one: " + threads);
+			this.threads = threads;
+			return this;
+		}
+		
 		public Builder setLimit(int limit) {
 			this.limit = limit;
 			return this;
 		}
 
+        /**
+         * If set, the SPPFs of the successful parses are converted to terms, with the term builder
+         * if one is set.
+         */
         public Builder setBuildTrees(boolean buildTrees) {
             this.buildTrees = buildTrees;
             return this;
         }
 
+        /**
+         * If set, and buildTrees is not, the parse trees of the successful parses are walked without
+         * being created, see {@link ParseSuccess#walk(ParseTreeVisitor)}. Ambiguous parse trees are
+         * converted to terms instead.
+         */
+        public Builder setWalkTrees(boolean walkTrees) {
+            this.walkTrees = walkTrees;
+            return this;
+        }
+
         public Builder setTermBuilder(TermBuilder<?> termBuilder) {
             this.termBuilder = termBuilder;
             return this;
         }
 
+        /**
+         * If set, the inputs are parsed with profiling enabled, and the statistics of the successful
+         * results carry the profiles of their parses, see {@link RunResultUtil#profile(Iterable)}.
+         */
+        public Builder setProfiling(boolean profiling) {
+            this.profiling = profiling;
+            return this;
+        }
+
         public Builder log() {
             this.log = true;
             return this;
@@ -279,9 +442,21 @@ public class IguanaRunner {
 
         public IguanaRunner build() {
 			inputs = inputs.limit(limit);
+			if (profiling)
+				config = Configuration.builder(config).setProfilingEnabled(true).build();
 			return new IguanaRunner(this);
 		}
 		
+		private static Input readFile(File file, boolean memoryMapped) {
+			if (!memoryMapped)
+				return Input.fromFile(file);
+			try {
+				return new Utf8MappedFileInput(file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
 		public static List<File> find(String dir, String ext, boolean recursive, Set<String> ignoreSet) {
 			List<File> inputs = new ArrayList<>();
 			Collection<?> files = FileUtils.listFiles(new File(dir), new String[] {ext}, recursive);
@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this
+ *    list of conditions and the following disclaimer in the documentation and/or
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.util;
+
+import static iguana.utils.string.StringUtil.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The work done in one or more parses, per grammar slot: the descriptors, GSS nodes and
+ * edges, pops, packed nodes and ambiguities, and the time spent matching terminals, as
+ * collected by {@link org.iguana.parser.ProfilingParserRuntime}. The rejections of the
+ * conditions are counted per condition.
+ *
+ * Slots are identified by their kind and name, so the profiles of parses with different
+ * grammar graphs of the same grammar can be merged, for example over a whole corpus.
+ *
+ */
+public class ParseProfile {
+
+	public enum SlotKind {
+		NONTERMINAL,
+		BODY,
+		TERMINAL
+	}
+
+	private final Map<String, SlotProfile> slots = new LinkedHashMap<>();
+
+	private final Map<String, Long> conditionRejections = new LinkedHashMap<>();
+
+	/**
+	 * Returns the profile of the given slot, creating it if the slot has not been profiled yet.
+	 *
+	 * @param nonterminal the name of the nonterminal the slot belongs to, or null for terminal slots
+	 */
+	public SlotProfile getSlotProfile(SlotKind kind, String name, String nonterminal) {
+		return slots.computeIfAbsent(kind + ":" + name, k -> new SlotProfile(kind, name, nonterminal));
+	}
+
+	public Collection<SlotProfile> getSlotProfiles() {
+		return Collections.unmodifiableCollection(slots.values());
+	}
+
+	public void addConditionRejections(String condition, long count) {
+		conditionRejections.merge(condition, count, Long::sum);
+	}
+
+	/**
+	 * The number of times each condition rejected a parse, keyed by the condition.
+	 */
+	public Map<String, Long> getConditionRejections() {
+		return Collections.unmodifiableMap(conditionRejections);
+	}
+
+	/**
+	 * Adds the counts of the given profile to the counts of this profile.
+	 */
+	public void merge(ParseProfile other) {
+		for (SlotProfile s : other.slots.values())
+			getSlotProfile(s.kind, s.name, s.nonterminal).add(s);
+		other.conditionRejections.forEach(this::addConditionRejections);
+	}
+
+	/**
+	 * The counts of the nonterminal and body slots summed per nonterminal, with the
+	 * nonterminals that did the most work first.
+	 */
+	public List<SlotProfile> getNonterminalHotSpots() {
+		Map<String, SlotProfile> totals = new LinkedHashMap<>();
+		for (SlotProfile s : slots.values()) {
+			if (s.kind == SlotKind.TERMINAL) continue;
+			totals.computeIfAbsent(s.nonterminal, n -> new SlotProfile(SlotKind.NONTERMINAL, n, n)).add(s);
+		}
+		List<SlotProfile> list = new ArrayList<>(totals.values());
+		list.sort(BY_WORK);
+		return list;
+	}
+
+	/**
+	 * The nonterminal and body slots, with the slots that did the most work first.
+	 */
+	public List<SlotProfile> getSlotHotSpots() {
+		List<SlotProfile> list = new ArrayList<>();
+		for (SlotProfile s : slots.values()) {
+			if (s.kind != SlotKind.TERMINAL)
+				list.add(s);
+		}
+		list.sort(BY_WORK);
+		return list;
+	}
+
+	/**
+	 * The terminal slots, with the terminals that took the longest to match first.
+	 */
+	public List<SlotProfile> getTerminalHotSpots() {
+		List<SlotProfile> list = new ArrayList<>();
+		for (SlotProfile s : slots.values()) {
+			if (s.kind == SlotKind.TERMINAL)
+				list.add(s);
+		}
+		list.sort(Comparator.comparingLong(SlotProfile::getTerminalMatchNanos).reversed());
+		return list;
+	}
+
+	private static final Comparator<SlotProfile> BY_WORK = Comparator.comparingLong(SlotProfile::getWork).reversed();
+
+	/**
+	 * Returns the hot spots of this profile as a table per nonterminal, per slot, per terminal
+	 * and per condition, each limited to the given number of rows.
+	 */
+	public String toReport(int limit) {
+		StringBuilder sb = new StringBuilder();
+
+		String format = "%-60s %-12s %-12s %-12s %-12s %-12s %-12s %-12s";
+		String header = String.format(format, "", "descriptors", "gss_nodes", "gss_edges", "pops", "packed_nodes", "ambiguities", "rejections");
+
+		sb.append("Nonterminals").append(NewLine).append(header).append(NewLine);
+		for (SlotProfile s : limit(getNonterminalHotSpots(), limit))
+			sb.append(String.format(format, s.name, s.descriptors, s.gssNodes, s.gssEdges, s.pops, s.packedNodes, s.ambiguities, s.conditionRejections)).append(NewLine);
+
+		sb.append(NewLine).append("Slots").append(NewLine).append(header).append(NewLine);
+		for (SlotProfile s : limit(getSlotHotSpots(), limit))
+			sb.append(String.format(format, s.name, s.descriptors, s.gssNodes, s.gssEdges, s.pops, s.packedNodes, s.ambiguities, s.conditionRejections)).append(NewLine);
+
+		sb.append(NewLine).append("Terminals").append(NewLine).append(String.format("%-60s %-12s %-12s", "", "matches", "time_ms")).append(NewLine);
+		for (SlotProfile s : limit(getTerminalHotSpots(), limit))
+			sb.append(String.format("%-60s %-12d %-12d", s.name, s.terminalMatches, TimeUnit.NANOSECONDS.toMillis(s.terminalMatchNanos))).append(NewLine);
+
+		sb.append(NewLine).append("Conditions").append(NewLine).append(String.format("%-60s %-12s", "", "rejections")).append(NewLine);
+		List<Entry<String, Long>> conditions = new ArrayList<>(conditionRejections.entrySet());
+		conditions.sort(Entry.<String, Long>comparingByValue().reversed());
+		for (Entry<String, Long> e : limit(conditions, limit))
+			sb.append(String.format("%-60s %-12d", e.getKey(), e.getValue())).append(NewLine);
+
+		return sb.toString();
+	}
+
+	private static <T> List<T> limit(List<T> list, int limit) {
+		return list.size() <= limit ? list : list.subList(0, limit);
+	}
+
+	/**
+	 * Returns this profile as a JSON object with a "slots" array, in the order the slots were
+	 * first profiled, and a "conditions" object mapping the conditions to their rejections.
+	 */
+	public String toJSON() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{").append(NewLine);
+		sb.append("  \"slots\": [");
+		boolean first = true;
+		for (SlotProfile s : slots.values()) {
+			sb.append(first ? NewLine : "," + NewLine);
+			first = false;
+			sb.append("    {")
+			  .append("\"kind\": \"").append(s.kind).append("\", ")
+			  .append("\"name\": ").append(quote(s.name)).append(", ")
+			  .append("\"nonterminal\": ").append(s.nonterminal == null ? "null" : quote(s.nonterminal)).append(", ")
+			  .append("\"descriptors\": ").append(s.descriptors).append(", ")
+			  .append("\"gssNodes\": ").append(s.gssNodes).append(", ")
+			  .append("\"gssEdges\": ").append(s.gssEdges).append(", ")
+			  .append("\"pops\": ").append(s.pops).append(", ")
+			  .append("\"packedNodes\": ").append(s.packedNodes).append(", ")
+			  .append("\"ambiguities\": ").append(s.ambiguities).append(", ")
+			  .append("\"conditionRejections\": ").append(s.conditionRejections).append(", ")
+			  .append("\"terminalMatches\": ").append(s.terminalMatches).append(", ")
+			  .append("\"terminalMatchNanos\": ").append(s.terminalMatchNanos)
+			  .append("}");
+		}
+		sb.append(first ? "" : NewLine + "  ").append("],").append(NewLine);
+		sb.append("  \"conditions\": {");
+		first = true;
+		for (Entry<String, Long> e : conditionRejections.entrySet()) {
+			sb.append(first ? NewLine : "," + NewLine);
+			first = false;
+			sb.append("    ").append(quote(e.getKey())).append(": ").append(e.getValue());
+		}
+		sb.append(first ? "" : NewLine + "  ").append("}").append(NewLine);
+		sb.append("}").append(NewLine);
+		return sb.toString();
+	}
+
+	private static String quote(String s) {
+		StringBuilder sb = new StringBuilder("\"");
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '"': sb.append("\\\""); break;
+				case '\\': sb.append("\\\\"); break;
+				case '\n': sb.append("\\n"); break;
+				case '\r': sb.append("\\r"); break;
+				case '\t': sb.append("\\t"); break;
+				default:
+					if (c < 0x20)
+						sb.append(String.format("\\u%04x", (int) c));
+					else
+						sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+
+	@Override
+	public String toString() {
+		return toReport(20);
+	}
+
+	/**
+	 * The counts of a single grammar slot. Descriptors, GSS edges, packed nodes and ambiguities
+	 * are counted at body slots, GSS nodes, pops and condition rejections at nonterminal slots,
+	 * and terminal matches at terminal slots.
+	 */
+	public static class SlotProfile {
+
+		private final SlotKind kind;
+		private final String name;
+		private final String nonterminal;
+
+		long descriptors;
+		long gssNodes;
+		long gssEdges;
+		long pops;
+		long packedNodes;
+		long ambiguities;
+		long conditionRejections;
+		long terminalMatches;
+		long terminalMatchNanos;
+
+		SlotProfile(SlotKind kind, String name, String nonterminal) {
+			this.kind = kind;
+			this.name = name;
+			this.nonterminal = nonterminal;
+		}
+
+		void add(SlotProfile other) {
+			descriptors += other.descriptors;
+			gssNodes += other.gssNodes;
+			gssEdges += other.gssEdges;
+			pops += other.pops;
+			packedNodes += other.packedNodes;
+			ambiguities += other.ambiguities;
+			conditionRejections += other.conditionRejections;
+			terminalMatches += other.terminalMatches;
+			terminalMatchNanos += other.terminalMatchNanos;
+		}
+
+		public SlotKind getKind() {
+			return kind;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getNonterminal() {
+			return nonterminal;
+		}
+
+		public long getDescriptors() {
+			return descriptors;
+		}
+
+		public long getGSSNodes() {
+			return gssNodes;
+		}
+
+		public long getGSSEdges() {
+			return gssEdges;
+		}
+
+		public long getPops() {
+			return pops;
+		}
+
+		public long getPackedNodes() {
+			return packedNodes;
+		}
+
+		public long getAmbiguities() {
+			return ambiguities;
+		}
+
+		public long getConditionRejections() {
+			return conditionRejections;
+		}
+
+		public long getTerminalMatches() {
+			return terminalMatches;
+		}
+
+		public long getTerminalMatchNanos() {
+			return terminalMatchNanos;
+		}
+
+		/**
+		 * The number of descriptors, GSS nodes and edges, pops and packed nodes, by which the hot
+		 * spots are sorted.
+		 */
+		public long getWork() {
+			return descriptors + gssNodes + gssEdges + pops + packedNodes;
+		}
+
+		public SlotProfile addDescriptors(long count) {
+			descriptors += count;
+			return this;
+		}
+
+		public SlotProfile addGSSNodes(long count) {
+			gssNodes += count;
+			return this;
+		}
+
+		public SlotProfile addGSSEdges(long count) {
+			gssEdges += count;
+			return this;
+		}
+
+		public SlotProfile addPops(long count) {
+			pops += count;
+			return this;
+		}
+
+		public SlotProfile addPackedNodes(long count) {
+			packedNodes += count;
+			return this;
+		}
+
+		public SlotProfile addAmbiguities(long count) {
+			ambiguities += count;
+			return this;
+		}
+
+		public SlotProfile addConditionRejections(long count) {
+			conditionRejections += count;
+			return this;
+		}
+
+		public SlotProfile addTerminalMatches(long count, long nanos) {
+			terminalMatches += count;
+			terminalMatchNanos += nanos;
+			return this;
+		}
+
+		@Override
+		public String toString() {
+			return kind + " " + name;
+		}
+	}
+
+}
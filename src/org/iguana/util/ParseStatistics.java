@@ -45,6 +45,13 @@ public class ParseStatistics {
 	int intermediateNodesCount = -1;
 	int packedNodesCount = -1;
 	int ambiguousNodesCount = -1;
+
+	int lookaheadPrunedCount;
+
+	long matchCacheLookups;
+	long matchCacheHits;
+
+	ParseProfile profile;
 	
     public ParseStatistics(long nanoTime, long systemTime, long userTime, int memoryUsed,
             int descriptorsCount, int gssNodesCount, int gssEdgesCount, 
@@ -79,6 +86,10 @@ public class ParseStatistics {
 		this.intermediateNodesCount = builder.intermediateNodesCount;
 		this.packedNodesCount = builder.packedNodesCount;
 		this.ambiguousNodesCount = builder.ambiguousNodesCount;
+		this.lookaheadPrunedCount = builder.lookaheadPrunedCount;
+		this.matchCacheLookups = builder.matchCacheLookups;
+		this.matchCacheHits = builder.matchCacheHits;
+		this.profile = builder.profile;
 	}
 
 	public long getNanoTime() {
@@ -128,6 +139,40 @@ public class ParseStatistics {
 	public int getCountAmbiguousNodes() {
 		return ambiguousNodesCount;
 	}
+
+	/**
+	 * The number of descriptors that a lookahead of more than one character did not create, but
+	 * a lookahead of one character would have. It is 0 with a lookahead of one character.
+	 */
+	public int getLookaheadPrunedCount() {
+		return lookaheadPrunedCount;
+	}
+
+	/**
+	 * The number of times a terminal or a regular expression condition was matched through
+	 * the match cache of the parse.
+	 */
+	public long getMatchCacheLookups() {
+		return matchCacheLookups;
+	}
+
+	public long getMatchCacheHits() {
+		return matchCacheHits;
+	}
+
+	/**
+	 * The fraction of the match cache lookups that did not have to run the matcher, or 0 if there were none.
+	 */
+	public double getMatchCacheHitRate() {
+		return matchCacheLookups == 0 ? 0 : (double) matchCacheHits / matchCacheLookups;
+	}
+
+	/**
+	 * The work done per grammar slot, or null if profiling is not enabled in the configuration.
+	 */
+	public ParseProfile getProfile() {
+		return profile;
+	}
 	
 	public static Builder builder() {
 		return new Builder();
@@ -174,7 +219,9 @@ public class ParseStatistics {
 				"Terminal nodes: " + terminalNodesCount + "\n" +
 				"Intermediate nodes: " + intermediateNodesCount + "\n" +
 				"Packed nodes: " + packedNodesCount + "\n" +
-				"Ambiguities: " + ambiguousNodesCount + "\n";
+				"Ambiguities: " + ambiguousNodesCount + "\n" +
+				"Descriptors saved by lookahead: " + lookaheadPrunedCount + "\n" +
+				"Match cache hit rate: " + String.format("%.1f", getMatchCacheHitRate() * 100) + "% (" + matchCacheHits + " of " + matchCacheLookups + " lookups)\n";
 	}
 	
 	public static class Builder {
@@ -191,6 +238,13 @@ public class ParseStatistics {
 		int intermediateNodesCount;
 		int packedNodesCount;
 		int ambiguousNodesCount;
+
+		int lookaheadPrunedCount;
+
+		long matchCacheLookups;
+		long matchCacheHits;
+
+		ParseProfile profile;
 		
 		public Builder setNanoTime(long nanoTime) {
 			this.nanoTime = nanoTime;
@@ -251,6 +305,26 @@ public class ParseStatistics {
 			this.ambiguousNodesCount = ambiguousNodesCount;
 			return this;
 		}
+
+		public Builder setLookaheadPrunedCount(int lookaheadPrunedCount) {
+			this.lookaheadPrunedCount = lookaheadPrunedCount;
+			return this;
+		}
+
+		public Builder setMatchCacheLookups(long matchCacheLookups) {
+			this.matchCacheLookups = matchCacheLookups;
+			return this;
+		}
+
+		public Builder setMatchCacheHits(long matchCacheHits) {
+			this.matchCacheHits = matchCacheHits;
+			return this;
+		}
+
+		public Builder setProfile(ParseProfile profile) {
+			this.profile = profile;
+			return this;
+		}
 		
 		public ParseStatistics build() {
 			return new ParseStatistics(this);
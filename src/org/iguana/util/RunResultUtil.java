@@ -61,6 +61,19 @@ public class RunResultUtil {
 		                    .collect(Collectors.groupingBy(s -> s.getInput(), LinkedHashMap::new, new AverageResults()));
 	}
 	
+	/**
+	 * Merges the profiles of the successful results, which have profiles if profiling is enabled
+	 * in the configuration of the parses, into the profile of the whole set of inputs.
+	 */
+	public static ParseProfile profile(Iterable<RunResult> results) {
+		ParseProfile profile = new ParseProfile();
+		for (RunResult r : results) {
+			if (r.isSuccess() && r.asSuccess().statistics.getProfile() != null)
+				profile.merge(r.asSuccess().statistics.getProfile());
+		}
+		return profile;
+	}
+	
 	public static String summary(Map<URI, SuccessResult> results) {
 		int inputSum = results.values().stream().mapToInt(r -> r.inputSize).sum();
 		long systemTimeSum = results.values().stream().mapToLong(r -> r.statistics.userTime).sum();
@@ -92,6 +105,10 @@ public class RunResultUtil {
 				r.statistics.intermediateNodesCount = assertEquals(r.statistics.intermediateNodesCount, s.statistics.intermediateNodesCount);
 				r.statistics.packedNodesCount       = assertEquals(r.statistics.packedNodesCount, s.statistics.packedNodesCount);
 				r.statistics.ambiguousNodesCount    = assertEquals(r.statistics.ambiguousNodesCount, s.statistics.ambiguousNodesCount);
+				
+				// The counts of the profiles are the same across runs, only their terminal matching times differ
+				if (r.statistics.profile == null)
+					r.statistics.profile = s.statistics.profile;
 			};
 		}
 		
@@ -115,7 +132,8 @@ public class RunResultUtil {
 
 		@Override
 		public Function<SuccessResult, SuccessResult> finisher() {
-			return r -> new SuccessResult(r.runCount, r.inputSize, r.inputURI, new ParseStatistics(
+			return r -> {
+				ParseStatistics statistics = new ParseStatistics(
 					                  r.statistics.nanoTime / r.runCount,
 					                  r.statistics.systemTime / r.runCount,
 								      r.statistics.userTime / r.runCount,
@@ -127,7 +145,13 @@ public class RunResultUtil {
 								      r.statistics.terminalNodesCount,
 								      r.statistics.intermediateNodesCount,
 								      r.statistics.packedNodesCount,
-					                  r.statistics.ambiguousNodesCount));
+					                  r.statistics.ambiguousNodesCount);
+				statistics.lookaheadPrunedCount = r.statistics.lookaheadPrunedCount;
+				statistics.matchCacheLookups = r.statistics.matchCacheLookups;
+				statistics.matchCacheHits = r.statistics.matchCacheHits;
+				statistics.profile = r.statistics.profile;
+				return new SuccessResult(r.runCount, r.inputSize, r.inputURI, statistics);
+			};
 		}
 
 		@Override
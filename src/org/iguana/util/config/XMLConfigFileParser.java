@@ -59,6 +59,30 @@ public class XMLConfigFileParser implements ConfigFileParser {
                 case "EnvironmentImpl":
                     builder.setEnvironmentImpl(Configuration.EnvironmentImpl.valueOf(node.getTextContent().toUpperCase()));
                     break;
+
+                case "WorklistImpl":
+                    builder.setWorklistImpl(Configuration.WorklistImpl.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
+                case "GSSImpl":
+                    builder.setGSSImpl(Configuration.GSSImpl.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
+                case "MemoryMode":
+                    builder.setMemoryMode(Configuration.MemoryMode.valueOf(node.getTextContent().toUpperCase()));
+                    break;
+
+                case "Parallelism":
+                    builder.setParallelism(Integer.parseInt(node.getTextContent().trim()));
+                    break;
+
+                case "TokenLattice":
+                    builder.setTokenLatticeEnabled(Boolean.parseBoolean(node.getTextContent().trim()));
+                    break;
+
+                case "TabWidth":
+                    builder.setTabWidth(Integer.parseInt(node.getTextContent().trim()));
+                    break;
             }
         }
     }
@@ -73,6 +97,14 @@ public class XMLConfigFileParser implements ConfigFileParser {
                 case "LogLevel":
                     builder.setLogLevel(LogLevel.valueOf(node.getTextContent().toUpperCase()));
                     break;
+
+                case "Statistics":
+                    builder.setStatisticsEnabled(Boolean.parseBoolean(node.getTextContent().trim()));
+                    break;
+
+                case "Profiling":
+                    builder.setProfilingEnabled(Boolean.parseBoolean(node.getTextContent().trim()));
+                    break;
             }
         }
     }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.util.input;
+
+import java.util.Arrays;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * The line starts of an input, computed in one pass over the input the first time a line or column
+ * is asked for. A line is then found by a binary search over the line starts, and a column is the
+ * distance from the start of its line, which matters for the indentation constraints of offside
+ * grammars, evaluated at nearly every position.
+ * 
+ * A tab moves the column to the next tab stop, where tab stops are tabWidth columns apart. With a
+ * tab width of 1, the default, a tab counts as one column, as in {@link Input#getColumnNumber(int)}.
+ * With a larger tab width, the column is computed by going over the line up to the position.
+ * Only '\n' starts a new line.
+ * 
+ * The evaluator context of a sequential parse creates its index on the first use of a line or
+ * column. A parallel parse creates one index up front, shared by the evaluator contexts of its
+ * workers, which may use it from different threads.
+ *
+ */
+public class LineColumnIndex {
+	
+	private final Input input;
+	
+	private final int tabWidth;
+	
+	/**
+	 * The positions at which the lines start, in order, followed by unused entries.
+	 */
+	private volatile int[] lineStarts;
+	
+	private int linesCount;
+	
+	public LineColumnIndex(Input input) {
+		this(input, 1);
+	}
+	
+	public LineColumnIndex(Input input, int tabWidth) {
+		if (tabWidth < 1)
+			throw new IllegalArgumentException("Tab width should be at least one: " + tabWidth);
+		this.input = input;
+		this.tabWidth = tabWidth;
+	}
+	
+	public int getTabWidth() {
+		return tabWidth;
+	}
+	
+	public int getColumnNumber(int i) {
+		if (i < 0 || i >= input.length())
+			throw new IndexOutOfBoundsException("Position " + i + " is outside the input of length " + input.length());
+		
+		int start = getLineStarts()[lineIndex(i)];
+		if (tabWidth == 1)
+			return i - start + 1;
+		
+		int column = 1;
+		for (int j = start; j < i; j++) {
+			if (input.charAt(j) == '\t')
+				column = ((column - 1) / tabWidth + 1) * tabWidth + 1;
+			else
+				column++;
+		}
+		return column;
+	}
+	
+	public int getLineNumber(int i) {
+		return lineIndex(i) + 1;
+	}
+	
+	public boolean isStartOfLine(int i) {
+		return Arrays.binarySearch(getLineStarts(), 0, linesCount, i) >= 0;
+	}
+	
+	/**
+	 * The zero-based index of the line of the given position.
+	 */
+	private int lineIndex(int i) {
+		int line = Arrays.binarySearch(getLineStarts(), 0, linesCount, i);
+		return line >= 0 ? line : -line - 2;
+	}
+	
+	private int[] getLineStarts() {
+		int[] lineStarts = this.lineStarts;
+		if (lineStarts == null)
+			lineStarts = index();
+		return lineStarts;
+	}
+	
+	private synchronized int[] index() {
+		if (lineStarts != null)
+			return lineStarts;
+		
+		int length = input.length();
+		int[] lineStarts = new int[16];
+		int linesCount = 1;
+		
+		for (int i = 0; i < length; i++) {
+			if (input.charAt(i) == '\n') {
+				if (linesCount == lineStarts.length)
+					lineStarts = Arrays.copyOf(lineStarts, linesCount << 1);
+				lineStarts[linesCount++] = i + 1;
+			}
+		}
+		
+		this.linesCount = linesCount;
+		this.lineStarts = lineStarts;
+		return lineStarts;
+	}
+
+}
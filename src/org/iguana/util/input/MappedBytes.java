@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.util.input;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 
+ * The bytes of a file, mapped read-only in chunks of CHUNK_SIZE bytes. The channel is closed
+ * after mapping, the mapped buffers stay valid until they are released and garbage collected.
+ *
+ */
+final class MappedBytes {
+
+	private static final int CHUNK_BITS = 28;
+
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	private final int size;
+
+	private MappedByteBuffer[] chunks;
+
+	MappedBytes(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if (fileSize >= Integer.MAX_VALUE)
+				throw new IllegalArgumentException(String.format("%s has %d bytes, at most %d are supported", path, fileSize, Integer.MAX_VALUE - 1));
+
+			size = (int) fileSize;
+			chunks = new MappedByteBuffer[(size + CHUNK_SIZE - 1) >>> CHUNK_BITS];
+			for (int i = 0; i < chunks.length; i++) {
+				long offset = (long) i << CHUNK_BITS;
+				chunks[i] = channel.map(MapMode.READ_ONLY, offset, Math.min(CHUNK_SIZE, fileSize - offset));
+			}
+		}
+	}
+
+	/**
+	 * Returns the unsigned value of the byte at the given offset.
+	 */
+	int get(int offset) {
+		return chunks[offset >>> CHUNK_BITS].get(offset & (CHUNK_SIZE - 1)) & 0xFF;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Drops the references to the mapped buffers, so the file is unmapped when they are
+	 * garbage collected. The bytes cannot be read anymore.
+	 */
+	void release() {
+		chunks = null;
+	}
+
+}
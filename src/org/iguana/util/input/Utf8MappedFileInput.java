@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.util.input;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import iguana.parsetrees.sppf.NonPackedNode;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * An input over a memory-mapped UTF-8 file. The positions of the input are code points, as in
+ * the inputs created from strings, but the file is neither copied to the heap nor decoded up front.
+ * 
+ * The first call that needs the length of the input scans the bytes once and records the byte
+ * offset of every CHECKPOINT_INTERVAL-th code point. A code point is then decoded from the nearest
+ * checkpoint, or from the last position read if it is closer, so the sequential reads of the
+ * matchers and lookahead tests decode every byte only once. Files that contain only ASCII skip
+ * the checkpoints and are read directly.
+ * 
+ * The start positions of the lines are recorded the first time a line or column number, or
+ * the start of a line, is asked for. Malformed byte sequences are read as U+FFFD, one per byte.
+ * 
+ * Closing the input releases the mapping; the input must not be read after it is closed.
+ *
+ */
+public class Utf8MappedFileInput implements Input, Closeable {
+
+	public static final int EOF = -1;
+
+	private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+	private static final int CHECKPOINT_BITS = 6;
+
+	private static final int CHECKPOINT_INTERVAL = 1 << CHECKPOINT_BITS;
+
+	private final URI uri;
+
+	private final MappedBytes bytes;
+
+	private volatile CodePointIndex codePointIndex;
+
+	private volatile int[] lineStarts;
+
+	/**
+	 * The last position read and its byte offset, packed in one long so that it can be
+	 * updated without allocation and read consistently from several threads.
+	 */
+	private volatile long cursor;
+
+	public Utf8MappedFileInput(File file) throws IOException {
+		this(file.toPath());
+	}
+
+	public Utf8MappedFileInput(Path path) throws IOException {
+		this.uri = path.toUri();
+		this.bytes = new MappedBytes(path);
+	}
+
+	@Override
+	public int charAt(int i) {
+		CodePointIndex index = getCodePointIndex();
+		if (i == index.length)
+			return EOF;
+		if (index.offsets == null)
+			return bytes.get(i);
+		return decode(offsetOf(index, i));
+	}
+
+	@Override
+	public int length() {
+		return getCodePointIndex().length + 1;
+	}
+
+	@Override
+	public String subString(int start, int end) {
+		CodePointIndex index = getCodePointIndex();
+		end = Math.min(end, index.length);
+		if (start >= end)
+			return "";
+
+		StringBuilder sb = new StringBuilder(end - start);
+		int offset = offsetOf(index, start);
+		for (int i = start; i < end; i++) {
+			sb.appendCodePoint(decode(offset));
+			offset += sequenceLength(offset);
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public int getLineNumber(int i) {
+		return lineOf(i) + 1;
+	}
+
+	@Override
+	public int getColumnNumber(int i) {
+		return i - getLineStarts()[lineOf(i)] + 1;
+	}
+
+	@Override
+	public boolean isStartOfLine(int i) {
+		return i == 0 || Arrays.binarySearch(getLineStarts(), i) >= 0;
+	}
+
+	@Override
+	public boolean isEndOfLine(int i) {
+		int c = charAt(i);
+		return c == EOF || c == '\n' || c == '\r';
+	}
+
+	@Override
+	public boolean isEndOfFile(int i) {
+		return i == getCodePointIndex().length;
+	}
+
+	@Override
+	public void close() {
+		bytes.release();
+	}
+
+	@Override
+	public URI getURI() {
+		return uri;
+	}
+
+	public String getNodeInfo(NonPackedNode node) {
+		return String.format("(%d:%d-%d:%d)", getLineNumber(node.getLeftExtent()), getColumnNumber(node.getLeftExtent()),
+				getLineNumber(node.getRightExtent()), getColumnNumber(node.getRightExtent()));
+	}
+
+	@Override
+	public String toString() {
+		return uri.toString();
+	}
+
+	private int offsetOf(CodePointIndex index, int i) {
+		if (index.offsets == null)
+			return i;
+
+		long c = cursor;
+		int position = (int) (c >>> 32);
+		int offset = (int) c;
+		if (position > i || i - position >= CHECKPOINT_INTERVAL) {
+			position = i & ~(CHECKPOINT_INTERVAL - 1);
+			offset = index.offsets[i >>> CHECKPOINT_BITS];
+		}
+
+		if (position == i)
+			return offset;
+
+		while (position < i) {
+			offset += sequenceLength(offset);
+			position++;
+		}
+		cursor = ((long) position << 32) | (offset & 0xFFFFFFFFL);
+		return offset;
+	}
+
+	private int lineOf(int i) {
+		int[] starts = getLineStarts();
+		int line = Arrays.binarySearch(starts, i);
+		return line >= 0 ? line : -line - 2;
+	}
+
+	/**
+	 * Returns the number of bytes of the UTF-8 sequence at the given offset, or 1 if the
+	 * sequence is malformed. Besides the lead and continuation bytes, the range of the second
+	 * byte is checked after E0, ED, F0 and F4, which rejects the overlong encodings, the
+	 * surrogates and the code points above U+10FFFF.
+	 */
+	private int sequenceLength(int offset) {
+		int b = bytes.get(offset);
+		int length;
+		if (b < 0x80)      return 1;
+		else if (b < 0xC2) return 1;
+		else if (b < 0xE0) length = 2;
+		else if (b < 0xF0) length = 3;
+		else if (b < 0xF5) length = 4;
+		else               return 1;
+
+		if (offset + length > bytes.size())
+			return 1;
+
+		int second = bytes.get(offset + 1);
+		if (b == 0xE0 && second < 0xA0 || b == 0xED && second > 0x9F ||
+			b == 0xF0 && second < 0x90 || b == 0xF4 && second > 0x8F)
+			return 1;
+
+		for (int j = 1; j < length; j++) {
+			if ((bytes.get(offset + j) & 0xC0) != 0x80)
+				return 1;
+		}
+		return length;
+	}
+
+	private int decode(int offset) {
+		int b = bytes.get(offset);
+		if (b < 0x80)
+			return b;
+
+		switch (sequenceLength(offset)) {
+			case 2:
+				return ((b & 0x1F) << 6) | (bytes.get(offset + 1) & 0x3F);
+			case 3:
+				return ((b & 0x0F) << 12) | ((bytes.get(offset + 1) & 0x3F) << 6) | (bytes.get(offset + 2) & 0x3F);
+			case 4:
+				return ((b & 0x07) << 18) | ((bytes.get(offset + 1) & 0x3F) << 12) | ((bytes.get(offset + 2) & 0x3F) << 6) | (bytes.get(offset + 3) & 0x3F);
+			default:
+				return REPLACEMENT_CHARACTER;
+		}
+	}
+
+	private CodePointIndex getCodePointIndex() {
+		CodePointIndex index = codePointIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = codePointIndex;
+				if (index == null) {
+					index = createCodePointIndex();
+					codePointIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	private CodePointIndex createCodePointIndex() {
+		int size = bytes.size();
+		int[] offsets = new int[16];
+		int length = 0;
+		int offset = 0;
+		boolean ascii = true;
+		while (offset < size) {
+			if ((length & (CHECKPOINT_INTERVAL - 1)) == 0) {
+				if ((length >>> CHECKPOINT_BITS) == offsets.length)
+					offsets = Arrays.copyOf(offsets, offsets.length << 1);
+				offsets[length >>> CHECKPOINT_BITS] = offset;
+			}
+			if (bytes.get(offset) >= 0x80)
+				ascii = false;
+			offset += sequenceLength(offset);
+			length++;
+		}
+
+		if (ascii)
+			return new CodePointIndex(length, null);
+		return new CodePointIndex(length, offsets);
+	}
+
+	private int[] getLineStarts() {
+		int[] starts = lineStarts;
+		if (starts == null) {
+			synchronized (this) {
+				starts = lineStarts;
+				if (starts == null) {
+					starts = createLineStarts();
+					lineStarts = starts;
+				}
+			}
+		}
+		return starts;
+	}
+
+	private int[] createLineStarts() {
+		int size = bytes.size();
+		int[] starts = new int[16];
+		int count = 1;
+		int position = 0;
+		int offset = 0;
+		while (offset < size) {
+			int b = bytes.get(offset);
+			offset += b < 0x80 ? 1 : sequenceLength(offset);
+			position++;
+			if (b == '\n') {
+				if (count == starts.length)
+					starts = Arrays.copyOf(starts, count << 1);
+				starts[count++] = position;
+			}
+		}
+		return Arrays.copyOf(starts, count);
+	}
+
+	private static class CodePointIndex {
+
+		final int length;
+
+		/**
+		 * The byte offset of every CHECKPOINT_INTERVAL-th code point, or null if every code point is a single byte.
+		 */
+		final int[] offsets;
+
+		CodePointIndex(int length, int[] offsets) {
+			this.length = length;
+			this.offsets = offsets;
+		}
+	}
+
+}
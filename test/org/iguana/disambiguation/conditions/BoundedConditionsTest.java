@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.disambiguation.conditions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.transformation.EBNFToBNF;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.MemoryMode;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= E | E L S
+ * 
+ * E ::= Id | Num
+ * 
+ * Id ::= [a-z] !<< [a-z]+ !>> [a-z]
+ * 
+ * Num ::= " " << [0-9]+ !>> [0-9]
+ * 
+ * L ::= " "
+ * 
+ * The precede conditions look at the input before the current position, which the bounded
+ * memory mode has already moved past when it discards the table entries of earlier positions.
+ * The parse should accept and reject the same inputs, and produce the same SPPF, as the parse
+ * that keeps the whole tables.
+ *
+ */
+public class BoundedConditionsTest {
+
+	private Nonterminal S = Nonterminal.withName("S");
+
+	private GrammarGraph full;
+
+	private GrammarGraph bounded;
+
+	@Before
+	public void init() {
+		Nonterminal E = Nonterminal.withName("E");
+		Nonterminal Id = Nonterminal.withName("Id");
+		Nonterminal Num = Nonterminal.withName("Num");
+		Nonterminal L = Nonterminal.withName("L");
+		CharacterRange az = CharacterRange.in('a', 'z');
+		CharacterRange digits = CharacterRange.in('0', '9');
+		Plus AZPlus = Plus.builder(Terminal.from(az)).addPreCondition(RegularExpressionCondition.notPrecede(az))
+		                                             .addPostCondition(RegularExpressionCondition.notFollow(az))
+		                                             .build();
+		Plus DigitsPlus = Plus.builder(Terminal.from(digits)).addPreCondition(RegularExpressionCondition.precede(Character.from(' ')))
+		                                                     .addPostCondition(RegularExpressionCondition.notFollow(digits))
+		                                                     .build();
+
+		Rule r1 = Rule.withHead(S).addSymbol(E).build();
+		Rule r2 = Rule.withHead(S).addSymbols(E, L, S).build();
+		Rule r3 = Rule.withHead(E).addSymbol(Id).build();
+		Rule r4 = Rule.withHead(E).addSymbol(Num).build();
+		Rule r5 = Rule.withHead(Id).addSymbol(AZPlus).build();
+		Rule r6 = Rule.withHead(Num).addSymbol(DigitsPlus).build();
+		Rule r7 = Rule.withHead(L).addSymbol(Terminal.from(Character.from(' '))).build();
+		Grammar grammar = new EBNFToBNF().transform(Grammar.builder().addRules(r1, r2, r3, r4, r5, r6, r7).build());
+
+		full = GrammarGraph.from(grammar, Configuration.DEFAULT);
+		bounded = GrammarGraph.from(grammar, Configuration.builder().setMemoryMode(MemoryMode.BOUNDED).build());
+	}
+
+	@Test
+	public void testIdentifiersAndNumbers() {
+		assertSameAsFull("abc 12 de 3 f");
+	}
+
+	@Test
+	public void testLongInput() {
+		StringBuilder sb = new StringBuilder("x");
+		for (int i = 0; i < 500; i++)
+			sb.append(i % 3 == 0 ? " 1234" : " abc");
+		assertSameAsFull(sb.toString());
+	}
+
+	@Test
+	public void testNumberAtTheStart() {
+		assertSameError("12 ab");
+	}
+
+	@Test
+	public void testNumberAfterIdentifier() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++)
+			sb.append("abc ");
+		sb.append("ab12");
+		assertSameError(sb.toString());
+	}
+
+	private void assertSameAsFull(String s) {
+		Input input = Input.fromString(s);
+		ParseResult result1 = Iguana.parse(input, full, S);
+		ParseResult result2 = Iguana.parse(input, bounded, S);
+		assertTrue(result1.isParseSuccess());
+		assertTrue(result2.isParseSuccess());
+		assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+	}
+
+	private void assertSameError(String s) {
+		Input input = Input.fromString(s);
+		ParseResult result = Iguana.parse(input, bounded, S);
+		assertTrue(result.isParseError());
+		assertEquals(Iguana.parse(input, full, S).asParseError().inputIndex(), result.asParseError().inputIndex());
+	}
+
+}
@@ -27,6 +27,7 @@
 
 package org.iguana.disambiguation.conditions;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import iguana.regex.Character;
@@ -42,6 +43,9 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Sequence;
 import org.iguana.util.Configuration;
+import org.iguana.util.ParseProfile;
+import org.iguana.util.ParseProfile.SlotKind;
+import org.iguana.util.ParseProfile.SlotProfile;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -85,6 +89,32 @@ public class FollowRestrictionTest {
 		assertTrue(result.isParseError());
 	}
 
+	/**
+	 * S ::= [a-z]+ !>> [a-z]
+	 */
+	@Test
+	public void testConditionRejectionsAreProfiledAtBodySlots() {
+		Nonterminal S = Nonterminal.withName("S");
+		CharacterRange az = CharacterRange.in('a', 'z');
+		Plus AZPlus = Plus.builder(Terminal.from(az)).addPostCondition(RegularExpressionCondition.notFollow(az)).build();
+		Grammar grammar = new EBNFToBNF().transform(Grammar.builder().addRule(Rule.withHead(S).addSymbol(AZPlus).build()).build());
+
+		Configuration config = Configuration.builder().setProfilingEnabled(true).build();
+		ParseResult result = Iguana.parse(Input.fromString("abc"), grammar, config, S);
+		assertTrue(result.isParseSuccess());
+
+		ParseProfile profile = result.asParseSuccess().getStatistics().getProfile();
+		long rejections = 0;
+		for (SlotProfile slotProfile : profile.getSlotProfiles()) {
+			if (slotProfile.getConditionRejections() > 0) {
+				assertEquals(SlotKind.BODY, slotProfile.getKind());
+				rejections += slotProfile.getConditionRejections();
+			}
+		}
+		assertTrue(rejections > 0);
+		assertEquals(rejections, profile.getConditionRejections().values().stream().mapToLong(Long::longValue).sum());
+	}
+
 
     /**
      *
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.disambiguation.conditions;
+
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= Label !>> [a-z] "1"
+ *     | Label !>> [a-z] "2"
+ *
+ * Label ::= [a-z] Label | [a-z]
+ * 
+ * The follow restrictions of both alternatives and the [a-z] terminal share one matcher,
+ * so all but the first match at an input index come from the match cache.
+ *
+ */
+public class MatchCacheTest {
+
+	private static Nonterminal S = Nonterminal.withName("S");
+
+	private static Configuration config = Configuration.builder().setStatisticsEnabled(true).build();
+
+	private GrammarGraph grammarGraph;
+
+	@Before
+	public void init() {
+		CharacterRange az = CharacterRange.in('a', 'z');
+		Nonterminal Label = Nonterminal.withName("Label");
+		Nonterminal RestrictedLabel = Nonterminal.builder("Label").addPostCondition(RegularExpressionCondition.notFollow(az)).build();
+
+		Rule r1 = Rule.withHead(S).addSymbols(RestrictedLabel, Terminal.from(Character.from('1'))).build();
+		Rule r2 = Rule.withHead(S).addSymbols(RestrictedLabel, Terminal.from(Character.from('2'))).build();
+		Rule r3 = Rule.withHead(Label).addSymbols(Terminal.from(az), Label).build();
+		Rule r4 = Rule.withHead(Label).addSymbols(Terminal.from(az)).build();
+
+		Grammar grammar = Grammar.builder().addRules(r1, r2, r3, r4).build();
+		grammarGraph = GrammarGraph.from(grammar, config);
+	}
+
+	@Test
+	public void testParser1() {
+		ParseResult result = Iguana.parse(Input.fromString("abc1"), grammarGraph, S);
+		assertTrue(result.isParseSuccess());
+
+		ParseStatistics statistics = result.asParseSuccess().getStatistics();
+		assertTrue(statistics.getMatchCacheHits() > 0);
+		assertTrue(statistics.getMatchCacheHits() < statistics.getMatchCacheLookups());
+		assertTrue(statistics.getMatchCacheHitRate() > 0 && statistics.getMatchCacheHitRate() < 1);
+	}
+
+	@Test
+	public void testParser2() {
+		ParseResult result = Iguana.parse(Input.fromString("ab2"), grammarGraph, S);
+		assertTrue(result.isParseSuccess());
+	}
+
+	@Test
+	public void testParser3() {
+		ParseResult result = Iguana.parse(Input.fromString("a1b"), grammarGraph, S);
+		assertTrue(result.isParseError());
+	}
+
+	@Test
+	public void testNoCacheWithoutLookups() {
+		ParseStatistics statistics = ParseStatistics.builder().build();
+		assertTrue(statistics.getMatchCacheHitRate() == 0);
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.disambiguation.conditions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.transformation.EBNFToBNF;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import iguana.regex.Alt;
+import iguana.regex.Sequence;
+import org.iguana.util.Configuration;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= Id | Id L S
+ * 
+ * Id ::= [a-z] !<< [a-z]+ !>> [a-z] \ { "if", "do" }
+ * 
+ * L ::= " "
+ * 
+ * The conditions are executed by the worker threads of a parallel parse, while other workers
+ * pop and add edges to the same GSS nodes. The parse should accept and reject the same inputs,
+ * and produce the same SPPF, as the sequential parse.
+ *
+ */
+public class ParallelConditionsTest {
+
+	private Grammar grammar;
+
+	private Nonterminal S = Nonterminal.withName("S");
+
+	private GrammarGraph sequential;
+
+	private GrammarGraph parallel;
+
+	@Before
+	public void init() {
+		Nonterminal Id = Nonterminal.withName("Id");
+		Nonterminal L = Nonterminal.withName("L");
+		CharacterRange az = CharacterRange.in('a', 'z');
+		Plus AZPlus = Plus.builder(Terminal.from(az)).addPreCondition(RegularExpressionCondition.notPrecede(az))
+		                                             .addPostCondition(RegularExpressionCondition.notFollow(az))
+		                                             .addPostCondition(RegularExpressionCondition.notMatch(Alt.from(Sequence.from("if"), Sequence.from("do"))))
+		                                             .build();
+
+		Rule r1 = Rule.withHead(S).addSymbol(Id).build();
+		Rule r2 = Rule.withHead(S).addSymbols(Id, L, S).build();
+		Rule r3 = Rule.withHead(Id).addSymbol(AZPlus).build();
+		Rule r4 = Rule.withHead(L).addSymbol(Terminal.from(Character.from(' '))).build();
+		grammar = new EBNFToBNF().transform(Grammar.builder().addRules(r1, r2, r3, r4).build());
+
+		sequential = GrammarGraph.from(grammar, Configuration.DEFAULT);
+		parallel = GrammarGraph.from(grammar, Configuration.builder().setParallelism(4).build());
+	}
+
+	@Test
+	public void testIdentifiers() {
+		assertSameAsSequential("abc de f");
+	}
+
+	@Test
+	public void testManyIdentifiers() {
+		StringBuilder sb = new StringBuilder("x");
+		for (int i = 0; i < 200; i++)
+			sb.append(i % 2 == 0 ? " abc" : " iff");
+		assertSameAsSequential(sb.toString());
+	}
+
+	@Test
+	public void testKeyword() {
+		ParseResult result = Iguana.parse(Input.fromString("ab if c"), parallel, S);
+		assertTrue(result.isParseError());
+		assertEquals(Iguana.parse(Input.fromString("ab if c"), sequential, S).asParseError().inputIndex(), result.asParseError().inputIndex());
+	}
+
+	@Test
+	public void testKeywordAfterManyIdentifiers() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++)
+			sb.append("abc ");
+		sb.append("do");
+		Input input = Input.fromString(sb.toString());
+		ParseResult result = Iguana.parse(input, parallel, S);
+		assertTrue(result.isParseError());
+		assertEquals(Iguana.parse(input, sequential, S).asParseError().inputIndex(), result.asParseError().inputIndex());
+	}
+
+	private void assertSameAsSequential(String s) {
+		Input input = Input.fromString(s);
+		ParseResult result1 = Iguana.parse(input, sequential, S);
+		ParseResult result2 = Iguana.parse(input, parallel, S);
+		assertTrue(result1.isParseSuccess());
+		assertTrue(result2.isParseSuccess());
+		assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.disambiguation.conditions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.transformation.EBNFToBNF;
+import org.iguana.parser.AbortReason;
+import org.iguana.parser.CancellationToken;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseAborted;
+import org.iguana.parser.ParseOptions;
+import org.iguana.parser.ParseResult;
+import iguana.regex.Alt;
+import iguana.regex.Sequence;
+import org.iguana.util.TestConfigurations;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= Id | Id L S
+ * 
+ * Id ::= [a-z] !<< [a-z]+ !>> [a-z] \ { "if", "do" }
+ * 
+ * L ::= " "
+ * 
+ * A parse with options whose limits are not reached should produce the same SPPF as a parse
+ * without options, and a parse that exceeds a limit, or is cancelled, should return a
+ * ParseAborted result for its input, also while it executes the conditions of the identifiers.
+ *
+ */
+public class ParseOptionsConditionsTest {
+
+	private Nonterminal S = Nonterminal.withName("S");
+
+	private GrammarGraph graph;
+
+	private Input input;
+
+	@Before
+	public void init() {
+		Nonterminal Id = Nonterminal.withName("Id");
+		Nonterminal L = Nonterminal.withName("L");
+		CharacterRange az = CharacterRange.in('a', 'z');
+		Plus AZPlus = Plus.builder(Terminal.from(az)).addPreCondition(RegularExpressionCondition.notPrecede(az))
+		                                             .addPostCondition(RegularExpressionCondition.notFollow(az))
+		                                             .addPostCondition(RegularExpressionCondition.notMatch(Alt.from(Sequence.from("if"), Sequence.from("do"))))
+		                                             .build();
+
+		Rule r1 = Rule.withHead(S).addSymbol(Id).build();
+		Rule r2 = Rule.withHead(S).addSymbols(Id, L, S).build();
+		Rule r3 = Rule.withHead(Id).addSymbol(AZPlus).build();
+		Rule r4 = Rule.withHead(L).addSymbol(Terminal.from(Character.from(' '))).build();
+		Grammar grammar = new EBNFToBNF().transform(Grammar.builder().addRules(r1, r2, r3, r4).build());
+		graph = GrammarGraph.from(grammar, TestConfigurations.WITH_STATISTICS);
+
+		StringBuilder sb = new StringBuilder("x");
+		for (int i = 0; i < 1000; i++)
+			sb.append(i % 2 == 0 ? " abc" : " iff");
+		input = Input.fromString(sb.toString());
+	}
+
+	@Test
+	public void testLimitsNotReached() {
+		ParseOptions options = ParseOptions.builder().setMaxDescriptors(Integer.MAX_VALUE)
+		                                             .setMaxGSSNodes(Integer.MAX_VALUE)
+		                                             .setTimeout(Duration.ofHours(1))
+		                                             .setCancellationToken(new CancellationToken())
+		                                             .build();
+		ParseResult expected = Iguana.parse(input, graph, S);
+		ParseResult result = Iguana.parse(input, graph, S, options);
+		assertTrue(result.isParseSuccess());
+		assertTrue(expected.asParseSuccess().getSPPFNode().deepEquals(result.asParseSuccess().getSPPFNode()));
+	}
+
+	@Test
+	public void testDescriptorLimit() {
+		ParseOptions options = ParseOptions.builder().setMaxDescriptors(2000).build();
+		ParseResult result = Iguana.parse(input, graph, S, options);
+		assertTrue(result.isParseAborted());
+
+		ParseAborted aborted = result.asParseAborted();
+		assertEquals(AbortReason.DESCRIPTOR_LIMIT_EXCEEDED, aborted.getReason());
+		assertTrue(aborted.getStatistics().getDescriptorsCount() > 2000);
+		assertSame(input, aborted.getInput());
+	}
+
+	@Test
+	public void testDeadline() {
+		ParseOptions options = ParseOptions.builder().setTimeout(Duration.ZERO).build();
+		ParseResult result = Iguana.parse(input, graph, S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.DEADLINE_EXCEEDED, result.asParseAborted().getReason());
+	}
+
+	@Test
+	public void testCancelledInsteadOfParseError() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		ParseOptions options = ParseOptions.builder().setCancellationToken(token).build();
+		Input withKeyword = Input.fromString(input.subString(0, input.length() - 1) + " if");
+		assertTrue(Iguana.parse(withKeyword, graph, S).isParseError());
+
+		ParseResult result = Iguana.parse(withKeyword, graph, S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.CANCELLED, result.asParseAborted().getReason());
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.disambiguation.conditions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.symbol.Plus;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.transformation.EBNFToBNF;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseProfile;
+import org.iguana.util.ParseProfile.SlotProfile;
+import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= E | E L S
+ * 
+ * E ::= Id | Num
+ * 
+ * Id ::= [a-z] !<< [a-z]+ !>> [a-z]
+ * 
+ * Num ::= " " << [0-9]+ !>> [0-9]
+ * 
+ * L ::= " "
+ * 
+ * Unlike Gamma2, this grammar has several nonterminals, terminals that are tried and fail,
+ * and conditions that reject parses. The profile should attribute the work to these, and
+ * its counts summed over the slots should be the totals of the statistics.
+ *
+ */
+public class ProfilingConditionsTest {
+
+	private Nonterminal S = Nonterminal.withName("S");
+
+	private GrammarGraph profiled;
+
+	private GrammarGraph instrumented;
+
+	private Input input;
+
+	@Before
+	public void init() {
+		Nonterminal E = Nonterminal.withName("E");
+		Nonterminal Id = Nonterminal.withName("Id");
+		Nonterminal Num = Nonterminal.withName("Num");
+		Nonterminal L = Nonterminal.withName("L");
+		CharacterRange az = CharacterRange.in('a', 'z');
+		CharacterRange digits = CharacterRange.in('0', '9');
+		Plus AZPlus = Plus.builder(Terminal.from(az)).addPreCondition(RegularExpressionCondition.notPrecede(az))
+		                                             .addPostCondition(RegularExpressionCondition.notFollow(az))
+		                                             .build();
+		Plus DigitsPlus = Plus.builder(Terminal.from(digits)).addPreCondition(RegularExpressionCondition.precede(Character.from(' ')))
+		                                                     .addPostCondition(RegularExpressionCondition.notFollow(digits))
+		                                                     .build();
+
+		Rule r1 = Rule.withHead(S).addSymbol(E).build();
+		Rule r2 = Rule.withHead(S).addSymbols(E, L, S).build();
+		Rule r3 = Rule.withHead(E).addSymbol(Id).build();
+		Rule r4 = Rule.withHead(E).addSymbol(Num).build();
+		Rule r5 = Rule.withHead(Id).addSymbol(AZPlus).build();
+		Rule r6 = Rule.withHead(Num).addSymbol(DigitsPlus).build();
+		Rule r7 = Rule.withHead(L).addSymbol(Terminal.from(Character.from(' '))).build();
+		Grammar grammar = new EBNFToBNF().transform(Grammar.builder().addRules(r1, r2, r3, r4, r5, r6, r7).build());
+
+		profiled = GrammarGraph.from(grammar, Configuration.builder().setProfilingEnabled(true).setStatisticsEnabled(true).build());
+		instrumented = GrammarGraph.from(grammar, TestConfigurations.WITH_STATISTICS);
+
+		StringBuilder sb = new StringBuilder("x");
+		for (int i = 0; i < 100; i++)
+			sb.append(i % 3 == 0 ? " 1234" : " abc");
+		input = Input.fromString(sb.toString());
+	}
+
+	@Test
+	public void testProfileSumsToStatistics() {
+		ParseResult result = Iguana.parse(input, profiled, S);
+		assertTrue(result.isParseSuccess());
+
+		ParseStatistics statistics = result.asParseSuccess().getStatistics();
+		ParseProfile profile = statistics.getProfile();
+
+		long descriptors = 0, gssNodes = 0, gssEdges = 0, packedNodes = 0, ambiguities = 0, terminalMatches = 0;
+		for (SlotProfile s : profile.getSlotProfiles()) {
+			descriptors += s.getDescriptors();
+			gssNodes += s.getGSSNodes();
+			gssEdges += s.getGSSEdges();
+			packedNodes += s.getPackedNodes();
+			ambiguities += s.getAmbiguities();
+			terminalMatches += s.getTerminalMatches();
+		}
+
+		assertEquals(statistics.getDescriptorsCount(), descriptors);
+		assertEquals(statistics.getGssNodesCount() - 1, gssNodes); // the start GSS node is not reported
+		assertEquals(statistics.getGssEdgesCount(), gssEdges);
+		assertEquals(statistics.getPackedNodesCount(), packedNodes);
+		assertEquals(statistics.getCountAmbiguousNodes(), ambiguities);
+		assertTrue(terminalMatches >= statistics.getTerminalNodesCount());
+	}
+
+	@Test
+	public void testSameParseAsWithoutProfiling() {
+		ParseResult result1 = Iguana.parse(input, instrumented, S);
+		ParseResult result2 = Iguana.parse(input, profiled, S);
+		assertTrue(result1.isParseSuccess());
+		assertTrue(result2.isParseSuccess());
+		assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+		assertEquals(result1.asParseSuccess().getStatistics(), result2.asParseSuccess().getStatistics());
+	}
+
+	@Test
+	public void testHotSpots() {
+		ParseProfile profile = Iguana.parse(input, profiled, S).asParseSuccess().getStatistics().getProfile();
+
+		List<String> nonterminals = profile.getNonterminalHotSpots().stream().map(SlotProfile::getName).collect(Collectors.toList());
+		assertTrue(nonterminals.containsAll(Arrays.asList("S", "E", "Id", "Num", "L")));
+		// Every element is tried as an identifier and as a number, so [a-z], [0-9] and ' ' are all matched
+		assertTrue(profile.getTerminalHotSpots().size() >= 3);
+		assertTrue(profile.getTerminalHotSpots().stream().allMatch(s -> s.getTerminalMatches() > 0));
+	}
+
+	@Test
+	public void testConditionRejections() {
+		ParseProfile profile = Iguana.parse(input, profiled, S).asParseSuccess().getStatistics().getProfile();
+
+		long rejections = profile.getSlotProfiles().stream().mapToLong(SlotProfile::getConditionRejections).sum();
+		assertTrue(rejections > 0);
+		assertEquals(rejections, profile.getConditionRejections().values().stream().mapToLong(Long::longValue).sum());
+	}
+
+}
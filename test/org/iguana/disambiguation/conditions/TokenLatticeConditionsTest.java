@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.disambiguation.conditions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.RegularExpressionCondition;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import iguana.regex.Plus;
+import iguana.regex.RegularExpression;
+import iguana.regex.Sequence;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.TokenLattice;
+import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= Stmt | Stmt L S
+ * 
+ * Stmt ::= "if" L Id | Id
+ * 
+ * Id ::= [a-z]+ !>> [a-z] \ { "if" }
+ * 
+ * L ::= " "
+ * 
+ * The identifier is a single token, which also matches inside a longer identifier and on the
+ * keyword. The token lattice should only scan the positions the parser asks for, and the
+ * parse should be the same as the parse without the lattice.
+ *
+ */
+public class TokenLatticeConditionsTest {
+
+	private Nonterminal S = Nonterminal.withName("S");
+
+	private RegularExpression id = Plus.from(CharacterRange.in('a', 'z'));
+
+	private RegularExpression iff = Sequence.from("if");
+
+	private GrammarGraph withoutLattice;
+
+	private GrammarGraph withLattice;
+
+	@Before
+	public void init() {
+		Nonterminal Stmt = Nonterminal.withName("Stmt");
+		Nonterminal Id = Nonterminal.withName("Id");
+		Nonterminal L = Nonterminal.withName("L");
+		Terminal IdToken = Terminal.builder(id).addPostCondition(RegularExpressionCondition.notFollow(CharacterRange.in('a', 'z')))
+		                                       .addPostCondition(RegularExpressionCondition.notMatch(iff))
+		                                       .build();
+
+		Rule r1 = Rule.withHead(S).addSymbol(Stmt).build();
+		Rule r2 = Rule.withHead(S).addSymbols(Stmt, L, S).build();
+		Rule r3 = Rule.withHead(Stmt).addSymbols(Terminal.from(iff), L, Id).build();
+		Rule r4 = Rule.withHead(Stmt).addSymbol(Id).build();
+		Rule r5 = Rule.withHead(Id).addSymbol(IdToken).build();
+		Rule r6 = Rule.withHead(L).addSymbol(Terminal.from(Character.from(' '))).build();
+		Grammar grammar = Grammar.builder().addRules(r1, r2, r3, r4, r5, r6).build();
+
+		withoutLattice = GrammarGraph.from(grammar, TestConfigurations.WITH_STATISTICS);
+		withLattice = GrammarGraph.from(grammar, Configuration.builder().setTokenLatticeEnabled(true).setStatisticsEnabled(true).build());
+	}
+
+	@Test
+	public void testSameParseAsWithoutLattice() {
+		assertSameAsWithoutLattice("if abc x if y");
+		assertSameAsWithoutLattice("iff if iff");
+		assertSameAsWithoutLattice(repeat('a', 2000) + " if " + repeat('b', 2000));
+	}
+
+	@Test
+	public void testKeywordIsNotAnIdentifier() {
+		Input input = Input.fromString("if if");
+		ParseResult result = Iguana.parse(input, withLattice, S);
+		assertTrue(result.isParseError());
+		assertEquals(Iguana.parse(input, withoutLattice, S).asParseError().inputIndex(), result.asParseError().inputIndex());
+	}
+
+	@Test
+	public void testKeywordAndIdentifierAtOnePosition() {
+		Input input = Input.fromString("if x");
+		TokenLattice lattice = TokenLattice.build(withLattice.getTokenScanner(), input);
+
+		assertEquals(2, lattice.get(getTerminalSlot(iff), 0));
+		assertEquals(2, lattice.get(getTerminalSlot(id), 0));
+		assertEquals(2, lattice.size());
+		assertEquals(1, lattice.getScannedPositions());
+	}
+
+	@Test
+	public void testLongIdentifierIsScannedOnce() {
+		Input input = Input.fromString(repeat('a', 10000));
+		TokenLattice lattice = TokenLattice.build(withLattice.getTokenScanner(), input);
+		assertEquals(10000, lattice.get(getTerminalSlot(id), 0));
+		assertEquals(1, lattice.getScannedPositions());
+
+		// The parser does not ask for the matches inside the identifiers
+		ParseResult result = Iguana.parse(Input.fromString(repeat('a', 10000) + " " + repeat('b', 10000)), withLattice, S);
+		assertTrue(result.isParseSuccess());
+	}
+
+	private void assertSameAsWithoutLattice(String s) {
+		Input input = Input.fromString(s);
+		ParseResult result1 = Iguana.parse(input, withoutLattice, S);
+		ParseResult result2 = Iguana.parse(input, withLattice, S);
+		assertTrue(result1.isParseSuccess());
+		assertTrue(result2.isParseSuccess());
+		assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+		assertEquals(result1.asParseSuccess().getStatistics(), result2.asParseSuccess().getStatistics());
+	}
+
+	private TerminalGrammarSlot getTerminalSlot(RegularExpression regex) {
+		return withLattice.getGrammarSlots().stream()
+		                  .filter(s -> s instanceof TerminalGrammarSlot)
+		                  .map(s -> (TerminalGrammarSlot) s)
+		                  .filter(s -> s.getTerminal().getRegex().equals(regex))
+		                  .findFirst().get();
+	}
+
+	private static String repeat(char c, int count) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < count; i++)
+			sb.append(c);
+		return sb.toString();
+	}
+
+}
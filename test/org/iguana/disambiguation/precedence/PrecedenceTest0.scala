@@ -36,6 +36,7 @@ import iguana.regex.Character
 import org.iguana.grammar.symbol.Nonterminal
 import org.iguana.grammar.symbol.Rule
 import org.iguana.parser.Iguana
+import org.iguana.util.TestConfigurations
 import iguana.utils.input.Input
 import org.scalatest.FunSuite
 
@@ -80,7 +81,7 @@ class PrecedenceTest0 extends FunSuite {
 
   test("parser") {
     val input = Input.fromString("a+a*a")
-    val result = Iguana.parse(input, grammar, Nonterminal.withName("E"))
+    val result = Iguana.parse(input, grammar, TestConfigurations.WITH_STATISTICS, Nonterminal.withName("E"))
     assert(result.isParseSuccess)
     assert(result.asParseSuccess.getStatistics.getCountAmbiguousNodes == 0)
   }
@@ -36,6 +36,7 @@ import org.iguana.grammar.patterns.PrecedencePattern
 import org.iguana.grammar.precedence.OperatorPrecedence
 import org.iguana.grammar.symbol.{Nonterminal, Rule, Terminal}
 import org.iguana.parser.Iguana
+import org.iguana.util.TestConfigurations
 import org.scalatest.FunSuite
 
 /**
@@ -74,7 +75,7 @@ class PrecedenceTest1 extends FunSuite {
 
   test("Parser") {
     val input = Input.fromString("a+-a+a")
-    val result = Iguana.parse(input, grammar, Nonterminal.withName("E"))
+    val result = Iguana.parse(input, grammar, TestConfigurations.WITH_STATISTICS, Nonterminal.withName("E"))
     assert(result.isParseSuccess)
     assert(result.asParseSuccess.getStatistics.getCountAmbiguousNodes == 0)
   }
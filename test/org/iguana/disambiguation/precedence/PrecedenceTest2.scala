@@ -41,6 +41,7 @@ import org.iguana.grammar.symbol.Rule
 import org.iguana.parser.Iguana
 import org.iguana.parser.ParseResult
 import org.iguana.util.Configuration
+import org.iguana.util.TestConfigurations
 import iguana.utils.input.Input
 import org.scalatest.FunSuite
 
@@ -90,7 +91,7 @@ class PrecedenceTest2 extends FunSuite {
 
   test("Parser") {
     val input: Input = Input.fromString("a+a^a^-a+a")
-    val result: ParseResult = Iguana.parse(input, grammar, Nonterminal.withName("E"))
+    val result: ParseResult = Iguana.parse(input, grammar, TestConfigurations.WITH_STATISTICS, Nonterminal.withName("E"))
     assert(result.isParseSuccess)
     assert(result.asParseSuccess.getStatistics.getCountAmbiguousNodes == 0)
   }
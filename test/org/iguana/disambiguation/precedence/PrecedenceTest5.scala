@@ -37,6 +37,7 @@ import org.iguana.grammar.symbol.Rule
 import org.iguana.parser.Iguana
 import org.iguana.parser.ParseResult
 import org.iguana.util.Configuration
+import org.iguana.util.TestConfigurations
 import iguana.utils.input.Input
 import org.scalatest.FunSuite
 
@@ -87,7 +88,7 @@ class PrecedenceTest5 extends FunSuite {
 
   test("Parser") {
     val input: Input = Input.fromString("xawz")
-    val result: ParseResult = Iguana.parse(input, grammar, Nonterminal.withName("E"))
+    val result: ParseResult = Iguana.parse(input, grammar, TestConfigurations.WITH_STATISTICS, Nonterminal.withName("E"))
     assert(result.isParseSuccess)
     assert(result.asParseSuccess.getStatistics().getCountAmbiguousNodes == 0)
   }
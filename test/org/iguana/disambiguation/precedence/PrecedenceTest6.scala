@@ -36,6 +36,7 @@ import org.iguana.grammar.symbol.Nonterminal
 import org.iguana.grammar.symbol.Rule
 import org.iguana.parser.Iguana
 import org.iguana.util.Configuration
+import org.iguana.util.TestConfigurations
 import iguana.utils.input.Input
 import org.scalatest.FunSuite
 
@@ -94,7 +95,7 @@ class PrecedenceTest6 extends FunSuite {
 
   test("Parser") {
     val input = Input.fromString("a+a--a+-a+a-a-a+a")
-    val result = Iguana.parse(input, grammar, Nonterminal.withName("E"))
+    val result = Iguana.parse(input, grammar, TestConfigurations.WITH_STATISTICS, Nonterminal.withName("E"))
     assert(result.isParseSuccess)
     assert(result.asParseSuccess.getStatistics.getCountAmbiguousNodes == 0)
   }
@@ -42,6 +42,7 @@ import org.iguana.grammar.symbol.Rule
 import org.iguana.parser.Iguana
 import org.iguana.parser.ParseResult
 import org.iguana.util.Configuration
+import org.iguana.util.TestConfigurations
 import org.junit.Before
 import org.junit.Test
 import iguana.utils.input.Input
@@ -99,7 +100,7 @@ class PrecedenceTest7 extends FunSuite {
 
   test("Parser") {
     val input: Input = Input.fromString("aaa+aaaa+aaaa")
-    val result: ParseResult = Iguana.parse(input, grammar, Nonterminal.withName("E"))
+    val result: ParseResult = Iguana.parse(input, grammar, TestConfigurations.WITH_STATISTICS, Nonterminal.withName("E"))
     assert(result.isParseSuccess)
     assert(result.asParseSuccess.getStatistics.getCountAmbiguousNodes == 0)
   }
@@ -5,6 +5,7 @@ import org.iguana.IGGY
 import org.iguana.grammar.iggy.IggyParser
 import org.iguana.grammar.symbol.Nonterminal
 import org.iguana.parser.Iguana
+import org.iguana.util.TestConfigurations
 import org.scalatest.FunSuite
 
 /**
@@ -49,13 +50,13 @@ class Test1 extends FunSuite {
   test("DDParser4") { runDesugared(Input.fromString("a^a-^a")) }
 
   private def runOriginal(input: Input) = {
-    val result = Iguana.parse(input, originalGrammar, start)
+    val result = Iguana.parse(input, originalGrammar, TestConfigurations.WITH_STATISTICS, start)
     assert(result.isParseSuccess)
     assertResult(0)(result.asParseSuccess.getStatistics.getCountAmbiguousNodes)
   }
 
   private def runDesugared(input: Input) = {
-    val result = Iguana.parse(input, desugaredGrammar, start)
+    val result = Iguana.parse(input, desugaredGrammar, TestConfigurations.WITH_STATISTICS, start)
     assert(result.isParseSuccess)
     assertResult(0)(result.asParseSuccess.getStatistics.getCountAmbiguousNodes)
   }
@@ -5,6 +5,7 @@ import org.iguana.IGGY
 import org.iguana.grammar.iggy.IggyParser
 import org.iguana.grammar.symbol.Nonterminal
 import org.iguana.parser.Iguana
+import org.iguana.util.TestConfigurations
 import org.scalatest.FunSuite
 
 /**
@@ -43,7 +44,7 @@ class Test10 extends FunSuite {
 
   test("Parser") {
     val input = Input.fromString("zwax")
-    val result = Iguana.parse(input, originalGrammar, start)
+    val result = Iguana.parse(input, originalGrammar, TestConfigurations.WITH_STATISTICS, start)
     assert(result.isParseSuccess)
     assertResult(0)(result.asParseSuccess.getStatistics.getCountAmbiguousNodes)
   }
@@ -5,6 +5,7 @@ import org.iguana.IGGY
 import org.iguana.grammar.iggy.IggyParser
 import org.iguana.grammar.symbol.Nonterminal
 import org.iguana.parser.Iguana
+import org.iguana.util.TestConfigurations
 import org.scalatest.FunSuite
 
 /**
@@ -78,13 +79,13 @@ class Test15 extends FunSuite {
 //  test("DDParser4") { runDesugared(Input.fromString("a+a-a+a+-a*a"), 1) }
 
   private def runOriginal(input: Input, amb: Int) = {
-    val result = Iguana.parse(input, originalGrammar, start)
+    val result = Iguana.parse(input, originalGrammar, TestConfigurations.WITH_STATISTICS, start)
     assert(result.isParseSuccess)
     assertResult(amb)(result.asParseSuccess.getStatistics.getCountAmbiguousNodes)
   }
 
   private def runDesugared(input: Input, amb: Int) = {
-    val result = Iguana.parse(input, desugaredGrammar, start)
+    val result = Iguana.parse(input, desugaredGrammar, TestConfigurations.WITH_STATISTICS, start)
     assert(result.isParseSuccess)
     assertResult(amb)(result.asParseSuccess.getStatistics.getCountAmbiguousNodes)
   }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.grammar.slot.lookahead;
+
+import static iguana.utils.collections.CollectionsUtil.set;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.BodyGrammarSlot;
+import org.iguana.grammar.slot.NonterminalGrammarSlot;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.junit.Test;
+
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import iguana.regex.EOF;
+
+/**
+ * 
+ * The array-based lookahead and follow tests should give the same answers as the range trees,
+ * for characters in the direct-indexed part, for larger code points and for EOF.
+ *
+ */
+public class FlatLookaheadTest {
+
+	private static final int[] VALUES = { EOF.VALUE, 0, 'a', 'z', '{', 255, 256, 0x3B1, 0x3C9, 0x3CA, 0x10FFFF };
+
+	@Test
+	public void testFollow() {
+		Set<CharacterRange> set = set(CharacterRange.in('a', 'z'), CharacterRange.in(200, 0x3C9), EOF.asCharacterRange());
+		FollowTest array = new ArrayFollowTest(set);
+		FollowTest rangeTree = new RangeTreeFollowTest(set);
+
+		for (int v : VALUES)
+			assertEquals("" + v, rangeTree.test(v), array.test(v));
+	}
+
+	@Test
+	public void testLookahead() {
+		Nonterminal A = Nonterminal.withName("A");
+		Rule r1 = Rule.withHead(A).addSymbol(Terminal.from(Character.from('a'))).build();
+		Rule r2 = Rule.withHead(A).addSymbol(Terminal.from(Character.from(0x3B1))).build();
+		GrammarGraph graph = GrammarGraph.from(Grammar.builder().addRules(r1, r2).build());
+		NonterminalGrammarSlot slot = graph.getHead(A);
+		List<BodyGrammarSlot> firstSlots = slot.getFirstSlots();
+
+		Map<CharacterRange, List<BodyGrammarSlot>> map = new HashMap<>();
+		map.put(CharacterRange.in('a', 'z'), Arrays.asList(firstSlots.get(0)));
+		map.put(CharacterRange.in(250, 0x3C9), Arrays.asList(firstSlots.get(0), firstSlots.get(1)));
+		map.put(EOF.asCharacterRange(), Arrays.asList(firstSlots.get(1)));
+
+		LookAheadTest array = new ArrayLookaheadTest(map);
+		LookAheadTest rangeTree = new RangeTreeLookaheadTest(map);
+
+		for (int v : VALUES)
+			assertArrayEquals("" + v, rangeTree.get(v), array.get(v));
+
+		assertEquals(1, slot.getFirstSlots('a').length);
+		assertEquals(1, slot.getFirstSlots(0x3B1).length);
+		assertEquals(0, slot.getFirstSlots('b').length);
+	}
+
+}
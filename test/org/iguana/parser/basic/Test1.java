@@ -42,6 +42,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
 import org.junit.Test;
 
 import static iguana.parsetrees.sppf.SPPFNodeFactory.*;
@@ -83,7 +84,7 @@ public class Test1 {
 
 	@Test
 	public void testParser() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		ParseResult result = Iguana.parse(input, graph, startSymbol);
 		assertTrue(result.isParseSuccess());
         assertEquals(getParseResult(graph), result);
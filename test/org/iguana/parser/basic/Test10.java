@@ -46,6 +46,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
 import org.junit.Test;
 
 import iguana.utils.input.Input;
@@ -99,7 +100,7 @@ public class Test10 {
 
 	@Test
 	public void testParser() {
-		GrammarGraph graph = GrammarGraph.from(grammar, input);
+		GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		ParseResult result = Iguana.parse(input, graph, startSymbol);
 		assertTrue(result.isParseSuccess());
         assertEquals(getParseResult(graph), result);
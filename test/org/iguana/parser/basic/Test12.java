@@ -48,6 +48,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
 import org.junit.Test;
 
 import static iguana.parsetrees.sppf.SPPFNodeFactory.*;
@@ -91,7 +92,7 @@ public class Test12 {
 
 	@Test
 	public void testParser1() {
-		GrammarGraph graph = GrammarGraph.from(grammar, input1);
+		GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
 		ParseResult result = Iguana.parse(input1, graph, startSymbol);
 		assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1(graph), result);
@@ -113,7 +114,7 @@ public class Test12 {
 
     @Test
     public void testParser2() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input2);
+        GrammarGraph graph = GrammarGraph.from(grammar, input2, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input2, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2(graph), result);
@@ -14,7 +14,7 @@ import org.iguana.grammar.symbol.Rule;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.ParseStatistics;
 import org.junit.Test;
 
@@ -46,7 +46,7 @@ public class Test18 {
 
     @Test
     public void testParser1() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input1);
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input1, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1(graph), result);
@@ -55,7 +55,7 @@ public class Test18 {
 
     @Test
     public void testParser2() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input2, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input2, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input2, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2(graph), result);
@@ -64,7 +64,7 @@ public class Test18 {
 
     @Test
     public void testParser3() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input3, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input3, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input3, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult3(graph), result);
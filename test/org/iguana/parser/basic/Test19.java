@@ -13,6 +13,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
 import org.junit.Test;
 
 import static iguana.parsetrees.sppf.SPPFNodeFactory.*;
@@ -45,7 +46,7 @@ public class Test19 {
 
     @Test
     public void testParser1() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input1);
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input1, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1(graph), result);
@@ -54,7 +55,7 @@ public class Test19 {
 
     @Test
     public void testParser2() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input2);
+        GrammarGraph graph = GrammarGraph.from(grammar, input2, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input2, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2(graph), result);
@@ -63,7 +64,7 @@ public class Test19 {
 
     @Test
     public void testParser3() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input3);
+        GrammarGraph graph = GrammarGraph.from(grammar, input3, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input3, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult3(graph), result);
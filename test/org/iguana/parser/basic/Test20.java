@@ -44,6 +44,7 @@ import iguana.regex.CharacterRange;
 import iguana.regex.EOF;
 import iguana.regex.Epsilon;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -115,7 +116,7 @@ public class Test20 {
 	@Test
 	public void testParser() {
         Input input = Input.fromString("a+a*a+a");
-        GrammarGraph graph = GrammarGraph.from(grammar, input);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		ParseResult result = Iguana.parse(input, graph, E);
 		assertTrue(result.isParseSuccess());
         assertEquals(getParseResult(graph, input), result);
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.basic;
+
+import static iguana.utils.collections.CollectionsUtil.set;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import iguana.regex.CharacterRange;
+import iguana.regex.EOF;
+import iguana.regex.Sequence;
+import iguana.utils.input.Input;
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.operations.FirstFollowSets;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseStatistics;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ * S ::= "let" | "lazy" | "l" | A
+ * 
+ * A ::= A "a" | "a"
+ * 
+ * With a lookahead of two characters, the alternatives of S starting with 'l' are also
+ * selected by the second character. The second characters of A are not known, as A is
+ * left-recursive.
+ *
+ */
+public class Test21 {
+
+	private Grammar grammar;
+
+	private Nonterminal S = Nonterminal.withName("S");
+	private Nonterminal A = Nonterminal.withName("A");
+
+	private Rule r1 = Rule.withHead(S).addSymbol(Terminal.from(Sequence.from("let"))).build();
+	private Rule r2 = Rule.withHead(S).addSymbol(Terminal.from(Sequence.from("lazy"))).build();
+	private Rule r3 = Rule.withHead(S).addSymbol(Terminal.from(Sequence.from("l"))).build();
+	private Rule r4 = Rule.withHead(S).addSymbol(A).build();
+	private Rule r5 = Rule.withHead(A).addSymbols(A, Terminal.from(Sequence.from("a"))).build();
+	private Rule r6 = Rule.withHead(A).addSymbol(Terminal.from(Sequence.from("a"))).build();
+
+	@Before
+	public void createGrammar() {
+		grammar = Grammar.builder().addRules(r1, r2, r3, r4, r5, r6).build();
+	}
+
+	@Test
+	public void testSecondCharacterSets() {
+		FirstFollowSets ff = new FirstFollowSets(grammar);
+		assertEquals(set(CharacterRange.from('e')), ff.getSecondCharacterSet(r1));
+		assertEquals(set(CharacterRange.from('a')), ff.getSecondCharacterSet(r2));
+		assertEquals(set(EOF.asCharacterRange()), ff.getSecondCharacterSet(r3));
+		assertNull(ff.getSecondCharacterSet(r4));
+		assertNull(ff.getSecondCharacterSet(r5));
+	}
+
+	@Test
+	public void testParser() {
+		GrammarGraph graph1 = GrammarGraph.from(grammar, Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(1).build());
+		GrammarGraph graph2 = GrammarGraph.from(grammar, Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(2).build());
+
+		for (String s : new String[] { "let", "lazy", "l", "aaa" }) {
+			Input input = Input.fromString(s);
+			ParseResult result1 = Iguana.parse(input, graph1, S);
+			ParseResult result2 = Iguana.parse(input, graph2, S);
+			assertTrue(result1.isParseSuccess());
+			assertTrue(result2.isParseSuccess());
+			assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+
+			ParseStatistics statistics1 = result1.asParseSuccess().getStatistics();
+			ParseStatistics statistics2 = result2.asParseSuccess().getStatistics();
+			assertEquals(0, statistics1.getLookaheadPrunedCount());
+			assertEquals(statistics1.getDescriptorsCount() - statistics2.getDescriptorsCount(), statistics2.getLookaheadPrunedCount());
+		}
+	}
+
+	@Test
+	public void testPruned() {
+		GrammarGraph graph = GrammarGraph.from(grammar, Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(2).build());
+		ParseResult result = Iguana.parse(Input.fromString("lazy"), graph, S);
+		assertEquals(2, result.asParseSuccess().getStatistics().getLookaheadPrunedCount());
+	}
+
+}
@@ -47,6 +47,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
 import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.ParseStatistics;
 import org.junit.Test;
 
@@ -113,7 +114,7 @@ public class Test8 {
 
 	@Test
 	public void testParser1_1() {
-		GrammarGraph graph = GrammarGraph.from(grammar, input1);
+		GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
 		ParseResult result = Iguana.parse(input1, graph, startSymbol);
 		assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1_Lookahead1(graph), result);
@@ -122,7 +123,7 @@ public class Test8 {
 
     @Test
     public void testParser1_0() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.builder().setLookaheadCount(0).build());
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(0).build());
         ParseResult result = Iguana.parse(input1, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1_Lookahead0(graph), result);
@@ -131,7 +132,7 @@ public class Test8 {
 
     @Test
     public void testParser2_1() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input2);
+        GrammarGraph graph = GrammarGraph.from(grammar, input2, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input2, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2_Lookahead1(graph), result);
@@ -140,7 +141,7 @@ public class Test8 {
 
     @Test
     public void testParser2_0() {
-        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.builder().setLookaheadCount(0).build());
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(0).build());
         ParseResult result = Iguana.parse(input2, graph, startSymbol);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2_Lookahead0(graph), result);
@@ -48,6 +48,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
 import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.ParseStatistics;
 import org.junit.Test;
 
@@ -99,7 +100,7 @@ public class Test9 {
 
 	@Test
 	public void testParser0() {
-		GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.builder().setLookaheadCount(0).build());
+		GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(0).build());
 		ParseResult result = Iguana.parse(input, graph, startSymbol);
 		assertTrue(result.isParseSuccess());
 		assertEquals(getParseResult0(graph), result);
@@ -107,7 +108,7 @@ public class Test9 {
 
 	@Test
 	public void testParser1() {
-		GrammarGraph graph = GrammarGraph.from(grammar, input);
+		GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		ParseResult result = Iguana.parse(input, graph, startSymbol);
 		assertTrue(result.isParseSuccess());
 		assertEquals(getParseResult1(graph), result);
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.datadependent;
+
+import static org.iguana.datadependent.ast.AST.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.datadependent.ast.CompiledExpression;
+import org.iguana.datadependent.ast.Expression;
+import org.iguana.datadependent.ast.Statement;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.datadependent.env.persistent.PersistentEvaluatorContext;
+import org.iguana.datadependent.traversal.ExpressionCompiler;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * The compiled expressions evaluate to the same values as the interpreted ones.
+ *
+ */
+public class ExpressionCompilerTest {
+	
+	private IEvaluatorContext ctx;
+	
+	@Before
+	public void init() {
+		ctx = new PersistentEvaluatorContext(Input.fromString("let\n  x = 1\n  y = 2\nin x"));
+		ctx.declareVariables(new java.lang.String[] { "ind", "first", "index", "v", "curr", "prev", "big", "f" }, 
+				             new Object[] { 2, 1, 4, 3, 5, 2, 1000, 1.5f });
+		ctx.declareVariable(Expression.LeftExtent.variableName("x"), 6);
+	}
+	
+	private void assertSameValue(Expression expression) {
+		Object expected = expression.interpret(ctx);
+		CompiledExpression compiled = ExpressionCompiler.compile(expression);
+		assertEquals(expected, compiled.evaluate(ctx));
+		if (compiled.isInt())
+			assertEquals(expected, compiled.evaluateInt(ctx));
+		if (compiled.isBoolean())
+			assertEquals(expected, compiled.evaluateBoolean(ctx));
+	}
+	
+	@Test
+	public void testIndentation() {
+		assertSameValue(orIndent(var("index"), var("ind"), var("first"), lExt("x")));
+		assertSameValue(orIndent(var("index"), integer(0), var("first"), lExt("x")));
+		assertSameValue(orIndent(var("index"), integer(8), integer(0), lExt("x")));
+		assertSameValue(andIndent(var("index"), var("first"), lExt("x")));
+		assertSameValue(andIndent(var("index"), var("first"), var("index"), true));
+		assertSameValue(indent(lExt("x")));
+		assertSameValue(endOfFile(integer(18)));
+	}
+	
+	@Test
+	public void testPrecedence() {
+		assertSameValue(pr1(var("v"), var("curr"), var("prev")));
+		assertSameValue(pr1(var("curr"), var("v"), var("prev")));
+		assertSameValue(pr2(var("v"), var("curr"), new Expression[] { integer(7), var("prev") }));
+		assertSameValue(pr3(var("v"), integer(0)));
+		assertSameValue(pr3(var("v"), var("prev")));
+		assertSameValue(min(var("v"), var("prev")));
+		assertSameValue(lShiftANDEqZero(var("v"), integer(1)));
+	}
+	
+	@Test
+	public void testComparisons() {
+		assertSameValue(less(var("v"), var("curr")));
+		assertSameValue(greaterEq(integer(5), var("curr")));
+		assertSameValue(lessEq(var("f"), real(1.5f)));
+		assertSameValue(equal(var("big"), integer(1000)));
+		assertSameValue(notEqual(var("big"), integer(1000)));
+		assertSameValue(notEqual(var("v"), var("curr")));
+		assertSameValue(and(less(var("v"), var("curr")), not(equal(var("v"), integer(3)))));
+		assertSameValue(or(equal(string("a"), string("a")), TRUE));
+		assertSameValue(ifThenElse(less(var("v"), var("curr")), var("v"), neg(var("curr"))));
+	}
+	
+	@Test
+	public void testStatements() {
+		Statement[] statements = { varDeclStat("y", integer(7)), stat(assign("y", pr3(var("v"), var("y")))) };
+		
+		ExpressionCompiler.compile(statements).evaluate(ctx);
+		
+		assertEquals(3, ctx.lookupVariable("y"));
+	}
+	
+	@Test
+	public void testLeftExtentNames() {
+		assertSame(Expression.LeftExtent.variableName("x"), Expression.LeftExtent.variableName(new java.lang.String("x")));
+		assertEquals(java.lang.String.format(Expression.LeftExtent.format, "x"), Expression.LeftExtent.variableName("x"));
+	}
+	
+	@Test
+	public void testInterpretedFallback() {
+		CompiledExpression compiled = ExpressionCompiler.compile(put(map(), string("a"), integer(1)));
+		assertTrue(compiled.evaluate(ctx) instanceof java.util.Map);
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.datadependent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.array.ArrayEnvironment;
+import org.iguana.datadependent.env.persistent.PersistentEnvironment;
+import org.iguana.parser.HashConsingTable;
+import org.iguana.parser.gss.GSSNodeData;
+import org.junit.Test;
+
+/**
+ * 
+ * Equal environments and GSS node data interned in a HashConsingTable share one instance.
+ *
+ */
+public class HashConsingTest {
+
+	@Test
+	public void testPersistentEnvironments() {
+		HashConsingTable table = new HashConsingTable();
+		
+		Environment env1 = table.intern(PersistentEnvironment.EMPTY.declare(new String[] { "x", "y" }, new Object[] { 1, 2 }));
+		Environment env2 = table.intern(PersistentEnvironment.EMPTY._declare("x", 1)._declare("y", 2));
+		Environment env3 = table.intern(PersistentEnvironment.EMPTY._declare("x", 1)._declare("y", 3));
+		
+		assertSame(env1, env2);
+		assertNotSame(env1, env3);
+		assertEquals(2, table.size());
+		assertEquals(1, table.getHits());
+	}
+	
+	@Test
+	public void testArrayEnvironments() {
+		HashConsingTable table = new HashConsingTable();
+		
+		Environment env1 = table.intern(ArrayEnvironment.EMPTY.declare(new Object[] { 1, 2 }));
+		Environment env2 = table.intern(ArrayEnvironment.EMPTY._declare(1)._declare(3).store(1, 2));
+		
+		assertEquals(env1.hashCode(), ArrayEnvironment.EMPTY._declare(1)._declare(3).store(1, 2).hashCode());
+		assertSame(env1, env2);
+		assertEquals(1, table.size());
+	}
+	
+	@Test
+	public void testGSSNodeData() {
+		HashConsingTable table = new HashConsingTable();
+		
+		GSSNodeData<Object> data1 = table.intern(new GSSNodeData<>(new Object[] { 0, "a" }));
+		GSSNodeData<Object> data2 = table.intern(new GSSNodeData<>(new Object[] { 0, "a" }));
+		GSSNodeData<Object> data3 = table.intern(new GSSNodeData<>(new Object[] { "a", 0 }));
+		
+		assertSame(data1, data2);
+		assertNotSame(data1, data3);
+		assertEquals(3, table.getLookups());
+		assertEquals(1, table.getHits());
+	}
+	
+	@Test
+	public void testIntGSSNodeData() {
+		HashConsingTable table = new HashConsingTable();
+		
+		GSSNodeData<Object> data1 = table.intern(GSSNodeData.ofInts(new int[] { 300, -1 }));
+		GSSNodeData<Object> data2 = table.intern(new GSSNodeData<>(new Object[] { 300, -1 }));
+		
+		assertSame(data1, data2);
+		assertEquals(300, data2.get(0));
+		assertEquals(-1, data2.getInts()[1]);
+	}
+
+}
@@ -18,7 +18,7 @@ import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Sequence;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -48,7 +48,7 @@ Grammar.builder()
          System.out.println(grammar);
 
          Input input = Input.fromString("ca");
-         GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+         GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 
 //         Visualization.generateGrammarGraph("/Users/anastasiaizmaylova/git/iguana/test/org/iguana/parser/datadependent/", graph);
 
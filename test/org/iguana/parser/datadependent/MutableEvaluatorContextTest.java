@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.datadependent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.datadependent.env.Environment;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.datadependent.env.mutable.FrameEnvironment;
+import org.iguana.datadependent.env.mutable.MutableEvaluatorContext;
+import org.iguana.grammar.exception.UndeclaredVariableException;
+import org.iguana.util.Extent;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * The mutable evaluator context snapshots its frame only when it has changed, and undoes
+ * its changes when it is set back to the last snapshot.
+ *
+ */
+public class MutableEvaluatorContextTest {
+	
+	private IEvaluatorContext ctx;
+	
+	@Before
+	public void init() {
+		ctx = new MutableEvaluatorContext(Input.fromString("a"));
+	}
+	
+	@Test
+	public void testSnapshots() {
+		Environment empty = ctx.getEnvironment();
+		assertSame(FrameEnvironment.EMPTY, empty);
+		
+		ctx.declareVariable("x", 1);
+		ctx.declareVariable("y", 2);
+		Environment env = ctx.getEnvironment();
+		assertNotSame(empty, env);
+		assertSame(env, ctx.getEnvironment());
+		assertEquals(FrameEnvironment.EMPTY._declare("x", 1)._declare("y", 2), env);
+		assertEquals(env.hashCode(), FrameEnvironment.EMPTY.declare(new String[] { "x", "y" }, new Object[] { 1, 2 }).hashCode());
+	}
+	
+	@Test
+	public void testUndo() {
+		ctx.declareVariable("x", 1);
+		ctx.pushEnvironment();
+		ctx.declareVariable("y", 2);
+		Environment env = ctx.getEnvironment();
+		
+		ctx.storeVariable("x", 3);
+		ctx.popEnvironment();
+		ctx.declareVariable("z", 4);
+		ctx.pushEnvironment();
+		assertEquals(3, ctx.lookupVariable("x"));
+		assertEquals(4, ctx.lookupVariable("z"));
+		
+		ctx.setEnvironment(env);
+		assertSame(env, ctx.getEnvironment());
+		assertEquals(1, ctx.lookupVariable("x"));
+		assertEquals(2, ctx.lookupVariable("y"));
+		
+		ctx.popEnvironment();
+		assertEquals(FrameEnvironment.EMPTY._declare("x", 1), ctx.getEnvironment());
+	}
+	
+	@Test
+	public void testScopes() {
+		ctx.declareVariable("x", 1);
+		ctx.pushEnvironment();
+		ctx.declareVariable("x", 2);
+		assertEquals(2, ctx.lookupVariable("x"));
+		ctx.declareVariable("x", 3);
+		assertEquals(FrameEnvironment.EMPTY._declare("x", 1).push()._declare("x", 3), ctx.getEnvironment());
+		
+		ctx.popEnvironment();
+		assertEquals(1, ctx.lookupVariable("x"));
+		assertTrue(FrameEnvironment.EMPTY._declare("x", 1).push().pop().equals(ctx.getEnvironment()));
+	}
+	
+	@Test
+	public void testPrimitives() {
+		ctx.declareVariable("i", 300);
+		ctx.declareVariable("e", Extent.of(300, -1));
+		assertEquals(300, ctx.lookupIntVariable("i"));
+		assertEquals(300, ctx.lookupVariable("i"));
+		
+		Environment env = ctx.getEnvironment();
+		assertEquals(FrameEnvironment.EMPTY._declare("i", 300)._declare("e", Extent.of(300, -1)).hashCode(), env.hashCode());
+		
+		ctx.storeVariable("e", Extent.of(300, 310));
+		assertEquals(310, Extent.right(ctx.lookupLongVariable("e")));
+		
+		ctx.setEnvironment(env);
+		assertEquals(-1, Extent.right(ctx.lookupLongVariable("e")));
+	}
+	
+	@Test(expected = UndeclaredVariableException.class)
+	public void testUndeclared() {
+		ctx.declareVariable("x", 1);
+		ctx.storeVariable("y", 2);
+	}
+
+}
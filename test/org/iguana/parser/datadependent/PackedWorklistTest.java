@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.datadependent;
+
+import static org.iguana.datadependent.ast.AST.greaterEq;
+import static org.iguana.datadependent.ast.AST.integer;
+import static org.iguana.datadependent.ast.AST.var;
+import static org.iguana.grammar.condition.DataDependentCondition.predicate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.WorklistImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * S ::= E(0,0)
+ * 
+ * E(l,r) ::= [3 >= l, 3 >= r] E(3,0) '+' E(l,4)
+ *          | [2 >= l] '-' E(0,0)
+ *          | 'a'
+ * 
+ * The packed worklist keeps the environments of data-dependent descriptors next to their
+ * slots, GSS nodes and SPPF nodes. It should execute the same descriptors, with the same
+ * environments, as the deque of descriptor objects.
+ *
+ */
+public class PackedWorklistTest {
+
+	private Grammar grammar;
+
+	private Nonterminal S = Nonterminal.withName("S");
+
+	@Before
+	public void init() {
+		Nonterminal E = Nonterminal.builder("E").addParameters("l", "r").build();
+
+		Rule r0 = Rule.withHead(S).addSymbol(Nonterminal.builder(E).apply(integer(0), integer(0)).build()).build();
+
+		Rule r1_1 = Rule.withHead(E)
+				.addSymbol(Nonterminal.builder(E).apply(integer(3), integer(0))
+						.addPreCondition(predicate(greaterEq(integer(3), var("l"))))
+						.addPreCondition(predicate(greaterEq(integer(3), var("r")))).build())
+				.addSymbol(Terminal.from(Character.from('+')))
+				.addSymbol(Nonterminal.builder(E).apply(var("l"), integer(4)).build()).build();
+
+		Rule r1_2 = Rule.withHead(E)
+				.addSymbol(Terminal.builder(Character.from('-'))
+						.addPreCondition(predicate(greaterEq(integer(2), var("l")))).build())
+				.addSymbol(Nonterminal.builder(E).apply(integer(0), integer(0)).build()).build();
+
+		Rule r1_3 = Rule.withHead(E).addSymbol(Terminal.from(Character.from('a'))).build();
+
+		grammar = Grammar.builder().addRules(r0, r1_1, r1_2, r1_3).build();
+	}
+
+	@Test
+	public void testUnaryMinus() {
+		assertSameAsDeque("a+-a+a");
+	}
+
+	@Test
+	public void testLeftAssociative() {
+		StringBuilder sb = new StringBuilder("a");
+		for (int i = 0; i < 50; i++)
+			sb.append(i % 5 == 0 ? "+-a" : "+a");
+		assertSameAsDeque(sb.toString());
+	}
+
+	@Test
+	public void testParseError() {
+		Input input = Input.fromString("a+a-a");
+		ParseResult result1 = Iguana.parse(input, getGrammarGraph(WorklistImpl.DEQUE), S);
+		ParseResult result2 = Iguana.parse(input, getGrammarGraph(WorklistImpl.PACKED), S);
+		assertTrue(result2.isParseError());
+		assertEquals(result1.asParseError().inputIndex(), result2.asParseError().inputIndex());
+	}
+
+	private void assertSameAsDeque(String s) {
+		Input input = Input.fromString(s);
+		ParseResult result1 = Iguana.parse(input, getGrammarGraph(WorklistImpl.DEQUE), S);
+		ParseResult result2 = Iguana.parse(input, getGrammarGraph(WorklistImpl.PACKED), S);
+		assertTrue(result1.isParseSuccess());
+		assertTrue(result2.isParseSuccess());
+		assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+		assertEquals(result1.asParseSuccess().getStatistics(), result2.asParseSuccess().getStatistics());
+	}
+
+	private GrammarGraph getGrammarGraph(WorklistImpl worklistImpl) {
+		return GrammarGraph.from(grammar, Configuration.builder().setWorklistImpl(worklistImpl).setStatisticsEnabled(true).build());
+	}
+
+}
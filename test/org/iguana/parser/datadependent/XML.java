@@ -16,7 +16,7 @@ import org.iguana.grammar.transformation.LayoutWeaver;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Alt;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -71,7 +71,7 @@ Grammar.builder()
 
          Input input = Input.fromString("<note> <to>John</to> <from>Alice</from> </note>");
          
-         GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+         GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 
          // Visualization.generateGrammarGraph("/Users/anastasiaizmaylova/git/iguana/test/org/iguana/parser/datadependent/", graph);
 
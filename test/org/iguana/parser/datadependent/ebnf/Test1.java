@@ -34,7 +34,7 @@ import iguana.regex.Character;
 import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -93,7 +93,7 @@ public class Test1 {
 		System.out.println(grammar);
 		
 		Input input = Input.fromString("acd");
-		GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+		GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		
 		ParseResult result = Iguana.parse(input, graph, Nonterminal.withName("X"));
 		
@@ -42,7 +42,7 @@ import org.iguana.grammar.symbol.Rule;
 import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -92,7 +92,7 @@ public class Test3 {
 		System.out.println(grammar);
 		
 		Input input = Input.fromString("abbb");
-		GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+		GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		
 		ParseResult result = Iguana.parse(input, graph, Nonterminal.withName("X"));
 		
@@ -42,7 +42,7 @@ import iguana.regex.Character;
 import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -100,7 +100,7 @@ public class Test4 {
 		System.out.println(grammar);
 		
 		Input input = Input.fromString("abcbcbc");
-		GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+		GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 		
 		ParseResult result = Iguana.parse(input, graph, Nonterminal.withName("X"));
 		
@@ -41,7 +41,7 @@ import org.iguana.grammar.transformation.DesugarPrecedenceAndAssociativity;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Sequence;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -78,7 +78,7 @@ Grammar.builder()
          System.out.println(grammar.toStringWithOrderByPrecedence());
 
          Input input = Input.fromString("-a^a");
-         GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+         GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 
          // Visualization.generateGrammarGraph("test/org/iguana/parser/datadependent/excepts/", graph);
 
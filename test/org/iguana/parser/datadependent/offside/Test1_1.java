@@ -47,7 +47,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Alt;
 import iguana.regex.Sequence;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -95,7 +95,7 @@ Grammar.builder()
                                         "        x =        \n" +
                                         "               a + \n" +
                                         "             a");
-         GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+         GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 
          // Visualization.generateGrammarGraph("/Users/anastasiaizmaylova/git/diguana/test/org/jgll/parser/datadependent/offside/", graph);
 
@@ -15,6 +15,7 @@ import org.iguana.grammar.transformation.LayoutWeaver;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.Configuration.EnvironmentImpl;
 import org.junit.Assert;
 import org.junit.Test;
@@ -64,10 +65,10 @@ public class JavaNat {
          grammar4 = new LayoutWeaver().transform(grammar4);
 
          Input input = Input.fromFile(new File("src/org/iguana/util/hashing/hashfunction/MurmurHash2.java"));
-         GrammarGraph graph1 = GrammarGraph.from(grammar1, input, Configuration.builder().setEnvironmentImpl(EnvironmentImpl.TRIE).build());
-         GrammarGraph graph2 = GrammarGraph.from(grammar2, input, Configuration.DEFAULT);
-         GrammarGraph graph3 = GrammarGraph.from(grammar3, input, Configuration.DEFAULT);
-         GrammarGraph graph4 = GrammarGraph.from(grammar4, input, Configuration.DEFAULT);
+         GrammarGraph graph1 = GrammarGraph.from(grammar1, input, Configuration.builder().setStatisticsEnabled(true).setEnvironmentImpl(EnvironmentImpl.TRIE).build());
+         GrammarGraph graph2 = GrammarGraph.from(grammar2, input, TestConfigurations.WITH_STATISTICS);
+         GrammarGraph graph3 = GrammarGraph.from(grammar3, input, TestConfigurations.WITH_STATISTICS);
+         GrammarGraph graph4 = GrammarGraph.from(grammar4, input, TestConfigurations.WITH_STATISTICS);
 
          ParseResult result1 = Iguana.parse(input, graph1, Nonterminal.withName("CompilationUnit"));
          ParseResult result2 = Iguana.parse(input, graph2, Nonterminal.withName("CompilationUnit"));
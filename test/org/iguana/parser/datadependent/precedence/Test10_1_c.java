@@ -18,7 +18,7 @@ import org.iguana.grammar.transformation.DesugarPrecedenceAndAssociativity;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Sequence;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -84,10 +84,10 @@ Grammar.builder()
          System.out.println(grammar3.toStringWithOrderByPrecedence());
 
          Input input = Input.fromString("a+a*a*a*a*a*a");
-         GrammarGraph graph1 = GrammarGraph.from(grammar1, input, Configuration.DEFAULT);
-         GrammarGraph graph2 = GrammarGraph.from(grammar2, input, Configuration.DEFAULT);
-         GrammarGraph graph3 = GrammarGraph.from(grammar3, input, Configuration.DEFAULT);
-         GrammarGraph graph4 = GrammarGraph.from(grammar4, input, Configuration.DEFAULT);
+         GrammarGraph graph1 = GrammarGraph.from(grammar1, input, TestConfigurations.WITH_STATISTICS);
+         GrammarGraph graph2 = GrammarGraph.from(grammar2, input, TestConfigurations.WITH_STATISTICS);
+         GrammarGraph graph3 = GrammarGraph.from(grammar3, input, TestConfigurations.WITH_STATISTICS);
+         GrammarGraph graph4 = GrammarGraph.from(grammar4, input, TestConfigurations.WITH_STATISTICS);
 
          // Visualization.generateGrammarGraph("test/org/iguana/parser/datadependent/precedence/", graph);
 
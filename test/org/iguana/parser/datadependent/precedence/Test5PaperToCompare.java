@@ -19,6 +19,7 @@ import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Sequence;
 import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.Configuration.EnvironmentImpl;
 import org.junit.Assert;
 import org.junit.Test;
@@ -75,9 +76,9 @@ Grammar.builder()
 
          Input input = Input.fromString("a*+a*a+a--a/a");
 
-         GrammarGraph graph1 = GrammarGraph.from(grammar1, input, Configuration.builder().setEnvironmentImpl(EnvironmentImpl.TRIE).build());
-         GrammarGraph graph2 = GrammarGraph.from(grammar2, input, Configuration.DEFAULT);
-         GrammarGraph graph3 = GrammarGraph.from(grammar3, input, Configuration.DEFAULT);
+         GrammarGraph graph1 = GrammarGraph.from(grammar1, input, Configuration.builder().setStatisticsEnabled(true).setEnvironmentImpl(EnvironmentImpl.TRIE).build());
+         GrammarGraph graph2 = GrammarGraph.from(grammar2, input, TestConfigurations.WITH_STATISTICS);
+         GrammarGraph graph3 = GrammarGraph.from(grammar3, input, TestConfigurations.WITH_STATISTICS);
 
          // Visualization.generateGrammarGraph("test/org/iguana/parser/datadependent/precedence/", graph);
 
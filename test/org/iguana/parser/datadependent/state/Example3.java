@@ -22,7 +22,7 @@ import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import iguana.regex.Sequence;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -64,7 +64,7 @@ Grammar.builder()
          System.out.println(grammar.toStringWithOrderByPrecedence());
 
          Input input = Input.fromString("a;aa;aa;aa;a");
-         GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+         GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
 
          Map<String, Object> inits = new HashMap<>();
          inits.put("x", 0);
@@ -79,7 +79,7 @@ Grammar.builder()
         	 }
          }
          
-         ParseResult result = Iguana.parse(input, graph, Configuration.DEFAULT, start, inits, false);
+         ParseResult result = Iguana.parse(input, graph, TestConfigurations.WITH_STATISTICS, start, inits, false);
 
          Assert.assertTrue(result.isParseSuccess());
 
@@ -16,7 +16,7 @@ import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.ParseStatistics;
 import org.junit.Test;
 
@@ -48,7 +48,7 @@ public class Test2 {
     @Test
     public void testParser0() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input0, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input0, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input0, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult0(graph), result);
@@ -58,7 +58,7 @@ public class Test2 {
     @Test
     public void testParser1() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input1, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1(graph), result);
@@ -68,7 +68,7 @@ public class Test2 {
     @Test
     public void testParser2() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input2, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input2, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input2, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2(graph), result);
@@ -78,7 +78,7 @@ public class Test2 {
     @Test
     public void testParser3() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input3, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input3, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input3, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult3(graph), result);
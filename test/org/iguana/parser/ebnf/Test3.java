@@ -15,7 +15,7 @@ import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.ParseStatistics;
 import org.junit.Test;
 
@@ -46,7 +46,7 @@ public class Test3 {
     @Test
     public void testParser0() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input0, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input0, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input0, graph, S);
         assertEquals(getParseResult0(graph), result);
         assertEquals(getTree0(), result.asParseSuccess().getTerm());
@@ -55,7 +55,7 @@ public class Test3 {
     @Test
     public void testParser1() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input1, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1(graph), result);
@@ -13,7 +13,7 @@ import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.parser.ParseSuccess;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.iguana.util.ParseStatistics;
 import org.junit.Test;
 
@@ -55,7 +55,7 @@ public class Test7 {
     @Test
     public void testParse1() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input1, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input1, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input1, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult1(graph), result);
@@ -65,7 +65,7 @@ public class Test7 {
     @Test
     public void testParse2() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input2, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input2, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input2, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult2(graph), result);
@@ -75,7 +75,7 @@ public class Test7 {
     @Test
     public void testParse3() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input3, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input3, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input3, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult3(graph), result);
@@ -85,7 +85,7 @@ public class Test7 {
     @Test
     public void testParse4() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input4, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input4, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input4, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult4(graph), result);
@@ -95,7 +95,7 @@ public class Test7 {
     @Test
     public void testParse5() {
         grammar = EBNFToBNF.convert(grammar);
-        GrammarGraph graph = GrammarGraph.from(grammar, input5, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input5, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input5, graph, S);
         assertTrue(result.isParseSuccess());
         assertEquals(getParseResult5(graph), result);
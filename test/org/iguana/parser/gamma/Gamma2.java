@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gamma;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Terminal;
+import iguana.regex.Character;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseSuccess;
+import org.iguana.util.Configuration;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * The grammar, inputs and checks shared by the tests that parse Gamma2.
+ */
+public class Gamma2 {
+
+	public static final Nonterminal S = Nonterminal.withName("S");
+
+	private Gamma2() {}
+
+	public static Input getInput(int size) {
+		return Input.fromString(Stream.generate(() -> "b").limit(size).collect(Collectors.joining()));
+	}
+
+	public static Grammar getGrammar() {
+		Terminal b = Terminal.from(Character.from('b'));
+		Rule rule1 = Rule.withHead(S).addSymbols(S, S, S).build();
+		Rule rule2 = Rule.withHead(S).addSymbols(S, S).build();
+		Rule rule3 = Rule.withHead(S).addSymbols(b).build();
+		return Grammar.builder().addRules(rule1, rule2, rule3).build();
+	}
+
+	/**
+	 * Parses the inputs of sizes 1 to maxSize with both configurations and passes each pair of
+	 * results to the check. Both parses must succeed.
+	 */
+	public static void compare(Configuration expected, Configuration actual, int maxSize, BiConsumer<ParseSuccess, ParseSuccess> check) {
+		GrammarGraph expectedGraph = GrammarGraph.from(getGrammar(), expected);
+		GrammarGraph actualGraph = GrammarGraph.from(getGrammar(), actual);
+
+		for (int size = 1; size <= maxSize; size++) {
+			Input input = getInput(size);
+			ParseResult result1 = Iguana.parse(input, expectedGraph, S);
+			ParseResult result2 = Iguana.parse(input, actualGraph, S);
+			assertTrue(result1.isParseSuccess());
+			assertTrue(result2.isParseSuccess());
+			check.accept(result1.asParseSuccess(), result2.asParseSuccess());
+		}
+	}
+
+	/**
+	 * Same as {@link #compare(Configuration, Configuration, int, BiConsumer)} with the default configuration as expected.
+	 */
+	public static void compareWithDefault(Configuration config, int maxSize, BiConsumer<ParseSuccess, ParseSuccess> check) {
+		compare(Configuration.DEFAULT, config, maxSize, check);
+	}
+
+	/**
+	 * Asserts that parsing "bbbbba" with the configuration fails at the 'a'.
+	 */
+	public static void assertParseError(Configuration config) {
+		ParseResult result = Iguana.parse(Input.fromString("bbbbba"), GrammarGraph.from(getGrammar(), config), S);
+		assertTrue(result.isParseError());
+		assertEquals(5, result.asParseError().inputIndex());
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gamma;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.MemoryMode;
+import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
+import org.junit.Test;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * Parses that discard the table entries behind the worklist should produce the same SPPF
+ * as parses that keep them.
+ */
+public class Gamma2BoundedTest {
+
+	private static Configuration config = Configuration.builder().setMemoryMode(MemoryMode.BOUNDED).setStatisticsEnabled(true).build();
+
+	@Test
+	public void testSameSPPFAsFull() {
+		Gamma2.compare(TestConfigurations.WITH_STATISTICS, config, 40, (full, bounded) -> {
+			assertTrue(full.getSPPFNode().deepEquals(bounded.getSPPFNode()));
+
+			ParseStatistics statistics1 = full.getStatistics();
+			ParseStatistics statistics2 = bounded.getStatistics();
+			assertEquals(statistics1.getGssNodesCount(), statistics2.getGssNodesCount());
+			assertEquals(statistics1.getNonterminalNodesCount(), statistics2.getNonterminalNodesCount());
+			assertEquals(statistics1.getIntermediateNodesCount(), statistics2.getIntermediateNodesCount());
+			assertEquals(statistics1.getTerminalNodesCount(), statistics2.getTerminalNodesCount());
+			assertEquals(statistics1.getPackedNodesCount(), statistics2.getPackedNodesCount());
+		});
+	}
+
+	@Test
+	public void testParseError() {
+		Gamma2.assertParseError(config);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testProfilingIsRejected() {
+		Configuration.builder().setMemoryMode(MemoryMode.BOUNDED).setProfilingEnabled(true).build();
+	}
+
+}
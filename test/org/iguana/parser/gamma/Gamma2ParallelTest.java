@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gamma;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.iguana.parser.gamma.Gamma2.getInput;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * Parses with several worker threads should produce the same statistics as the sequential parser.
+ */
+public class Gamma2ParallelTest {
+
+	@Test
+	public void testParallelParse50() {
+		Configuration config = Configuration.builder().setParallelism(4).setStatisticsEnabled(true).build();
+		Input input = getInput(50);
+		ParseResult result = Iguana.parse(input, GrammarGraph.from(getGrammar(), config), S);
+
+		assertTrue(result.isParseSuccess());
+		ParseStatistics expected = ParseStatistics.builder()
+				   .setDescriptorsCount(6329)
+				   .setGSSNodesCount(51)
+				   .setGSSEdgesCount(3877)
+				   .setNonterminalNodesCount(1275)
+				   .setTerminalNodesCount(50)
+				   .setIntermediateNodesCount(1225)
+				   .setPackedNodesCount(61300) 
+				   .setAmbiguousNodesCount(2352) 
+				   .build();
+		assertEquals(expected, result.asParseSuccess().getStatistics());
+	}
+
+	@Test
+	public void testSameStatisticsAsSequential() {
+		Gamma2.compare(TestConfigurations.WITH_STATISTICS, Configuration.builder().setParallelism(8).setStatisticsEnabled(true).build(), 40,
+				(sequential, parallel) -> assertEquals(sequential.getStatistics(), parallel.getStatistics()));
+	}
+
+	@Test
+	public void testParseError() {
+		Gamma2.assertParseError(Configuration.builder().setParallelism(4).build());
+	}
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gamma;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.iguana.parser.gamma.Gamma2.getInput;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.AbortReason;
+import org.iguana.parser.CancellationToken;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseAborted;
+import org.iguana.parser.ParseOptions;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
+import org.iguana.util.Configuration.MemoryMode;
+import org.junit.Test;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * Parses that exceed a limit of their options, or are cancelled, return a ParseAborted result.
+ */
+public class Gamma2ParseOptionsTest {
+
+	private static GrammarGraph getGrammarGraph(Configuration config) {
+		return GrammarGraph.from(getGrammar(), config);
+	}
+
+	@Test
+	public void testNoLimits() {
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, ParseOptions.DEFAULT);
+		assertTrue(result.isParseSuccess());
+	}
+
+	@Test
+	public void testLimitsNotReached() {
+		ParseOptions options = ParseOptions.builder().setMaxDescriptors(Integer.MAX_VALUE)
+		                                             .setTimeout(Duration.ofHours(1))
+		                                             .setCancellationToken(new CancellationToken())
+		                                             .build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, options);
+		assertTrue(result.isParseSuccess());
+	}
+
+	@Test
+	public void testDescriptorLimit() {
+		ParseOptions options = ParseOptions.builder().setMaxDescriptors(5000).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, options);
+		assertTrue(result.isParseAborted());
+		assertTrue(!result.isParseSuccess() && !result.isParseError());
+
+		ParseAborted aborted = result.asParseAborted();
+		assertEquals(AbortReason.DESCRIPTOR_LIMIT_EXCEEDED, aborted.getReason());
+		assertTrue(aborted.getStatistics().getDescriptorsCount() > 5000);
+	}
+
+	@Test
+	public void testGSSNodeLimit() {
+		ParseOptions options = ParseOptions.builder().setMaxGSSNodes(10).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.GSS_NODE_LIMIT_EXCEEDED, result.asParseAborted().getReason());
+	}
+
+	@Test
+	public void testSPPFNodeLimit() {
+		ParseOptions options = ParseOptions.builder().setMaxSPPFNodes(1000).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.SPPF_NODE_LIMIT_EXCEEDED, result.asParseAborted().getReason());
+	}
+
+	@Test
+	public void testDeadline() {
+		ParseOptions options = ParseOptions.builder().setTimeout(Duration.ZERO).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.DEADLINE_EXCEEDED, result.asParseAborted().getReason());
+	}
+
+	@Test
+	public void testCancelled() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		ParseOptions options = ParseOptions.builder().setCancellationToken(token).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(TestConfigurations.WITH_STATISTICS), S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.CANCELLED, result.asParseAborted().getReason());
+	}
+
+	@Test
+	public void testDescriptorLimitBounded() {
+		Configuration config = Configuration.builder().setStatisticsEnabled(true).setMemoryMode(MemoryMode.BOUNDED).build();
+		ParseOptions options = ParseOptions.builder().setMaxDescriptors(5000).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(config), S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.DESCRIPTOR_LIMIT_EXCEEDED, result.asParseAborted().getReason());
+	}
+
+	@Test
+	public void testCancelledParallel() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		Configuration config = Configuration.builder().setStatisticsEnabled(true).setParallelism(4).build();
+		ParseOptions options = ParseOptions.builder().setCancellationToken(token).build();
+		ParseResult result = Iguana.parse(getInput(50), getGrammarGraph(config), S, options);
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.CANCELLED, result.asParseAborted().getReason());
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.gamma;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.iguana.parser.gamma.Gamma2.getInput;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.ParseProfile;
+import org.iguana.util.ParseProfile.SlotProfile;
+import org.iguana.util.ParseStatistics;
+import org.junit.Test;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * The counts of a profile summed over the slots should be the totals of the statistics.
+ */
+public class Gamma2ProfilingTest {
+
+	private static Configuration config = Configuration.builder().setProfilingEnabled(true).setStatisticsEnabled(true).build();
+
+	@Test
+	public void testProfileSumsToStatistics() {
+		GrammarGraph grammarGraph = GrammarGraph.from(getGrammar(), config);
+
+		for (int size = 1; size <= 30; size++) {
+			ParseResult result = Iguana.parse(getInput(size), grammarGraph, S);
+			assertTrue(result.isParseSuccess());
+
+			ParseStatistics statistics = result.asParseSuccess().getStatistics();
+			ParseProfile profile = statistics.getProfile();
+
+			long descriptors = 0, gssNodes = 0, gssEdges = 0, packedNodes = 0, ambiguities = 0, terminalMatches = 0;
+			for (SlotProfile s : profile.getSlotProfiles()) {
+				descriptors += s.getDescriptors();
+				gssNodes += s.getGSSNodes();
+				gssEdges += s.getGSSEdges();
+				packedNodes += s.getPackedNodes();
+				ambiguities += s.getAmbiguities();
+				terminalMatches += s.getTerminalMatches();
+			}
+
+			assertEquals(statistics.getDescriptorsCount(), descriptors);
+			assertEquals(statistics.getGssNodesCount() - 1, gssNodes); // the start GSS node is not reported
+			assertEquals(statistics.getGssEdgesCount(), gssEdges);
+			assertEquals(statistics.getPackedNodesCount(), packedNodes);
+			assertEquals(statistics.getCountAmbiguousNodes(), ambiguities);
+			assertTrue(terminalMatches >= statistics.getTerminalNodesCount());
+
+			assertEquals(1, profile.getNonterminalHotSpots().size());
+			assertEquals("S", profile.getNonterminalHotSpots().get(0).getName());
+		}
+	}
+
+	@Test
+	public void testMergedProfile() {
+		GrammarGraph grammarGraph = GrammarGraph.from(getGrammar(), config);
+
+		ParseProfile profile1 = Iguana.parse(getInput(10), grammarGraph, S).asParseSuccess().getStatistics().getProfile();
+		ParseProfile profile2 = Iguana.parse(getInput(20), grammarGraph, S).asParseSuccess().getStatistics().getProfile();
+
+		ParseProfile merged = new ParseProfile();
+		merged.merge(profile1);
+		merged.merge(profile2);
+
+		assertEquals(profile1.getNonterminalHotSpots().get(0).getDescriptors() + profile2.getNonterminalHotSpots().get(0).getDescriptors(),
+		             merged.getNonterminalHotSpots().get(0).getDescriptors());
+		assertTrue(merged.toJSON().contains("\"nonterminal\": \"S\""));
+	}
+
+	@Test
+	public void testNoProfileByDefault() {
+		ParseResult result = Iguana.parse(getInput(10), GrammarGraph.from(getGrammar(), Configuration.DEFAULT), S);
+		assertNull(result.asParseSuccess().getStatistics().getProfile());
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.gamma;
+
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.slot.TerminalGrammarSlot;
+import iguana.regex.Character;
+import org.iguana.parser.TokenLattice;
+import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * Parses with a token lattice should do the same work as parses without.
+ */
+public class Gamma2TokenLatticeTest {
+
+	private static Configuration config = Configuration.builder().setTokenLatticeEnabled(true).setStatisticsEnabled(true).build();
+
+	@Test
+	public void testSameParseAsWithoutLattice() {
+		Gamma2.compare(TestConfigurations.WITH_STATISTICS, config, 30, (withoutLattice, withLattice) -> {
+			assertTrue(withoutLattice.getSPPFNode().deepEquals(withLattice.getSPPFNode()));
+			assertEquals(withoutLattice.getStatistics(), withLattice.getStatistics());
+		});
+	}
+
+	@Test
+	public void testLattice() {
+		GrammarGraph grammarGraph = GrammarGraph.from(getGrammar(), config);
+		Input input = Input.fromString("bbab");
+		TokenLattice lattice = TokenLattice.build(grammarGraph.getTokenScanner(), input);
+		TerminalGrammarSlot b = grammarGraph.getGrammarSlots().stream()
+		                                    .filter(s -> s instanceof TerminalGrammarSlot)
+		                                    .map(s -> (TerminalGrammarSlot) s)
+		                                    .filter(s -> s.getTerminal().getRegex().equals(Character.from('b')))
+		                                    .findFirst().get();
+
+		assertTrue(lattice.covers(b, input));
+		assertEquals(0, lattice.size());
+		assertEquals(1, lattice.get(b, 1));
+		assertEquals(-1, lattice.get(b, 2));
+		assertEquals(1, lattice.size());
+		assertEquals(2, lattice.getScannedPositions());
+	}
+
+	@Test
+	public void testParseError() {
+		Gamma2.assertParseError(config);
+	}
+
+}
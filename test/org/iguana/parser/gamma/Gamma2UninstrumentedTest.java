@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gamma;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.iguana.parser.gamma.Gamma2.getInput;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.datadependent.env.GLLEvaluator;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseOptions;
+import org.iguana.parser.ParserRuntime;
+import org.iguana.parser.UninstrumentedParserRuntime;
+import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ * Parses without statistics should produce the same SPPF as parses with statistics, and a
+ * grammar graph with the default configuration should create uninstrumented runtimes.
+ */
+public class Gamma2UninstrumentedTest {
+
+	private static Configuration config = Configuration.builder().setStatisticsEnabled(false).build();
+
+	@Test
+	public void testSameSPPFAsInstrumented() {
+		Gamma2.compare(TestConfigurations.WITH_STATISTICS, config, 30, (instrumented, uninstrumented) -> {
+			assertTrue(instrumented.getSPPFNode().deepEquals(uninstrumented.getSPPFNode()));
+			assertEquals(0, uninstrumented.getStatistics().getDescriptorsCount());
+			assertEquals(0, uninstrumented.getStatistics().getGssNodesCount());
+		});
+	}
+
+	@Test
+	public void testDefaultIsUninstrumented() {
+		Input input = getInput(10);
+		GrammarGraph grammarGraph = GrammarGraph.from(getGrammar(), Configuration.DEFAULT);
+		ParserRuntime runtime = grammarGraph.getRuntimeFactory().create(grammarGraph, input, Configuration.DEFAULT,
+		                                                                () -> GLLEvaluator.getEvaluatorContext(Configuration.DEFAULT, input));
+		assertTrue(runtime instanceof UninstrumentedParserRuntime);
+		assertSame(grammarGraph.getRuntimeFactory(), grammarGraph.getRuntimeFactory());
+	}
+
+	@Test
+	public void testParseError() {
+		Gamma2.assertParseError(config);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDescriptorLimitRejected() {
+		ParseOptions options = ParseOptions.builder().setMaxDescriptors(5000).build();
+		Iguana.parse(getInput(10), GrammarGraph.from(getGrammar(), config), S, options);
+	}
+
+}
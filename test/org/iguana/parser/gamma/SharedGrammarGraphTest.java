@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.gamma;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.iguana.parser.gamma.Gamma2.getInput;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.TestConfigurations;
+import org.junit.Test;
+
+/**
+ * 
+ * Runs several parses, sequentially and concurrently, on one grammar graph.
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ */
+public class SharedGrammarGraphTest {
+
+	@Test
+	public void testSequentialParses() {
+		GrammarGraph graph = GrammarGraph.from(getGrammar(), TestConfigurations.WITH_STATISTICS);
+
+		ParseResult result1 = Iguana.parse(getInput(20), graph, S);
+		ParseResult result2 = Iguana.parse(getInput(5), graph, S);
+		ParseResult result3 = Iguana.parse(getInput(20), graph, S);
+
+		assertTrue(result1.isParseSuccess());
+		assertTrue(result2.isParseSuccess());
+		assertEquals(result1.asParseSuccess().getStatistics(), result3.asParseSuccess().getStatistics());
+		assertEquals(Iguana.parse(getInput(5), getGrammar(), TestConfigurations.WITH_STATISTICS, S).asParseSuccess().getStatistics(), result2.asParseSuccess().getStatistics());
+	}
+
+	@Test
+	public void testConcurrentParses() throws Exception {
+		GrammarGraph graph = GrammarGraph.from(getGrammar(), TestConfigurations.WITH_STATISTICS);
+
+		ParseResult expected = Iguana.parse(getInput(30), graph, S);
+		assertTrue(expected.isParseSuccess());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<ParseResult>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+				futures.add(executor.submit(() -> Iguana.parse(getInput(30), graph, S)));
+
+			for (Future<ParseResult> future : futures) {
+				ParseResult result = future.get();
+				assertTrue(result.isParseSuccess());
+				assertEquals(expected.asParseSuccess().getStatistics(), result.asParseSuccess().getStatistics());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
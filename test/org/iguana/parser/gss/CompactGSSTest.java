@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.gss;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseSuccess;
+import org.iguana.parser.gamma.Gamma2;
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.GSSImpl;
+import org.iguana.util.ParseStatistics;
+import org.junit.Test;
+
+import iguana.regex.Character;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * The compact GSS should produce the same SPPF as the GSS with edge objects.
+ *
+ */
+public class CompactGSSTest {
+
+	private static Nonterminal A = Nonterminal.withName("A");
+
+	private static Nonterminal B = Nonterminal.withName("B");
+
+	/**
+	 *  A ::= B A + A | a
+	 *  B ::= b | epsilon
+	 */
+	private static Grammar getHiddenLeftRecursion() {
+		Rule r1 = Rule.withHead(A).addSymbols(B, A, Terminal.from(Character.from('+')), A).build();
+		Rule r2 = Rule.withHead(A).addSymbols(Terminal.from(Character.from('a'))).build();
+		Rule r3 = Rule.withHead(B).addSymbols(Terminal.from(Character.from('b'))).build();
+		Rule r4 = Rule.withHead(B).build();
+		return Grammar.builder().addRules(r1, r2, r3, r4).build();
+	}
+
+	private static Configuration getConfiguration(GSSImpl impl) {
+		return Configuration.builder().setGSSImpl(impl).setStatisticsEnabled(true).build();
+	}
+
+	private static void assertSameSPPF(ParseResult expected, ParseResult actual) {
+		assertTrue(expected.isParseSuccess());
+		assertTrue(actual.isParseSuccess());
+		assertSameSPPF(expected.asParseSuccess(), actual.asParseSuccess());
+	}
+
+	private static void assertSameSPPF(ParseSuccess success1, ParseSuccess success2) {
+		assertTrue(success1.getSPPFNode().deepEquals(success2.getSPPFNode()));
+
+		ParseStatistics statistics1 = success1.getStatistics();
+		ParseStatistics statistics2 = success2.getStatistics();
+		assertEquals(statistics1.getGssNodesCount(), statistics2.getGssNodesCount());
+		assertEquals(statistics1.getNonterminalNodesCount(), statistics2.getNonterminalNodesCount());
+		assertEquals(statistics1.getIntermediateNodesCount(), statistics2.getIntermediateNodesCount());
+		assertEquals(statistics1.getTerminalNodesCount(), statistics2.getTerminalNodesCount());
+		assertEquals(statistics1.getPackedNodesCount(), statistics2.getPackedNodesCount());
+		assertEquals(statistics1.getCountAmbiguousNodes(), statistics2.getCountAmbiguousNodes());
+		assertTrue(statistics2.getGssEdgesCount() <= statistics1.getGssEdgesCount());
+	}
+
+	@Test
+	public void testGamma2() {
+		Gamma2.compare(getConfiguration(GSSImpl.OBJECT), getConfiguration(GSSImpl.COMPACT), 30, CompactGSSTest::assertSameSPPF);
+	}
+
+	@Test
+	public void testHiddenLeftRecursion() {
+		GrammarGraph object = GrammarGraph.from(getHiddenLeftRecursion(), getConfiguration(GSSImpl.OBJECT));
+		GrammarGraph compact = GrammarGraph.from(getHiddenLeftRecursion(), getConfiguration(GSSImpl.COMPACT));
+
+		Input input = Input.fromString("ba+a+a+ba+a");
+		assertSameSPPF(Iguana.parse(input, object, A), Iguana.parse(input, compact, A));
+	}
+
+	@Test
+	public void testParseError() {
+		Gamma2.assertParseError(getConfiguration(GSSImpl.COMPACT));
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.iggy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.transformation.DesugarPrecedenceAndAssociativity;
+import org.iguana.grammar.transformation.EBNFToBNF;
+import org.iguana.grammar.transformation.LayoutWeaver;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
+import org.iguana.util.ParseStatistics;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import iguana.utils.input.Input;
+
+public class GrammarGraphPersistenceTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static Grammar getGrammar() {
+		Grammar grammar = Grammar.load(new File("test/org/iguana/parser/iggy/IGGY"));
+		DesugarPrecedenceAndAssociativity precedenceAndAssociativity = new DesugarPrecedenceAndAssociativity();
+		precedenceAndAssociativity.setOP2();
+		grammar = new EBNFToBNF().transform(grammar);
+		grammar = precedenceAndAssociativity.transform(grammar);
+		return new LayoutWeaver().transform(grammar);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/examples/Example1.iggy"));
+		Nonterminal start = Nonterminal.withName("Definition");
+
+		GrammarGraph graph = GrammarGraph.from(getGrammar(), TestConfigurations.WITH_STATISTICS);
+		File file = folder.newFile();
+		graph.save(file);
+		GrammarGraph loaded = GrammarGraph.load(file, TestConfigurations.WITH_STATISTICS);
+
+		assertEquals(graph.getGrammarSlots().size(), loaded.getGrammarSlots().size());
+
+		ParseResult result1 = Iguana.parse(input, graph, start);
+		ParseResult result2 = Iguana.parse(input, loaded, start);
+		assertTrue(result2.isParseSuccess());
+		assertTrue(result1.asParseSuccess().getSPPFNode().deepEquals(result2.asParseSuccess().getSPPFNode()));
+
+		ParseStatistics statistics1 = result1.asParseSuccess().getStatistics();
+		ParseStatistics statistics2 = result2.asParseSuccess().getStatistics();
+		assertEquals(statistics1.getDescriptorsCount(), statistics2.getDescriptorsCount());
+		assertEquals(statistics1.getGssNodesCount(), statistics2.getGssNodesCount());
+		assertEquals(statistics1.getPackedNodesCount(), statistics2.getPackedNodesCount());
+	}
+
+	@Test
+	public void testSavedWithoutLookahead() throws IOException {
+		Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/examples/Example1.iggy"));
+		Nonterminal start = Nonterminal.withName("Definition");
+
+		GrammarGraph graph = GrammarGraph.from(getGrammar(), Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(0).build());
+		File file = folder.newFile();
+		graph.save(file);
+
+		ParseResult expected = Iguana.parse(input, GrammarGraph.from(getGrammar(), TestConfigurations.WITH_STATISTICS), start);
+		ParseResult result = Iguana.parse(input, GrammarGraph.load(file, TestConfigurations.WITH_STATISTICS), start);
+		assertTrue(result.isParseSuccess());
+		assertTrue(expected.asParseSuccess().getSPPFNode().deepEquals(result.asParseSuccess().getSPPFNode()));
+	}
+
+	@Test
+	public void testSecondCharacterLookahead() throws IOException {
+		Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/examples/Example1.iggy"));
+		Nonterminal start = Nonterminal.withName("Definition");
+		Configuration config = Configuration.builder().setStatisticsEnabled(true).setLookaheadCount(2).build();
+
+		GrammarGraph graph = GrammarGraph.from(getGrammar(), config);
+		File file = folder.newFile();
+		graph.save(file);
+
+		ParseResult expected = Iguana.parse(input, graph, start);
+		ParseResult result = Iguana.parse(input, GrammarGraph.load(file, config), start);
+		assertTrue(result.isParseSuccess());
+		assertTrue(expected.asParseSuccess().getSPPFNode().deepEquals(result.asParseSuccess().getSPPFNode()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testModifiedContent() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		GrammarGraph.from(getGrammar(), Configuration.DEFAULT).save(out);
+		byte[] bytes = out.toByteArray();
+		bytes[bytes.length - 1] ^= 1;
+		GrammarGraph.load(new ByteArrayInputStream(bytes), Configuration.DEFAULT);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotAGrammarGraph() {
+		GrammarGraph.load(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }), Configuration.DEFAULT);
+	}
+
+}
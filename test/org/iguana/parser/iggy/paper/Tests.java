@@ -18,7 +18,7 @@ import org.iguana.grammar.transformation.EBNFToBNF;
 import org.iguana.grammar.transformation.LayoutWeaver;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
-import org.iguana.util.Configuration;
+import org.iguana.util.TestConfigurations;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,7 +49,7 @@ public class Tests {
     public void simple() {
         Grammar grammar = simpleGrammar();
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/inputs/Simple.txt"));
-        GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, Nonterminal.withName("A"));
 
         if (result.isParseError())
@@ -64,7 +64,7 @@ public class Tests {
 
     public Grammar simpleGrammar() {
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/grammars/Simple.iggy"));
-        GrammarGraph graph = GrammarGraph.from(IGGY, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(IGGY, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -81,7 +81,7 @@ public class Tests {
         Grammar grammar = transform(xmlGrammar());
         Start start = grammar.getStartSymbol(Nonterminal.withName("Start"));
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/inputs/XML.txt"));
-        GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -100,7 +100,7 @@ public class Tests {
 
     public Grammar xmlGrammar() {
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/grammars/XML.iggy"));
-        GrammarGraph graph = GrammarGraph.from(IGGY, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(IGGY, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -117,7 +117,7 @@ public class Tests {
         Grammar grammar = transform(ocamlGrammar());
         Start start = grammar.getStartSymbol(Nonterminal.withName("start"));
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/inputs/OCaml.txt"));
-        GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -132,7 +132,7 @@ public class Tests {
 
     public Grammar ocamlGrammar() {
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/grammars/OCaml.iggy"));
-        GrammarGraph graph = GrammarGraph.from(IGGY, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(IGGY, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -149,7 +149,7 @@ public class Tests {
         Grammar grammar = transform(haskellGrammar());
         Start start = grammar.getStartSymbol(Nonterminal.withName("Start"));
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/inputs/Haskell.txt"));
-        GrammarGraph graph = GrammarGraph.from(grammar, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -168,7 +168,7 @@ public class Tests {
 
     public Grammar haskellGrammar() {
         Input input = Input.fromFile(new File("test/org/iguana/parser/iggy/paper/grammars/Haskell.iggy"));
-        GrammarGraph graph = GrammarGraph.from(IGGY, input, Configuration.DEFAULT);
+        GrammarGraph graph = GrammarGraph.from(IGGY, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, start);
 
         if (result.isParseError())
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.incremental;
+
+import static org.iguana.datadependent.ast.AST.greaterEq;
+import static org.iguana.datadependent.ast.AST.integer;
+import static org.iguana.datadependent.ast.AST.var;
+import static org.iguana.grammar.condition.DataDependentCondition.predicate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseSuccess;
+import org.iguana.parser.gamma.Gamma2;
+import org.iguana.util.TestConfigurations;
+import org.junit.Test;
+
+import iguana.regex.Character;
+import iguana.regex.Sequence;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * A reparse after an edit should produce the same SPPF as parsing the edited input from scratch.
+ *
+ */
+public class IncrementalParserTest {
+
+	private static Nonterminal E = Nonterminal.withName("E");
+
+	private static Nonterminal S = Nonterminal.withName("S");
+
+	/**
+	 *  E ::= E + E | a
+	 */
+	private static Grammar getExpressionGrammar() {
+		Rule rule1 = Rule.withHead(E).addSymbols(E, Terminal.from(Character.from('+')), E).build();
+		Rule rule2 = Rule.withHead(E).addSymbols(Terminal.from(Character.from('a'))).build();
+		return Grammar.builder().addRules(rule1, rule2).build();
+	}
+
+	private static Nonterminal P = Nonterminal.builder("P").addParameters("l", "r").build();
+
+	/**
+	 *  P(l,r) ::= [3 >= l, 3 >= r] P(3,0) '+' P(l,4)
+	 *           | [2 >= l] '-' P(0,0)
+	 *           | 'a'
+	 */
+	private static Grammar getDataDependentGrammar() {
+		Rule rule1 = Rule.withHead(P)
+				.addSymbol(Nonterminal.builder(P).apply(integer(3), integer(0))
+						.addPreCondition(predicate(greaterEq(integer(3), var("l"))))
+						.addPreCondition(predicate(greaterEq(integer(3), var("r")))).build())
+				.addSymbol(Terminal.from(Character.from('+')))
+				.addSymbol(Nonterminal.builder(P).apply(var("l"), integer(4)).build()).build();
+		Rule rule2 = Rule.withHead(P)
+				.addSymbol(Terminal.builder(Character.from('-'))
+						.addPreCondition(predicate(greaterEq(integer(2), var("l")))).build())
+				.addSymbol(Nonterminal.builder(P).apply(integer(0), integer(0)).build()).build();
+		Rule rule3 = Rule.withHead(P).addSymbol(Terminal.from(Character.from('a'))).build();
+		return Grammar.builder().addRules(rule1, rule2, rule3).build();
+	}
+
+	/**
+	 *  S ::= S X | X
+	 *  X ::= a | aaaaaaaaaaaaaaaaaaaab
+	 */
+	private static Grammar getLongLookaheadGrammar() {
+		Nonterminal X = Nonterminal.withName("X");
+		Rule rule1 = Rule.withHead(S).addSymbols(S, X).build();
+		Rule rule2 = Rule.withHead(S).addSymbols(X).build();
+		Rule rule3 = Rule.withHead(X).addSymbols(Terminal.from(Character.from('a'))).build();
+		Rule rule4 = Rule.withHead(X).addSymbols(Terminal.from(Sequence.from(repeat("a", 20) + "b"))).build();
+		return Grammar.builder().addRules(rule1, rule2, rule3, rule4).build();
+	}
+
+	private static String repeat(String s, int size) {
+		return Stream.generate(() -> s).limit(size).collect(Collectors.joining());
+	}
+
+	private static void assertSameSPPF(ParseResult expected, ParseResult actual) {
+		assertTrue(expected.isParseSuccess());
+		assertTrue(actual.isParseSuccess());
+
+		ParseSuccess success1 = expected.asParseSuccess();
+		ParseSuccess success2 = actual.asParseSuccess();
+		assertTrue(success1.getSPPFNode().deepEquals(success2.getSPPFNode()));
+	}
+
+	private static ParseResult reparseAndCompare(IncrementalParser parser, GrammarGraph graph, Nonterminal start, TextEdit edit, ParseResult previous) {
+		ParseResult result = parser.reparse(previous, edit);
+		ParseResult expected = Iguana.parse(edit.apply(previous.getInput()), graph, start);
+		assertEquals(expected.isParseSuccess(), result.isParseSuccess());
+		if (expected.isParseSuccess())
+			assertSameSPPF(expected, result);
+		else
+			assertEquals(expected.asParseError().inputIndex(), result.asParseError().inputIndex());
+		return result;
+	}
+
+	@Test
+	public void testEditsAtTheEnd() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 30)));
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(61, "+a"), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.delete(59, 2), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.replace(58, 1, "a+a"), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(60, "a+a"), result);
+	}
+
+	@Test
+	public void testEditsInTheMiddle() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 20)));
+		result = reparseAndCompare(parser, graph, E, TextEdit.delete(20, 2), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(10, "+a+a"), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(30, "+a"), result);
+	}
+
+	@Test
+	public void testEditsAtTheStart() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 10)));
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(0, "a+"), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.delete(0, 2), result);
+	}
+
+	@Test
+	public void testEditsNearTheStartReuseTheRest() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar(), TestConfigurations.WITH_STATISTICS);
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 50)));
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(2, "a+"), result);
+		ParseResult full = Iguana.parse(result.getInput(), graph, E);
+		assertTrue(result.asParseSuccess().getStatistics().getDescriptorsCount() < full.asParseSuccess().getStatistics().getDescriptorsCount());
+
+		result = reparseAndCompare(parser, graph, E, TextEdit.delete(4, 2), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.replace(60, 1, "a+a"), result);
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(2, "a+a+"), result);
+	}
+
+	@Test
+	public void testLongLookahead() {
+		GrammarGraph graph = GrammarGraph.from(getLongLookaheadGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, S);
+
+		ParseResult result = parser.parse(Input.fromString(repeat("a", 40)));
+		result = reparseAndCompare(parser, graph, S, TextEdit.replace(39, 1, "b"), result);
+		result = reparseAndCompare(parser, graph, S, TextEdit.replace(39, 1, "a"), result);
+	}
+
+	@Test
+	public void testParseErrorInTheReusedText() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 20) + "+"));
+		result = reparseAndCompare(parser, graph, E, TextEdit.insert(2, "a+"), result);
+		assertTrue(result.isParseError());
+		result = reparseAndCompare(parser, graph, E, TextEdit.delete(43, 1), result);
+		assertTrue(result.isParseSuccess());
+	}
+
+	@Test
+	public void testParseErrorAndRecovery() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 20)));
+		result = reparseAndCompare(parser, graph, E, TextEdit.replace(30, 1, "b"), result);
+		assertTrue(result.isParseError());
+		result = reparseAndCompare(parser, graph, E, TextEdit.replace(30, 1, "a"), result);
+		assertTrue(result.isParseSuccess());
+	}
+
+	@Test
+	public void testGamma2() {
+		GrammarGraph graph = GrammarGraph.from(Gamma2.getGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, Gamma2.S);
+
+		ParseResult result = parser.parse(Gamma2.getInput(30));
+		result = reparseAndCompare(parser, graph, Gamma2.S, TextEdit.insert(30, "bb"), result);
+		result = reparseAndCompare(parser, graph, Gamma2.S, TextEdit.delete(20, 5), result);
+	}
+
+	@Test
+	public void testArgumentsOfTheStartSymbol() {
+		GrammarGraph graph = GrammarGraph.from(getDataDependentGrammar());
+		Map<String, Object> arguments = new HashMap<>();
+		arguments.put("l", 0);
+		arguments.put("r", 0);
+		IncrementalParser parser = new IncrementalParser(graph, P, arguments, false);
+
+		ParseResult result = parser.parse(Input.fromString("a" + repeat("+a", 10)));
+		assertSameSPPF(Iguana.parse(result.getInput(), graph, graph.getConfiguration(), P, arguments, false), result);
+
+		for (TextEdit edit : new TextEdit[] { TextEdit.insert(10, "-a+"), TextEdit.replace(4, 1, "-a"), TextEdit.delete(2, 2) }) {
+			Input input = edit.apply(result.getInput());
+			result = parser.reparse(edit);
+			assertSameSPPF(Iguana.parse(input, graph, graph.getConfiguration(), P, arguments, false), result);
+		}
+	}
+
+	@Test
+	public void testEditKeepsTheURI() {
+		Input input = Input.fromString("abcdef", URI.create("file:///abcdef.txt"));
+		assertEquals(input.getURI(), TextEdit.insert(2, "XY").apply(input).getURI());
+	}
+
+	@Test
+	public void testPreviousResultIsNotModified() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		Input input = Input.fromString("a" + repeat("+a", 20));
+		ParseResult first = parser.parse(input);
+		parser.reparse(TextEdit.delete(30, 2));
+		assertSameSPPF(Iguana.parse(input, graph, E), first);
+	}
+
+	@Test
+	public void testReparseOfAnOlderResult() {
+		GrammarGraph graph = GrammarGraph.from(getExpressionGrammar());
+		IncrementalParser parser = new IncrementalParser(graph, E);
+
+		ParseResult first = parser.parse(Input.fromString("a" + repeat("+a", 20)));
+		parser.reparse(TextEdit.delete(30, 2));
+		reparseAndCompare(parser, graph, E, TextEdit.insert(41, "+a"), first);
+	}
+
+	@Test
+	public void testApplyEdit() {
+		Input input = Input.fromString("abcdef");
+		assertEquals("abXYef", subString(TextEdit.replace(2, 2, "XY").apply(input)));
+		assertEquals("abcdefgh", subString(TextEdit.insert(6, "gh").apply(input)));
+		assertEquals("ef", subString(TextEdit.delete(0, 4).apply(input)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEditOutsideOfInput() {
+		TextEdit.delete(4, 3).apply(Input.fromString("abcdef"));
+	}
+
+	private static String subString(Input input) {
+		return input.subString(0, input.length() - 1);
+	}
+
+}
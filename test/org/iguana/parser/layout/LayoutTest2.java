@@ -44,6 +44,7 @@ import org.iguana.grammar.symbol.Rule;
 import org.iguana.parser.Iguana;
 import org.iguana.parser.ParseResult;
 import org.iguana.util.ParseStatistics;
+import org.iguana.util.TestConfigurations;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -98,7 +99,7 @@ public class LayoutTest2 {
 	@Test
 	public void test() {
 		Input input = Input.fromString("a c");
-        GrammarGraph graph = GrammarGraph.from(grammar, input);
+        GrammarGraph graph = GrammarGraph.from(grammar, input, TestConfigurations.WITH_STATISTICS);
         ParseResult result = Iguana.parse(input, graph, Nonterminal.withName("S"));
 		assertTrue(result.isParseSuccess());
         assertEquals(getParseResult(graph, input), result);
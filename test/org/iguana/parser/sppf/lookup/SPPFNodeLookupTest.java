@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.parser.sppf.lookup;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParserRuntimeImpl;
+import org.iguana.parser.gamma.Gamma2;
+import org.iguana.util.Configuration;
+import org.iguana.util.Configuration.HashMapImpl;
+import org.junit.Test;
+
+import iguana.regex.Character;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * The primitive-keyed SPPF node tables should produce the same parse results as the Java hash maps,
+ * both with the array tables used for small inputs and the open addressing tables used for larger ones.
+ *
+ */
+public class SPPFNodeLookupTest {
+
+	private static Nonterminal A = Nonterminal.withName("A");
+
+	private static Input getInput(String s, int size) {
+		return Input.fromString(Stream.generate(() -> s).limit(size).collect(Collectors.joining()));
+	}
+
+	/**
+	 *  A ::= A a | a
+	 */
+	private static Grammar getLeftRecursiveList() {
+		Terminal a = Terminal.from(Character.from('a'));
+		Rule rule1 = Rule.withHead(A).addSymbols(A, a).build();
+		Rule rule2 = Rule.withHead(A).addSymbols(a).build();
+		return Grammar.builder().addRules(rule1, rule2).build();
+	}
+
+	private static Configuration getConfiguration(HashMapImpl impl) {
+		return Configuration.builder().setHashmapImpl(impl).setStatisticsEnabled(true).build();
+	}
+
+	@Test
+	public void testArrayLookups() {
+		GrammarGraph java = GrammarGraph.from(Gamma2.getGrammar(), getConfiguration(HashMapImpl.JAVA));
+		GrammarGraph primitive = GrammarGraph.from(Gamma2.getGrammar(), getConfiguration(HashMapImpl.INT_OPEN_ADDRESSING));
+
+		for (int size = 1; size <= 30; size++) {
+			Input input = getInput("b", size);
+			ParseResult result1 = Iguana.parse(input, java, S);
+			ParseResult result2 = Iguana.parse(input, primitive, S);
+			assertTrue(result2.isParseSuccess());
+			assertEquals(result1, result2);
+		}
+	}
+
+	@Test
+	public void testOpenAddressingLookups() {
+		GrammarGraph java = GrammarGraph.from(getLeftRecursiveList(), getConfiguration(HashMapImpl.JAVA));
+		GrammarGraph primitive = GrammarGraph.from(getLeftRecursiveList(), getConfiguration(HashMapImpl.INT_OPEN_ADDRESSING));
+
+		Input input = getInput("a", ParserRuntimeImpl.DENSE_LOOKUP_MAX_INPUT_LENGTH * 2);
+		ParseResult result1 = Iguana.parse(input, java, A);
+		ParseResult result2 = Iguana.parse(input, primitive, A);
+		assertTrue(result2.isParseSuccess());
+		assertEquals(result1.asParseSuccess().getStatistics(), result2.asParseSuccess().getStatistics());
+	}
+
+	@Test
+	public void testParseError() {
+		GrammarGraph primitive = GrammarGraph.from(getLeftRecursiveList(), getConfiguration(HashMapImpl.INT_OPEN_ADDRESSING));
+		ParseResult result = Iguana.parse(Input.fromString("aaaab"), primitive, A);
+		assertTrue(result.isParseError());
+		assertEquals(4, result.asParseError().inputIndex());
+	}
+
+}
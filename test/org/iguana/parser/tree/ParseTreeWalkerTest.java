@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+package org.iguana.parser.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Rule;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.ParseSuccess;
+import org.junit.Test;
+
+import iguana.regex.Character;
+import iguana.utils.input.Input;
+
+/**
+ * 
+ * A ::= B C
+ * B ::= 'b'
+ * C ::= 'c' 'd'
+ *
+ */
+public class ParseTreeWalkerTest {
+
+	private static Nonterminal A = Nonterminal.withName("A");
+	private static Nonterminal B = Nonterminal.withName("B");
+	private static Nonterminal C = Nonterminal.withName("C");
+	private static Terminal b = Terminal.from(Character.from('b'));
+	private static Terminal c = Terminal.from(Character.from('c'));
+	private static Terminal d = Terminal.from(Character.from('d'));
+
+	private static Grammar grammar = Grammar.builder().addRule(Rule.withHead(A).addSymbols(B, C).build())
+	                                                  .addRule(Rule.withHead(B).addSymbol(b).build())
+	                                                  .addRule(Rule.withHead(C).addSymbols(c, d).build()).build();
+
+	private static Input input = Input.fromString("bcd");
+
+	private static ParseSuccess parse() {
+		ParseResult result = Iguana.parse(input, GrammarGraph.from(grammar, input), A);
+		assertTrue(result.isParseSuccess());
+		return result.asParseSuccess();
+	}
+
+	@Test
+	public void testDocumentOrder() {
+		List<String> events = new ArrayList<>();
+		parse().walk(new ParseTreeVisitor() {
+			@Override
+			public boolean startNonterminal(Rule rule, int leftExtent, int rightExtent) {
+				events.add("start " + rule.getHead().getName() + " " + leftExtent + " " + rightExtent);
+				return true;
+			}
+
+			@Override
+			public void endNonterminal(Rule rule, int leftExtent, int rightExtent) {
+				events.add("end " + rule.getHead().getName());
+			}
+
+			@Override
+			public void terminal(Terminal terminal, int leftExtent, int rightExtent) {
+				events.add(input.subString(leftExtent, rightExtent));
+			}
+		});
+
+		assertEquals(Arrays.asList("start A 0 3", "start B 0 1", "b", "end B", "start C 1 3", "c", "d", "end C", "end A"), events);
+	}
+
+	@Test
+	public void testSkipChildren() {
+		List<String> terminals = new ArrayList<>();
+		parse().walk(new ParseTreeVisitor() {
+			@Override
+			public boolean startNonterminal(Rule rule, int leftExtent, int rightExtent) {
+				return !rule.getHead().equals(C);
+			}
+
+			@Override
+			public void terminal(Terminal terminal, int leftExtent, int rightExtent) {
+				terminals.add(input.subString(leftExtent, rightExtent));
+			}
+		});
+
+		assertEquals(Arrays.asList("b"), terminals);
+	}
+
+	@Test
+	public void testLazyTerm() {
+		ParseSuccess success = parse();
+		LazyTerm root = success.getLazyTerm();
+
+		assertEquals(A, root.getRule().getHead());
+		assertEquals(2, root.getChildren().size());
+
+		LazyTerm termC = root.getChildren().get(1);
+		assertEquals(C, termC.getRule().getHead());
+		assertEquals(2, termC.getChildren().size());
+		assertEquals("c", termC.getChildren().get(0).getText());
+		assertEquals(d, termC.getChildren().get(1).getTerminal());
+
+		assertTrue(success.getTerm().equals(root.toTerm()));
+	}
+
+	private static ParseSuccess parseAmbiguous() {
+		Nonterminal S = Nonterminal.withName("S");
+		Grammar ambiguous = Grammar.builder().addRule(Rule.withHead(S).addSymbols(S, S).build())
+		                                     .addRule(Rule.withHead(S).addSymbol(b).build()).build();
+		Input bbb = Input.fromString("bbb");
+		ParseResult result = Iguana.parse(bbb, GrammarGraph.from(ambiguous, bbb), S);
+		return result.asParseSuccess();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAmbiguity() {
+		parseAmbiguous().walk(new ParseTreeVisitor() {});
+	}
+
+	@Test
+	public void testIsAmbiguous() {
+		assertFalse(parse().isAmbiguous());
+		assertTrue(parseAmbiguous().isAmbiguous());
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.util;
+
+import static org.iguana.parser.gamma.Gamma2.S;
+import static org.iguana.parser.gamma.Gamma2.getGrammar;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.parser.AbortReason;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.iguana.parser.gamma.Gamma2;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import iguana.utils.input.Input;
+
+/**
+ * 
+ *  S ::= S S S 
+ *      | S S 
+ *      | b
+ *
+ */
+public class IguanaRunnerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static String getInput(int size) {
+		return Stream.generate(() -> "b").limit(size).collect(Collectors.joining());
+	}
+
+	@Test
+	public void testConcurrentRun() throws InterruptedException {
+		List<String> inputs = IntStream.rangeClosed(1, 30).mapToObj(IguanaRunnerTest::getInput).collect(Collectors.toList());
+		inputs.add("bba");
+
+		List<RunResult> sequential = IguanaRunner.builder(getGrammar(), S).addStrings(inputs).build().run();
+
+		List<RunResult> concurrent = new ArrayList<>();
+		IguanaRunner.builder(getGrammar(), S).addStrings(inputs).setThreads(4).build().run(concurrent::add);
+
+		assertEquals(inputs.size(), sequential.size());
+		assertEquals(inputs.size(), concurrent.size());
+		assertEquals(sequential.stream().filter(RunResult::isSuccess).count(), concurrent.stream().filter(RunResult::isSuccess).count());
+		assertEquals(30, concurrent.stream().filter(RunResult::isSuccess).count());
+	}
+
+	@Test
+	public void testCancellation() {
+		GrammarGraph graph = GrammarGraph.from(getGrammar(), Configuration.DEFAULT);
+		Input input = Gamma2.getInput(60);
+
+		Thread.currentThread().interrupt();
+		ParseResult result = Iguana.parse(input, graph, S);
+		assertTrue(Thread.interrupted());
+		assertTrue(result.isParseAborted());
+		assertEquals(AbortReason.CANCELLED, result.asParseAborted().getReason());
+
+		assertTrue(Iguana.parse(input, graph, S).isParseSuccess());
+	}
+
+	@Test
+	public void testMemoryMappedFiles() throws IOException, InterruptedException {
+		for (int size = 1; size <= 5; size++) {
+			File file = folder.newFile();
+			Files.write(file.toPath(), getInput(size * 5).getBytes(StandardCharsets.UTF_8));
+		}
+
+		List<RunResult> results = IguanaRunner.builder(getGrammar(), S).setMemoryMapped(true).addDirectory(folder.getRoot().getPath(), "tmp", false)
+		                                      .setRunCount(2).setThreads(2).build().run();
+		assertEquals(10, results.size());
+		assertTrue(results.stream().allMatch(RunResult::isSuccess));
+	}
+
+	@Test(expected = InterruptedException.class)
+	public void testInterruptedRun() throws InterruptedException {
+		Thread.currentThread().interrupt();
+		IguanaRunner.builder(getGrammar(), S).addString(getInput(10)).build().run();
+	}
+
+	@Test
+	public void testInterruptedConcurrentRun() {
+		Thread.currentThread().interrupt();
+		try {
+			IguanaRunner.builder(getGrammar(), S).addString(getInput(10)).addString(getInput(20)).setThreads(2).build().run();
+			fail();
+		} catch (InterruptedException e) {
+			assertFalse(Thread.currentThread().isInterrupted());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoThreads() {
+		IguanaRunner.builder(getGrammar(), S).setThreads(0);
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.util.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.iguana.datadependent.env.GLLEvaluator;
+import org.iguana.datadependent.env.IEvaluatorContext;
+import org.iguana.util.Configuration;
+import org.junit.Test;
+
+import iguana.utils.input.Input;
+
+public class LineColumnIndexTest {
+
+	@Test
+	public void testSameAsInput() {
+		Input input = Input.fromString("ab\ncd\n\nefg");
+		LineColumnIndex index = new LineColumnIndex(input);
+		for (int i = 0; i < input.length(); i++) {
+			assertEquals(input.getLineNumber(i), index.getLineNumber(i));
+			assertEquals(input.getColumnNumber(i), index.getColumnNumber(i));
+			assertEquals(input.isStartOfLine(i), index.isStartOfLine(i));
+		}
+	}
+
+	@Test
+	public void testTabs() {
+		LineColumnIndex index = new LineColumnIndex(Input.fromString("\tx\n a\tb\n\t\ty"), 8);
+		assertEquals(1, index.getColumnNumber(0));
+		assertEquals(9, index.getColumnNumber(1));
+		assertEquals(2, index.getColumnNumber(4));
+		assertEquals(9, index.getColumnNumber(6));
+		assertEquals(17, index.getColumnNumber(10));
+		assertEquals(3, index.getLineNumber(10));
+		assertTrue(index.isStartOfLine(3));
+		assertFalse(index.isStartOfLine(1));
+	}
+
+	@Test
+	public void testTabWidthOfContext() {
+		Input input = Input.fromString("\tx");
+		IEvaluatorContext ctx = GLLEvaluator.getEvaluatorContext(Configuration.builder().setTabWidth(8).build(), input);
+		assertEquals(8, ctx.getLineColumnIndex().getTabWidth());
+		assertEquals(9, ctx.getLineColumnIndex().getColumnNumber(1));
+		assertEquals(1, Configuration.load().getTabWidth());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTabWidth() {
+		new LineColumnIndex(Input.fromString("a"), 0);
+	}
+
+}
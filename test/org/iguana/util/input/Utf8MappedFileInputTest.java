@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2015, Ali Afroozeh and Anastasia Izmaylova, Centrum Wiskunde & Informatica (CWI)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without 
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this 
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this 
+ *    list of conditions and the following disclaimer in the documentation and/or 
+ *    other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND 
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED 
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. 
+ * IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, 
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT 
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, 
+ * OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, 
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) 
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY 
+ * OF SUCH DAMAGE.
+ *
+ */
+
+
+package org.iguana.util.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.iguana.grammar.Grammar;
+import org.iguana.grammar.GrammarGraph;
+import org.iguana.grammar.condition.ConditionType;
+import org.iguana.grammar.condition.PositionalCondition;
+import org.iguana.grammar.symbol.Nonterminal;
+import org.iguana.grammar.symbol.Terminal;
+import org.iguana.parser.Iguana;
+import org.iguana.parser.ParseResult;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import iguana.regex.Character;
+import iguana.regex.CharacterRange;
+import iguana.utils.input.Input;
+
+public class Utf8MappedFileInputTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Input createInput(String s) throws IOException {
+		return createInput(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Input createInput(byte[] bytes) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), bytes);
+		return new Utf8MappedFileInput(file);
+	}
+
+	@Test
+	public void testCodePoints() throws IOException {
+		// a, e acute, euro sign, G clef (a supplementary character), b
+		Input input = createInput("a\u00E9\u20AC\uD834\uDD1Eb");
+		assertEquals(6, input.length());
+		assertEquals('a', input.charAt(0));
+		assertEquals(0xE9, input.charAt(1));
+		assertEquals(0x20AC, input.charAt(2));
+		assertEquals(0x1D11E, input.charAt(3));
+		assertEquals('b', input.charAt(4));
+		assertEquals(Utf8MappedFileInput.EOF, input.charAt(5));
+		assertTrue(input.isEndOfFile(5));
+		assertEquals("\u20AC\uD834\uDD1E", input.subString(2, 4));
+	}
+
+	@Test
+	public void testRandomAccess() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++)
+			sb.append(i % 3 == 0 ? "\u00E9" : i % 3 == 1 ? "x" : "\uD834\uDD1E");
+		int[] codePoints = sb.codePoints().toArray();
+		Input input = createInput(sb.toString());
+
+		assertEquals(codePoints.length + 1, input.length());
+		for (int i = codePoints.length - 1; i >= 0; i -= 7)
+			assertEquals(codePoints[i], input.charAt(i));
+		for (int i = 0; i < codePoints.length; i++)
+			assertEquals(codePoints[i], input.charAt(i));
+	}
+
+	@Test
+	public void testLinesAndColumns() throws IOException {
+		Input input = createInput("\u00E9b\n\u20ACd\n\nefg");
+		assertEquals(1, input.getLineNumber(0));
+		assertEquals(1, input.getColumnNumber(0));
+		assertEquals(2, input.getLineNumber(3));
+		assertEquals(1, input.getColumnNumber(3));
+		assertEquals(2, input.getColumnNumber(4));
+		assertEquals(4, input.getLineNumber(9));
+		assertEquals(3, input.getColumnNumber(9));
+		assertTrue(input.isStartOfLine(3));
+		assertFalse(input.isStartOfLine(4));
+		assertTrue(input.isStartOfLine(6));
+		assertTrue(input.isEndOfLine(2));
+		assertTrue(input.isEndOfLine(10));
+	}
+
+	@Test
+	public void testLineNumbersAfterCheckpoints() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50000; i++)
+			sb.append("line ").append(i).append('\n');
+		String s = sb.toString();
+		Input input = createInput(s);
+
+		int position = s.indexOf("line 40000\n");
+		assertEquals(40001, input.getLineNumber(position));
+		assertEquals(6, input.getColumnNumber(position + 5));
+		assertEquals(2, input.getLineNumber(s.indexOf("line 1\n")));
+	}
+
+	@Test
+	public void testMalformed() throws IOException {
+		Input input = createInput(new byte[] { 'a', (byte) 0xC3, 'b', (byte) 0xE2, (byte) 0x82 });
+		assertEquals(6, input.length());
+		assertEquals(0xFFFD, input.charAt(1));
+		assertEquals('b', input.charAt(2));
+		assertEquals(0xFFFD, input.charAt(3));
+		assertEquals(0xFFFD, input.charAt(4));
+	}
+
+	@Test
+	public void testOverlongThreeByteSequence() throws IOException {
+		assertMalformed((byte) 0xE0, (byte) 0x9F, (byte) 0xBF);
+		assertEquals(0x800, createInput(new byte[] { (byte) 0xE0, (byte) 0xA0, (byte) 0x80 }).charAt(0));
+	}
+
+	@Test
+	public void testSurrogate() throws IOException {
+		assertMalformed((byte) 0xED, (byte) 0xA0, (byte) 0x80);
+		assertEquals(0xD7FF, createInput(new byte[] { (byte) 0xED, (byte) 0x9F, (byte) 0xBF }).charAt(0));
+	}
+
+	@Test
+	public void testOverlongFourByteSequence() throws IOException {
+		assertMalformed((byte) 0xF0, (byte) 0x8F, (byte) 0xBF, (byte) 0xBF);
+		assertEquals(0x10000, createInput(new byte[] { (byte) 0xF0, (byte) 0x90, (byte) 0x80, (byte) 0x80 }).charAt(0));
+	}
+
+	@Test
+	public void testAboveMaxCodePoint() throws IOException {
+		assertMalformed((byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80);
+		assertEquals(0x10FFFF, createInput(new byte[] { (byte) 0xF4, (byte) 0x8F, (byte) 0xBF, (byte) 0xBF }).charAt(0));
+	}
+
+	/**
+	 * Asserts that every byte of the sequence, which is followed by an 'a', is read as U+FFFD.
+	 */
+	private void assertMalformed(byte...sequence) throws IOException {
+		byte[] bytes = Arrays.copyOf(sequence, sequence.length + 1);
+		bytes[sequence.length] = 'a';
+		Input input = createInput(bytes);
+		assertEquals(bytes.length + 1, input.length());
+		for (int i = 0; i < sequence.length; i++)
+			assertEquals(0xFFFD, input.charAt(i));
+		assertEquals('a', input.charAt(sequence.length));
+		assertEquals(sequence.length, input.subString(0, sequence.length).length());
+	}
+
+	/**
+	 * A ::= ^c '\n' A | ^c '\n'
+	 * 
+	 * where c is a non-ASCII character range matched by a DFA matcher.
+	 */
+	@Test
+	public void testParse() throws IOException {
+		Nonterminal A = Nonterminal.withName("A");
+		Terminal c = Terminal.builder(CharacterRange.in(0xE0, 0x1FFFF)).addPreCondition(new PositionalCondition(ConditionType.START_OF_LINE)).build();
+		Terminal newLine = Terminal.from(Character.from('\n'));
+		org.iguana.grammar.symbol.Rule r1 = org.iguana.grammar.symbol.Rule.withHead(A).addSymbols(c, newLine, A).build();
+		org.iguana.grammar.symbol.Rule r2 = org.iguana.grammar.symbol.Rule.withHead(A).addSymbols(c, newLine).build();
+		Grammar grammar = Grammar.builder().addRules(r1, r2).build();
+
+		String s = "\u00E9\n\u20AC\n\uD834\uDD1E\n";
+		ParseResult expected = Iguana.parse(Input.fromString(s), GrammarGraph.from(grammar), A);
+		ParseResult result = Iguana.parse(createInput(s), GrammarGraph.from(grammar), A);
+		assertTrue(result.isParseSuccess());
+		assertTrue(expected.asParseSuccess().getSPPFNode().deepEquals(result.asParseSuccess().getSPPFNode()));
+
+		result = Iguana.parse(createInput("\u00E9\u20AC\n"), GrammarGraph.from(grammar), A);
+		assertTrue(result.isParseError());
+		assertEquals(1, result.asParseError().inputIndex());
+	}
+
+}